@@ -53,6 +53,14 @@ public class DateCommand extends ChatCommand {
 			responseText.appendLabeledString("Last Pulse execution (msec)", "" + clock.getExecutionTime());
 			responseText.appendLabeledString("Last sleep time (msec)", "" + clock.getSleepTime());
 			responseText.appendLabelledDigit("Pulse count", (int) clock.getTotalPulses());
+
+			responseText.appendBlankLine();
+			responseText.appendTableHeading("Clock Listener", 28, "Phase", 12, "Pulses", "Last msec", "Avg msec");
+			for (var timing : clock.getListenerTimings()) {
+				responseText.appendTableRow(timing.listener(), timing.phase().name(), timing.pulses(),
+						String.format("%.3f", timing.lastMillisec()),
+						String.format("%.3f", timing.averageMillisec()));
+			}
 		}
 
 		context.println(responseText.getOutput());
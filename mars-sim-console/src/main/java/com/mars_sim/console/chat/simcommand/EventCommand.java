@@ -11,8 +11,11 @@ import java.util.List;
 
 import com.mars_sim.console.chat.ChatCommand;
 import com.mars_sim.console.chat.Conversation;
+import com.mars_sim.core.events.EventJournal;
 import com.mars_sim.core.events.HistoricalEvent;
 import com.mars_sim.core.events.HistoricalEventManager;
+import com.mars_sim.core.events.JournalEntry;
+import com.mars_sim.core.events.JournalFilter;
 
 /**
  * Command to stop speaking with an entity.
@@ -25,12 +28,17 @@ public class EventCommand extends ChatCommand {
 	private static final int EVENT_SIZE = 7;
 
 	private EventCommand() {
-		super(TopLevel.SIMULATION_GROUP, "ev", "events", "Display recent events");
+		super(TopLevel.SIMULATION_GROUP, "ev", "events", "Display recent events; a page number shows older journal events");
 	}
 
 	@Override
 	public boolean execute(Conversation context, String input) {
 		HistoricalEventManager mgr = context.getSim().getEventManager();
+		EventJournal journal = mgr.getJournal();
+		if (journal != null) {
+			return showJournal(context, journal, input);
+		}
+
 		List<HistoricalEvent> events = mgr.getEvents();
 		
 		if (events.isEmpty()) {
@@ -61,4 +69,47 @@ public class EventCommand extends ChatCommand {
 		return true;
 	}
 
+	/**
+	 * Shows a page of the journal, newest first.
+	 */
+	private boolean showJournal(Conversation context, EventJournal journal, String input) {
+		int page = 1;
+		if ((input != null) && !input.isBlank()) {
+			try {
+				page = Integer.parseInt(input.trim());
+			}
+			catch (NumberFormatException nfe) {
+				page = 0;
+			}
+			if (page < 1) {
+				context.println("Invalid input. Must be a page number from 1");
+				return false;
+			}
+		}
+
+		int total = journal.size();
+		int pages = Math.max(1, (total + EVENT_SIZE - 1) / EVENT_SIZE);
+		List<JournalEntry> events = journal.query(JournalFilter.ALL, (page - 1) * EVENT_SIZE, EVENT_SIZE);
+		if (events.isEmpty()) {
+			context.println("None to display");
+			return true;
+		}
+
+		StructuredResponse response = new StructuredResponse();
+		for (JournalEntry e : events) {
+			response.appendHeading(e.getCategory().getName() + " @ " + e.timestamp().getDateTimeStamp());
+			response.appendLabeledString("Type", e.type().getName());
+			response.appendLabeledString("Source", e.source());
+			response.appendLabeledString("Cause", e.whatCause());
+			response.appendLabeledString("Affected", (e.affected() != null ? e.affected() : ""));
+			response.appendLabeledString("Coords", (e.coordinates() != null ?
+								e.coordinates().getFormattedString() : ""));
+			response.appendLabeledString("Settlement", (e.settlement() != null ? e.settlement() : ""));
+
+			response.appendBlankLine();
+		}
+		response.append("Page " + page + " of " + pages + " (" + total + " events)");
+		context.println(response.getOutput());
+		return true;
+	}
 }
@@ -33,7 +33,7 @@ public class BuildingCommand extends AbstractSettlementCommand {
 		StructuredResponse response = new StructuredResponse();
 		
 		var cm = settlement.getBuildingConnectorManager();
-		response.appendLabeledString("Path Cache", cm.getPathCacheStatus());
+		response.appendLabeledString("Route Table", cm.getRouteTableStatus());
 
 		var bm = settlement.getBuildingManager();
 		var i = new ArrayList<>(bm.getBuildingSet());
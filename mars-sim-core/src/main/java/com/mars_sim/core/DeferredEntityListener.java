@@ -0,0 +1,18 @@
+/*
+ * Mars Simulation Project
+ * DeferredEntityListener.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core;
+
+/**
+ * An entity listener that does not need to receive events on the thread that changed the entity.
+ * When deferred dispatch is enabled these listeners get their events once the current pulse has
+ * completed on a separate dispatch thread; repeated events in the same pulse are delivered once.
+ * This is intended for the user interface which only needs to know something has changed.
+ *
+ * @see EntityListenerManager#setDeferredDispatch(boolean)
+ */
+public interface DeferredEntityListener extends EntityListener {
+}
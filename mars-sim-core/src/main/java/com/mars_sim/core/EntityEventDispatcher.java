@@ -0,0 +1,141 @@
+/*
+ * Mars Simulation Project
+ * EntityEventDispatcher.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Collects the events for deferred listeners while a pulse runs and delivers them
+ * once it has completed. Each thread posts to its own lock free queue. At the end
+ * of a pulse the queues are drained, events with the same source, type and target
+ * are merged and the batch is handed to a single dispatch thread. When no pulse
+ * has flushed the queues for a while, e.g. the clock is paused, the dispatch thread
+ * flushes them itself so the listeners still see changes.
+ */
+final class EntityEventDispatcher {
+
+	/**
+	 * An event waiting to be delivered. The target is part of the identity so that,
+	 * for example, adding two different buildings is not merged into one event.
+	 */
+	private record Pending(EntityListenerManager owner, Entity source, String type, Object target) {}
+
+	/**
+	 * The queue of one posting thread.
+	 */
+	private record Buffer(Thread owner, ConcurrentLinkedQueue<Pending> queue) {}
+
+	/** How long without a flush before the dispatch thread flushes. */
+	private static final long IDLE_FLUSH_MS = 250;
+
+	private final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<ConcurrentLinkedQueue<Pending>> local = ThreadLocal.withInitial(this::register);
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setNameFormat("entityEvents-%d").setDaemon(true).build());
+
+	private final LongAdder posted = new LongAdder();
+	private final LongAdder delivered = new LongAdder();
+	private volatile long lastFlush = System.nanoTime();
+
+	EntityEventDispatcher() {
+		executor.scheduleWithFixedDelay(this::flushIdle, IDLE_FLUSH_MS, IDLE_FLUSH_MS, TimeUnit.MILLISECONDS);
+	}
+
+	private ConcurrentLinkedQueue<Pending> register() {
+		var q = new ConcurrentLinkedQueue<Pending>();
+		buffers.add(new Buffer(Thread.currentThread(), q));
+		return q;
+	}
+
+	/**
+	 * Queues an event for the deferred listeners of an entity.
+	 */
+	void post(EntityListenerManager owner, Entity source, String type, Object target) {
+		local.get().add(new Pending(owner, source, type, target));
+		posted.increment();
+	}
+
+	/**
+	 * Flushes the events if no pulse has done so recently.
+	 */
+	private void flushIdle() {
+		if ((System.nanoTime() - lastFlush) >= TimeUnit.MILLISECONDS.toNanos(IDLE_FLUSH_MS)) {
+			flush();
+		}
+	}
+
+	/**
+	 * Drains the events posted so far and dispatches them.
+	 */
+	synchronized void flush() {
+		lastFlush = System.nanoTime();
+		Set<Pending> batch = new LinkedHashSet<>();
+		List<Buffer> finished = null;
+		for (Buffer b : buffers) {
+			Pending p;
+			while ((p = b.queue().poll()) != null) {
+				batch.add(p);
+			}
+			if (!b.owner().isAlive() && b.queue().isEmpty()) {
+				if (finished == null) {
+					finished = new ArrayList<>();
+				}
+				finished.add(b);
+			}
+		}
+		if (finished != null) {
+			buffers.removeAll(finished);
+		}
+
+		if (!batch.isEmpty()) {
+			delivered.add(batch.size());
+			executor.execute(() -> {
+				for (Pending p : batch) {
+					p.owner().fireDeferred(new EntityEvent(p.source(), p.type(), p.target()));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Gets the number of events posted since the last reset.
+	 */
+	long getPosted() {
+		return posted.sum();
+	}
+
+	/**
+	 * Gets the number of events delivered after merging since the last reset.
+	 */
+	long getDelivered() {
+		return delivered.sum();
+	}
+
+	void resetCounts() {
+		posted.reset();
+		delivered.reset();
+	}
+
+	/**
+	 * Delivers anything outstanding and stops the dispatch thread.
+	 */
+	void shutdown() {
+		flush();
+		executor.shutdown();
+	}
+}
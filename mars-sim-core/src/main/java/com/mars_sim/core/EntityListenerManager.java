@@ -7,15 +7,21 @@
 package com.mars_sim.core;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
 
 import com.mars_sim.core.logging.SimLogger;
 
 /**
  * This class manages the entity listeners for an entity and provides a method to fire events to those listeners.
+ * Listeners that implement {@link DeferredEntityListener} can be sent their events after the pulse on a separate
+ * thread when deferred dispatch is enabled; all others are always called on the thread firing the event.
  * It also includes metrics for monitoring the number of events fired and listeners notified.
  */
 public class EntityListenerManager {
@@ -23,30 +29,67 @@ public class EntityListenerManager {
 
     // Metrics for monitoring the number of events fired and listeners notified
     private static class EventMetric {
-        private long eventFired = 0;
-        private long listenersNotified = 0;
+        private final LongAdder eventFired = new LongAdder();
+        private final LongAdder listenersNotified = new LongAdder();
 
         public void recordEvent(int listenersCount) {
-            eventFired++;
-            listenersNotified += listenersCount;
-        }
-
-        public long getEventsFired() {
-            return eventFired;
-        }
-
-        public long getListenersNotified() {
-            return listenersNotified;
+            eventFired.increment();
+            listenersNotified.add(listenersCount);
         }
     }
 
-    private static Map<String, EventMetric> metrics = new TreeMap<>();
+    // Metrics by source class and then event type; these are cheap enough to always be on
+    private static final Map<Class<?>, Map<String, EventMetric>> metrics = new ConcurrentHashMap<>();
     private static long lastFlushTime = System.currentTimeMillis();
     private static final long FLUSH_INTERVAL_MS = 60000; // Flush metrics every 60 seconds
 
+    private static volatile EntityEventDispatcher dispatcher = null;
+
     // Accept the expensive cost of CopyOnWriteArraySet as updates are significantly less common than reads
     // and it allows us to avoid synchronisation on the listeners set when firing events.
 	private Set<EntityListener> listeners = new CopyOnWriteArraySet<>();
+	private Set<EntityListener> deferred = new CopyOnWriteArraySet<>();
+
+    /**
+     * Enables or disables the deferred dispatch of events to {@link DeferredEntityListener}s.
+     * When disabled all listeners are called as the event is fired.
+     *
+     * @param enabled
+     */
+    public static synchronized void setDeferredDispatch(boolean enabled) {
+        if (enabled && (dispatcher == null)) {
+            dispatcher = new EntityEventDispatcher();
+        }
+        else if (!enabled && (dispatcher != null)) {
+            var old = dispatcher;
+            dispatcher = null;
+            old.shutdown();
+        }
+    }
+
+    /**
+     * Is deferred dispatch enabled.
+     */
+    public static boolean isDeferredDispatch() {
+        return dispatcher != null;
+    }
+
+    /**
+     * The pulse has completed so the deferred events can be delivered.
+     */
+    public static void pulseCompleted() {
+        var d = dispatcher;
+        if (d != null) {
+            d.flush();
+        }
+
+        if (System.currentTimeMillis() - lastFlushTime > FLUSH_INTERVAL_MS) {
+            lastFlushTime = System.currentTimeMillis();
+            if (logger.isLoggable(Level.FINE)) {
+                logMetrics();
+            }
+        }
+    }
 
     /**
 	 * Checks if it has an entity listener.
@@ -55,7 +98,7 @@ public class EntityListenerManager {
 	 * @return
 	 */
 	public boolean hasEntityListener(EntityListener listener) {
-		return listeners.contains(listener);
+		return listeners.contains(listener) || deferred.contains(listener);
 	}
 
     
@@ -68,7 +111,10 @@ public class EntityListenerManager {
 		if (newListener == null)
 			throw new IllegalArgumentException();
 
-		listeners.add(newListener);
+		if (newListener instanceof DeferredEntityListener)
+			deferred.add(newListener);
+		else
+			listeners.add(newListener);
 	}
 
 	/**
@@ -81,6 +127,7 @@ public class EntityListenerManager {
 			throw new IllegalArgumentException();
 
 		listeners.remove(oldListener);
+		deferred.remove(oldListener);
 	}
 
 	/**
@@ -89,7 +136,12 @@ public class EntityListenerManager {
 	 * @return unmodifiable set of entity listeners.
 	 */
 	public Set<EntityListener> getEntityListeners() {
-		return Collections.unmodifiableSet(listeners);
+		if (deferred.isEmpty()) {
+			return Collections.unmodifiableSet(listeners);
+		}
+		Set<EntityListener> all = new HashSet<>(listeners);
+		all.addAll(deferred);
+		return Collections.unmodifiableSet(all);
 	}
 
     /**
@@ -97,7 +149,49 @@ public class EntityListenerManager {
      * @param newEvent Event to fire.
      */
     public void fireEvent(EntityEvent newEvent) {
-        for(EntityListener i : listeners) {
+        fireEvent(newEvent.getSource(), newEvent.getType(), newEvent.getTarget(), newEvent);
+    }
+
+    /**
+     * Fire an event to all registers listeners. The event is only created if a listener has
+     * to be called now.
+     * @param source Entity that has changed
+     * @param type Type of event
+     * @param target Target of the event; may be null
+     */
+    public void fireEvent(Entity source, String type, Object target) {
+        fireEvent(source, type, target, null);
+    }
+
+    private void fireEvent(Entity source, String type, Object target, EntityEvent newEvent) {
+        var d = dispatcher;
+        boolean direct = !listeners.isEmpty();
+        boolean later = !deferred.isEmpty();
+        if (direct || (later && (d == null))) {
+            if (newEvent == null) {
+                newEvent = new EntityEvent(source, type, target);
+            }
+            notify(listeners, newEvent);
+            if (d == null) {
+                notify(deferred, newEvent);
+            }
+        }
+        if (later && (d != null)) {
+            d.post(this, source, type, target);
+        }
+
+        recordMetric(source, type, listeners.size() + deferred.size());
+    }
+
+    /**
+     * Delivers a deferred event.
+     */
+    void fireDeferred(EntityEvent newEvent) {
+        notify(deferred, newEvent);
+    }
+
+    private static void notify(Set<EntityListener> targets, EntityEvent newEvent) {
+        for(EntityListener i : targets) {
             try {
                 // Stop listeners breaking the update thread
                 i.entityUpdate(newEvent);
@@ -106,43 +200,64 @@ public class EntityListenerManager {
                 logger.severe(newEvent.getSource(), "Problem executing listener " + i + " for event " + newEvent, rte);
             }
         }
-
-        // Update metrics
-        // Uncomment only when needed as this is an expensive operation
-        //updateMetrics(newEvent, listeners.size());
     }
 
     /**
      * This method updates the global metrics for the number of listeners and events fired.
-     * If the valid period has passed then it will flush the metrics to the logger and reset the counts.
-     * @param newEvent Event that was fired.
+     * @param source Entity that fired the event.
+     * @param type Type of the event.
      * @param listenersCount Number of listeners the event was fired to.
      */
-    private static void updateMetrics(EntityEvent newEvent, int listenersCount) {
-        synchronized (metrics) {
-            var key = newEvent.getSource().getClass().getSimpleName() + ":" + newEvent.getType();
-            EventMetric metric = metrics.computeIfAbsent(key, k -> new EventMetric());
-            metric.recordEvent(listenersCount);
-
-            // Flush metrics if the interval has passed
-            if (System.currentTimeMillis() - lastFlushTime > FLUSH_INTERVAL_MS) {
-                int totalEvents = 0;
-                int totalListeners = 0;
-                for (Map.Entry<String, EventMetric> entry : metrics.entrySet()) {
-                    EventMetric recordedMetric = entry.getValue();
-
-                    totalEvents += recordedMetric.getEventsFired();
-                    totalListeners += recordedMetric.getListenersNotified();
-                    logger.info("Events - Source: " + entry.getKey() + ", Fired: " + recordedMetric.getEventsFired()
-                                + ", Notified: " + recordedMetric.getListenersNotified());
+    private static void recordMetric(Entity source, String type, int listenersCount) {
+        var byType = metrics.get(source.getClass());
+        if (byType == null) {
+            byType = metrics.computeIfAbsent(source.getClass(), k -> new ConcurrentHashMap<>());
+        }
+        var metric = byType.get(type);
+        if (metric == null) {
+            metric = byType.computeIfAbsent(type, k -> new EventMetric());
+        }
+        metric.recordEvent(listenersCount);
+    }
+
+    /**
+     * Gets the number of events fired by source class and event type since the last reset.
+     *
+     * @return Counts keyed on "class:type"
+     */
+    public static Map<String, Long> getEventCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        metrics.forEach((c, byType) -> byType.forEach((t, m) ->
+                    result.put(c.getSimpleName() + ":" + t, m.eventFired.sum())));
+        return result;
+    }
+
+    /**
+     * Logs the metrics and resets the counts.
+     */
+    public static void logMetrics() {
+        long totalEvents = 0;
+        long totalListeners = 0;
+        for (var c : metrics.entrySet()) {
+            for (var entry : c.getValue().entrySet()) {
+                EventMetric recordedMetric = entry.getValue();
+                long fired = recordedMetric.eventFired.sumThenReset();
+                long notified = recordedMetric.listenersNotified.sumThenReset();
+                if (fired > 0) {
+                    totalEvents += fired;
+                    totalListeners += notified;
+                    logger.fine("Events - Source: " + c.getKey().getSimpleName() + ":" + entry.getKey()
+                                + ", Fired: " + fired + ", Notified: " + notified);
                 }
-                logger.info("Events - Total over " + FLUSH_INTERVAL_MS / 1000 + " s, Fired: " + totalEvents
+            }
+        }
+        logger.fine("Events - Total over " + FLUSH_INTERVAL_MS / 1000 + " s, Fired: " + totalEvents
                                         + ", Notified: " + totalListeners);
 
-                // Reset
-                lastFlushTime = System.currentTimeMillis();
-                metrics.clear();
-            }
+        var d = dispatcher;
+        if (d != null) {
+            logger.fine("Events - Deferred posted: " + d.getPosted() + ", Delivered: " + d.getDelivered());
+            d.resetCounts();
         }
     }
 }
@@ -6,6 +6,7 @@
  */
 package com.mars_sim.core;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -20,14 +22,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import com.mars_sim.core.air.AirComposition;
 import com.mars_sim.core.authority.AuthorityFactory;
@@ -49,6 +56,7 @@ import com.mars_sim.core.environment.OuterSpace;
 import com.mars_sim.core.environment.SurfaceFeatures;
 import com.mars_sim.core.environment.Weather;
 import com.mars_sim.core.equipment.EquipmentFactory;
+import com.mars_sim.core.events.EventJournal;
 import com.mars_sim.core.events.HistoricalEventManager;
 import com.mars_sim.core.events.ScheduledEventManager;
 import com.mars_sim.core.goods.GoodsManager;
@@ -58,6 +66,7 @@ import com.mars_sim.core.logging.SimuLoggingFormatter;
 import com.mars_sim.core.malfunction.MalfunctionFactory;
 import com.mars_sim.core.malfunction.MalfunctionManager;
 import com.mars_sim.core.metrics.MetricManager;
+import com.mars_sim.core.metrics.database.DatabaseMetricManager;
 import com.mars_sim.core.metrics.memory.MemoryMetricManager;
 import com.mars_sim.core.mission.MissionStep;
 import com.mars_sim.core.moon.LunarColonyManager;
@@ -73,19 +82,25 @@ import com.mars_sim.core.person.ai.task.util.MetaTaskUtil;
 import com.mars_sim.core.person.ai.task.util.TaskManager;
 import com.mars_sim.core.person.health.MedicalConfig;
 import com.mars_sim.core.person.health.MedicalManager;
+import com.mars_sim.core.save.ShardedSaveReader;
+import com.mars_sim.core.save.ShardedSaveWriter;
 import com.mars_sim.core.science.ScientificStudy;
 import com.mars_sim.core.science.ScientificStudyManager;
 import com.mars_sim.core.science.ScientificStudyUtil;
 import com.mars_sim.core.structure.Airlock;
 import com.mars_sim.core.structure.ExplorationManager;
+import com.mars_sim.core.time.ClockPhase;
 import com.mars_sim.core.time.ClockPulse;
 import com.mars_sim.core.time.ClockPulseListener;
 import com.mars_sim.core.time.CompressedClockListener;
+import com.mars_sim.core.time.MarsTime;
 import com.mars_sim.core.time.MasterClock;
 import com.mars_sim.core.time.SystemDateTime;
 import com.mars_sim.core.time.Temporal;
 import com.mars_sim.core.tool.CheckSerializedSize;
 import com.mars_sim.core.tool.Msg;
+import com.mars_sim.core.tool.ParallelGzipBuffer;
+import com.mars_sim.core.tool.RandomUtil;
 import com.mars_sim.core.vehicle.Rover;
 
 /**
@@ -109,6 +124,58 @@ public class Simulation implements ClockPulseListener, Serializable {
 			// Set the pending save flag for an auto save
 			sim.savePending = type;
 		}
+
+		@Override
+		public ClockPhase getClockPhase() {
+			// Flag the save before the simulation checks for it
+			return ClockPhase.ENVIRONMENT;
+		}
+	}
+
+	/**
+	 * Updates the environment of Mars before the simulation entities act.
+	 */
+	private static class EnvironmentUpdate implements ClockPulseListener {
+		private Simulation sim;
+
+		public EnvironmentUpdate(Simulation sim) {
+			super();
+			this.sim = sim;
+		}
+
+		@Override
+		public void clockPulse(ClockPulse currentPulse) {
+			sim.updateEnvironment(currentPulse);
+		}
+
+		@Override
+		public ClockPhase getClockPhase() {
+			return ClockPhase.ENVIRONMENT;
+		}
+	}
+
+	/**
+	 * Fires the global scheduled events before the simulation entities act.
+	 */
+	private static class ScheduledEventUpdate implements ClockPulseListener {
+		private Simulation sim;
+
+		public ScheduledEventUpdate(Simulation sim) {
+			super();
+			this.sim = sim;
+		}
+
+		@Override
+		public void clockPulse(ClockPulse currentPulse) {
+			sim.updateScheduledEvents(currentPulse);
+		}
+
+		@Override
+		public ClockPhase getClockPhase() {
+			// The global events change the units but not the environment so they
+			// run alongside the environment update
+			return ClockPhase.ENVIRONMENT;
+		}
 	}
 	
 	/** default serial id. */
@@ -127,6 +194,20 @@ public class Simulation implements ClockPulseListener, Serializable {
 		AUTOSAVE;
 	}
 
+	/** The bytes and time taken to capture one manager in a save. */
+	private record SaveSection(String name, long bytes, long nanos) {}
+
+	/** A save captured in memory that is written to the file in the background. */
+	@FunctionalInterface
+	private interface CapturedSave {
+		/**
+		 * Compresses and writes the save.
+		 *
+		 * @return The bytes written
+		 */
+		long writeTo(OutputStream out) throws IOException;
+	}
+
 	/** The dashes. */
 	private static final String DASHES = " ---------------------------------------------------------";
 
@@ -152,6 +233,8 @@ public class Simulation implements ClockPulseListener, Serializable {
 	
 	/** Clock listener that triggers autosaving **/
 	private transient ClockPulseListener autoSaveHandler;
+	/** Clock listeners for the environment and the global scheduled events. */
+	private transient ClockPulseListener[] environmentListeners;
 
 	// Intransient data members (stored in save file)
 	private LunarWorld lunarWorld; 
@@ -176,6 +259,16 @@ public class Simulation implements ClockPulseListener, Serializable {
 	private transient SaveType savePending = null;
 	private transient File savePendingFile = null;
 	private transient SimulationListener saveCallback = null;
+	/** The save being written in the background. */
+	private transient volatile CompletableFuture<Boolean> saveInProgress = null;
+	private transient ExecutorService saveExecutor = null;
+	/** Save in the sharded format. */
+	private transient boolean shardedSave = false;
+	/** Keep every historical event on disk. */
+	private transient boolean eventJournal = false;
+	private transient EventJournal journal = null;
+	/** Directory of the database holding the metrics of a new simulation; null keeps them in memory. */
+	private transient String metricDatabase = null;
 
 
 	/**
@@ -402,6 +495,9 @@ public class Simulation implements ClockPulseListener, Serializable {
 		CropConfig cc = simulationConfig.getCropConfiguration();
 		MedicalConfig mc = simulationConfig.getMedicalConfiguration();
 		
+		// Random streams must be ready before anything is created
+		RandomUtil.setSeed(simulationConfig.getRandomSeed());
+
 		// Clock is always first
 		masterClock = new MasterClock(simulationConfig, timeRatio, timestamp);
 
@@ -413,7 +509,12 @@ public class Simulation implements ClockPulseListener, Serializable {
 
 		// Common handler for full planet events
 		scheduledEvents = new ScheduledEventManager(masterClock);
-		metricManager = new MemoryMetricManager(20);
+		if (metricDatabase != null) {
+			metricManager = new DatabaseMetricManager(metricDatabase, true);
+		}
+		else {
+			metricManager = new MemoryMetricManager(20);
+		}
 
 		// Initialize serializable objects
 		malfunctionFactory = new MalfunctionFactory();
@@ -666,7 +767,10 @@ public class Simulation implements ClockPulseListener, Serializable {
 	 * @param autosaveDefault True if default is used for autosave
 	 */
 	public void startClock(boolean autosaveDefault) {
-		masterClock.addClockPulseListener(this);
+		if (eventJournal) {
+			openEventJournal();
+		}
+		addClockListeners();
 		
 		// Add a listener to trigger the auto save
 		ClockPulseListener autoSaver = new AutoSaveTrigger(this, autosaveDefault ? SaveType.AUTOSAVE_AS_DEFAULT : SaveType.AUTOSAVE);
@@ -681,6 +785,30 @@ public class Simulation implements ClockPulseListener, Serializable {
 		printLastSavedSol();
 	}
 
+	/**
+	 * Runs the simulation unpaced for a number of sols and then saves it to the default file.
+	 * This is used for offline runs so autosave is not set up.
+	 *
+	 * @param pulseWidth Millisols covered by each pulse
+	 * @param sols Number of sols to run
+	 * @return the statistics of the run
+	 */
+	public MasterClock.BatchStats runBatch(double pulseWidth, int sols) {
+		if (eventJournal) {
+			openEventJournal();
+		}
+		addClockListeners();
+		printLastSavedSol();
+
+		var stats = masterClock.runBatch(pulseWidth, sols);
+
+		boolean saved = saveSimulation(SaveType.SAVE_DEFAULT, null, null).join();
+		if (!saved) {
+			logger.severe("Problem saving the simulation at the end of the batch.");
+		}
+		return stats;
+	}
+
 	/**
 	 * Loads a simulation instance from a save file.
 	 *
@@ -724,6 +852,11 @@ public class Simulation implements ClockPulseListener, Serializable {
      */
     private void deserialize(File file) throws IOException, ClassNotFoundException {
 
+		if (ShardedSaveReader.isSharded(file)) {
+			deserializeShards(file);
+			return;
+		}
+
 		FileInputStream in = null;
 	    ObjectInputStream ois = null;
 
@@ -770,6 +903,22 @@ public class Simulation implements ClockPulseListener, Serializable {
 		}
     }
 
+    /**
+     * Deserializes a sharded save. Settlements that do not depend on each other are loaded in parallel.
+     */
+    private void deserializeShards(File file) throws IOException, ClassNotFoundException {
+		long start = System.nanoTime();
+		try (var reader = new ShardedSaveReader(file)) {
+			setSavedState(reader.load(ForkJoinPool.commonPool()));
+
+			UnitSet.reinit(unitManager);
+			metricManager.reinit();
+
+			logger.config("Loaded " + reader.getSections().size() + " sections in "
+							+ formatMillis(System.nanoTime() - start));
+		}
+    }
+
     /**
      * Computes the size of the file.
      *
@@ -854,13 +1003,19 @@ public class Simulation implements ClockPulseListener, Serializable {
 
 
 	/**
-	 * Saves a simulation instance to a save file.
+	 * Saves a simulation instance to a save file. The state is captured in memory with the
+	 * clock stopped and then the clock resumes whilst the capture is compressed and written
+	 * to the file in the background. The callback is notified once the file is written.
 	 *
 	 * @param type
 	 * @param file the file to be saved to.
 	 * @param callback
+	 * @return Completes with the outcome once the file is written
 	 */
-	synchronized void saveSimulation(SaveType type, File file, SimulationListener callback) {
+	synchronized CompletableFuture<Boolean> saveSimulation(SaveType type, File file, SimulationListener callback) {
+
+		// Only one save can be written at a time
+		waitForSave();
 
 		// Checks to see if the simulation is on pause
 		boolean isAlreadyPaused = masterClock.isPaused();
@@ -871,8 +1026,6 @@ public class Simulation implements ClockPulseListener, Serializable {
 		if (!isAlreadyPaused) 
 			masterClock.setPaused(true);
 
-		// Call up garbage collector System.gc(). But it's still up to the gc what it will do.
-
 		lastSaveTimeStamp = new Date();
 
 		Path srcPath = null;
@@ -933,10 +1086,20 @@ public class Simulation implements ClockPulseListener, Serializable {
 			file.getParentFile().mkdirs();
 		}
 
-		boolean success = checkHeapSizeSerialize(type, file, srcPath, destPath);
-			
-		if (callback != null) {
-			callback.eventPerformed(success ? SimulationListener.SAVE_COMPLETED : SimulationListener.SAVE_FAILED);
+		// Get maximum size of heap in bytes. The heap cannot grow beyond this size.// Any attempt will result in an OutOfMemoryException.
+		long heapMaxSize = Runtime.getRuntime().maxMemory();
+		 // Get amount of free memory within the heap in bytes. This size will increase // after garbage collection and decrease as new objects are created.
+		long heapFreeSize = Runtime.getRuntime().freeMemory();
+
+		logger.config("Heap Max Size: " + formatSize(heapMaxSize)
+					+ ", Heap Free Size: " + formatSize(heapFreeSize));
+
+		CapturedSave snapshot = null;
+		try {
+			snapshot = (shardedSave ? captureShards() : captureSnapshot());
+		}
+		catch (IOException ioe) {
+			logger.log(Level.SEVERE, "Problem capturing the simulation", ioe);
 		}
 
 		// Restarts the master clock and adds back the Simulation clock listener
@@ -944,50 +1107,312 @@ public class Simulation implements ClockPulseListener, Serializable {
 			masterClock.setPaused(false);
 		
 		masterClock.start();
+
+		if (snapshot == null) {
+			restoreBackup(srcPath, destPath);
+			justSaved = true;
+			if (callback != null) {
+				callback.eventPerformed(SimulationListener.SAVE_FAILED);
+			}
+			return CompletableFuture.completedFuture(false);
+		}
+
+		final File target = file;
+		final Path src = srcPath;
+		final Path dest = destPath;
+		final CapturedSave content = snapshot;
+		saveInProgress = CompletableFuture.supplyAsync(
+						() -> writeSnapshot(type, target, content, src, dest, callback),
+						getSaveExecutor());
+		return saveInProgress;
+	}
+
+	/**
+	 * Gets the thread that writes the saves.
+	 */
+	private synchronized ExecutorService getSaveExecutor() {
+		if ((saveExecutor == null) || saveExecutor.isShutdown()) {
+			saveExecutor = Executors.newSingleThreadExecutor(
+						new ThreadFactoryBuilder().setNameFormat("simSave-%d").build());
+		}
+		return saveExecutor;
+	}
+
+	/**
+	 * Waits for any save still being written in the background.
+	 */
+	public void waitForSave() {
+		var pending = saveInProgress;
+		if (pending != null) {
+			pending.join();
+		}
+	}
+
+	/**
+	 * Captures the simulation as an in-memory serialized stream. This is called at the
+	 * end of a pulse with the clock stopped so every manager is consistent. All the managers
+	 * are written through one object stream so the objects they share are kept shared.
+	 *
+	 * @return The uncompressed capture
+	 * @throws IOException
+	 */
+	private CapturedSave captureSnapshot() throws IOException {
+		long start = System.nanoTime();
+
+		// Make sure any buffered metric values and events are written first
+		metricManager.flush();
+		flushEventJournal();
+
+		var buffer = new ParallelGzipBuffer();
+		List<SaveSection> sections = new ArrayList<>();
+		try (var oos = new ObjectOutputStream(buffer)) {
+			// Store the in-transient objects.
+			writeSection(oos, buffer, sections, "Time Stamp", lastSaveTimeStamp);
+			writeSection(oos, buffer, sections, "Malfunction Factory", malfunctionFactory);
+			writeSection(oos, buffer, sections, "Lunar World", lunarWorld);
+			writeSection(oos, buffer, sections, "Lunar Colony Manager", lunarColonyManager);
+			writeSection(oos, buffer, sections, "Orbit Info", orbitInfo);
+			writeSection(oos, buffer, sections, "Weather", weather);
+			writeSection(oos, buffer, sections, "Surface Features", surfaceFeatures);
+			writeSection(oos, buffer, sections, "Medical Manager", medicalManager);
+			writeSection(oos, buffer, sections, "Scientific Study Manager", scientificStudyManager);
+			writeSection(oos, buffer, sections, "Event Manager", eventManager);
+			writeSection(oos, buffer, sections, "Transport Manager", transportManager);
+			writeSection(oos, buffer, sections, "Market Manager", marketManager);
+			writeSection(oos, buffer, sections, "Unit Manager", unitManager);
+			writeSection(oos, buffer, sections, "Master Clock", masterClock);
+			writeSection(oos, buffer, sections, "Scheduled Events", scheduledEvents);
+			writeSection(oos, buffer, sections, "Metric Manager", metricManager);
+		}
+
+		logger.config("        Captured in : " + formatMillis(System.nanoTime() - start)
+							+ ", Size : " + formatSize(buffer.size()));
+		for (SaveSection s : sections) {
+			logger.config(String.format("%25s : %10s in %s", s.name(), formatSize(s.bytes()),
+							formatMillis(s.nanos())));
+		}
+		return out -> buffer.writeGzip(out, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Captures the simulation in the sharded format. The managers go in a global section
+	 * and each Settlement has its own section so independent ones can be loaded in parallel.
+	 *
+	 * @return The uncompressed sections
+	 * @throws IOException
+	 */
+	private CapturedSave captureShards() throws IOException {
+		long start = System.nanoTime();
+
+		// Make sure any buffered metric values and events are written first
+		metricManager.flush();
+		flushEventJournal();
+
+		var writer = new ShardedSaveWriter(getSavedState(), unitManager.getSettlements());
+		var sections = writer.capture(ForkJoinPool.commonPool());
+
+		long size = sections.stream().mapToLong(s -> s.content().size()).sum();
+		logger.config("        Captured in : " + formatMillis(System.nanoTime() - start)
+							+ ", Size : " + formatSize(size) + ", Shared objects : " + writer.getSharedCount());
+		for (var s : sections) {
+			logger.config(String.format("%25s : %10s in %s, %d units", s.name(), formatSize(s.content().size()),
+							formatMillis(s.nanos()), s.units()));
+		}
+		return out -> ShardedSaveWriter.write(sections, out, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Gets the saved state in the order it is loaded.
+	 */
+	private Object[] getSavedState() {
+		return new Object[] {lastSaveTimeStamp, malfunctionFactory, lunarWorld, lunarColonyManager,
+				orbitInfo, weather, surfaceFeatures, medicalManager, scientificStudyManager,
+				eventManager, transportManager, marketManager, unitManager, masterClock,
+				scheduledEvents, metricManager};
+	}
+
+	/**
+	 * Sets the state loaded from a save.
+	 *
+	 * @param state State in the order of {@link #getSavedState()}
+	 */
+	private void setSavedState(Object[] state) {
+		int i = 0;
+		lastSaveTimeStamp = (Date) state[i++];
+		malfunctionFactory = (MalfunctionFactory) state[i++];
+		lunarWorld = (LunarWorld) state[i++];
+		lunarColonyManager = (LunarColonyManager) state[i++];
+		orbitInfo = (OrbitInfo) state[i++];
+		weather = (Weather) state[i++];
+		surfaceFeatures = (SurfaceFeatures) state[i++];
+		medicalManager = (MedicalManager) state[i++];
+		scientificStudyManager = (ScientificStudyManager) state[i++];
+		eventManager = (HistoricalEventManager) state[i++];
+		transportManager = (TransportManager) state[i++];
+		marketManager = (MarketManager) state[i++];
+		unitManager = (UnitManager) state[i++];
+		masterClock = (MasterClock) state[i++];
+		scheduledEvents = (ScheduledEventManager) state[i++];
+		metricManager = (MetricManager) state[i];
+	}
+
+	/**
+	 * Sets whether saves use the sharded format. Either format can be loaded.
+	 *
+	 * @param sharded
+	 */
+	public void setShardedSave(boolean sharded) {
+		shardedSave = sharded;
+	}
+
+	/**
+	 * Sets the directory of the database that records the metrics of a new simulation.
+	 * Data points are written in batches in the background.
+	 *
+	 * @param dir Directory of the database; null keeps the metrics in memory
+	 */
+	public void setMetricDatabase(String dir) {
+		metricDatabase = dir;
+	}
+
+	/**
+	 * Sets whether every historical event is kept in a journal on disk.
+	 *
+	 * @param enabled
+	 */
+	public void setEventJournal(boolean enabled) {
+		eventJournal = enabled;
 	}
 
-	private boolean checkHeapSizeSerialize(SaveType type, File file, Path  srcPath, Path destPath) {
-		boolean sucessful = false;
+	/**
+	 * Opens the event journal and attaches it to the event manager. If the journal holds
+	 * events after the current time then an earlier save has been loaded. Those events
+	 * belong to a later save of the run so this run carries on in a copy of the journal.
+	 */
+	private void openEventJournal() {
+		closeEventJournal();
+		Path dir = Path.of(SimulationRuntime.getEventJournalDir(eventManager.getJournalName()));
 		try {
-			// Get maximum size of heap in bytes. The heap cannot grow beyond this size.// Any attempt will result in an OutOfMemoryException.
-			long heapMaxSize = Runtime.getRuntime().maxMemory();
-			 // Get amount of free memory within the heap in bytes. This size will increase // after garbage collection and decrease as new objects are created.
-			long heapFreeSize = Runtime.getRuntime().freeMemory();
-	
-			logger.config("Heap Max Size: " + formatSize(heapMaxSize)
-						+ ", Heap Free Size: " + formatSize(heapFreeSize));
-	
-				// Save local machine timestamp
-			// Serialize the file
-			lastSaveTimeStamp = new Date();
-			sucessful = serialize(type, file, srcPath, destPath);
-
-			if (sucessful && (type == SaveType.AUTOSAVE)) {
-				// Purge old auto backups
-				SimulationRuntime.purgeOldFiles( SimulationRuntime.getAutoSaveDir(),
-											   simulationConfig.getNumberAutoSaves(), SAVE_FILE_EXTENSION);
+			journal = EventJournal.open(dir);
+			MarsTime now = masterClock.getMarsTime();
+			if (journal.hasEventsAfter(now)) {
+				dir = Path.of(SimulationRuntime.getEventJournalDir(eventManager.forkJournal()));
+				var fork = journal.forkTo(dir, now);
+				journal.close();
+				journal = fork;
 			}
+			eventManager.setJournal(journal);
+			logger.config("Event journal in " + dir + " holds " + journal.size() + " events.");
 		}
-		catch (IOException ioe) {
-			logger.severe("Problem saving simulation " + ioe.getMessage());
+		catch (IOException e) {
+			logger.log(Level.SEVERE, "Cannot open the event journal in " + dir, e);
+			closeEventJournal();
+		}
+	}
+
+	/**
+	 * Writes the events recorded so far to disk so the journal matches a save.
+	 */
+	private void flushEventJournal() {
+		if (journal != null) {
+			try {
+				journal.flush();
+			}
+			catch (IOException e) {
+				logger.log(Level.SEVERE, "Problem flushing the event journal", e);
+			}
+		}
+	}
+
+	private void closeEventJournal() {
+		if (eventManager != null) {
+			eventManager.setJournal(null);
+		}
+		if (journal != null) {
+			try {
+				journal.flush();
+				journal.close();
+			}
+			catch (IOException e) {
+				logger.log(Level.SEVERE, "Problem closing the event journal", e);
+			}
+			journal = null;
 		}
+	}
 
-		return sucessful;
+	/**
+	 * Writes one manager to the capture and records the bytes and time it took.
+	 */
+	private static void writeSection(ObjectOutputStream oos, ParallelGzipBuffer buffer,
+						List<SaveSection> sections, String name, Object value) throws IOException {
+		long start = System.nanoTime();
+		long before = buffer.size();
+		oos.writeObject(value);
+		// Push any block data through so the bytes are counted against this manager
+		oos.flush();
+		sections.add(new SaveSection(name, buffer.size() - before, System.nanoTime() - start));
 	}
-	
+
+	/**
+	 * Compresses a capture and writes it to the save file. This runs in the background.
+	 *
+	 * @return Was the file written
+	 */
+	private boolean writeSnapshot(SaveType type, File file, CapturedSave snapshot,
+					Path srcPath, Path destPath, SimulationListener callback) {
+		boolean success = false;
+		long start = System.nanoTime();
+		try (var out = new BufferedOutputStream(new FileOutputStream(file), 256 * 1024)) {
+			long compressed = snapshot.writeTo(out);
+
+			logger.config("         Written in : " + formatMillis(System.nanoTime() - start)
+						+ ", File size : " + formatSize(compressed));
+			logger.config("Done saving the simulation.");
+			success = true;
+		}
+		catch (IOException e) {
+			logger.log(Level.SEVERE, "Problem saving simulation", e);
+			restoreBackup(srcPath, destPath);
+		}
+
+		if (success && (type == SaveType.AUTOSAVE)) {
+			// Purge old auto backups
+			SimulationRuntime.purgeOldFiles( SimulationRuntime.getAutoSaveDir(),
+										   simulationConfig.getNumberAutoSaves(), SAVE_FILE_EXTENSION);
+		}
+
+		justSaved = true;
+		if (callback != null) {
+			callback.eventPerformed(success ? SimulationListener.SAVE_COMPLETED : SimulationListener.SAVE_FAILED);
+		}
+		return success;
+	}
+
 	/**
-	 * Delays for a period of time in millis
+	 * Puts back the previous default save after a failed save.
 	 *
-	 * @param millis
+	 * @param srcPath Path of the default save
+	 * @param destPath Path the previous default save was moved to; null if there was none
 	 */
-    private static void delay(long millis) {
-        try {
-			TimeUnit.MILLISECONDS.sleep(millis);
-        } catch (InterruptedException e) {
-          	logger.log(Level.SEVERE, "Cannot sleep : " + e.getMessage());
-          	// Restore interrupted state
-            Thread.currentThread().interrupt();
-        }
+	private static void restoreBackup(Path srcPath, Path destPath) {
+		if ((destPath != null) && Files.exists(destPath)) {
+			try {
+				Files.move(destPath, srcPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (IOException ioe) {
+				logger.severe("Problem restoring the previous save " + ioe.getMessage());
+			}
+		}
+	}
+
+    /**
+     * Prints the format for a duration.
+     *
+     * @param nanos
+     * @return
+     */
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000D);
     }
 
     /**
@@ -1002,65 +1427,6 @@ public class Simulation implements ClockPulseListener, Serializable {
         return String.format("%.2f %sB", (double)v / (1L << (z*10)), " KMGTPE".charAt(z));
     }
 
-    /**
-     * Serializes the given object and save it to a given file.
-     * 
-     * @return 
-     */
-    private boolean serialize(SaveType type, File file, Path srcPath, Path destPath)
-            throws IOException {
-		boolean success = false;
-	    ObjectOutputStream oos = new ObjectOutputStream(
-	    			new GZIPOutputStream(new FileOutputStream(file)));
-		try {
-
-			// Set a delay for 500 millis to avoid java.util.ConcurrentModificationException
-			delay(500L);
-
-			// Store the in-transient objects.
-			oos.writeObject(lastSaveTimeStamp);
-			oos.writeObject(malfunctionFactory);
-			oos.writeObject(lunarWorld);
-			oos.writeObject(lunarColonyManager);
-			oos.writeObject(orbitInfo);
-			oos.writeObject(weather);
-			oos.writeObject(surfaceFeatures);		
-			oos.writeObject(medicalManager);
-			oos.writeObject(scientificStudyManager);
-			oos.writeObject(eventManager);
-			oos.writeObject(transportManager);
-			oos.writeObject(marketManager);
-			oos.writeObject(unitManager);
-			oos.writeObject(masterClock);
-			oos.writeObject(scheduledEvents);
-			oos.writeObject(metricManager);
-
-			oos.flush();
-			oos.close();
-
-			// Print the size of the saved sim
-			logger.config("           File size: " + computeFileSize(file));
-			logger.config("Done saving. The simulation resumes.");
-			success = true;
-
-		} catch (IOException e0) {
-			logger.log(Level.SEVERE, "Problem saving simulation", e0); 
-
-			if ((type == SaveType.AUTOSAVE_AS_DEFAULT || type == SaveType.SAVE_DEFAULT) 
-				&& file.exists() && !file.isDirectory()) {
-				// Backup the existing default.sim
-				Files.move(destPath, srcPath, StandardCopyOption.REPLACE_EXISTING);
-			}
-		}
-		finally {
-			if (oos != null)
-				oos.close();
-			justSaved = true;
-		}
-
-		return success;
-    }
-
 	/**
 	 * Prints the object and its size.
 	 * 
@@ -1192,6 +1558,13 @@ public class Simulation implements ClockPulseListener, Serializable {
 		logger.log(Level.CONFIG, "Exiting the simulation. Good Bye !");
 
 		instance().stop();
+
+		// Let any save finish writing
+		waitForSave();
+		if (saveExecutor != null) {
+			saveExecutor.shutdown();
+		}
+
 		// Ends the clock listener executor in master clock
 		if (masterClock != null)
 			masterClock.shutdown();
@@ -1200,6 +1573,13 @@ public class Simulation implements ClockPulseListener, Serializable {
 		if (unitManager != null) {
 			unitManager.endSimulation();
 		}
+
+		// Drains any metric values still buffered
+		if (metricManager != null) {
+			metricManager.close();
+		}
+
+		closeEventJournal();
 	}
 
 	/**
@@ -1208,7 +1588,7 @@ public class Simulation implements ClockPulseListener, Serializable {
 	public void stop() {
 		if (masterClock != null) {
 			masterClock.stop();
-			masterClock.removeClockPulseListener(this);
+			removeClockListeners();
 			masterClock.removeClockPulseListener(autoSaveHandler);
 		}
 	}
@@ -1388,14 +1768,7 @@ public class Simulation implements ClockPulseListener, Serializable {
 	@Override
 	public void clockPulse(ClockPulse pulse) {
 		if (doneInitializing) {
-			// Refresh all Data loggers; this can be refactored later to a Manager class
-			DataLogger.changeTime(pulse.getMasterClock().getMarsTime());
-			
-			// Always update environment first			
-			executePulseSafely("Orbit", pulse, orbitInfo);
-			executePulseSafely("Weather", pulse, weather);
-			executePulseSafely("Surface Features", pulse, surfaceFeatures);
-
+			// The environment and the global events are updated in the earlier phase
 			if (pulse.isNewSol()) {
 				// Compute reliability daily for each part
 				malfunctionFactory.computePartReliability(pulse.getMarsTime().getMissionSol());
@@ -1406,9 +1779,6 @@ public class Simulation implements ClockPulseListener, Serializable {
 				}
 			}
 
-			// Update scheduled events
-			executePulseSafely("Scheduled Events", pulse, scheduledEvents);
-
 			// Lastly cascade the pulse to the Entity managers
 			executePulseSafely("Lunar Colony Manager", pulse, lunarColonyManager);
 			executePulseSafely("Unit Manager", pulse, unitManager);			
@@ -1423,6 +1793,62 @@ public class Simulation implements ClockPulseListener, Serializable {
 		}
 	}
 
+	/**
+	 * Updates the orbit, the weather and the surface features.
+	 * 
+	 * @param pulse
+	 */
+	private void updateEnvironment(ClockPulse pulse) {
+		if (doneInitializing) {
+			// Refresh all Data loggers; this can be refactored later to a Manager class
+			DataLogger.changeTime(pulse.getMarsTime());
+
+			executePulseSafely("Orbit", pulse, orbitInfo);
+			executePulseSafely("Weather", pulse, weather);
+			executePulseSafely("Surface Features", pulse, surfaceFeatures);
+		}
+	}
+
+	/**
+	 * Fires the global scheduled events that are due.
+	 * 
+	 * @param pulse
+	 */
+	private void updateScheduledEvents(ClockPulse pulse) {
+		if (doneInitializing) {
+			// Events may create units with data loggers so set the time here as well
+			DataLogger.changeTime(pulse.getMarsTime());
+
+			executePulseSafely("Scheduled Events", pulse, scheduledEvents);
+		}
+	}
+
+	/**
+	 * Adds the simulation and its environment listeners to the clock.
+	 */
+	private void addClockListeners() {
+		if (environmentListeners == null) {
+			environmentListeners = new ClockPulseListener[] {
+					new EnvironmentUpdate(this), new ScheduledEventUpdate(this)};
+		}
+		for (var l : environmentListeners) {
+			masterClock.addClockPulseListener(l);
+		}
+		masterClock.addClockPulseListener(this);
+	}
+
+	/**
+	 * Removes the simulation and its environment listeners from the clock.
+	 */
+	private void removeClockListeners() {
+		masterClock.removeClockPulseListener(this);
+		if (environmentListeners != null) {
+			for (var l : environmentListeners) {
+				masterClock.removeClockPulseListener(l);
+			}
+		}
+	}
+
 	/**
 	 * This executes the clock pulse on a target object and catches any exceptions that may occur during the execution.
 	 * @param context Context for any error messages
@@ -1446,7 +1872,7 @@ public class Simulation implements ClockPulseListener, Serializable {
 
 		// Remove old clock listeners ?
 		if (masterClock != null) {
-			masterClock.removeClockPulseListener(this);
+			removeClockListeners();
 			if (autoSaveHandler != null) {
 				masterClock.removeClockPulseListener(autoSaveHandler);
 			}
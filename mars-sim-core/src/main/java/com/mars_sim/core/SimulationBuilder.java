@@ -19,13 +19,16 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 
 import com.mars_sim.core.authority.Authority;
+import com.mars_sim.core.building.utility.heating.SettlementThermalSolver;
 import com.mars_sim.core.configuration.ScenarioConfig;
 import com.mars_sim.core.logging.DiagnosticsManager;
+import com.mars_sim.core.malfunction.MalfunctionManager;
 import com.mars_sim.core.map.common.FileLocator;
 import com.mars_sim.core.map.location.Coordinates;
 import com.mars_sim.core.map.location.CoordinatesException;
 import com.mars_sim.core.map.location.CoordinatesFormat;
 import com.mars_sim.core.person.CrewConfig;
+import com.mars_sim.core.resourceprocess.ResourceFlowSolver;
 import com.mars_sim.core.structure.InitialSettlement;
 import com.mars_sim.core.structure.SettlementBuilder;
 import com.mars_sim.core.structure.SettlementTemplate;
@@ -49,10 +52,20 @@ public class SimulationBuilder {
 	private static final String CREW_ARG = "crew";
 	private static final String DIAGNOSTICS_ARG = "diags";
 	private static final String SCENARIO_ARG = "scenario";
+	private static final String SEED_ARG = "seed";
+	private static final String CONFIG_CACHE_ARG = "configcache";
+	private static final String SHARDED_SAVE_ARG = "shardedsave";
+	private static final String EVENT_JOURNAL_ARG = "eventjournal";
+	private static final String DEFERRED_EVENTS_ARG = "deferredevents";
+	private static final String THERMAL_SOLVER_ARG = "thermalsolver";
+	private static final String MALFUNCTION_SAMPLING_ARG = "malfunctionsampling";
+	private static final String RESOURCE_FLOW_ARG = "resourceflow";
+	private static final String METRIC_DB_ARG = "metricdb";
 	
 	private static final Logger logger = Logger.getLogger(SimulationBuilder.class.getName());
 	
 	private int userTimeRatio = 0; // zero means not defined
+	private long seed = 0L; // zero means use the configuration
 	
 	private boolean useCrews = true;
 	private boolean newAllowed = false;
@@ -189,6 +202,24 @@ public class SimulationBuilder {
 				.desc("Enable or disable use of the crews").get());	
 		options.add(Option.builder(DIAGNOSTICS_ARG).argName("<module>,<module>.....").hasArg()
 				.desc("Enable diagnositics modules").get());	
+		options.add(Option.builder(SEED_ARG).argName("number").hasArg()
+				.desc("Use a random seed so the settlement pulses are repeatable; draws outside a settlement pulse are not").get());	
+		options.add(Option.builder(CONFIG_CACHE_ARG)
+				.desc("Cache the parsed configuration files to speed up the next start").get());	
+		options.add(Option.builder(SHARDED_SAVE_ARG)
+				.desc("Save with a section per settlement so the simulation loads in parallel").get());	
+		options.add(Option.builder(EVENT_JOURNAL_ARG)
+				.desc("Keep every historical event in a journal on disk").get());	
+		options.add(Option.builder(DEFERRED_EVENTS_ARG)
+				.desc("Send entity events to the user interface after each pulse on a separate thread").get());	
+		options.add(Option.builder(THERMAL_SOLVER_ARG)
+				.desc("Solve the heat balance of each settlement in one pass instead of per building").get());	
+		options.add(Option.builder(MALFUNCTION_SAMPLING_ARG)
+				.desc("Sample the time of the next malfunction instead of a random check every pulse").get());	
+		options.add(Option.builder(RESOURCE_FLOW_ARG)
+				.desc("Move the resources of all the processes of a settlement together in one batch").get());	
+		options.add(Option.builder(METRIC_DB_ARG).argName("directory").hasArg()
+				.desc("Record metrics in a database in this directory, written in batches in the background").get());	
 		return options;
 	}
 
@@ -237,7 +268,40 @@ public class SimulationBuilder {
 		}
 		if (line.hasOption(DIAGNOSTICS_ARG)) {
 			setDiagnostics(line.getOptionValue(DIAGNOSTICS_ARG));
+		}
+		if (line.hasOption(SEED_ARG)) {
+			String value = line.getOptionValue(SEED_ARG);
+			try {
+				seed = Long.parseLong(value.trim());
+			}
+			catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Problem with seed, not a number: " + value);
+			}
+		}
+		if (line.hasOption(CONFIG_CACHE_ARG)) {
+			SimulationConfig.setDocumentCache(true);
 		}		
+		if (line.hasOption(SHARDED_SAVE_ARG)) {
+			Simulation.instance().setShardedSave(true);
+		}
+		if (line.hasOption(EVENT_JOURNAL_ARG)) {
+			Simulation.instance().setEventJournal(true);
+		}
+		if (line.hasOption(DEFERRED_EVENTS_ARG)) {
+			EntityListenerManager.setDeferredDispatch(true);
+		}
+		if (line.hasOption(THERMAL_SOLVER_ARG)) {
+			SettlementThermalSolver.setEnabled(true);
+		}
+		if (line.hasOption(MALFUNCTION_SAMPLING_ARG)) {
+			MalfunctionManager.setEventSampling(true);
+		}
+		if (line.hasOption(RESOURCE_FLOW_ARG)) {
+			ResourceFlowSolver.setEnabled(true);
+		}
+		if (line.hasOption(METRIC_DB_ARG)) {
+			Simulation.instance().setMetricDatabase(line.getOptionValue(METRIC_DB_ARG));
+		}
 	}
 
 	/**
@@ -259,6 +323,9 @@ public class SimulationBuilder {
 		// Load xml files but not until arguments parsed since it may change 
 		// the data directory
 		SimulationConfig simConfig = SimulationConfig.loadConfig();
+		if (seed != 0L) {
+			simConfig.setRandomSeed(seed);
+		}
 		Simulation sim = Simulation.instance();
 			
 		boolean loaded = false;
@@ -10,6 +10,15 @@ import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import javax.xml.XMLConstants;
 
@@ -24,6 +33,7 @@ import com.mars_sim.core.building.config.BuildingConfig;
 import com.mars_sim.core.building.construction.ConstructionConfig;
 import com.mars_sim.core.building.function.cooking.MealConfig;
 import com.mars_sim.core.building.function.farming.CropConfig;
+import com.mars_sim.core.configuration.ConfigDocumentCache;
 import com.mars_sim.core.environment.LandmarkConfig;
 import com.mars_sim.core.food.FoodProductionConfig;
 import com.mars_sim.core.interplanetary.transport.resupply.ResupplyConfig;
@@ -105,9 +115,17 @@ public class SimulationConfig {
 	private static final String CONTENT_URL = "content-url";
 
 	protected static final String EXECUTOR_TYPE = "executor-type";
+	private static final String RANDOM_SEED = "random-seed";
+
+	private static final String DOCUMENT_CACHE_DIR = "cache";
+
+	/** Parsing is mostly CPU bound so there is no gain beyond a small pool. */
+	private static final int LOAD_THREADS = Math.clamp(SimulationRuntime.NUM_CORES, 2, 8);
 
 	private static SimulationConfig instance = null;
 
+	private static boolean useDocumentCache = false;
+
 	private String marsStartDate = null;
 	private String earthStartDate = null;
 
@@ -121,6 +139,7 @@ public class SimulationConfig {
 	private int numberOfAutoSaves = 0;
 	private int averageTransitTime = 0;
 	private String executorType = null;	
+	private long randomSeed = 0L;
 	
 	/*
 	 * -----------------------------------------------------------------------------
@@ -155,6 +174,8 @@ public class SimulationConfig {
 	private double minEVALight;
 
 	private ResourceCache cachedResources;
+	private ConfigDocumentCache documentCache;
+	private Map<String, Long> startupTimings = new LinkedHashMap<>();
 
 	/*
 	 * -----------------------------------------------------------------------------
@@ -168,6 +189,9 @@ public class SimulationConfig {
 	private SimulationConfig(String xmlLoc) {
 		logger.info("Loading simulation configuration from " + xmlLoc);
 		cachedResources = new ResourceCache(new File(xmlLoc), true);
+		if (useDocumentCache) {
+			documentCache = new ConfigDocumentCache(new File(xmlLoc, DOCUMENT_CACHE_DIR));
+		}
 
 		readConfig();
 	}
@@ -184,6 +208,16 @@ public class SimulationConfig {
 		return instance;
 	}
 
+	/**
+	 * Enables the on-disk cache of parsed XML documents. This must be called before the
+	 * config is loaded.
+	 * 
+	 * @param enable
+	 */
+	public static void setDocumentCache(boolean enable) {
+		useDocumentCache = enable;
+	}
+
 	/**
 	 * Gets the previously loaded config.
 	 *
@@ -225,6 +259,10 @@ public class SimulationConfig {
 			defaultTimePulse = loadIntValue(timeConfig, DEFAULT_TIME_PULSE, 1, 2048);
 			baseTimeRatio = loadIntValue(timeConfig, BASE_TIME_RATIO, 1, (int)MasterClock.HIGH_SPEED_RATIO);
 			executorType = loadValue(timeConfig, EXECUTOR_TYPE);
+			Element seedConfig = timeConfig.getChild(RANDOM_SEED);
+			if (seedConfig != null) {
+				randomSeed = loadLongValue(seedConfig);
+			}
 			averageTransitTime = loadIntValue(timeConfig, AVERAGE_TRANSIT_TIME, 0, 430);
 			autosaveInterval = loadIntValue(timeConfig, AUTOSAVE_INTERVAL, 1, 360);
 			numberOfAutoSaves = loadIntValue(timeConfig, AUTOSAVE_NUMBER, 1, 100);
@@ -281,6 +319,21 @@ public class SimulationConfig {
 		return i;
 	}
 
+	/**
+	 * Load a long value that is held as a 'value' attribute of an element.
+	 * @param item XML Node containing the 'value'
+	 */
+	private long loadLongValue(Element item) {
+		String str = item.getAttributeValue(VALUE);
+		if ((str == null) || str.isBlank())
+			throw new IllegalStateException(item.getName() + " cannot be blank.");
+		try {
+			return Long.parseLong(str.trim());
+		} catch (NumberFormatException nfe) {
+			throw new IllegalStateException(item.getName() + " must be a whole number: " + str.trim());
+		}
+	}
+
 	/**
 	 * Load an double value that is held as a 'value' attribute.
 	 * 
@@ -369,6 +422,24 @@ public class SimulationConfig {
     public String getExecutorType() {
         return executorType;
 	}
+
+	/**
+	 * The master seed for a deterministic simulation.
+	 * 
+	 * @return Seed; zero means the simulation is not seeded
+	 */
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+
+	/**
+	 * Overrides the master seed of the simulation.
+	 * 
+	 * @param seed New seed; zero disables the seeded mode
+	 */
+	public void setRandomSeed(long seed) {
+		this.randomSeed = seed;
+	}
 	
 	/**
 	 * Gets the min EVA light.
@@ -649,61 +720,173 @@ public class SimulationConfig {
 	 */
 	public Document parseXMLFileAsJDOMDocument(String filename, boolean useDTD)
 			throws JDOMException, IOException {
-		File f = getBundledXML(filename);
-		if (f != null) {
-			SAXBuilder builder = new SAXBuilder();
-			builder.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-			builder.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-			return builder.build(f);
+		return parseXMLFile(findXMLFile(filename));
+	}
+
+	/**
+	 * Loads one of the core XML files. This uses the document cache if enabled.
+	 * 
+	 * @param filename
+	 * @return
+	 * @throws JDOMException
+	 * @throws IOException
+	 */
+	private Document loadXMLDocument(String filename) throws JDOMException, IOException {
+		File f = findXMLFile(filename);
+		if (documentCache != null) {
+			return documentCache.getDocument(f, SimulationConfig::parseXMLFile);
 		}
-		else {
+		return parseXMLFile(f);
+	}
+
+	private File findXMLFile(String filename) {
+		File f = getBundledXML(filename);
+		if (f == null) {
 			logger.warning("Can not find default XML " + filename);
 			throw new IllegalStateException("Can not find default XML " + filename);
 		}
+		return f;
+	}
+
+	private static Document parseXMLFile(File f) throws JDOMException, IOException {
+		SAXBuilder builder = new SAXBuilder();
+		builder.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+		builder.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+		return builder.build(f);
 	}
 
 	/**
-	 * Loads the default config files.
+	 * Loads the default config files. All the XML files are parsed concurrently and each
+	 * config is built as soon as its document and the configs it needs are ready.
+	 * Anything that looks up resources or parts waits for those registries.
 	 * 
 	 * @throws IOException
 	 * @throws JDOMException
 	 */
 	private void loadDefaultConfiguration() throws JDOMException, IOException {
+		long start = System.nanoTime();
+		Map<String, CompletableFuture<Document>> docs = new HashMap<>();
+
+		try (ExecutorService pool = Executors.newFixedThreadPool(LOAD_THREADS)) {
+			for (String name : new String[] {GOVERNANCE_FILE, LUNAR_COLONY_FILE, RESOURCE_FILE, PART_FILE,
+							PART_PACKAGE_FILE, BUILDING_PACKAGE_FILE, PEOPLE_FILE, MEDICAL_FILE, LANDMARK_FILE,
+							MINERAL_MAP_FILE, MANUFACTURE_FILE, MALFUNCTION_FILE, CROP_FILE, VEHICLE_FILE,
+							RESPROCESS_FILE, BUILDING_FILE, RESUPPLY_FILE, SETTLEMENT_FILE, CONSTRUCTION_FILE,
+							FOODPRODUCTION_FILE, MEAL_FILE, ROBOT_FILE}) {
+				docs.put(name, CompletableFuture.supplyAsync(() -> loadDocument(name), pool));
+			}
+			var parsed = CompletableFuture.allOf(docs.values().toArray(new CompletableFuture[0]))
+					.thenRun(() -> recordTiming("Parse XML", start));
+
+			// Configs with no dependencies
+			var authority = build(pool, () -> raFactory = new AuthorityFactory(docs.get(GOVERNANCE_FILE).join()),
+							docs.get(GOVERNANCE_FILE));
+			var moon = build(pool, () -> moonConfig = new MoonConfig(docs.get(LUNAR_COLONY_FILE).join()),
+							docs.get(LUNAR_COLONY_FILE));
+			var buildingPackage = build(pool, () -> new BuildingPackageConfig(docs.get(BUILDING_PACKAGE_FILE).join()),
+							docs.get(BUILDING_PACKAGE_FILE));
+			var person = build(pool, () -> personConfig = new PersonConfig(docs.get(PEOPLE_FILE).join()),
+							docs.get(PEOPLE_FILE));
+			var medical = build(pool, () -> medicalConfig = new MedicalConfig(docs.get(MEDICAL_FILE).join()),
+							docs.get(MEDICAL_FILE));
+			var landmark = build(pool, () -> landmarkConfig = new LandmarkConfig(docs.get(LANDMARK_FILE).join()),
+							docs.get(LANDMARK_FILE));
+			var robot = build(pool, () -> robotConfig = new RobotConfig(docs.get(ROBOT_FILE).join()),
+							docs.get(ROBOT_FILE));
+			var science = build(pool, () -> scienceConfig = new ScienceConfig());
+
+			// Resources and then parts are registered globally and used by most other configs
+			var registry = build(pool, () -> {
+							resourceConfig = new AmountResourceConfig(docs.get(RESOURCE_FILE).join());
+							partConfig = new PartConfig(docs.get(PART_FILE).join());
+							recordTiming("Resources & parts", start);
+							return partConfig;
+						}, docs.get(RESOURCE_FILE), docs.get(PART_FILE));
+
+			var partPackage = build(pool, () -> new PartPackageConfig(docs.get(PART_PACKAGE_FILE).join(),
+															partConfig), registry, docs.get(PART_PACKAGE_FILE));
+			var mineral = build(pool, () -> mineralMapConfig = new MineralMapConfig(docs.get(MINERAL_MAP_FILE).join()),
+							registry, docs.get(MINERAL_MAP_FILE));
+			var manufacture = build(pool, () -> manufactureConfig = new ManufactureConfig(docs.get(MANUFACTURE_FILE).join()),
+							registry, docs.get(MANUFACTURE_FILE));
+			var malfunction = build(pool, () -> malfunctionConfig = new MalfunctionConfig(docs.get(MALFUNCTION_FILE).join()),
+							registry, docs.get(MALFUNCTION_FILE));
+			var crop = build(pool, () -> cropConfig = new CropConfig(docs.get(CROP_FILE).join(), personConfig),
+							registry, person, docs.get(CROP_FILE));
+			var vehicle = build(pool, () -> vehicleConfig = new VehicleConfig(docs.get(VEHICLE_FILE).join(),
+															manufactureConfig), manufacture, docs.get(VEHICLE_FILE));
+			var resourceProcess = build(pool, () -> resourceProcessConfig = new ResourceProcessConfig(
+											docs.get(RESPROCESS_FILE).join()), registry, docs.get(RESPROCESS_FILE));
+			var building = build(pool, () -> buildingConfig = new BuildingConfig(docs.get(BUILDING_FILE).join(),
+											resourceProcessConfig, manufactureConfig),
+							resourceProcess, manufacture, docs.get(BUILDING_FILE));
+			var resupply = build(pool, () -> new ResupplyConfig(docs.get(RESUPPLY_FILE).join(), partPackage.join()),
+							partPackage, docs.get(RESUPPLY_FILE));
+			var settlement = build(pool, () -> settlementConfig = new SettlementConfig(docs.get(SETTLEMENT_FILE).join()),
+							registry, docs.get(SETTLEMENT_FILE));
+			var settlementTemplate = build(pool, () -> settlementTemplateConfig = new SettlementTemplateConfig(
+											docs.get(SETTLEMENT_TEMPLATE_FILE).join(), partPackage.join(),
+											buildingPackage.join(), resupply.join(), this),
+							partPackage, buildingPackage, resupply, settlement, authority,
+							docs.get(SETTLEMENT_TEMPLATE_FILE));
+			var construction = build(pool, () -> constructionConfig = new ConstructionConfig(
+											docs.get(CONSTRUCTION_FILE).join()), registry, docs.get(CONSTRUCTION_FILE));
+			var foodProduction = build(pool, () -> foodProductionConfig = new FoodProductionConfig(
+											docs.get(FOODPRODUCTION_FILE).join()), registry, docs.get(FOODPRODUCTION_FILE));
+			var meal = build(pool, () -> mealConfig = new MealConfig(docs.get(MEAL_FILE).join(), cropConfig, personConfig),
+							crop, person, docs.get(MEAL_FILE));
+
+			CompletableFuture.allOf(parsed, moon, medical, landmark, robot, science, mineral, malfunction, vehicle,
+							building, settlementTemplate, construction, foodProduction, meal).join();
+		}
+		catch (CompletionException ce) {
+			switch (ce.getCause()) {
+				case JDOMException je -> throw je;
+				case IOException ioe -> throw ioe;
+				case RuntimeException rte -> throw rte;
+				default -> throw new IllegalStateException("Problem loading configs", ce.getCause());
+			}
+		}
+		recordTiming("Build configs", start);
 
-		// Load subset configuration classes.
-		raFactory = new AuthorityFactory(parseXMLFileAsJDOMDocument(GOVERNANCE_FILE, true));
-		
-		moonConfig = new MoonConfig(parseXMLFileAsJDOMDocument(LUNAR_COLONY_FILE, true));
-		
-		resourceConfig = new AmountResourceConfig(parseXMLFileAsJDOMDocument(RESOURCE_FILE, true));
-		partConfig = new PartConfig(parseXMLFileAsJDOMDocument(PART_FILE, true));
-		PartPackageConfig partPackageConfig = new PartPackageConfig(parseXMLFileAsJDOMDocument(PART_PACKAGE_FILE, true),
-																	partConfig);
-		BuildingPackageConfig buildingPackageConfig = new BuildingPackageConfig(parseXMLFileAsJDOMDocument(BUILDING_PACKAGE_FILE, true));
-		personConfig = new PersonConfig(parseXMLFileAsJDOMDocument(PEOPLE_FILE, true));
-		medicalConfig = new MedicalConfig(parseXMLFileAsJDOMDocument(MEDICAL_FILE, true));
-		landmarkConfig = new LandmarkConfig(parseXMLFileAsJDOMDocument(LANDMARK_FILE, true));
-		
-		mineralMapConfig = new MineralMapConfig(parseXMLFileAsJDOMDocument(MINERAL_MAP_FILE, true));
-		manufactureConfig = new ManufactureConfig(parseXMLFileAsJDOMDocument(MANUFACTURE_FILE, true));
-		malfunctionConfig = new MalfunctionConfig(parseXMLFileAsJDOMDocument(MALFUNCTION_FILE, true));
-		cropConfig = new CropConfig(parseXMLFileAsJDOMDocument(CROP_FILE, true), personConfig);
-		vehicleConfig = new VehicleConfig(parseXMLFileAsJDOMDocument(VEHICLE_FILE, true), manufactureConfig);
-		resourceProcessConfig = new ResourceProcessConfig(parseXMLFileAsJDOMDocument(RESPROCESS_FILE, true));
-		buildingConfig = new BuildingConfig(parseXMLFileAsJDOMDocument(BUILDING_FILE, true),
-									resourceProcessConfig, manufactureConfig);
-		ResupplyConfig resupplyConfig = new ResupplyConfig(parseXMLFileAsJDOMDocument(RESUPPLY_FILE, true), partPackageConfig);
-		settlementConfig = new SettlementConfig(parseXMLFileAsJDOMDocument(SETTLEMENT_FILE, true));
-		settlementTemplateConfig = new SettlementTemplateConfig(parseXMLFileAsJDOMDocument(
-				SETTLEMENT_TEMPLATE_FILE, true), partPackageConfig, buildingPackageConfig,
-				resupplyConfig, this);
-
-
-		constructionConfig = new ConstructionConfig(parseXMLFileAsJDOMDocument(CONSTRUCTION_FILE, true));
-		foodProductionConfig = new FoodProductionConfig(parseXMLFileAsJDOMDocument(FOODPRODUCTION_FILE, true));
-		mealConfig = new MealConfig(parseXMLFileAsJDOMDocument(MEAL_FILE, true),
-						cropConfig, personConfig);
-		robotConfig = new RobotConfig(parseXMLFileAsJDOMDocument(ROBOT_FILE, true));
-		scienceConfig = new ScienceConfig();
+		String cacheStatus = (documentCache != null ? ", cache hits=" + documentCache.getHits()
+											+ ", misses=" + documentCache.getMisses() : "");
+		logger.info("Configuration loaded: " + startupTimings + cacheStatus);
+	}
+
+	/**
+	 * Loads a document for use in a concurrent task.
+	 */
+	private Document loadDocument(String filename) {
+		try {
+			return loadXMLDocument(filename);
+		}
+		catch (JDOMException | IOException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	/**
+	 * Builds a config on the pool once all its dependencies have completed.
+	 */
+	private static <T> CompletableFuture<T> build(ExecutorService pool, Supplier<T> builder,
+											CompletableFuture<?>... dependencies) {
+		return CompletableFuture.allOf(dependencies).thenApplyAsync(v -> builder.get(), pool);
+	}
+
+	/**
+	 * Records the elapsed time since the start of loading when a phase completes.
+	 */
+	private synchronized void recordTiming(String phase, long start) {
+		startupTimings.put(phase, (System.nanoTime() - start) / 1_000_000L);
+	}
+
+	/**
+	 * Gets the time in milliseconds from the start of loading to the end of each phase.
+	 * 
+	 * @return
+	 */
+	public synchronized Map<String, Long> getStartupTimings() {
+		return Collections.unmodifiableMap(new LinkedHashMap<>(startupTimings));
 	}
 }
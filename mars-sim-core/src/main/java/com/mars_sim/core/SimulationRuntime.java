@@ -39,6 +39,7 @@ public class SimulationRuntime {
 	private static final String XML_DIR = "xml";
 	private static final String AUTOSAVE_DIR = "autosave";
 	private static final String LOG_DIR = "logs";
+	private static final String JOURNAL_DIR = "journal";
 	private static final String LOGGING_PROPERTIES = "/logging.properties";
 
 	// Name of the file generated by the Maven build
@@ -130,6 +131,16 @@ public class SimulationRuntime {
 		return dataDir + File.separator + LOG_DIR;
 	}
 
+	/**
+	 * Gets the directory of a named event journal.
+	 *
+	 * @param name Name of the journal
+	 * @return
+	 */
+	public static String getEventJournalDir(String name) {
+		return dataDir + File.separator + JOURNAL_DIR + File.separator + name;
+	}
+
 	/**
 	 * Initialises the runtime logging. This is a facade onto the java logging classes.
 	 */
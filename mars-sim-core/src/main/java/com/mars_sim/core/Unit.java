@@ -332,8 +332,7 @@ public abstract class Unit implements MonitorableEntity, UnitIdentifer, Comparab
 		if (listeners == null) {
 			return;
 		}
-		final EntityEvent ue = new EntityEvent(this, updateType, target);
-		listeners.fireEvent(ue);
+		listeners.fireEvent(this, updateType, target);
 	}
 
 	/**
@@ -38,6 +38,7 @@ import com.mars_sim.core.building.function.LivingAccommodation;
 import com.mars_sim.core.building.function.Research;
 import com.mars_sim.core.building.function.RoboticStation;
 import com.mars_sim.core.building.function.VehicleMaintenance;
+import com.mars_sim.core.computing.ComputingScheduler;
 import com.mars_sim.core.data.UnitSet;
 import com.mars_sim.core.environment.MeteoriteImpactProperty;
 import com.mars_sim.core.equipment.EquipmentType;
@@ -61,6 +62,7 @@ import com.mars_sim.core.person.ai.task.Walk;
 import com.mars_sim.core.person.ai.task.util.Worker;
 import com.mars_sim.core.resource.MaintenanceScope;
 import com.mars_sim.core.resource.Part;
+import com.mars_sim.core.resourceprocess.ResourceFlowSolver;
 import com.mars_sim.core.robot.Robot;
 import com.mars_sim.core.science.ScienceType;
 import com.mars_sim.core.structure.Settlement;
@@ -118,6 +120,8 @@ public class BuildingManager implements Serializable {
 
 	/** The settlement's map of adjacent buildings. */
 	private transient Map<Building, Set<Building>> adjacentBuildingMap = new HashMap<>();
+	/** Revision of the building connections the adjacent building map was created from. */
+	private transient int adjacencyRevision;
 
 	/** The settlement's maintenance parts map. */
 	private Map<Malfunctionable, Map<MaintenanceScope, Integer>> partsMaint = new HashMap<>();
@@ -128,6 +132,8 @@ public class BuildingManager implements Serializable {
 
 	private transient Settlement settlement;
 
+	private transient ResourceFlowSolver flowSolver;
+
 	private MeteoriteImpactProperty meteorite;
 
 	private static SimulationConfig simulationConfig;
@@ -884,6 +890,14 @@ public class BuildingManager implements Serializable {
 				logger.severe(b, "Problem applying pulse to Building", rte);
 			}
 		}
+
+		if (ResourceFlowSolver.isEnabled()) {
+			if (flowSolver == null) {
+				flowSolver = new ResourceFlowSolver(settlement);
+			}
+			// Move the resources of the processes that reached a check during the buildings phase
+			flowSolver.solve();
+		}
 		return true;
 	}
 
@@ -2071,20 +2085,7 @@ public class BuildingManager implements Serializable {
 	 * @return
 	 */
 	public Computation getMostFreeComputingNode(double need, int startTime, int endTime) {
-		Map<Computation, Double> scores = new HashMap<>();
-
-		for (Building b : getComNodes()) {
-			Computation node = b.getComputation();
-			double score = node.evaluateScheduleTask(need, startTime, endTime);
-			if (score > 0)
-				scores.put(node, score);
-		}
-
-		if (scores.isEmpty())
-			return null;
-
-		// Note: Use probability selection
-		return RandomUtil.getWeightedRandomObject(scores);
+		return ComputingScheduler.pickNode(getComNodes(), need, startTime, endTime);
 	}
 
 	/**
@@ -2308,6 +2309,8 @@ public class BuildingManager implements Serializable {
 	public void createAdjacentBuildingMap() {
 		if (adjacentBuildingMap == null)
 			adjacentBuildingMap = new HashMap<>();
+		adjacentBuildingMap.clear();
+		adjacencyRevision = getBuildingConnectorManager().getRevision();
 		for (Building b : getBuildingSet()) {
 			Set<Building> connectors = createAdjacentBuildings(b);
 			adjacentBuildingMap.put(b, connectors);
@@ -2315,13 +2318,15 @@ public class BuildingManager implements Serializable {
 	}
 
 	/**
-	 * Gets a set of buildings attached to this building.
+	 * Gets a set of buildings attached to this building. The map is created again if the
+	 * building connections have changed since it was made.
 	 *
 	 * @param building
 	 * @return
 	 */
 	public Set<Building> getAdjacentBuildings(Building building) {
-		if (adjacentBuildingMap == null) {
+		if ((adjacentBuildingMap == null)
+				|| (adjacencyRevision != getBuildingConnectorManager().getRevision())) {
 			createAdjacentBuildingMap();
 		}
 
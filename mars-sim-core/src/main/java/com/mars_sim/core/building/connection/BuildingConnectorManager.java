@@ -11,16 +11,15 @@ import java.awt.geom.Point2D;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.mars_sim.core.LocalAreaUtil;
 import com.mars_sim.core.building.Building;
 import com.mars_sim.core.building.BuildingManager;
@@ -48,46 +47,12 @@ public class BuildingConnectorManager implements Serializable {
 	private static final String SOUTH = "south";
 	private static final String WEST = "west";
 	
-	/**
-	 * This be a bidirectional equality. Ends are stored according to the identifier value.
-	 * A,B == B,A as well as A,B == A,B
-	 */
-	private static class PathKey {
-		private Building lower;
-		private Building upper;
-
-		PathKey(Building start, Building end) {
-			if (start.getIdentifier() < end.getIdentifier()) {
-				this.lower = start;
-				this.upper = end;
-			}
-			else {
-				this.upper = start;
-				this.lower = end;
-			}
-		}
-
-		@Override
-		public int hashCode() {
-			return lower.hashCode();
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			PathKey other = (PathKey) obj;
-			if (!lower.equals(other.lower))
-				return false;
-			return upper.equals(other.upper);
-		}
-	}
-	
-	private transient Cache<PathKey,List<InsidePathLocation>> learntPaths = buildCache();
+	// Rebuilt lazily whenever the connections change
+	private transient volatile BuildingRouteTable routeTable;
+	private transient AtomicInteger rebuilds = new AtomicInteger();
+	private transient AtomicLong queries = new AtomicLong();
+	// Changed whenever a connection is added or removed
+	private transient int revision;
 
 	/**
 	 * Inner class for representing a partial building connector.
@@ -131,6 +96,7 @@ public class BuildingConnectorManager implements Serializable {
 	public void initialize(Settlement settlement, List<BuildingTemplate> buildingTemplates) {
 		
 		buildingConnections = new HashSet<>();
+		connectionsChanged();
 
 		BuildingManager buildingManager = settlement.getBuildingManager();
 
@@ -462,6 +428,7 @@ public class BuildingConnectorManager implements Serializable {
 
 		if (!buildingConnections.contains(buildingConnector)) {
 			buildingConnections.add(buildingConnector);
+			connectionsChanged();
 		} else {
 			throw new IllegalArgumentException("BuildingConnector already exists.");
 		}
@@ -476,6 +443,7 @@ public class BuildingConnectorManager implements Serializable {
 
 		if (buildingConnections.contains(buildingConnector)) {
 			buildingConnections.remove(buildingConnector);
+			connectionsChanged();
 		} else {
 			throw new IllegalArgumentException("BuildingConnector does not exists.");
 		}
@@ -493,6 +461,25 @@ public class BuildingConnectorManager implements Serializable {
 			BuildingConnector connector = i.next();
 			buildingConnections.remove(connector);
 		}
+		connectionsChanged();
+	}
+
+	/**
+	 * Drops the route table and moves on the revision after the connections have changed.
+	 */
+	private void connectionsChanged() {
+		routeTable = null;
+		revision++;
+	}
+
+	/**
+	 * Gets the revision of the connections. It changes whenever a connection is added or removed
+	 * so callers can tell if anything built from the connections is out of date.
+	 * 
+	 * @return
+	 */
+	public int getRevision() {
+		return revision;
 	}
 
 	/**
@@ -559,17 +546,8 @@ public class BuildingConnectorManager implements Serializable {
 	 * @return true if valid interior walking path.
 	 */
 	public boolean hasValidPath(Building startBuilding, Building endBuilding) {
-		// Check agsint the already learnt paths
-		PathKey key = new PathKey(startBuilding, endBuilding);
-		if (learntPaths.getIfPresent(key) != null) {
-			return true;
-		}
-
-		BuildingLocation start = new BuildingLocation(startBuilding, startBuilding.getPosition());
-		BuildingLocation end = new BuildingLocation(endBuilding, endBuilding.getPosition());
-		var finder = new PathFinder(this, start, end);
-
-		var result = finder.isValidRoute();
+		queries.incrementAndGet();
+		var result = getRouteTable().hasRoute(startBuilding, endBuilding);
 		if (!result && logger.isLoggable(Level.FINEST)) {
 			logger.fine(startBuilding, "Unable to find valid interior walking path to " + endBuilding);
 		}
@@ -592,23 +570,32 @@ public class BuildingConnectorManager implements Serializable {
 		BuildingLocation start = new BuildingLocation(startBuilding, startPosition);
 		BuildingLocation end = new BuildingLocation(endBuilding, endPosition);
 
-		// Check against the already learnt paths
-		PathKey key = new PathKey(startBuilding, endBuilding);
-		var foundPath = learntPaths.getIfPresent(key);
-		if (foundPath != null) {
-			// Reuse the found path but alter the start and end posns
-			return new InsideBuildingPath(foundPath, start, end);
+		queries.incrementAndGet();
+		var path = getRouteTable().getPath(start, end);
+		if (path == null) {
+			return null;
 		}
+		return new InsideBuildingPath(path);
+	}
 
-		var finder = new PathFinder(this, start, end);
-		if (finder.isValidRoute()) {
-			// Actual path is immutable so it can be shared safely
-			var sharedPath = Collections.unmodifiableList(finder.toPath());
-			learntPaths.put(key, sharedPath);
-
-			return new InsideBuildingPath(sharedPath);
+	/**
+	 * Gets the route table for the current connections; it is rebuilt if they have changed.
+	 * 
+	 * @return
+	 */
+	private BuildingRouteTable getRouteTable() {
+		var table = routeTable;
+		if (table == null) {
+			synchronized (this) {
+				table = routeTable;
+				if (table == null) {
+					table = new BuildingRouteTable(buildingConnections);
+					rebuilds.incrementAndGet();
+					routeTable = table;
+				}
+			}
 		}
-		return null;
+		return table;
 	}
 
 	/**
@@ -934,6 +921,7 @@ public class BuildingConnectorManager implements Serializable {
 	public void destroy() {
 		buildingConnections.forEach(c -> c.destroy());
 		buildingConnections = null;
+		routeTable = null;
 	}
 
 	/**
@@ -946,31 +934,19 @@ public class BuildingConnectorManager implements Serializable {
 	private void readObject(java.io.ObjectInputStream in)
     	throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
-		learntPaths = buildCache();
-	}
-
-	/**
-	 * Gets a status of the learnt path cache.
-	 * 
-	 * @return
-	 */
-	public String getPathCacheStatus() {
-		var stats = learntPaths.stats();
-		return "Size=" + learntPaths.size() + ", Hit rate=" + Math.round(stats.hitRate() * 1000D)/10D
-			+ "%, requests=" + stats.requestCount() + ", evicted=" + stats.evictionCount();
+		rebuilds = new AtomicInteger();
+		queries = new AtomicLong();
 	}
 
 	/**
-	 * Uses a cache that will purge the older paths.
+	 * Gets a status of the building route table.
 	 * 
 	 * @return
 	 */
-	private static Cache<PathKey, List<InsidePathLocation>> buildCache() {
-		// Set a maximum number of routes to be cached
-		// Use a concurrency of 1 because it's a private Cache for this settlement
-		return CacheBuilder.newBuilder()
-						.recordStats()
-						.concurrencyLevel(1)
-						.maximumSize(100).build();
+	public String getRouteTableStatus() {
+		var table = getRouteTable();
+		return "Buildings=" + table.getBuildingCount() + ", links=" + table.getLinkCount()
+			+ ", routes=" + table.getRouteCount() + ", rebuilds=" + rebuilds.get()
+			+ ", queries=" + queries.get();
 	}
 }
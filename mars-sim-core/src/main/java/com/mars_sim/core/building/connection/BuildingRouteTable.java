@@ -0,0 +1,192 @@
+/*
+ * Mars Simulation Project
+ * BuildingRouteTable.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.building.connection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mars_sim.core.building.Building;
+
+/**
+ * An immutable all-pairs next hop table over the building connection graph of a settlement.
+ * It is built with a breadth first search from every building so each route uses the fewest
+ * buildings. Routes are then resolved by following the next hops, so a query costs the length
+ * of the path with no searching.
+ * The table is a snapshot; it is replaced when the connections change.
+ */
+class BuildingRouteTable {
+
+	private static final int NO_ROUTE = -1;
+
+	private final Map<Building, Integer> indexes;
+	private final Building[] buildings;
+
+	// Next building towards a destination, indexed [from][to]
+	private final int[][] nextHop;
+	// Connector used for the next hop, indexed [from][to]
+	private final BuildingConnector[][] nextConnector;
+	private final int links;
+
+	/**
+	 * Builds the table for a set of connections.
+	 *
+	 * @param connections All the building connectors of the settlement
+	 */
+	BuildingRouteTable(Collection<BuildingConnector> connections) {
+		indexes = new HashMap<>();
+		List<Building> found = new ArrayList<>();
+		List<List<BuildingConnector>> adjacent = new ArrayList<>();
+
+		int count = 0;
+		for (var c : connections) {
+			int b1 = register(c.getBuilding1(), found, adjacent);
+			int b2 = register(c.getBuilding2(), found, adjacent);
+			if (b1 != b2) {
+				adjacent.get(b1).add(c);
+				adjacent.get(b2).add(c);
+				count++;
+			}
+		}
+		links = count;
+		buildings = found.toArray(new Building[0]);
+
+		int size = buildings.length;
+		nextHop = new int[size][size];
+		nextConnector = new BuildingConnector[size][size];
+		int[] queue = new int[size];
+		for (int to = 0; to < size; to++) {
+			search(to, adjacent, queue);
+		}
+	}
+
+	private int register(Building b, List<Building> found, List<List<BuildingConnector>> adjacent) {
+		return indexes.computeIfAbsent(b, k -> {
+			found.add(k);
+			adjacent.add(new ArrayList<>());
+			return found.size() - 1;
+		});
+	}
+
+	/**
+	 * Breadth first search outwards from a destination. Each building reached records
+	 * the building it was reached from as the next hop towards the destination.
+	 */
+	private void search(int to, List<List<BuildingConnector>> adjacent, int[] queue) {
+		for (int[] row : nextHop) {
+			row[to] = NO_ROUTE;
+		}
+		nextHop[to][to] = to;
+
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = to;
+		while (head < tail) {
+			int current = queue[head++];
+			Building currentBuilding = buildings[current];
+			for (var c : adjacent.get(current)) {
+				int other = indexes.get(c.getOtherBuilding(currentBuilding));
+				if (nextHop[other][to] == NO_ROUTE) {
+					nextHop[other][to] = current;
+					nextConnector[other][to] = c;
+					queue[tail++] = other;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Is there a route between two buildings?
+	 *
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	boolean hasRoute(Building start, Building end) {
+		if (start.equals(end)) {
+			return true;
+		}
+		Integer from = indexes.get(start);
+		Integer to = indexes.get(end);
+		return (from != null) && (to != null) && (nextHop[from][to] != NO_ROUTE);
+	}
+
+	/**
+	 * Creates the walking path between two locations by following the next hops. The path
+	 * has the start, then the connectors and hatches with each intermediate building and finally the end.
+	 *
+	 * @param start Start location
+	 * @param end End location
+	 * @return Path or null if there is no route
+	 */
+	List<InsidePathLocation> getPath(BuildingLocation start, BuildingLocation end) {
+		Building startBuilding = start.getBuilding();
+		Building endBuilding = end.getBuilding();
+		if (!hasRoute(startBuilding, endBuilding)) {
+			return null;
+		}
+
+		List<InsidePathLocation> path = new ArrayList<>();
+		path.add(start);
+		if (!startBuilding.equals(endBuilding)) {
+			int current = indexes.get(startBuilding);
+			int to = indexes.get(endBuilding);
+			while (current != to) {
+				var connector = nextConnector[current][to];
+				Building currentBuilding = buildings[current];
+
+				// Add building connector with hatches if needed
+				if (connector.isSplitConnection()) {
+					boolean isCurrentBuilding1 = connector.getBuilding1().equals(currentBuilding);
+					path.add(isCurrentBuilding1 ? connector.getHatch1() : connector.getHatch2());
+					path.add(connector);
+					path.add(!isCurrentBuilding1 ? connector.getHatch1() : connector.getHatch2());
+				}
+				else {
+					path.add(connector);
+				}
+
+				current = nextHop[current][to];
+
+				// Last building is replaced by the end position
+				if (current != to) {
+					path.add(buildings[current]);
+				}
+			}
+		}
+		path.add(end);
+
+		return path;
+	}
+
+	/**
+	 * Gets the number of buildings connected.
+	 */
+	int getBuildingCount() {
+		return buildings.length;
+	}
+
+	/**
+	 * Gets the number of links between buildings.
+	 */
+	int getLinkCount() {
+		return links;
+	}
+
+	/**
+	 * Gets the number of ordered building pairs that have a route.
+	 */
+	int getRouteCount() {
+		int reachable = Arrays.stream(nextHop)
+				.mapToInt(r -> (int) Arrays.stream(r).filter(h -> h != NO_ROUTE).count())
+				.sum();
+		return reachable - buildings.length;
+	}
+}
@@ -6,12 +6,10 @@
  */
 package com.mars_sim.core.building.function;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.mars_sim.core.building.Building;
 import com.mars_sim.core.building.BuildingException;
 import com.mars_sim.core.building.config.FunctionSpec;
+import com.mars_sim.core.computing.CapacityCalendar;
 import com.mars_sim.core.person.ai.SkillType;
 import com.mars_sim.core.structure.Settlement;
 import com.mars_sim.core.time.ClockPulse;
@@ -48,6 +46,13 @@ public class Computation extends Function {
 	 */
 	private static final double WASTE_HEAT_FRACTION = .3;
 	
+	/** The load may go up to 5% above the peak. */
+	private static final double OVERLOAD_FACTOR = 1.05;
+	/** Allowance for rounding when a load is split to fill the headroom exactly. */
+	private static final double SMALL_LOAD = 1E-9;
+	/** Number of integer msols in the schedule. */
+	private static final int MSOLS_PER_SOL = 1000;
+
 	private static final String COMPUTING_UNIT = "computing-unit";
 	private static final String POWER_DEMAND = "power-demand";
 
@@ -84,7 +89,7 @@ public class Computation extends Function {
 	private double nonLoadkW;
 	
 	/** The schedule demand [in CUs] for each integer msol. */
-	private Map<Integer, Double> msolDemand;
+	private CapacityCalendar msolDemand;
     public static final String CONSUMING_COMPUTING_EVENT = "consuming computing units";
 
 	/**
@@ -116,7 +121,7 @@ public class Computation extends Function {
 		// Assume 15% of full load
 		nonLoadkW = NON_LOAD_POWER_USAGE * combinedLoadkW;
 		
-		msolDemand = new HashMap<>();
+		msolDemand = new CapacityCalendar(MSOLS_PER_SOL);
 	}
 
 	/**
@@ -260,142 +265,85 @@ public class Computation extends Function {
 	}
 	
 	/**
-	 * Schedules for a computing task.
+	 * Gets the number of integer msols from the start to the end of a task.
 	 * 
-	 * @param needed the CUs needed per msol
 	 * @param beginningMSol the start msol
 	 * @param endMSol the end msol
 	 * @return
 	 */
-	public boolean scheduleTask(double needed, int beginningMSol, int endMSol) {
-		double existing = 0;
-		
+	private static int getDuration(int beginningMSol, int endMSol) {
 		int duration = endMSol - beginningMSol;
 		if (duration < 0)
-			duration = endMSol + 1000 - beginningMSol;
+			duration = endMSol + MSOLS_PER_SOL - beginningMSol;
+		return Math.min(duration, MSOLS_PER_SOL);
+	}
 
-		// Test to see if the assigned duration has enough resources on each integer msol
-		for (int i = 0; i < duration; i++) {
-			int msolInt = i + beginningMSol;
-			if (msolInt > 999) {
-				msolInt = msolInt - 1000;
-			}
-			if (msolDemand.containsKey(msolInt)) {
-				existing = msolDemand.get(msolInt);
-			}
-			
-			double peak105Percent = 1.05 * peakCU;
-			// Need to make sure each msol has enough resources
-			double newLoad = existing + needed / duration;
-			
-			double over105 = peak105Percent - newLoad;
-			
-			double overZero = peakCU - newLoad;
-			
-			// May allow the load to go above 100%
-			if (over105 < 0) {
-				/*
-				 *  Do NOT delete. For debugging.
-				 */  
-//				 	logger.info(getBuilding(), 30_000, "2. Over 105%, peakCU: " + Math.round(peakCU * 100.0)/100.0
-//				 			+ "  exist: " + Math.round(existing * 1000.0)/1000.0
-//				 			+ "  need: " + Math.round(needed * 1000.0)/1000.0
-//				 			+ "  delta: " + Math.round(over105 * 1000.0)/1000.0);
-//				 
-				
-				return false;
-			} 
-			
-			else if (overZero < 0) {	
-				/*
-				 *  Do NOT delete. For debugging.
-				 */ 
-//				 	logger.info(getBuilding(), 30_000, "2. Over 100%, peakCU: " + Math.round(peakCU * 100.0)/100.0
-//				 			+ "  exist: " + Math.round(existing * 1000.0)/1000.0
-//				 			+ "  need: " + Math.round(needed * 1000.0)/1000.0
-//				 			+ "  delta: " + Math.round(overZero * 1000.0)/1000.0);
-				 
-				// It is allowed to go beyond within 5%
-			}
+	/**
+	 * Schedules for a computing task.
+	 * 
+	 * @param needed the CUs needed over the whole task
+	 * @param beginningMSol the start msol
+	 * @param endMSol the end msol
+	 * @return
+	 */
+	public boolean scheduleTask(double needed, int beginningMSol, int endMSol) {
+		int duration = getDuration(beginningMSol, endMSol);
+		if (duration == 0)
+			return true;
+
+		double newLoad = needed / duration;
+		
+		// May allow the load to go above 100% but not beyond 105% on any msol
+		if (msolDemand.getMax(beginningMSol, duration) + newLoad > OVERLOAD_FACTOR * peakCU + SMALL_LOAD) {
+			/*
+			 *  Do NOT delete. For debugging.
+			 */  
+//		 	logger.info(getBuilding(), 30_000, "2. Over 105%, peakCU: " + Math.round(peakCU * 100.0)/100.0
+//		 			+ "  need: " + Math.round(needed * 1000.0)/1000.0);
+			return false;
 		}
 
 		// Now the actual scheduling
-		for (int i = 0; i < duration; i++) {
-			int msolInt = i + beginningMSol;
-			if (msolInt > 999) {
-				msolInt = msolInt - 1000;
-			}
-			if (msolDemand.containsKey(msolInt)) {
-				existing = msolDemand.get(msolInt);
-			}
-			msolDemand.put(msolInt, existing + needed / duration);
-		}
+		msolDemand.add(beginningMSol, duration, newLoad);
 
 		return true;
 	}
 	
+	/**
+	 * Gets the CUs that could still be scheduled over a period before any msol goes above 105%.
+	 * 
+	 * @param beginningMSol
+	 * @param endMSol
+	 * @return CUs over the whole period
+	 */
+	public double getSpareCU(int beginningMSol, int endMSol) {
+		int duration = getDuration(beginningMSol, endMSol);
+		double headroom = OVERLOAD_FACTOR * peakCU - msolDemand.getMax(beginningMSol, duration);
+		return Math.max(0D, headroom) * duration;
+	}
+	
 	/**
 	 * Returns the evaluation score if scheduling for a computing task for a prescribed period of time. 
 	 * 
-	 * @param needed CU(s) per millisol
+	 * @param needed CU(s) needed over the whole task
 	 * @param beginningMSol
 	 * @param endMSol
 	 * @return
 	 */
 	public double evaluateScheduleTask(double needed, int beginningMSol, int endMSol) {
-		double score = 0;
-		double existing = 0;
-		
-		int duration = endMSol - beginningMSol;
-		if (duration < 0)
-			duration = endMSol + 1000 - beginningMSol;
-		
-		// Test to see if the assigned duration has enough resources on each integer msol
-		for (int i = 0; i < duration; i++) {
-			int msolInt = i + beginningMSol;
-			if (msolInt > 999) {
-				msolInt = msolInt - 1000;
-			}
-			if (msolDemand.containsKey(msolInt)) {
-				existing = msolDemand.get(msolInt);
-			}
-			
-			double peak105Percent = 1.05 * peakCU;
-			// Need to make sure each msol has enough resources
-			double newLoad = existing + needed / duration;
-			
-			double over105 = peak105Percent - newLoad;
-			
-			double overZero = peakCU - newLoad;
-			
-			// May allow the load to go above 100%
-			if (over105 < 0) {
+		int duration = getDuration(beginningMSol, endMSol);
+		if (duration == 0)
+			return 0;
 
-			/*
-			 *  Do NOT delete. For debugging.
-			 */  
-//			 	logger.info(getBuilding(), 30_000, "1. Over 105%, peakCU: " + Math.round(peakCU * 100.0)/100.0
-//			 			+ "  exist: " + Math.round(existing * 1000.0)/1000.0
-//			 			+ "  need: " + Math.round(needed * 1000.0)/1000.0
-//			 			+ "  delta: " + Math.round(over105 * 1000.0)/1000.0);
-			 
-				return 0;
-			} 
-			
-			else if (overZero < 0) {
-			/*
-			 *  Do NOT delete. For debugging.
-			 */ 
-//			 	logger.info(getBuilding(), 30_000, "1. Over 100%, peakCU: " + Math.round(peakCU * 100.0)/100.0
-//			 			+ "  exist: " + Math.round(existing * 1000.0)/1000.0
-//						+ "  need: " + Math.round(needed * 1000.0)/1000.0
-//			 			+ "  delta: " + Math.round(overZero * 1000.0)/1000.0);
-			 
-				// It is allowed to go beyond within 5%
-			}
-				
-			score += overZero;
+		double newLoad = needed / duration;
+		
+		// May allow the load to go above 100% but not beyond 105% on any msol
+		if (msolDemand.getMax(beginningMSol, duration) + newLoad > OVERLOAD_FACTOR * peakCU) {
+			return 0;
 		}
+
+		// Free CUs left on each msol after the task is added
+		double score = (peakCU - newLoad) * duration - msolDemand.getTotal(beginningMSol, duration);
 		
 		score = score * getEntropyPenalty();
 		
@@ -426,12 +374,8 @@ public class Computation extends Function {
 		
 		// Future: give players the choice to keep the demand log or to clear it
 
-		for (int i = now - 1; i >= previous; i--) {
-			// Delete past demand on previous msol
-			if (msolDemand.containsKey(i)) {
-				msolDemand.remove(i);
-			}
-		}
+		// Delete past demand so the msols can be booked again next sol
+		msolDemand.clear(previous, Math.floorMod(now - previous, MSOLS_PER_SOL));
 	}
 	
 	/**
@@ -448,12 +392,9 @@ public class Computation extends Function {
 				
 				increaseEntropy(ENTROPY_FACTOR * (1 + pulse.getElapsed() * (peakCU - freeCU) / 50));
 	
-				double newDemand = 0;
 				int msol = pulse.getMarsTime().getMillisolInt();
 		
-				if (msolDemand.containsKey(msol)) {
-					newDemand = msolDemand.get(msol);
-				}
+				double newDemand = msolDemand.get(msol);
 				
 				// Clear the old load demand in this center
 				clearOldDemand(previousMSol, msol);
@@ -617,7 +558,6 @@ public class Computation extends Function {
 	
 	@Override
 	public void destroy() {
-		msolDemand.clear();
 		msolDemand = null;
 		super.destroy();
 	}
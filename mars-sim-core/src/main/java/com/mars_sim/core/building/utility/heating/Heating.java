@@ -54,23 +54,25 @@ public class Heating implements Serializable {
 	/** The average molar mass of the air is 28.987 g/mol. */
 //	private static final double MOLAR_MASS_OF_AIR = 28.97;
 	// KG_TO_LB = 2.204623;
-	private static final double DEFAULT_ROOM_TEMPERATURE = 22.5;
+	static final double DEFAULT_ROOM_TEMPERATURE = 22.5;
 	// kW_TO_kBTU_PER_HOUR = 3.41214; // 1 kW = 3412.14 BTU/hr
-	private static final double C_TO_K = 273.15;
+	static final double C_TO_K = 273.15;
 	private static final double TRANSMITTANCE_GREENHOUSE_HIGH_PRESSURE = .55;
 	private static final double TRANSMITTANCE_WINDOW = 0.75;
-	private static final double EMISSIVITY_DAY = 0.8;
-	private static final double EMISSIVITY_NIGHT = 1.0;
+	static final double EMISSIVITY_DAY = 0.8;
+	static final double EMISSIVITY_NIGHT = 1.0;
 	// EMISSIVITY_INSULATED = 0.05 ;
-	private static final double STEFAN_BOLTZMANN_CONSTANT = 0.0000000567; // in W / (m^2 K^4)
+	static final double STEFAN_BOLTZMANN_CONSTANT = 0.0000000567; // in W / (m^2 K^4)
 
-	private static final double LARGE_INSULATION_CANOPY = .7; // [in kW]
-	private static final double INSULATION_BLANKET = .3; // [in kW]
-	private static final double HALLWAY_INSULATION = .5; // [in kW]
+	static final double LARGE_INSULATION_CANOPY = .7; // [in kW]
+	static final double INSULATION_BLANKET = .3; // [in kW]
+	static final double HALLWAY_INSULATION = .5; // [in kW]
 
 	// Thermostat's temperature allowance
-	private static final double T_UPPER_SENSITIVITY = 1D;
-	private static final double T_LOWER_SENSITIVITY = 1D;
+	static final double T_UPPER_SENSITIVITY = 1D;
+	static final double T_LOWER_SENSITIVITY = 1D;
+	/** The temperature step beyond the allowance that starts the active ventilation. */
+	static final double VENT_STEP = 1.25;
 
 	private static final double HEAT_DISSIPATED_PER_PERSON = .1; // [in kW]
 
@@ -91,7 +93,7 @@ public class Heating implements Serializable {
 	private static final double HEIGHT = 2.5; // in meter
 
 	/** The speed of the ventilation fan */
-	private static final double CFM = 50;
+	static final double CFM = 50;
 
 	/** convert meters to feet */
 	// M_TO_FT = 3.2808399;//10.764;
@@ -106,7 +108,7 @@ public class Heating implements Serializable {
 	 * corresponding cooling load. It is equals to Sensible Cooling Load divided by
 	 * Sensible Heat Gain
 	 */
-	private static final double CLF = 1.8D;
+	static final double CLF = 1.8D;
 
 	/**
 	 * The U-value in [Watts/m^2/°K] is the thermal transmittance (reciprocal of
@@ -137,7 +139,7 @@ public class Heating implements Serializable {
 	/** Density of dry breathable air [kg/m3] */
 	private static final double DRY_AIR_DENSITY = 1.275D; //
 	/** Factor for calculating airlock heat loss during EVA egress */
-	private static final double ENERGY_FACTOR_EVA = SPECIFIC_HEAT_CAP_AIR_300K * ClassicAirlock.AIRLOCK_VOLUME_IN_CM
+	static final double ENERGY_FACTOR_EVA = SPECIFIC_HEAT_CAP_AIR_300K * ClassicAirlock.AIRLOCK_VOLUME_IN_CM
 			* DRY_AIR_DENSITY / 1000;
 
 	/**
@@ -409,6 +411,72 @@ public class Heating implements Serializable {
 		return currentTemperature;
 	}
 
+	/**
+	 * Loads the fixed thermal coefficients of this building into a settlement solver.
+	 * 
+	 * @param solver the settlement solver
+	 * @param i the index of this building in the solver
+	 */
+	void loadCoefficients(SettlementThermalSolver solver, int i) {
+		if (adjacentBuildings == null)
+			initializeParams();
+
+		double solarFactor = .01;
+		if (isGreenhouse) {
+			solarFactor = .055;
+		}
+		else if (isConnector) {
+			solarFactor = .025;
+		}
+		solver.solarCoeff[i] = transmittance * hullArea * solarFactor;
+		solver.radiationCoeff[i] = (isGreenhouse ? hullArea / 2 : hullArea) / 1000D;
+		solver.greenhouse[i] = isGreenhouse;
+
+		solver.structure[i] = (isGreenhouse ? uValueAreaCeilingFloor : uValueAreaCeilingFloor * 2D) + uValueAreaWall;
+		solver.structureAirlock[i] = uValueAreaCeilingFloor * 2D + uValueAreaWall;
+		solver.crack[i] = uValueAreaCrackLength;
+		solver.crackAirlock[i] = uValueAreaCrackLengthAirlock;
+
+		solver.canopyCoeff[i] = switch (building.getConstruction()) {
+			case INFLATABLE -> LARGE_INSULATION_CANOPY;
+			case SEMI_ENGINEERED -> HALLWAY_INSULATION;
+			default -> INSULATION_BLANKET;
+		};
+		solver.floorArea[i] = floorArea;
+		solver.equipmentGain[i] = heatGainEquipment;
+		solver.areaFactor[i] = areaFactor;
+		solver.preset[i] = tPreset;
+	}
+
+	/**
+	 * Loads the current heat inputs of this building into a settlement solver. 
+	 * This consumes the passive vent heat and the airlock heat dump.
+	 * 
+	 * @param solver the settlement solver
+	 * @param i the index of this building in the solver
+	 */
+	void loadInputs(SettlementThermalSolver solver, int i) {
+		int numEVAgoers = building.numOfPeopleInAirLock();
+
+		double internalGain = getChefHeatGain() + HEAT_DISSIPATED_PER_PERSON * building.getNumPeople();
+		if (numEVAgoers > 0)
+			internalGain += building.getTotalPowerForEVA() / 2D;
+
+		solver.temperature[i] = getCurrentTemperature();
+		solver.heatPumpedIn[i] = getHeatGenerated() + getExcessHeat();
+		solver.internalGain[i] = internalGain;
+		solver.lampGain[i] = getLampHeatGain();
+		solver.evaGoers[i] = numEVAgoers;
+
+		solver.airlockDump[i] = numEVAgoers > 0 && hasHeatDumpViaAirlockOuterDoor;
+		if (solver.airlockDump[i])
+			hasHeatDumpViaAirlockOuterDoor = false;
+
+		solver.passiveVent[i] = passiveVentHeatCache;
+		if (passiveVentHeatCache != 0)
+			setPassiveVentHeat(0);
+	}
+
 	/**
 	 * Determines the heat gain or loss and the new indoor temperature.
 	 * 
@@ -463,19 +531,43 @@ public class Heating implements Serializable {
 		double gain = gainValue[0];
 		double canopyHeatGain = gainValue[1];
 //		logger.info(building, "gain: " + Math.round(gain * 100.0)/100.0 + " kW");
-		// Set heat gain
-		setHeatGain(gain);
 
 		// (3) CALCULATE HEAT LOSS
 
 		double loss = calculateHeatLoss(canopyHeatGain, outTCelsius, deltaTinTout, inTKelvin, outTKelvin, irradiance,
-				numEVAgoers);
+				numEVAgoers, weather.getWindSpeed(location));
 //		logger.info(building, "loss: " + Math.round(loss * 100.0)/100.0 + " kW");
-		// Set heat gain
-		setHeatLost(loss);
 
 		// (4) CALCULATE THE NET HEAT
 
+		// Step 4b : USE VENT HEAT VIA ACTIVE VENTILATION TO BRING IN HEAT FROM
+		// NEIGBORING BUILDINGS
+
+		// 4b1: Find activeVentHeat in kW
+		double activeVentHeat = calculateActiveVentHeat(gain + loss, inTCelsius, millisols);
+//		logger.warning(building, 2_000, "activeVentHeat: " + Math.round(activeVentHeat * 100.0) / 100.0 + ".");
+
+		return applyHeatBalance(gain, loss, activeVentHeat, millisols);
+	}
+
+	/**
+	 * Applies the heat gain, the heat loss and the active ventilation to the heat sinks 
+	 * and finds the new indoor temperature.
+	 * 
+	 * @param gain the heat gain in kW
+	 * @param loss the heat loss in kW
+	 * @param activeVentHeat the heat moved by active ventilation in kW
+	 * @param millisols time in millisols
+	 * @return the new temperature in degree celsius and the conversion factor
+	 */
+	private double[] applyHeatBalance(double gain, double loss, double activeVentHeat, double millisols) {
+		double inTCelsius = getCurrentTemperature();
+
+		// Set heat gain
+		setHeatGain(gain);
+		// Set heat loss
+		setHeatLost(loss);
+
 		// (4a) FIND THE DIFFERENCE between heat gain, heat loss
 		double diffHeatGainLoss = gain + loss;
 //		logger.info(building, "diffHeatGainLoss: " + Math.round(diffHeatGainLoss * 100.0)/100.0 + " kW");
@@ -494,12 +586,6 @@ public class Heating implements Serializable {
 
 		double seconds = Math.max(0.011, Math.min(2, MarsTime.SECONDS_PER_MILLISOL * millisols));
 
-		// Step 4b : USE VENT HEAT VIA ACTIVE VENTILATION TO BRING IN HEAT FROM
-		// NEIGBORING BUILDINGS
-
-		// 4b1: Find activeVentHeat in kW
-		double activeVentHeat = calculateActiveVentHeat(diffHeatGainLoss, inTCelsius, millisols);
-//		logger.warning(building, 2_000, "activeVentHeat: " + Math.round(activeVentHeat * 100.0) / 100.0 + ".");
 		// if activeVentHeat is positive, suck hotter air from adjacent buildings, thus
 		// having hotter air
 		// to come in and raise this building temperature
@@ -835,13 +921,7 @@ public class Heating implements Serializable {
 		double heatPumpedIn = heatGenCache + excessHeat;
 
 		// (2b) CALCULATE HEAT GAIN BY KITCHEN FOOD PREPARATION
-		double heatGainChief = 0;
-		if (building.getFoodProduction() != null) {
-			heatGainChief = HEAT_GAIN_PER_CHEF * building.getFoodProduction().getNumOccupiedActivitySpots();
-		}
-		if (building.getCooking() != null) {
-			heatGainChief += HEAT_GAIN_PER_CHEF * building.getCooking().getNumOccupiedActivitySpots();
-		}
+		double heatGainChief = getChefHeatGain();
 
 		// (2c) CALCULATE HEAT GAIN BY PEOPLE
 		double heatGainOccupants = HEAT_DISSIPATED_PER_PERSON * building.getNumPeople();
@@ -924,13 +1004,7 @@ public class Heating implements Serializable {
 		double lightingGain = 0;
 
 		// Case 1: Specialized Lighting for Crop
-		if (isGreenhouse && building.getFarming() != null) {
-			// Currently, greenhouses uses high pressure sodium lamps with the assumption
-			// of having 60% invisible radiation (energy loss as heat)
-			lightingGain = building.getFarming().getTotalLightingPower() * LAMP_GAIN_FACTOR;
-
-//			logger.info(building, 60_000, "lightingGain: " + Math.round(lightingGain * 10.0)/10.0);
-		}
+		lightingGain = getLampHeatGain();
 
 		// Case 2: General Lighting
 		if (irradiance < 0.075) {
@@ -985,14 +1059,44 @@ public class Heating implements Serializable {
 		return new double[] { gain, canopyHeatGain };
 	}
 
+	/**
+	 * Gets the heat gain by kitchen food preparation.
+	 * 
+	 * @return heat in kW
+	 */
+	private double getChefHeatGain() {
+		double heatGainChief = 0;
+		if (building.getFoodProduction() != null) {
+			heatGainChief = HEAT_GAIN_PER_CHEF * building.getFoodProduction().getNumOccupiedActivitySpots();
+		}
+		if (building.getCooking() != null) {
+			heatGainChief += HEAT_GAIN_PER_CHEF * building.getCooking().getNumOccupiedActivitySpots();
+		}
+		return heatGainChief;
+	}
+
+	/**
+	 * Gets the heat gain by the crop lamps of a greenhouse.
+	 * 
+	 * @return heat in kW
+	 */
+	private double getLampHeatGain() {
+		if (isGreenhouse && building.getFarming() != null) {
+			// Currently, greenhouses uses high pressure sodium lamps with the assumption
+			// of having 60% invisible radiation (energy loss as heat)
+			return building.getFarming().getTotalLightingPower() * LAMP_GAIN_FACTOR;
+		}
+		return 0;
+	}
+
 	/**
 	 * Calculates the heat loss.
 	 * 
-	 * @param error
+	 * @param windSpeed the wind speed at the settlement
 	 * @return
 	 */
 	private double calculateHeatLoss(double canopyHeatGain, double outTCelsius, double deltaTinTout, double inTKelvin,
-			double outTKelvin, double irradiance, int numEVAgoers) {
+			double outTKelvin, double irradiance, int numEVAgoers, double windSpeed) {
 		// (3a) CALCULATE HEAT NEEDED FOR REHEATING AIRLOCK
 
 		// Note that if the heat is negative, it means loss of heat
@@ -1015,15 +1119,15 @@ public class Heating implements Serializable {
 		// Note: deltaT is positive if indoor T is greater than outdoor T
 		if (numEVAgoers > 0) {
 			structuralLoss = -CLF * deltaTinTout * (uValueAreaCeilingFloor * 2D + uValueAreaWall
-					+ uValueAreaCrackLengthAirlock * weather.getWindSpeed(location)) / 1000 / 1.1;
+					+ uValueAreaCrackLengthAirlock * windSpeed) / 1000 / 1.1;
 			// Note : 1 m/s = 3.28084 ft/s = 2.23694 miles per hour
 		} else {
 			if (isGreenhouse) {
 				structuralLoss = -CLF * deltaTinTout * (uValueAreaCeilingFloor + uValueAreaWall
-						+ uValueAreaCrackLength * weather.getWindSpeed(location)) / 1000 / 1.1;
+						+ uValueAreaCrackLength * windSpeed) / 1000 / 1.1;
 			} else {
 				structuralLoss = -CLF * deltaTinTout * (uValueAreaCeilingFloor * 2D + uValueAreaWall
-						+ uValueAreaCrackLength * weather.getWindSpeed(location)) / 1000 / 1.1;
+						+ uValueAreaCrackLength * windSpeed) / 1000 / 1.1;
 			}
 		}
 
@@ -1322,6 +1426,33 @@ public class Heating implements Serializable {
 	 * @param millisols time in millisols
 	 */
 	private void cycleThermalControl(double millisols) {
+		double oldT = startThermalControl();
+
+		// STEP 1 : CALCULATE HEAT GAIN/LOSS AND RELATE IT TO THE TEMPERATURE CHANGE
+		completeThermalControl(oldT, determineHeatTemperature(millisols), millisols);
+	}
+
+	/**
+	 * Cycles through the thermal control system using the heat balance solved for the 
+	 * whole settlement.
+	 * 
+	 * @param gain the heat gain in kW
+	 * @param loss the heat loss in kW
+	 * @param activeVentHeat the heat moved by active ventilation in kW
+	 * @param millisols time in millisols
+	 * @see SettlementThermalSolver
+	 */
+	void applySolvedBalance(double gain, double loss, double activeVentHeat, double millisols) {
+		double oldT = startThermalControl();
+		completeThermalControl(oldT, applyHeatBalance(gain, loss, activeVentHeat, millisols), millisols);
+	}
+
+	/**
+	 * Starts a cycle of the thermal control.
+	 * 
+	 * @return the temperature at the start of the cycle
+	 */
+	private double startThermalControl() {
 
 		if (adjacentBuildings == null)
 			initializeParams();
@@ -1335,9 +1466,18 @@ public class Heating implements Serializable {
 			logger.warning(building, 20_000, "inT: " + Math.round(oldT * 10.0) / 10.0);
 		}
 
-		// STEP 1 : CALCULATE HEAT GAIN/LOSS AND RELATE IT TO THE TEMPERATURE CHANGE
-		double output[] = determineHeatTemperature(millisols);
+		return oldT;
+	}
 
+	/**
+	 * Completes a cycle of the thermal control by applying the new temperature and
+	 * finding the heat required.
+	 * 
+	 * @param oldT the temperature at the start of the cycle
+	 * @param output the new temperature and the conversion factor
+	 * @param millisols time in millisols
+	 */
+	private void completeThermalControl(double oldT, double[] output, double millisols) {
 		double newT = output[0];
 
 		double convFactor = output[1];
@@ -1692,8 +1832,6 @@ public class Heating implements Serializable {
 	 *         negative, hotter air is leaving
 	 */
 	private double calculateActiveVentHeat(double heat, double degNow, double millisols) {
-		final double STEP = 1.25;
-
 		// Reference : time = .121 at x128
 		// e.g. Lander Hab: At 26.8 deg, dt: 0.48 speedFactor: 0.234 areaFactor: 3.0
 
@@ -1711,8 +1849,8 @@ public class Heating implements Serializable {
 
 		double totalHeat = 0;
 		// Note: this temperature range is arbitrary
-		boolean tooLow = degNow < (tPreset - STEP * T_LOWER_SENSITIVITY);
-		boolean tooHigh = degNow > (tPreset + STEP * T_UPPER_SENSITIVITY);
+		boolean tooLow = degNow < (tPreset - VENT_STEP * T_LOWER_SENSITIVITY);
+		boolean tooHigh = degNow > (tPreset + VENT_STEP * T_UPPER_SENSITIVITY);
 
 		double lowerBound = Math.max(0, millisols);
 		double upperBound = Math.min(1, lowerBound);
@@ -1729,68 +1867,7 @@ public class Heating implements Serializable {
 			double tNow = adjacentBuildings.get(i).getCurrentTemperature();
 			double tInit = adjacentBuildings.get(i).getPresetTemperature();
 
-			boolean tooLowAdj = tNow < (tInit - STEP * T_LOWER_SENSITIVITY);
-			boolean tooHighAdj = tNow > (tInit + STEP * T_UPPER_SENSITIVITY);
-
-			double dt1 = Math.abs(degNow - tNow) / 4;
-			if (dt1 > 5)
-				dt1 = 5;
-
-			// The larger the area of a room, the more spread out the heat, the harder for
-			// the heat to be vented out
-			double maxHeat = modHeat * dt0 * dt1 * speedFactor;
-			if (maxHeat > 5)
-				maxHeat = 5;
-			else if (maxHeat < -5)
-				maxHeat = -5;
-
-			double deltaHeat = 0;
-
-			if (tooLow && (tNow - degNow) > 2) {
-				// Heat is coming in
-				// Need to suck hotter air from adjacent buildings
-				if (tooHighAdj) {
-
-					if (tNow > degNow) {
-						// If this adjacent building has a higher T than this
-						// building of interest, then heat is venting in
-						deltaHeat = maxHeat * .9;
-					} else if (tNow < degNow) {
-						// heat is coming in in lesser magnitude
-						deltaHeat = maxHeat * .4;
-					}
-				} else if (!tooLowAdj) {
-					if (tNow > degNow) {
-						// heat coming in
-						deltaHeat = maxHeat * .7;
-					} else if (tNow < degNow) {
-						// heat coming in
-						deltaHeat = maxHeat * .3;
-					}
-				}
-			}
-
-			else if (tooHigh && (degNow - tNow) > 2) {
-				// Heat is leaving
-				// Need to dump hotter air to adjacent buildings
-				if (tooLowAdj) {
-					if (degNow > tNow) {
-						// heat is leaving
-						deltaHeat = -maxHeat * .9;
-					} else if (degNow < tNow) {
-						// heat is leaving
-						deltaHeat = -maxHeat * .4;
-					}
-				} else if (!tooHighAdj) {
-					if (degNow > tNow) {
-						// heat is leaving
-						deltaHeat = -maxHeat * .7;
-					} else if (degNow < tNow) {
-						// heat is leaving
-						deltaHeat = -maxHeat * .3;
-					}
-				}
-			}
+			double deltaHeat = ventExchange(degNow, tooLow, tooHigh, tNow, tInit, modHeat * dt0 * speedFactor);
 
 			// +ve deltaHeat means this building is gaining heat
 			if (deltaHeat > 0) {
@@ -1854,6 +1931,66 @@ public class Heating implements Serializable {
 		return totalHeat;
 	}
 
+	/**
+	 * Computes the heat in kW moved by active ventilation between a building and one of
+	 * its adjacent buildings.
+	 * 
+	 * @param degNow the current temperature of the building in Deg Celsius
+	 * @param tooLow is the building too cold
+	 * @param tooHigh is the building too hot
+	 * @param tNow the current temperature of the adjacent building in Deg Celsius
+	 * @param tInit the preset temperature of the adjacent building in Deg Celsius
+	 * @param heatFactor the heat, temperature deviation and fan speed factor of the building
+	 * @return energy to be moved; if positive, hotter air is coming in; if
+	 *         negative, hotter air is leaving
+	 */
+	static double ventExchange(double degNow, boolean tooLow, boolean tooHigh, double tNow, double tInit,
+			double heatFactor) {
+		boolean tooLowAdj = tNow < (tInit - VENT_STEP * T_LOWER_SENSITIVITY);
+		boolean tooHighAdj = tNow > (tInit + VENT_STEP * T_UPPER_SENSITIVITY);
+
+		double dt1 = Math.abs(degNow - tNow) / 4;
+		if (dt1 > 5)
+			dt1 = 5;
+
+		// The larger the area of a room, the more spread out the heat, the harder for
+		// the heat to be vented out
+		double maxHeat = heatFactor * dt1;
+		if (maxHeat > 5)
+			maxHeat = 5;
+		else if (maxHeat < -5)
+			maxHeat = -5;
+
+		double deltaHeat = 0;
+
+		if (tooLow && (tNow - degNow) > 2) {
+			// Heat is coming in
+			// Need to suck hotter air from adjacent buildings
+			if (tooHighAdj) {
+				// If this adjacent building has a higher T than this
+				// building of interest, then heat is venting in
+				deltaHeat = maxHeat * .9;
+			} else if (!tooLowAdj) {
+				// heat coming in
+				deltaHeat = maxHeat * .7;
+			}
+		}
+
+		else if (tooHigh && (degNow - tNow) > 2) {
+			// Heat is leaving
+			// Need to dump hotter air to adjacent buildings
+			if (tooLowAdj) {
+				// heat is leaving
+				deltaHeat = -maxHeat * .9;
+			} else if (!tooHighAdj) {
+				// heat is leaving
+				deltaHeat = -maxHeat * .7;
+			}
+		}
+
+		return deltaHeat;
+	}
+
 	/**
 	 * Gets the value of the function for a named building.
 	 * 
@@ -0,0 +1,374 @@
+/*
+ * Mars Simulation Project
+ * SettlementThermalSolver.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.building.utility.heating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.mars_sim.core.building.Building;
+import com.mars_sim.core.building.BuildingManager;
+import com.mars_sim.core.building.function.FunctionType;
+import com.mars_sim.core.environment.SurfaceFeatures;
+import com.mars_sim.core.person.ai.task.util.Task;
+import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.time.ClockPulse;
+
+/**
+ * Solves the heat balance of every heated building of a settlement together.
+ * The inputs of each building are gathered into flat arrays with one entry per building so
+ * the heat gain, heat loss and active ventilation of the whole settlement are found by a few
+ * tight loops that share the outside conditions. The building adjacency is held as a compressed
+ * list that is only rebuilt when the heated buildings or the building connections change.
+ * Neighbours without heating are extra entries whose temperature is read at every step.
+ * Ventilation heat pushed into a neighbour is applied after the step, so the result does not
+ * depend on the order of the buildings. The heat sinks and the new temperature are still
+ * applied by each {@link Heating}.
+ */
+public final class SettlementThermalSolver {
+
+	private static boolean enabled = false;
+
+	private final Settlement settlement;
+	private final BuildingManager manager;
+
+	private Set<Building> layout = Set.of();
+	private int layoutRevision;
+	private Building[] neighbours = new Building[0];
+	private Heating[] heatings = new Heating[0];
+	private ThermalGeneration[] generators = new ThermalGeneration[0];
+
+	/** Number of heated buildings; the entries after these are unheated neighbours. */
+	int size;
+
+	// Fixed coefficients of each heated building
+	double[] solarCoeff;
+	double[] radiationCoeff;
+	boolean[] greenhouse;
+	double[] structure;
+	double[] structureAirlock;
+	double[] crack;
+	double[] crackAirlock;
+	double[] canopyCoeff;
+	double[] floorArea;
+	double[] equipmentGain;
+	double[] areaFactor;
+
+	// Adjacency of each heated building as a compressed row list
+	int[] adjStart;
+	int[] adjIndex;
+
+	// Temperatures of every building including the unheated neighbours
+	double[] preset;
+	double[] temperature;
+
+	// Inputs of each heated building for a step
+	double[] heatPumpedIn;
+	double[] internalGain;
+	double[] lampGain;
+	double[] passiveVent;
+	int[] evaGoers;
+	boolean[] airlockDump;
+
+	// Results of each heated building for a step
+	double[] gain;
+	double[] loss;
+	double[] activeVent;
+	double[] ventIn;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param settlement the settlement being solved
+	 */
+	public SettlementThermalSolver(Settlement settlement) {
+		this(settlement, settlement.getBuildingManager());
+	}
+
+	SettlementThermalSolver(Settlement settlement, BuildingManager manager) {
+		this.settlement = settlement;
+		this.manager = manager;
+		allocate(0, 0, 0);
+	}
+
+	/**
+	 * Enables the settlement wide thermal solver in place of each building calculating its own heat balance.
+	 *
+	 * @param enable
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Is the settlement wide thermal solver used ?
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sizes the arrays.
+	 *
+	 * @param heated number of heated buildings
+	 * @param nodes number of heated buildings and unheated neighbours
+	 * @param links number of adjacency links
+	 */
+	void allocate(int heated, int nodes, int links) {
+		size = heated;
+
+		solarCoeff = new double[heated];
+		radiationCoeff = new double[heated];
+		greenhouse = new boolean[heated];
+		structure = new double[heated];
+		structureAirlock = new double[heated];
+		crack = new double[heated];
+		crackAirlock = new double[heated];
+		canopyCoeff = new double[heated];
+		floorArea = new double[heated];
+		equipmentGain = new double[heated];
+		areaFactor = new double[heated];
+
+		adjStart = new int[heated + 1];
+		adjIndex = new int[links];
+
+		preset = new double[nodes];
+		temperature = new double[nodes];
+
+		heatPumpedIn = new double[heated];
+		internalGain = new double[heated];
+		lampGain = new double[heated];
+		passiveVent = new double[heated];
+		evaGoers = new int[heated];
+		airlockDump = new boolean[heated];
+
+		gain = new double[heated];
+		loss = new double[heated];
+		activeVent = new double[heated];
+		ventIn = new double[heated];
+	}
+
+	/**
+	 * Solves the heat balance of the settlement for a pulse. The pulse is split into the same
+	 * steps used by each building for its heat sources.
+	 *
+	 * @param pulse
+	 */
+	public void timePassing(ClockPulse pulse) {
+		if (pulse.getMarsTime().getMillisol() < .2)
+			return;
+
+		refreshLayout();
+		if (size == 0)
+			return;
+
+		double remaining = pulse.getElapsed();
+		double pTime = Task.getStandardPulseTime();
+		if (pTime == 0.0) {
+			pTime = remaining;
+		}
+		while (remaining > 0) {
+			double step = Math.min(pTime, remaining);
+			solveStep(step);
+			remaining -= step;
+		}
+	}
+
+	/**
+	 * Rebuilds the arrays if the heated buildings or the connections between buildings have changed.
+	 */
+	private void refreshLayout() {
+		Set<Building> current = manager.getBuildingSet(FunctionType.THERMAL_GENERATION);
+		int revision = manager.getBuildingConnectorManager().getRevision();
+		if (current.equals(layout) && (revision == layoutRevision)) {
+			return;
+		}
+		layout = new HashSet<>(current);
+		layoutRevision = revision;
+
+		List<Building> nodes = new ArrayList<>(current);
+		int heated = nodes.size();
+		Map<Building, Integer> index = new HashMap<>();
+		for (int i = 0; i < heated; i++) {
+			index.put(nodes.get(i), i);
+		}
+
+		List<int[]> links = new ArrayList<>();
+		for (int i = 0; i < heated; i++) {
+			for (Building b : settlement.getAdjacentBuildings(nodes.get(i))) {
+				Integer j = index.get(b);
+				if (j == null) {
+					j = nodes.size();
+					index.put(b, j);
+					nodes.add(b);
+				}
+				links.add(new int[] {i, j});
+			}
+		}
+
+		allocate(heated, nodes.size(), links.size());
+		heatings = new Heating[heated];
+		generators = new ThermalGeneration[heated];
+		for (int i = 0; i < heated; i++) {
+			generators[i] = nodes.get(i).getThermalGeneration();
+			heatings[i] = generators[i].getHeating();
+			heatings[i].loadCoefficients(this, i);
+		}
+		neighbours = nodes.subList(heated, nodes.size()).toArray(new Building[0]);
+
+		// Links are added in order of the heated building
+		for (int k = 0; k < links.size(); k++) {
+			int[] link = links.get(k);
+			adjStart[link[0] + 1]++;
+			adjIndex[k] = link[1];
+		}
+		for (int i = 0; i < heated; i++) {
+			adjStart[i + 1] += adjStart[i];
+		}
+	}
+
+	/**
+	 * Solves one step of the heat balance.
+	 *
+	 * @param millisols
+	 */
+	private void solveStep(double millisols) {
+		var location = settlement.getCoordinates();
+		double outT = settlement.getOutsideTemperature();
+		double irradiance = Heating.surface.getSolarIrradiance(location) / SurfaceFeatures.MAX_SOLAR_IRRADIANCE;
+		double windSpeed = Heating.weather.getWindSpeed(location);
+
+		for (int i = 0; i < size; i++) {
+			if (generators[i].isHeatingActive()) {
+				heatings[i].loadInputs(this, i);
+			}
+			else {
+				temperature[i] = heatings[i].getCurrentTemperature();
+			}
+		}
+		for (int n = 0; n < neighbours.length; n++) {
+			preset[size + n] = neighbours[n].getPresetTemperature();
+			temperature[size + n] = neighbours[n].getCurrentTemperature();
+		}
+
+		solveHeatBalance(outT, irradiance, windSpeed);
+		solveVentilation(millisols);
+
+		for (int i = 0; i < size; i++) {
+			if (generators[i].isHeatingActive()) {
+				heatings[i].applySolvedBalance(gain[i], loss[i], activeVent[i], millisols);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (ventIn[i] != 0) {
+				heatings[i].addVentInHeat(ventIn[i]);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the heat gain and heat loss of every heated building.
+	 *
+	 * @param outT the outside temperature in deg celsius
+	 * @param irradiance the solar irradiance as a fraction of the maximum
+	 * @param windSpeed the wind speed
+	 */
+	void solveHeatBalance(double outT, double irradiance, double windSpeed) {
+		double outK = outT + Heating.C_TO_K;
+		double outK4 = outK * outK * outK * outK;
+
+		// Terms that only depend on the outside conditions
+		double solar = Math.max(0, irradiance);
+		double canopyLight = (irradiance < 0.05 ? 0.7 * (.718 - irradiance) : 0);
+		double generalLight = (irradiance < 0.075 ? (.718 - irradiance) / 100 : 0);
+		double airlockDumpFactor = -Heating.ENERGY_FACTOR_EVA * (Heating.DEFAULT_ROOM_TEMPERATURE - outT);
+		double emissivityGreenhouse = Math.clamp((Heating.EMISSIVITY_DAY * irradiance
+						+ Heating.EMISSIVITY_NIGHT * (0.718 - irradiance)) * 0.85, .3, 1);
+		double emissivityOther = Math.clamp(Heating.EMISSIVITY_DAY * irradiance * .1
+						+ Heating.EMISSIVITY_NIGHT * (0.718 - irradiance) * .35, .15, 1);
+		double structureFactor = -Heating.CLF / 1000 / 1.1;
+
+		for (int i = 0; i < size; i++) {
+			double inT = temperature[i];
+			double inK = inT + Heating.C_TO_K;
+
+			// Assume high indoor temperature would lower canopyHeatGain
+			double ratioT = Heating.C_TO_K / inK;
+			double canopy = canopyLight * canopyCoeff[i] * ratioT * ratioT;
+
+			double g = heatPumpedIn[i] + internalGain[i] + solar * solarCoeff[i] + canopy
+						+ lampGain[i] + generalLight * floorArea[i] + equipmentGain[i];
+
+			int eva = evaGoers[i];
+			double l = (airlockDump[i] ? airlockDumpFactor * eva : 0);
+			if (eva > 0) {
+				l += structureFactor * (inT - outT) * (structureAirlock[i] + crackAirlock[i] * windSpeed);
+			}
+			else {
+				l += structureFactor * (inT - outT) * (structure[i] + crack[i] * windSpeed);
+			}
+
+			double inK4 = inK * inK * inK * inK;
+			double emissivity = (greenhouse[i] ? emissivityGreenhouse : emissivityOther);
+			l -= emissivity * Heating.STEFAN_BOLTZMANN_CONSTANT * (inK4 - outK4)
+						* radiationCoeff[i] / ((1 + canopy) * 2);
+
+			// Passive vent heat is a gain if positive and a loss if negative
+			double vent = passiveVent[i];
+			if (vent > 0) {
+				g += vent;
+			}
+			else {
+				l += vent;
+			}
+			gain[i] = g;
+			loss[i] = l;
+		}
+	}
+
+	/**
+	 * Calculates the heat moved by active ventilation. The heat each building pulls from
+	 * or pushes to a neighbour is collected in {@link #ventIn}.
+	 *
+	 * @param millisols
+	 */
+	void solveVentilation(double millisols) {
+		Arrays.fill(ventIn, 0D);
+		double speed = .06 * Math.clamp(millisols, 0, 1) * Heating.CFM / 2;
+		double lowStep = Heating.VENT_STEP * Heating.T_LOWER_SENSITIVITY;
+		double highStep = Heating.VENT_STEP * Heating.T_UPPER_SENSITIVITY;
+
+		for (int i = 0; i < size; i++) {
+			double degNow = temperature[i];
+			boolean tooLow = degNow < (preset[i] - lowStep);
+			boolean tooHigh = degNow > (preset[i] + highStep);
+			if (!tooLow && !tooHigh) {
+				activeVent[i] = 0;
+				continue;
+			}
+
+			double dt0 = Math.min(6, Math.abs(degNow - preset[i]) / 3);
+			double modHeat = Math.min(5, Math.abs(gain[i] + loss[i]) / 3);
+			double heatFactor = modHeat * dt0 * speed * areaFactor[i];
+
+			double totalHeat = 0;
+			for (int k = adjStart[i]; k < adjStart[i + 1]; k++) {
+				int j = adjIndex[k];
+				double deltaHeat = Heating.ventExchange(degNow, tooLow, tooHigh, temperature[j], preset[j], heatFactor);
+				if (j < size) {
+					ventIn[j] -= deltaHeat;
+				}
+				totalHeat += deltaHeat;
+			}
+			activeVent[i] = totalHeat;
+		}
+	}
+}
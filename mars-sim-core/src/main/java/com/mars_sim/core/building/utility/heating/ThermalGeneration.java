@@ -587,8 +587,10 @@ public class ThermalGeneration extends Function {
 		if (pulse.getMarsTime().getMillisol() < .2)
 			return;
 		
-		// Call heating's timePassing
-		heating.timePassing(millisols);
+		// Call heating's timePassing unless solved for the whole settlement
+		if (!SettlementThermalSolver.isEnabled()) {
+			heating.timePassing(millisols);
+		}
 		
 		double nowT = building.getCurrentTemperature();
 		
@@ -818,6 +820,13 @@ public class ThermalGeneration extends Function {
 	}
 	
 	
+	/**
+	 * Is the heating of this building being controlled yet ?
+	 */
+	boolean isHeatingActive() {
+		return !justLoaded;
+	}
+
 	public Heating getHeating() {
 		return heating;
 	}
@@ -47,6 +47,8 @@ implements Serializable, Temporal {
 	private Settlement settlement;
 
 	private BuildingManager manager;
+
+	private transient SettlementThermalSolver solver;
 	
 	/**
 	 * Constructor.
@@ -133,6 +135,14 @@ implements Serializable, Temporal {
 	@Override
 	public boolean timePassing(ClockPulse pulse) {
 
+		if (SettlementThermalSolver.isEnabled()) {
+			if (solver == null) {
+				solver = new SettlementThermalSolver(settlement);
+			}
+			// Solve the heat balance of all buildings before their heat sources react
+			solver.timePassing(pulse);
+		}
+
 		// update the total heat generated in the heating system.
 		updateHeatGen();
 
@@ -214,6 +224,7 @@ implements Serializable, Temporal {
 	 * Prepares object for garbage collection.
 	 */
 	public void destroy() {
+		solver = null;
 		manager = null;
 		settlement = null;
 	}
@@ -0,0 +1,205 @@
+/*
+ * Mars Simulation Project
+ * CapacityCalendar.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.computing;
+
+import java.io.Serializable;
+
+/**
+ * A calendar of the load booked on a resource for each slot of a repeating period, e.g.
+ * each integer millisol of a sol. Slots are a ring so a range may run past the end of the
+ * period and continue from the start. The loads are held in a segment tree so adding to a
+ * range, or finding the highest or total load over a range, takes logarithmic time rather
+ * than a step per slot.
+ */
+public final class CapacityCalendar implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int slots;
+
+	// Segment tree with a pending add for each node that has not been pushed to its children
+	private final double[] max;
+	private final double[] total;
+	private final double[] pending;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param slots Number of slots in the period
+	 */
+	public CapacityCalendar(int slots) {
+		if (slots <= 0) {
+			throw new IllegalArgumentException("Calendar needs at least one slot");
+		}
+		this.slots = slots;
+		max = new double[4 * slots];
+		total = new double[4 * slots];
+		pending = new double[4 * slots];
+	}
+
+	/**
+	 * Gets the number of slots in the period.
+	 *
+	 * @return
+	 */
+	public int getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Adds a load to every slot of a range.
+	 *
+	 * @param start First slot; wrapped into the period
+	 * @param length Number of slots; capped at one full period
+	 * @param amount Load added to each slot
+	 */
+	public void add(int start, int length, double amount) {
+		if (length <= 0) {
+			return;
+		}
+		int lo = Math.floorMod(start, slots);
+		int hi = lo + Math.min(length, slots) - 1;
+		if (hi < slots) {
+			add(1, 0, slots - 1, lo, hi, amount);
+		}
+		else {
+			add(1, 0, slots - 1, lo, slots - 1, amount);
+			add(1, 0, slots - 1, 0, hi - slots, amount);
+		}
+	}
+
+	/**
+	 * Gets the highest load of any slot in a range.
+	 *
+	 * @param start First slot; wrapped into the period
+	 * @param length Number of slots; capped at one full period
+	 * @return Highest load or zero for an empty range
+	 */
+	public double getMax(int start, int length) {
+		if (length <= 0) {
+			return 0D;
+		}
+		int lo = Math.floorMod(start, slots);
+		int hi = lo + Math.min(length, slots) - 1;
+		if (hi < slots) {
+			return getMax(1, 0, slots - 1, lo, hi);
+		}
+		return Math.max(getMax(1, 0, slots - 1, lo, slots - 1), getMax(1, 0, slots - 1, 0, hi - slots));
+	}
+
+	/**
+	 * Gets the sum of the loads over a range.
+	 *
+	 * @param start First slot; wrapped into the period
+	 * @param length Number of slots; capped at one full period
+	 * @return
+	 */
+	public double getTotal(int start, int length) {
+		if (length <= 0) {
+			return 0D;
+		}
+		int lo = Math.floorMod(start, slots);
+		int hi = lo + Math.min(length, slots) - 1;
+		if (hi < slots) {
+			return getTotal(1, 0, slots - 1, lo, hi);
+		}
+		return getTotal(1, 0, slots - 1, lo, slots - 1) + getTotal(1, 0, slots - 1, 0, hi - slots);
+	}
+
+	/**
+	 * Gets the load of a single slot.
+	 *
+	 * @param slot Slot; wrapped into the period
+	 * @return
+	 */
+	public double get(int slot) {
+		int s = Math.floorMod(slot, slots);
+		return getTotal(1, 0, slots - 1, s, s);
+	}
+
+	/**
+	 * Removes the load from the slots of a range so they can be booked again next period.
+	 *
+	 * @param start First slot; wrapped into the period
+	 * @param length Number of slots; capped at one full period
+	 */
+	public void clear(int start, int length) {
+		int count = Math.min(length, slots);
+		for (int i = 0; i < count; i++) {
+			int s = Math.floorMod(start + i, slots);
+			double load = getTotal(1, 0, slots - 1, s, s);
+			if (load != 0D) {
+				add(1, 0, slots - 1, s, s, -load);
+			}
+		}
+	}
+
+	private void apply(int node, int width, double amount) {
+		max[node] += amount;
+		total[node] += amount * width;
+		pending[node] += amount;
+	}
+
+	private void push(int node, int left, int right) {
+		double amount = pending[node];
+		if (amount != 0D) {
+			int mid = (left + right) >>> 1;
+			apply(2 * node, mid - left + 1, amount);
+			apply(2 * node + 1, right - mid, amount);
+			pending[node] = 0D;
+		}
+	}
+
+	private void add(int node, int left, int right, int lo, int hi, double amount) {
+		if ((lo <= left) && (right <= hi)) {
+			apply(node, right - left + 1, amount);
+			return;
+		}
+		push(node, left, right);
+		int mid = (left + right) >>> 1;
+		if (lo <= mid) {
+			add(2 * node, left, mid, lo, hi, amount);
+		}
+		if (hi > mid) {
+			add(2 * node + 1, mid + 1, right, lo, hi, amount);
+		}
+		max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+		total[node] = total[2 * node] + total[2 * node + 1];
+	}
+
+	private double getMax(int node, int left, int right, int lo, int hi) {
+		if ((lo <= left) && (right <= hi)) {
+			return max[node];
+		}
+		push(node, left, right);
+		int mid = (left + right) >>> 1;
+		double result = Double.NEGATIVE_INFINITY;
+		if (lo <= mid) {
+			result = getMax(2 * node, left, mid, lo, hi);
+		}
+		if (hi > mid) {
+			result = Math.max(result, getMax(2 * node + 1, mid + 1, right, lo, hi));
+		}
+		return result;
+	}
+
+	private double getTotal(int node, int left, int right, int lo, int hi) {
+		if ((lo <= left) && (right <= hi)) {
+			return total[node];
+		}
+		push(node, left, right);
+		int mid = (left + right) >>> 1;
+		double result = 0D;
+		if (lo <= mid) {
+			result = getTotal(2 * node, left, mid, lo, hi);
+		}
+		if (hi > mid) {
+			result += getTotal(2 * node + 1, mid + 1, right, lo, hi);
+		}
+		return result;
+	}
+}
@@ -7,14 +7,11 @@
 package com.mars_sim.core.computing;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.mars_sim.core.Unit;
-import com.mars_sim.core.building.Building;
 import com.mars_sim.core.building.function.Computation;
 import com.mars_sim.core.logging.SimLogger;
 import com.mars_sim.core.structure.Settlement;
@@ -133,29 +130,16 @@ public class ComputingJob implements Serializable {
      * @return
      */
     public boolean pickMultipleNodes(double timeCompleted, int now) {
-    	boolean canWork = false;
-    	
-		List<Building> nodes = new ArrayList<>(host.getBuildingManager().getComNodes());
-
-		double remainingDemand = initDemand;
-		
         int startMSol = now + 1;
         int endMSol = (int) (startMSol + duration - timeCompleted);
         
-		// Perform the first round of spreading the load
-		boolean complete = spreadLoad(nodes, remainingDemand, startMSol, endMSol);
-		
-		if (!complete) {
-			// Perform the second round of spreading the load
-			complete = spreadLoad(nodes, remainingDemand, startMSol, endMSol);
-		}
-		
-		if (!complete) {
-			// Perform the third round of spreading the load
-			complete = spreadLoad(nodes, remainingDemand, startMSol, endMSol);
-		}
-		
-	    if (!canWork || !complete) {
+		// Place the whole demand across the nodes in one pass
+		var loads = ComputingScheduler.spreadLoad(host.getBuildingManager().getComNodes(),
+							initDemand, startMSol, endMSol);
+		nodeLoads.putAll(loads);
+
+		boolean canWork = !loads.isEmpty();
+	    if (!canWork) {
 		    logger.info(host, 30_000, "Servers unable to handle the computational request for " 
 		    	+ purpose + ".");
         }
@@ -165,36 +149,6 @@ public class ComputingJob implements Serializable {
         return canWork;
     }
     
-    /**
-     * Spreads the server loads.
-     * 
-     * @param nodes
-     * @param remainingDemand
-     * @param startMSol
-     * @param endMSol
-     * @return
-     */
-    private boolean spreadLoad(List<Building> nodes, double remainingDemand, int startMSol, int endMSol) {
-    	boolean complete = false;
-    	int numNodes = nodes.size();
-    	for (int i = 0; i < numNodes; i++) {
-			Building b = nodes.get(i);
-			Computation node = b.getComputation();
-			double portionToHandle = remainingDemand / numNodes;
-			complete = node.scheduleTask(portionToHandle, startMSol, endMSol);
-			
-			if (complete) {
-				remainingDemand -= portionToHandle;
-				this.nodeLoads.put(node, portionToHandle);
-			}
-			
-			if (remainingDemand == 0)
-				break;
-		}
-    	
-    	return complete;
-    }
-    
     /**
      * Processes the request.
      * 
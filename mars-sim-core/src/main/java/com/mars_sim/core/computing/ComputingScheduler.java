@@ -0,0 +1,107 @@
+/*
+ * Mars Simulation Project
+ * ComputingScheduler.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.computing;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.mars_sim.core.building.Building;
+import com.mars_sim.core.building.function.Computation;
+import com.mars_sim.core.tool.RandomUtil;
+
+/**
+ * Places computing jobs on the computing nodes of a settlement. Each node answers the
+ * checks from its {@link CapacityCalendar}, so a node is looked at once per request
+ * whatever the length of the job.
+ */
+public final class ComputingScheduler {
+
+	private ComputingScheduler() {
+		// Static helper class
+	}
+
+	/**
+	 * Picks a node that can take the whole of a job. Nodes with more free CUs over the period
+	 * are more likely to be picked.
+	 *
+	 * @param nodes Buildings with a computation function
+	 * @param need CUs needed over the whole job
+	 * @param startMSol
+	 * @param endMSol
+	 * @return The node or null if none can take the job
+	 */
+	public static Computation pickNode(Collection<Building> nodes, double need, int startMSol, int endMSol) {
+		Computation[] candidates = new Computation[nodes.size()];
+		double[] scores = new double[nodes.size()];
+		int count = 0;
+		double totalScore = 0D;
+		for (Building b : nodes) {
+			Computation node = b.getComputation();
+			double score = node.evaluateScheduleTask(need, startMSol, endMSol);
+			if (score > 0) {
+				candidates[count] = node;
+				scores[count++] = score;
+				totalScore += score;
+			}
+		}
+
+		if (count == 0)
+			return null;
+
+		// Note: Use probability selection
+		double pick = RandomUtil.getRandomDouble(totalScore);
+		for (int i = 0; i < count; i++) {
+			if (pick <= scores[i]) {
+				return candidates[i];
+			}
+			pick -= scores[i];
+		}
+		return candidates[count - 1];
+	}
+
+	/**
+	 * Spreads a job over all the nodes in one pass. Each node takes a share in proportion to
+	 * the CUs it has spare over the period so they are all left equally loaded. Nothing is
+	 * booked if the nodes together cannot take the job.
+	 *
+	 * @param nodes Buildings with a computation function
+	 * @param demand CUs needed over the whole job
+	 * @param startMSol
+	 * @param endMSol
+	 * @return The CUs booked on each node; empty if the job could not be placed
+	 */
+	public static Map<Computation, Double> spreadLoad(Collection<Building> nodes, double demand,
+						int startMSol, int endMSol) {
+		Map<Computation, Double> loads = new HashMap<>();
+		Computation[] candidates = new Computation[nodes.size()];
+		double[] spare = new double[nodes.size()];
+		int count = 0;
+		double totalSpare = 0D;
+		for (Building b : nodes) {
+			Computation node = b.getComputation();
+			double cu = node.getSpareCU(startMSol, endMSol);
+			if (cu > 0) {
+				candidates[count] = node;
+				spare[count++] = cu;
+				totalSpare += cu;
+			}
+		}
+
+		if ((demand <= 0) || (totalSpare < demand))
+			return loads;
+
+		double fraction = demand / totalSpare;
+		for (int i = 0; i < count; i++) {
+			double portion = spare[i] * fraction;
+			if (candidates[i].scheduleTask(portion, startMSol, endMSol)) {
+				loads.put(candidates[i], portion);
+			}
+		}
+		return loads;
+	}
+}
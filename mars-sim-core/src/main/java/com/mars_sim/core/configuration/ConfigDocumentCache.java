@@ -0,0 +1,148 @@
+/*
+ * Mars Simulation Project
+ * ConfigDocumentCache.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+
+import com.mars_sim.core.logging.SimLogger;
+import com.mars_sim.core.tool.Hash;
+
+/**
+ * This is an on-disk cache of parsed XML documents. Each entry holds the checksum of the
+ * source file and the serialized JDOM document so an unchanged file is loaded without any
+ * XML parsing or DTD processing. A changed source file or an unreadable entry falls back to
+ * parsing and the entry is rewritten.
+ * The cache is safe to use from several threads as long as each file is only loaded by one.
+ */
+public class ConfigDocumentCache {
+
+	/**
+	 * Parses a source file into a document.
+	 */
+	@FunctionalInterface
+	public interface DocumentParser {
+		Document parse(File source) throws JDOMException, IOException;
+	}
+
+	private static final SimLogger logger = SimLogger.getLogger(ConfigDocumentCache.class.getName());
+
+	private static final String ENTRY_EXTENSION = ".jdom";
+
+	private File location;
+	private AtomicInteger hits = new AtomicInteger();
+	private AtomicInteger misses = new AtomicInteger();
+
+	/**
+	 * Creates a cache that stores the entries in a folder.
+	 *
+	 * @param location Folder of the entries
+	 */
+	public ConfigDocumentCache(File location) {
+		this.location = location;
+		location.mkdirs();
+	}
+
+	/**
+	 * Gets the document for a source file either from the cache or by parsing it.
+	 *
+	 * @param source XML file
+	 * @param parser Parser used when there is no valid entry
+	 * @return
+	 * @throws JDOMException
+	 * @throws IOException
+	 */
+	public Document getDocument(File source, DocumentParser parser) throws JDOMException, IOException {
+		String checksum = Hash.MD5.getChecksumString(source);
+		File entry = new File(location, source.getName() + ENTRY_EXTENSION);
+
+		Document result = readEntry(entry, checksum);
+		if (result != null) {
+			hits.incrementAndGet();
+			return result;
+		}
+
+		misses.incrementAndGet();
+		result = parser.parse(source);
+		writeEntry(entry, checksum, result);
+		return result;
+	}
+
+	/**
+	 * Reads an entry if it exists and matches the checksum.
+	 */
+	private Document readEntry(File entry, String checksum) {
+		if (!entry.exists()) {
+			return null;
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+			if (checksum.equals(in.readUTF())) {
+				return (Document) in.readObject();
+			}
+		}
+		catch (IOException | ClassNotFoundException | ClassCastException e) {
+			logger.warning("Discarding config cache entry " + entry.getName() + ": " + e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Writes an entry via a temporary file so a partial entry is never seen.
+	 */
+	private void writeEntry(File entry, String checksum, Document doc) {
+		File temp = new File(location, entry.getName() + ".tmp");
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeUTF(checksum);
+			out.writeObject(doc);
+		}
+		catch (IOException e) {
+			logger.warning("Cannot write config cache entry " + entry.getName() + ": " + e.getMessage());
+			temp.delete();
+			return;
+		}
+
+		try {
+			Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			logger.warning("Cannot replace config cache entry " + entry.getName() + ": " + e.getMessage());
+			temp.delete();
+		}
+	}
+
+	/**
+	 * Gets the number of documents loaded from the cache.
+	 *
+	 * @return
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of documents that had to be parsed.
+	 *
+	 * @return
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+}
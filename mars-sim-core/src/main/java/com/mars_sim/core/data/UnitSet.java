@@ -182,7 +182,10 @@ public class UnitSet<T extends UnitIdentifer>
 	 */
 	@SuppressWarnings("rawtypes")
 	private static void registerInitialisation(UnitSet i) {
-		INSTANCES.add(i);
+		// Sections of a sharded save are loaded concurrently
+		synchronized (INSTANCES) {
+			INSTANCES.add(i);
+		}
 	}
 	
 	/**
@@ -193,29 +196,46 @@ public class UnitSet<T extends UnitIdentifer>
 	 */
 	@SuppressWarnings("rawtypes")
 	public static void reinit(UnitManager mgr) {
-		for (UnitSet i : INSTANCES) {
-			i.reload(mgr);
+		reinit(mgr::getUnitByID, true);
+	}
+
+	/**
+	 * Reinitialises any deserialised UnitSets from a lookup of the Units that have
+	 * been loaded.
+	 * 
+	 * @param lookup Finds a Unit by identifier
+	 * @param complete Must every member be found; otherwise missing members are left out
+	 */
+	@SuppressWarnings("rawtypes")
+	public static void reinit(IntFunction<? extends UnitIdentifer> lookup, boolean complete) {
+		synchronized (INSTANCES) {
+			for (UnitSet i : INSTANCES) {
+				i.reload(lookup, complete);
+			}
+			INSTANCES.clear();
 		}
-		INSTANCES.clear();
 	}
     	
     /**
      * Converts the temp list of Unit identifiers into the Unit references
      * into the internal set.
      * 
-     * @param mgr
+     * @param lookup
+     * @param complete
      */
 	@SuppressWarnings("unchecked")
-	private void reload(UnitManager mgr) {
+	private void reload(IntFunction<? extends UnitIdentifer> lookup, boolean complete) {
 		if (units == null) {
 			units = new HashSet<>();
 			
 			for(int id : ids) {
-				T found = (T) mgr.getUnitByID(id);
-				if (found == null) {
+				T found = (T) lookup.apply(id);
+				if (found != null) {
+					units.add(found);
+				}
+				else if (complete) {
 					throw new IllegalStateException("Can not find Unit for id: " + id);
 				}
-				units.add(found);
 			}
 			ids = null;
 		}
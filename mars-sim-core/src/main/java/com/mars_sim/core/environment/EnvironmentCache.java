@@ -0,0 +1,155 @@
+/*
+ * Mars Simulation Project
+ * EnvironmentCache.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.environment;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.mars_sim.core.map.location.Coordinates;
+
+/**
+ * A fixed size cache of environment samples that is shared by the settlement threads.
+ * Each location is given a compact id, which is the slot it occupies, and each slot holds an
+ * immutable entry stamped with the epoch it was computed in. A sample is computed once per
+ * epoch per location; a read in the same epoch is a single array read with no locking and no
+ * allocation. The owner decides what an epoch is, e.g. one millisol.
+ * The slots are never reallocated; when the neighbourhood of a location is full the oldest
+ * location in it is evicted.
+ */
+final class EnvironmentCache {
+
+	/**
+	 * The environment samples held.
+	 */
+	enum Sample {
+		OPTICAL_DEPTH, IRRADIANCE, TEMPERATURE, PRESSURE, WIND_SPEED, WIND_DIRECTION
+	}
+
+	/**
+	 * Computes a sample at a location.
+	 */
+	@FunctionalInterface
+	interface SampleFunction {
+		/**
+		 * Computes the new value.
+		 *
+		 * @param location Location of the sample
+		 * @param previous Value of the previous epoch or NaN if there is none
+		 * @return
+		 */
+		double compute(Coordinates location, double previous);
+	}
+
+	private record Entry(Coordinates location, long epoch, double value) {}
+
+	private static final int SLOTS = 1024;
+	private static final int PROBES = 4;
+
+	private final AtomicReferenceArray<Entry>[] samples;
+
+	/**
+	 * Creates a cache for some samples.
+	 *
+	 * @param held Samples that will be held
+	 */
+	@SuppressWarnings("unchecked")
+	EnvironmentCache(Sample... held) {
+		samples = new AtomicReferenceArray[Sample.values().length];
+		for (Sample s : held) {
+			samples[s.ordinal()] = new AtomicReferenceArray<>(SLOTS);
+		}
+	}
+
+	private static int home(Coordinates location) {
+		int h = location.hashCode();
+		return (h ^ (h >>> 16)) & (SLOTS - 1);
+	}
+
+	/**
+	 * Gets the slot of a location. This is the slot already holding the location, or the
+	 * first free slot, or else the least recently computed slot in its neighbourhood.
+	 *
+	 * @param slots
+	 * @param location
+	 * @return
+	 */
+	private static int locationId(AtomicReferenceArray<Entry> slots, Coordinates location) {
+		int start = home(location);
+		int victim = start;
+		long oldest = Long.MAX_VALUE;
+		for (int i = 0; i < PROBES; i++) {
+			int idx = (start + i) & (SLOTS - 1);
+			Entry e = slots.get(idx);
+			if ((e == null) || e.location().equals(location)) {
+				return idx;
+			}
+			if (e.epoch() < oldest) {
+				oldest = e.epoch();
+				victim = idx;
+			}
+		}
+		return victim;
+	}
+
+	/**
+	 * Gets a sample at a location, computing it if it has not been computed in this epoch.
+	 *
+	 * @param sample Sample wanted
+	 * @param location Location of the sample
+	 * @param epoch Current epoch of the sample
+	 * @param function Computes a new value
+	 * @return
+	 */
+	double get(Sample sample, Coordinates location, long epoch, SampleFunction function) {
+		var slots = samples[sample.ordinal()];
+		int idx = locationId(slots, location);
+		Entry current = slots.get(idx);
+		boolean sameLocation = (current != null) && current.location().equals(location);
+		if (sameLocation && (current.epoch() == epoch)) {
+			return current.value();
+		}
+
+		double previous = (sameLocation ? current.value() : Double.NaN);
+		double value = function.compute(location, previous);
+		if (!slots.compareAndSet(idx, current, new Entry(location, epoch, value))) {
+			// Another thread has computed this epoch first so use the same value
+			Entry winner = slots.get(idx);
+			if ((winner != null) && winner.location().equals(location) && (winner.epoch() == epoch)) {
+				return winner.value();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the latest value of a sample without computing it.
+	 *
+	 * @param sample
+	 * @param location
+	 * @return Latest value or NaN if there is none
+	 */
+	double peek(Sample sample, Coordinates location) {
+		var slots = samples[sample.ordinal()];
+		Entry e = slots.get(locationId(slots, location));
+		if ((e != null) && e.location().equals(location)) {
+			return e.value();
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	void clear() {
+		for (var slots : samples) {
+			if (slots != null) {
+				for (int i = 0; i < SLOTS; i++) {
+					slots.set(i, null);
+				}
+			}
+		}
+	}
+}
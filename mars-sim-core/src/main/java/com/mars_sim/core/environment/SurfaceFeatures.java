@@ -13,7 +13,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
 import com.mars_sim.core.logging.SimLogger;
 import com.mars_sim.core.map.location.Coordinates;
@@ -67,10 +66,12 @@ public class SurfaceFeatures implements Serializable, Temporal {
 
 	private static final double OPTICAL_DEPTH_STARTING = 0.2342;
 
-	/** The most recent value of optical depth by Coordinate. */
-	private transient Map<Coordinates, Double> opticalDepthMap = new HashMap<>();
-	/** The most recent value of solar irradiance by Coordinate. */
-	private transient Map<Coordinates, Double> currentIrradiance = new HashMap<>();
+	/** The most recent values of optical depth and solar irradiance by location. */
+	private transient EnvironmentCache samples = createCache();
+	/** Advanced each time the optical depth is refreshed. */
+	private transient volatile long opticalDepthEpoch = 0;
+	/** Advanced each integer millisol as the solar irradiance changes. */
+	private transient volatile long irradianceEpoch = 0;
 	
 	// non-static instances
 	private MineralMap mineralMap;
@@ -78,9 +79,6 @@ public class SurfaceFeatures implements Serializable, Temporal {
 	private Weather weather;
 	private OrbitInfo orbitInfo;
 	private TerrainElevation terrainElevation;
-	
-	private final ReentrantLock opticalDepthLock = new ReentrantLock(true);
-	private final ReentrantLock sunlightLock = new ReentrantLock(true);
 
 	/** The set of locations that have been declared as Region of Interest (ROI). */
 	private List<MineralSite> regionOfInterestLocations;
@@ -121,21 +119,12 @@ public class SurfaceFeatures implements Serializable, Temporal {
 	 * @return
 	 */
 	public double getOpticalDepth(Coordinates location) {
-		Double value = opticalDepthMap.get(location);
-		if (value != null)
-			return value.doubleValue();
-
-		opticalDepthLock.lock();
-		
-		double result = computeOpticalDepth(location);
-
-		// Make cache thread safe as this may be done on demand
-//		synchronized(opticalDepthMap)
-			opticalDepthMap.put(location, result);
-		
-		opticalDepthLock.unlock();
+		return samples.get(EnvironmentCache.Sample.OPTICAL_DEPTH, location, opticalDepthEpoch,
+							(l, p) -> computeOpticalDepth(l));
+	}
 
-		return result;
+	private static EnvironmentCache createCache() {
+		return new EnvironmentCache(EnvironmentCache.Sample.OPTICAL_DEPTH, EnvironmentCache.Sample.IRRADIANCE);
 	}
 
 	/**
@@ -146,8 +135,6 @@ public class SurfaceFeatures implements Serializable, Temporal {
 	 */
 	private double computeOpticalDepth(Coordinates location) {
 
-		double tau = 0;
-
 		// Reference :
 		// See Chapter 2.3.1 and equation (2.44,45) on page 63 from the book "Mars:
 		// Prospective Energy and Material Resources" by Badescu, Springer 2009.
@@ -163,14 +150,8 @@ public class SurfaceFeatures implements Serializable, Temporal {
 
 		// Equation: tau = 0.2342 + 0.2247 * yestersolAirPressureVariation
 		// the starting value for opticalDepth is 0.2342. See Ref below
-		if (opticalDepthMap.containsKey(location))
-			tau = (.9 * opticalDepthMap.get(location) 
-				 + .1 * (OPTICAL_DEPTH_STARTING 
-						+ newTau
-						+ weather.getWindSpeed(location) / 20));
-		else {
-			tau = OPTICAL_DEPTH_STARTING + newTau;
-		}
+		// Note: each refresh starts again from the starting value
+		double tau = OPTICAL_DEPTH_STARTING + newTau;
 
 		// Make tau oscillate between .1 and 6 
 		if (tau > 3.0)
@@ -260,20 +241,8 @@ public class SurfaceFeatures implements Serializable, Temporal {
 	 * @return solar irradiance (W/m2)
 	 */
 	public double getSolarIrradiance(Coordinates location) {
-		Double cachedValue = currentIrradiance.get(location);
-		if (cachedValue != null)
-			return cachedValue.doubleValue();
-
-		sunlightLock.lock();
-			
-		double result = calculateSolarIrradiance(location);
-		// Make cache thread safe as this may be done on demand
-//		synchronized(currentIrradiance)
-			currentIrradiance.put(location, result);
-			
-		sunlightLock.unlock();
-
-		return result;
+		return samples.get(EnvironmentCache.Sample.IRRADIANCE, location, irradianceEpoch,
+							(l, p) -> calculateSolarIrradiance(l));
 	}
 
 	/**
@@ -461,10 +430,6 @@ public class SurfaceFeatures implements Serializable, Temporal {
 		else if (gh < 0)
 			gh = 0;
 
-		// Take the average of the last and current irradiance
-		Double lastGh = currentIrradiance.get(location);
-		if (lastGh != null)
-			gh = (gh + lastGh.doubleValue()) / 2;
 		return gh;
 	}
 
@@ -628,12 +593,12 @@ public class SurfaceFeatures implements Serializable, Temporal {
 			
 			// the value of optical depth doesn't need to be refreshed too often
 			if (msol % OPTICAL_DEPTH_REFRESH == 0) {
-				// Clear entries
-				opticalDepthMap.clear();
+				// Start a new epoch so entries are recomputed
+				opticalDepthEpoch++;
 			}
 			
-			// Clear entries
-			currentIrradiance.clear();
+			// Start a new epoch so entries are recomputed
+			irradianceEpoch++;
 		}
 		
 		return true;
@@ -650,8 +615,7 @@ public class SurfaceFeatures implements Serializable, Temporal {
 		// Perform the default de-serialization first
 	    aInputStream.defaultReadObject();
 	    
-		opticalDepthMap = new HashMap<>();
-		currentIrradiance = new HashMap<>();
+		samples = createCache();
 	}
 	 
 	/**
@@ -659,10 +623,8 @@ public class SurfaceFeatures implements Serializable, Temporal {
 	 */
 	public void destroy() {
 
-		opticalDepthMap.clear();
-		opticalDepthMap = null;
-		currentIrradiance.clear();
-		currentIrradiance = null;
+		samples.clear();
+		samples = null;
 		mineralMap = null;
 		regionOfInterestLocations.clear();
 		regionOfInterestLocations = null;
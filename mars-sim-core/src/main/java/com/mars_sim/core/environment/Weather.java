@@ -7,13 +7,15 @@
  */
 package com.mars_sim.core.environment;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.mars_sim.core.CollectionUtils;
 import com.mars_sim.core.Simulation;
@@ -86,20 +88,16 @@ public class Weather implements Serializable, Temporal {
 	// Singleton only updated in one method
 	private Map<Coordinates, MSolDataLogger<DailyWeather>> weatherDataMap;
 	
+	/** Settlements may be added by scheduled events while the weather is updated. */
 	private List<Coordinates> coordinateList;
 
-	private transient Map<Coordinates, Double> temperatureCacheMap;
-	private transient Map<Coordinates, Double> airPressureCacheMap;
-	private transient Map<Coordinates, Double> windSpeedCacheMap;
-	private transient Map<Coordinates, Integer> windDirCacheMap;
+	/** The most recent temperature, air pressure and wind by location. */
+	private transient EnvironmentCache samples = createCache();
 
 	private List<DustStorm> dustStorms;
 	
 	private Map<Coordinates, SunData> sunDataMap;
 	
-	private final ReentrantLock tempLock = new ReentrantLock(true);
-	private final ReentrantLock pressureLock = new ReentrantLock(true);
-	
 	private OrbitInfo orbitInfo;
 	private MasterClock clock;
 	private SurfaceFeatures surfaceFeatures;
@@ -108,18 +106,31 @@ public class Weather implements Serializable, Temporal {
 		weatherDataMap = new HashMap<>();
 		sunDataMap = new HashMap<>();
 		
-		coordinateList = new ArrayList<>();
+		coordinateList = new CopyOnWriteArrayList<>();
 		dustStorms = new ArrayList<>();
 		
-		temperatureCacheMap = new HashMap<>();
-		airPressureCacheMap = new HashMap<>();
-		windSpeedCacheMap = new HashMap<>();
-		windDirCacheMap = new HashMap<>();
-
 		this.orbitInfo = orbitInfo;
 		this.clock = clock;
 	}
 
+	private static EnvironmentCache createCache() {
+		return new EnvironmentCache(EnvironmentCache.Sample.TEMPERATURE, EnvironmentCache.Sample.PRESSURE,
+						EnvironmentCache.Sample.WIND_SPEED, EnvironmentCache.Sample.WIND_DIRECTION);
+	}
+
+	/**
+	 * Gets the current epoch of a sample that is refreshed periodically. The epoch changes
+	 * when the integer millisol reaches the offset of the period.
+	 * 
+	 * @param period Refresh period in millisols
+	 * @param offset Millisol within the period when it refreshes
+	 * @return
+	 */
+	private long getEpoch(int period, int offset) {
+		long msols = (long) clock.getMarsTime().getTotalMillisols();
+		return Math.floorDiv(msols - offset, period);
+	}
+
 	void setSurfaceFeatures(SurfaceFeatures sf) {
 		surfaceFeatures = sf;
 	}
@@ -157,15 +168,14 @@ public class Weather implements Serializable, Temporal {
 	}
 
 	/**
-	 * Gets the wind speed at a given location.
+	 * Computes the wind speed at a given location.
 	 * 
+	 * @param location
+	 * @param currentSpeed The previous wind speed or NaN if none
 	 * @return wind speed in m/s.
 	 */
-	private double computeWindSpeed(Coordinates location) {
+	private double computeWindSpeed(Coordinates location, double currentSpeed) {
 		double newSpeed = 0;
-		
-		if (windSpeedCacheMap == null)
-			windSpeedCacheMap = new HashMap<>();
 
 		// On sol 214 in this list of Viking wind speeds, 
 		// 25.9 m/sec (93.24 km/hr) was recorded.
@@ -178,10 +188,7 @@ public class Weather implements Serializable, Temporal {
 		// https://en.wikipedia.org/wiki/Climate_of_Mars
 		double optical = surfaceFeatures.getOpticalDepth(location);
 		
-		if (windSpeedCacheMap.containsKey(location)) {
-			// Load the previous wind speed
-			double currentSpeed = windSpeedCacheMap.get(location);
-			
+		if (!Double.isNaN(currentSpeed)) {
 			// Check if the location is covered by a Dust Storm
 			DustStorm ds = null;
 			for (DustStorm s : dustStorms) {
@@ -233,8 +240,7 @@ public class Weather implements Serializable, Temporal {
 				int msol = clock.getMarsTime().getMillisolInt();
 				
 				// the value of optical depth doesn't need to be refreshed too often
-				if (clock.getClockPulse() != null && clock.getClockPulse().isNewIntMillisol()
-						&& msol % WINDSPEED_REFRESH == 0) {
+				if (msol % WINDSPEED_REFRESH == 0) {
 					
 					double rand = RandomUtil.getRandomDouble(-0.02, 0.02);
 					
@@ -288,18 +294,17 @@ public class Weather implements Serializable, Temporal {
 
 		// Note : 1 mile per hour (mph) = 0.44704 meter per sec (m/s)
 		
-		windSpeedCacheMap.put(location, newSpeed);
-		
 		return newSpeed;
 	}
 
 	/**
-	 * Gets the wind speed at a given location.
+	 * Gets the wind speed at a given location. This is computed once per millisol.
 	 * 
 	 * @return wind speed in m/s.
 	 */
 	public double getWindSpeed(Coordinates location) {
-		return computeWindSpeed(location);
+		return samples.get(EnvironmentCache.Sample.WIND_SPEED, location, getEpoch(1, 0),
+							this::computeWindSpeed);
 	}
 
 	/**
@@ -312,35 +317,32 @@ public class Weather implements Serializable, Temporal {
 	}
 
 	/**
-	 * Computes the wind direction at a given location.
+	 * Computes the wind direction at a given location. This is computed once per millisol.
 	 * 
 	 * @return wind direction in degree.
 	 */
 	public int computeWindDirection(Coordinates location) {
-		int result = 0;
-
 		if (getWindSpeed(location) < 0.01)
 			return 0;
 
-		int newDir = RandomUtil.getRandomInt(359);
+		return (int) samples.get(EnvironmentCache.Sample.WIND_DIRECTION, location, getEpoch(1, 0),
+								(l, previous) -> {
+			int result = 0;
+			int newDir = RandomUtil.getRandomInt(359);
 
-		if (windDirCacheMap == null)
-			windDirCacheMap = new HashMap<>();
-
-		if (windDirCacheMap.containsKey(location))
-			// TODO: should the ratio of the weight of the past direction and present
-			// direction of the wind be 9 to 1 ?
-			result = (windDirCacheMap.get(location) * 9 + newDir) / 10;
-		else {
-			result = newDir;
-		}
-
-		if (result > 360)
-			result = result - 360;
+			if (!Double.isNaN(previous))
+				// TODO: should the ratio of the weight of the past direction and present
+				// direction of the wind be 9 to 1 ?
+				result = ((int) previous * 9 + newDir) / 10;
+			else {
+				result = newDir;
+			}
 
-		windDirCacheMap.put(location, result);
+			if (result > 360)
+				result = result - 360;
 
-		return result;
+			return result;
+		});
 	}
 
 	/**
@@ -361,39 +363,20 @@ public class Weather implements Serializable, Temporal {
 	// http://cab.inta-csic.es/rems/en/weather-report-mars-year-33-month-11/
 
 	/**
-	 * Gets the cached air pressure at a given location.
+	 * Gets the cached air pressure at a given location. This is recomputed once every
+	 * refresh period and averaged with the previous value.
 	 * 
 	 * @return air pressure in kPa.
 	 */
 	public double getCachedAirPressure(Coordinates location) {
-		double newP = 0;
-		
-		// Lazy instantiation of airPressureCacheMap.
-		if (airPressureCacheMap == null) {
-			airPressureCacheMap = new HashMap<>();
-		}
-
-		pressureLock.lock();
-		
-		if (clock.getClockPulse() != null && clock.getClockPulse().isNewIntMillisol()
-				&& clock.getMarsTime().getMillisolInt() % PRESSURE_REFRESH == 1) {
-			newP = calculateAirPressure(location, 0);
-			airPressureCacheMap.put(location, newP);
-		}
-		else {
-			newP = airPressureCacheMap.computeIfAbsent(location, l -> calculateAirPressure(l, 0));
-		}
-		
-		double prevP = 0;
-		if (airPressureCacheMap.containsKey(location)) {
-			prevP = airPressureCacheMap.get(location);
-			newP = Math.round((newP + prevP) / 2.0 * 100.0) / 100.0;
-			airPressureCacheMap.put(location, newP);
-		}
-		
-		pressureLock.unlock();
-		
-		return newP;
+		return samples.get(EnvironmentCache.Sample.PRESSURE, location, getEpoch(PRESSURE_REFRESH, 1),
+							(l, prevP) -> {
+			double newP = calculateAirPressure(l, 0);
+			if (Double.isNaN(prevP)) {
+				prevP = newP;
+			}
+			return Math.round((newP + prevP) / 2.0 * 100.0) / 100.0;
+		});
 	}
 
 	/**
@@ -433,38 +416,20 @@ public class Weather implements Serializable, Temporal {
 	}
 
 	/**
-	 * Gets the temperature at a given location.
+	 * Gets the temperature at a given location. This is recomputed once every
+	 * refresh period and averaged with the previous value.
 	 * 
 	 * @return temperature in deg Celsius.
 	 */
 	public double getTemperature(Coordinates location) {
-		double newT = 0;
-		
-		// Lazy instantiation of temperatureCacheMap.
-		if (temperatureCacheMap == null) {
-			temperatureCacheMap = new HashMap<>();
-		}
-	
-		tempLock.lock();
-		
-		if (clock.getClockPulse() != null && clock.getClockPulse().isNewIntMillisol()
-				&& clock.getMarsTime().getMillisolInt() % TEMPERATURE_REFRESH == 0) {
-			newT = calculateTemperature(location);
-		} 
-		else {
-			newT = temperatureCacheMap.computeIfAbsent(location, l -> calculateTemperature(l));
-		}
-		
-		double prevT = 0;
-		if (temperatureCacheMap.containsKey(location)) {
-			prevT = temperatureCacheMap.get(location);
-			newT = Math.round((newT + prevT) / 2.0 * 100.0) / 100.0;
-			temperatureCacheMap.put(location, newT);
-		}
-		
-		tempLock.unlock();
-
-		return newT;
+		return samples.get(EnvironmentCache.Sample.TEMPERATURE, location, getEpoch(TEMPERATURE_REFRESH, 0),
+							(l, prevT) -> {
+			double newT = calculateTemperature(l);
+			if (Double.isNaN(prevT)) {
+				prevT = newT;
+			}
+			return Math.round((newT + prevT) / 2.0 * 100.0) / 100.0;
+		});
 	}
 
 	/**
@@ -587,11 +552,9 @@ public class Weather implements Serializable, Temporal {
 
 			// (5). Add windspeed
 			double windDt = 0;
-			if (windSpeedCacheMap == null)
-				windSpeedCacheMap = new HashMap<>();
-
-			if (windSpeedCacheMap.containsKey(location))
-				windDt = 10.0 / (1 + Math.exp(-.15 * windSpeedCacheMap.get(location)));
+			double windSpeed = samples.peek(EnvironmentCache.Sample.WIND_SPEED, location);
+			if (!Double.isNaN(windSpeed))
+				windDt = 10.0 / (1 + Math.exp(-.15 * windSpeed));
 
 			// Subtotal		
 			t = equatorialTemperature + VIKING_DT - latDt - terrainDT + seasonalDt;
@@ -614,13 +577,9 @@ public class Weather implements Serializable, Temporal {
 			// (7). Total
 			t += rand;  
 					
-			double previousTemperature = 0;
-			if (temperatureCacheMap == null) {
-				temperatureCacheMap = new HashMap<>();
-			}
-
-			if (temperatureCacheMap.containsKey(location)) {
-				previousTemperature = temperatureCacheMap.get(location);
+			double previousTemperature = samples.peek(EnvironmentCache.Sample.TEMPERATURE, location);
+			if (Double.isNaN(previousTemperature)) {
+				previousTemperature = 0;
 			}
 
 			t = Math.round((t + previousTemperature) / 2.0 * 100.0) / 100.0;
@@ -633,22 +592,8 @@ public class Weather implements Serializable, Temporal {
 	 * Clears weather-related parameter cache map to prevent excessive build-up of
 	 * key-value sets.
 	 */
-	public synchronized void clearMap() {
-		if (temperatureCacheMap != null) {
-			temperatureCacheMap.clear();
-		}
-
-		if (airPressureCacheMap != null) {
-			airPressureCacheMap.clear();
-		}
-		
-		if (windSpeedCacheMap != null) {
-			windSpeedCacheMap.clear();
-		}
-		
-		if (windDirCacheMap != null) {
-			windDirCacheMap.clear();
-		}
+	public void clearMap() {
+		samples.clear();
 	}
 
 	/**
@@ -978,6 +923,19 @@ public class Weather implements Serializable, Temporal {
 		return dailyVariationAirPressure;
 	}
 
+	/**
+	 * Recreates the sample cache when deserializing.
+	 * 
+	 * @param in
+	 * @throws ClassNotFoundException
+	 * @throws IOException
+	 */
+	private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+		in.defaultReadObject();
+		samples = createCache();
+		coordinateList = new CopyOnWriteArrayList<>(coordinateList);
+	}
+
 	/**
 	 * Prepares object for garbage collection.
 	 */
@@ -987,22 +945,8 @@ public class Weather implements Serializable, Temporal {
 		coordinateList.clear();
 		coordinateList = null;
 		
-		if (temperatureCacheMap != null) {
-			temperatureCacheMap.clear();
-			temperatureCacheMap = null;
-		}
-		if (airPressureCacheMap != null) {
-			airPressureCacheMap.clear();
-			airPressureCacheMap = null;
-		}
-		if (windSpeedCacheMap != null) {
-			windSpeedCacheMap.clear();
-			windSpeedCacheMap = null;
-		}
-		if (windDirCacheMap != null) {
-			windDirCacheMap.clear();
-			windDirCacheMap = null;
-		}
+		samples.clear();
+		samples = null;
 		if (dustStorms != null) {
 			dustStorms.clear();
 			dustStorms = null;
@@ -8,73 +8,25 @@ package com.mars_sim.core.equipment;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import com.mars_sim.core.Unit;
 import com.mars_sim.core.EntityEventType;
 import com.mars_sim.core.logging.SimLogger;
-import com.mars_sim.core.resource.ItemResource;
 import com.mars_sim.core.resource.ItemResourceUtil;
 import com.mars_sim.core.resource.ResourceUtil;
 
 /**
  * The MicroInventory class represents a simple resource storage solution.
+ * The resources are held in a {@link ResourceTable} of primitive columns and the stored
+ * mass totals are maintained as the resources are stored and retrieved.
  */
 public class MicroInventory implements Serializable {
 
-	static final class AmountStored implements Serializable {
-
-		/** default serial id. */
-		private static final long serialVersionUID = 1L;
-
-		double capacity = 0;
-		double storedAmount = 0;
-
-		// Need to decide how to handle when storedAmount becomes zero.
-		// Should it be used for tagging it as a used but empty inventory ?
-		
-		AmountStored(double capacity) {
-			super();
-			this.capacity = capacity;
-		}
-
-		@Override
-		public String toString() {
-			return "AmountStored [capacity: " + capacity
-					+ ", storedAmount: " + storedAmount + "]";
-		}
-	}
-
-	static final class ItemStored implements Serializable {
-
-		/** default serial id. */
-		private static final long serialVersionUID = 1L;
-
-		int quantity = 0;
-		double massPerItem = 0;
-		double totalMass = 0;
-		
-		// Note: Is there a need for defining the max capacity for storing items/parts ?
-
-		// Need to decide how to handle when quantity becomes zero.
-		// Should it be used for tagging it as a used but empty inventory ?
-		
-		ItemStored() {
-			super();
-		}
-
-		@Override
-		public String toString() {
-			return "ItemStored [quantity=" + quantity + " massPerItem: " + massPerItem
-					+ " totalMass: " + totalMass + "]";
-		}
-	}
-
 	/** default serial id. */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
 
 	/* default logger. */
 	private static final SimLogger logger = SimLogger.getLogger(MicroInventory.class.getName());
@@ -83,12 +35,8 @@ public class MicroInventory implements Serializable {
 
 	/** The owner of this micro inventory. */
 	private Unit owner;
-	/** A map of stock amount resources. */
-	private Map<Integer, Double> stockAmountStorage = new HashMap<>();
-	/** A map of specific amount resources. */
-	private Map<Integer, AmountStored> specificAmountStorage = new HashMap<>();
-	/** A map of item resources. */
-	private Map<Integer, ItemStored> itemStorage = new HashMap<>();
+	/** The stock, specific amount and item resources. */
+	private ResourceTable table = new ResourceTable();
 
 	private double stockAmountTotalMass = 0D;
 	private double specificAmountTotalMass = 0D;
@@ -104,14 +52,59 @@ public class MicroInventory implements Serializable {
 		this.stockCapacity = stockCapacity;
 	}
 
-	
+	/**
+	 * Finds the slot of a specific amount resource.
+	 *
+	 * @param resource
+	 * @return Slot or -1 if the resource has no specific capacity
+	 */
+	private int findSpecific(int resource) {
+		int slot = table.find(resource);
+		if (slot >= 0 && table.is(slot, ResourceTable.SPECIFIC)) {
+			return slot;
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the slot of an item resource.
+	 *
+	 * @param resource
+	 * @return Slot or -1 if the item has never been stored
+	 */
+	private int findItem(int resource) {
+		int slot = table.find(resource);
+		if (slot >= 0 && table.is(slot, ResourceTable.ITEM)) {
+			return slot;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the slot of a specific amount resource, defining it if needed.
+	 *
+	 * @param resource
+	 * @return Slot
+	 */
+	private int addSpecific(int resource) {
+		int slot = table.add(resource);
+		if (!table.is(slot, ResourceTable.SPECIFIC)) {
+			table.mark(slot, ResourceTable.SPECIFIC);
+			table.setCapacity(slot, 0D);
+			table.setSpecific(slot, 0D);
+		}
+		return slot;
+	}
+
 	/** 
 	 * Gets a map of stock amount resources.
 	 * 
 	 * @return
 	 */
 	public Map<Integer, Double> getStockAmountStorage() {
-		return stockAmountStorage;
+		Map<Integer, Double> map = new HashMap<>();
+		table.forEachStock(map::put);
+		return map;
 	}
 	
 	/** 
@@ -121,12 +114,7 @@ public class MicroInventory implements Serializable {
 	 */
 	public Map<Integer, Double> getSpecificAmountStorage() {
 		Map<Integer, Double> map = new HashMap<>();
-		for (Map.Entry<Integer, AmountStored> entry : specificAmountStorage.entrySet()) {
-			int k = entry.getKey();
-			AmountStored s = entry.getValue();
-			double amount = s.storedAmount;
-			map.put(k, amount);
-        }
+		table.forEachSpecific(map::put);
 		return map;
 	}
 	
@@ -137,12 +125,7 @@ public class MicroInventory implements Serializable {
 	 */
 	public Map<Integer, Double> getItemStorage() {
 		Map<Integer, Double> map = new HashMap<>();
-		for (Map.Entry<Integer, ItemStored> entry : itemStorage.entrySet()) {
-			int k = entry.getKey();
-			ItemStored s = entry.getValue();
-			double q = s.quantity;
-			map.put(k, q);
-        }
+		table.forEachItem(map::put);
 		return map;
 	}
 	
@@ -152,14 +135,38 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public Map<Integer, Double> getAllAmountResourceMap() {
-		return Stream.concat(getStockAmountStorage().entrySet().stream(), 
-				getSpecificAmountStorage().entrySet().stream())
-				.collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                // Handling duplicate keys by adding their values together
-                (v1, v2) -> v1 + v2  
-        ));
+		Map<Integer, Double> map = new HashMap<>();
+		table.forEachStock(map::put);
+		// Handling duplicate keys by adding their values together
+		table.forEachSpecific((k, v) -> map.merge(k, v, Double::sum));
+		return map;
+	}
+
+	/**
+	 * Visits the stock amount resources without creating a map.
+	 *
+	 * @param consumer Receives the resource and the stored amount
+	 */
+	public void forEachStockAmount(ResourceTable.ResourceConsumer consumer) {
+		table.forEachStock(consumer);
+	}
+
+	/**
+	 * Visits the specific amount resources without creating a map.
+	 *
+	 * @param consumer Receives the resource and the stored amount
+	 */
+	public void forEachSpecificAmount(ResourceTable.ResourceConsumer consumer) {
+		table.forEachSpecific(consumer);
+	}
+
+	/**
+	 * Visits the item resources without creating a map.
+	 *
+	 * @param consumer Receives the resource and the quantity
+	 */
+	public void forEachItem(ResourceTable.ResourceConsumer consumer) {
+		table.forEachItem(consumer);
 	}
 	
 	/**
@@ -195,9 +202,9 @@ public class MicroInventory implements Serializable {
      * @return capacity (kg).
      */
     public double getSpecificCapacity(int resource) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			return s.capacity;
+		int slot = findSpecific(resource);
+		if (slot >= 0) {
+			return table.getCapacity(slot);
 		}
 		return 0;
     }
@@ -209,14 +216,9 @@ public class MicroInventory implements Serializable {
 	 * @param capacity
 	 */
 	public void setSpecificCapacity(int resource, double capacity) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			// To set to a new capacity
-			s.capacity = capacity;
-		}
-		else {
-			specificAmountStorage.put(resource, new AmountStored(capacity));
-		}
+		int slot = addSpecific(resource);
+		// To set to a new capacity
+		table.setCapacity(slot, capacity);
 	}
 
 	/**
@@ -226,14 +228,9 @@ public class MicroInventory implements Serializable {
 	 * @param capacity
 	 */
 	public void addSpecificCapacity(int resource, double capacity) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			// To add to its existing capacity
-			s.capacity += capacity;
-		}
-		else {
-			specificAmountStorage.put(resource, new AmountStored(capacity));
-		}
+		int slot = addSpecific(resource);
+		// To add to its existing capacity
+		table.setCapacity(slot, table.getCapacity(slot) + capacity);
 	}
 
 	/**
@@ -243,13 +240,9 @@ public class MicroInventory implements Serializable {
 	 * @param capacity
 	 */
 	public void removeSpecificCapacity(int resource, double capacity) {
-		AmountStored s = specificAmountStorage.get(resource);
-
-		if (s != null) {
-			s.capacity -= capacity;
-			if (s.capacity < 0D) {
-				s.capacity = 0D;
-			}
+		int slot = findSpecific(resource);
+		if (slot >= 0) {
+			table.setCapacity(slot, Math.max(0D, table.getCapacity(slot) - capacity));
 		}
 	}
 
@@ -259,9 +252,6 @@ public class MicroInventory implements Serializable {
 	 * @return mass [kg]
 	 */
 	public double getStoredMass() {
-		updateStockAmountResourceTotalMass();
-		updateSpecificAmountResourceTotalMass();
-		updateItemResourceTotalMass();
 		return Math.round((stockAmountTotalMass + specificAmountTotalMass + itemTotalMass) * 100.0)/100.0;
 	}
 
@@ -294,11 +284,8 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public boolean isEmpty(int resource) {
-		AmountStored s = specificAmountStorage.get(resource);
-		boolean hasStockResource = stockAmountStorage.containsKey(resource);
-		double stockAmount = stockAmountStorage.get(resource);
-		return ((s == null && !hasStockResource) 
-				|| (s.storedAmount == 0D && stockAmount == 0D));
+		int slot = table.find(resource);
+		return (slot < 0) || ((table.getSpecific(slot) == 0D) && (table.getStock(slot) == 0D));
 	}
 
 	/**
@@ -309,12 +296,12 @@ public class MicroInventory implements Serializable {
 	 * @return excess quantity that cannot be stored
 	 */
 	public double storeAmountResource(int resource, double quantity) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s == null) {
+		int slot = findSpecific(resource);
+		if (slot < 0) {
 			return quantity;
 		}
 			
-		double remaining =  s.capacity - s.storedAmount;
+		double remaining = table.getCapacity(slot) - table.getSpecific(slot);
 		double excess = 0D;
 		if (remaining < quantity) {
 			// Obtain the excess
@@ -328,18 +315,18 @@ public class MicroInventory implements Serializable {
 					logger.warning(owner, 60_000L, "Specific Storage is full. Excess " + Math.round(excess * 1_000.0)/1_000.0 + " kg " + name + ".");
 			}
 			
-			// Store excess as stock amount resource
+			// Store excess as stock amount resource; this may move the slots
 			excess = storeStockAmountResource(resource, excess);
-
+			slot = table.find(resource);
 		}
 
-		s.storedAmount += quantity;
+		table.setSpecific(slot, table.getSpecific(slot) + quantity);
 
 		// Update the specific amount total mass
 		specificAmountTotalMass += quantity;
 		
 		// Fire the unit event type
-		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource); //ResourceUtil.findAmountResource(resource));
+		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
 		return excess;
 	}
 
@@ -351,12 +338,9 @@ public class MicroInventory implements Serializable {
 	 * @return excess quantity that cannot be stored
 	 */
 	public double storeStockAmountResource(int resource, double quantity) {
-		double stockAmount = 0;
-		
-		if (stockAmountStorage.containsKey(resource)) {
-			// Gets the existing stock amount
-			stockAmount = stockAmountStorage.get(resource);
-		}
+		int slot = table.add(resource);
+		// Gets the existing stock amount
+		double stockAmount = table.getStock(slot);
 
 		double remaining = stockAmountTotalMass - stockAmount;
 		
@@ -375,13 +359,12 @@ public class MicroInventory implements Serializable {
 			}
 		}
 		// Increase the existing stock amount by adding quantity
-		stockAmount += quantity;
-		// Update the stock storage map with the new stock amount
-		stockAmountStorage.put(resource, stockAmount);
+		table.mark(slot, ResourceTable.STOCK);
+		table.setStock(slot, stockAmount + quantity);
 		// Update the stock amount total mass
 		stockAmountTotalMass += quantity;
 		// Fire the unit event type
-		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource); //ResourceUtil.findAmountResource(resource));
+		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
 		return excess;
 	}
 	
@@ -393,44 +376,36 @@ public class MicroInventory implements Serializable {
 	 * @return excess quantity that cannot be stored
 	 */
 	public int storeItemResource(int resource, int quantity) {
-		ItemStored s = itemStorage.get(resource);
-		if (s == null) {
-			s = new ItemStored();
-			s.massPerItem = ItemResourceUtil.findItemResource(resource).getMassPerItem();
-			s.totalMass = 0;
-
+		int slot = findItem(resource);
+		if (slot < 0) {
 			// Save the item resource
-			itemStorage.put(resource, s);
+			slot = table.add(resource);
+			table.mark(slot, ResourceTable.ITEM);
+			table.setQuantity(slot, 0);
+			table.setMassPerItem(slot, ItemResourceUtil.findItemResource(resource).getMassPerItem());
 		}
 
-		double massPerItem = s.massPerItem;
-		double totalMass = s.totalMass;
+		double massPerItem = table.getMassPerItem(slot);
 		
 		double rCap = getRemainingStockCapacity();
 		int itemCap = (int)Math.floor(rCap / massPerItem);
 		int excessQ = 0;
 
 		if (itemCap > 0) {
-			
+			int stored = quantity;
 			if (quantity > itemCap) {
-
-				s.quantity += itemCap;
+				stored = itemCap;
 				excessQ = quantity - itemCap;
-	
 				
 				logger.warning(owner, "Storing " + itemCap + "x "
 						+ ItemResourceUtil.findItemResource(resource).getName()
 						+ ", returning the surplus " + excessQ + ".");
 			}
-			else {
-				s.quantity += quantity;
-				excessQ = 0;
-			}
 
-			s.totalMass = s.quantity * s.massPerItem;
+			table.setQuantity(slot, table.getQuantity(slot) + stored);
 
 			// Update the item total mass
-			itemTotalMass += s.totalMass;
+			itemTotalMass += stored * massPerItem;
 
 			// Fire the unit event type
 			owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
@@ -446,7 +421,7 @@ public class MicroInventory implements Serializable {
 					+ " sharedCapacity: " + stockCapacity
 					+ " stockAmountTotalMass: " + stockAmountTotalMass
 					+ " specificAmountTotalMass: " + specificAmountTotalMass
-					+ " totalMass: " + totalMass);
+					+ " totalMass: " + (table.getQuantity(slot) * massPerItem));
 			
 			logger.warning(owner, "No space to store " + ItemResourceUtil.findItemResource(resource).getName() 
 					+ " [quantity: " + quantity + "].");
@@ -455,45 +430,6 @@ public class MicroInventory implements Serializable {
 		return excessQ;
 	}
 
-	/**
-	 * Recalculates the stock amount resource total mass.
-	 * 
-	 * NOTE: Do NOT delete. Will need it in future.
-	 */
-	private void updateStockAmountResourceTotalMass() {
-		// Note: to avoid ConcurrentModificationException, use new ArrayList
-		stockAmountTotalMass = stockAmountStorage.values().stream().mapToDouble(d -> d).sum();
-	}
-	
-	/**
-	 * Recalculates the specific amount resource total mass.
-	 * 
-	 * NOTE: Do NOT delete. Will need it in future.
-	 */
-	private void updateSpecificAmountResourceTotalMass() {
-		// Note: to avoid ConcurrentModificationException, use new ArrayList
-		specificAmountTotalMass = specificAmountStorage.values().stream().mapToDouble(r -> r.storedAmount).sum();
-	}
-
-	/**
-	 * Recalculates the item resource total mass.
-	 * 
-	 * NOTE: Do NOT delete. Will need it in future.
-	 */
-	private void updateItemResourceTotalMass() {
-		double result = 0;
-		for (int resource: itemStorage.keySet()) {
-			int q = itemStorage.get(resource).quantity;
-			if (q > 0) {
-				ItemResource ir = ItemResourceUtil.findItemResource(resource);
-				if (ir != null)
-					result += ir.getMassPerItem() * q;
-			}
-		}
-
-		itemTotalMass = result;
-	}
-
 	/**
 	 * Retrieves the specific amount resource.
 	 *
@@ -502,13 +438,14 @@ public class MicroInventory implements Serializable {
 	 * @return shortfall quantity that cannot be retrieved
 	 */
 	public double retrieveAmountResource(int resource, double quantity) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s == null) {
+		int slot = findSpecific(resource);
+		if (slot < 0) {
 			return quantity;
 		}
 
+		double stored = table.getSpecific(slot);
 		double shortfall = 0D;
-		double remaining = s.storedAmount - quantity;
+		double remaining = stored - quantity;
 
 		if (remaining < 0) {
 			shortfall = -remaining;
@@ -519,14 +456,15 @@ public class MicroInventory implements Serializable {
 						+ Math.round(quantity * 1_000.0)/1_000.0 + " kg "
 						+ name + " from specific amount resource storage but lacking " + Math.round(shortfall * 1_000.0)/1_000.0 + " kg.");
 				
-				// Retrieve shortfall from stock amount resource
+				// Retrieve shortfall from stock amount resource; this may move the slots
 				shortfall = retrieveStockAmountResource(resource, shortfall);
+				slot = table.find(resource);
 			}
 			
 			remaining = 0;
 			
 			// Update the specific amount resource total mass
-			specificAmountTotalMass -= s.storedAmount;
+			specificAmountTotalMass -= stored;
 		}
 		else {
 			// Update the specific amount resource total mass
@@ -534,7 +472,7 @@ public class MicroInventory implements Serializable {
 		}
 	
 		// Update the stored amount
-		s.storedAmount = remaining;
+		table.setSpecific(slot, remaining);
 	
 		// Fire the unit event type
 		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
@@ -549,12 +487,9 @@ public class MicroInventory implements Serializable {
 	 * @return shortfall quantity that cannot be retrieved
 	 */
 	public double retrieveStockAmountResource(int resource, double quantity) {
-		double stockAmount = 0;
-		
-		if (stockAmountStorage.containsKey(resource)) {
-			// Gets the existing stock amount
-			stockAmount = stockAmountStorage.get(resource);
-		}
+		int slot = table.add(resource);
+		// Gets the existing stock amount
+		double stockAmount = table.getStock(slot);
 
 		double shortfall = 0D;
 		double remaining = stockAmount - quantity;
@@ -578,8 +513,9 @@ public class MicroInventory implements Serializable {
 			stockAmountTotalMass -= quantity;
 		}
 
-		// Update the stock storage map with remaining
-		stockAmountStorage.put(resource, remaining);
+		// Update the stock storage with remaining
+		table.mark(slot, ResourceTable.STOCK);
+		table.setStock(slot, remaining);
 		// Fire the unit event type
 		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
 		
@@ -594,13 +530,15 @@ public class MicroInventory implements Serializable {
 	 * @return quantity that cannot be retrieved
 	 */
 	public int retrieveItemResource(int resource, int quantity) {
-		ItemStored s = itemStorage.get(resource);
-		if (s == null) {
+		int slot = findItem(resource);
+		if (slot < 0) {
 			return quantity;
 		}
 
+		int stored = table.getQuantity(slot);
+		double massPerItem = table.getMassPerItem(slot);
 		int shortfall = 0;
-		int remainingQ = s.quantity - quantity;
+		int remainingQ = stored - quantity;
 
 		if (remainingQ < 0) {
 			shortfall = -remainingQ;
@@ -612,15 +550,15 @@ public class MicroInventory implements Serializable {
 			remainingQ = 0;
 			
 			// Update the total mass
-			itemTotalMass -= s.quantity * s.massPerItem;
+			itemTotalMass -= stored * massPerItem;
 		}
 		else {
 			// Update the total mass
-			itemTotalMass -= quantity * s.massPerItem;
+			itemTotalMass -= quantity * massPerItem;
 		}
 		
 		// Update the quantity
-		s.quantity = remainingQ;
+		table.setQuantity(slot, remainingQ);
 
 		// Fire the unit event type
 		owner.fireUnitUpdate(EntityEventType.INVENTORY_RESOURCE_EVENT, resource);
@@ -635,13 +573,13 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public Set<Integer> getAllSpecificResourceStoredIDs() {
-		Set<Integer> set = specificAmountStorage.keySet()
-				.stream()
-				.filter(i -> (specificAmountStorage.get(i).storedAmount > 0))
-				.collect(Collectors.toSet());
-		
-		set.addAll(stockAmountStorage.keySet());
-		
+		Set<Integer> set = new HashSet<>();
+		for (int slot = 0; slot < table.slots(); slot++) {
+			if ((table.is(slot, ResourceTable.SPECIFIC) && table.getSpecific(slot) > 0)
+					|| (table.is(slot, ResourceTable.STOCK) && table.getStock(slot) > 0)) {
+				set.add(table.resourceAt(slot));
+			}
+		}
 		return set;
 	}
 	
@@ -652,10 +590,13 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public Set<Integer> getSpecificResourceStoredIDs() {
-		return specificAmountStorage.keySet()
-				.stream()
-				.filter(i -> (specificAmountStorage.get(i).storedAmount > 0))
-				.collect(Collectors.toSet());
+		Set<Integer> set = new HashSet<>();
+		table.forEachSpecific((k, v) -> {
+			if (v > 0) {
+				set.add(k);
+			}
+		});
+		return set;
 	}
 
 	/**
@@ -665,10 +606,13 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public Set<Integer> getItemStoredIDs() {
-		return itemStorage.keySet()
-				.stream()
-				.filter(i -> (itemStorage.get(i).quantity > 0))
-				.collect(Collectors.toSet());
+		Set<Integer> set = new HashSet<>();
+		table.forEachItem((k, v) -> {
+			if (v > 0) {
+				set.add(k);
+			}
+		});
+		return set;
 	}
 
 	/**
@@ -689,9 +633,9 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public double getRemainingSpecificCapacity(int resource) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			return s.capacity - s.storedAmount;
+		int slot = findSpecific(resource);
+		if (slot >= 0) {
+			return table.getCapacity(slot) - table.getSpecific(slot);
 		}
 		return 0;
 	}
@@ -713,9 +657,9 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public boolean hasAmountResourceRemainingCapacity(int resource) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			return s.capacity > s.storedAmount;
+		int slot = findSpecific(resource);
+		if (slot >= 0) {
+			return table.getCapacity(slot) > table.getSpecific(slot);
 		}
 		
 		return false;
@@ -728,11 +672,11 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public int getItemResourceRemainingQuantity(int resource) {
-		ItemStored s = itemStorage.get(resource);
+		int slot = findItem(resource);
 		double rCap = getRemainingStockCapacity();
-		if (s != null) {
+		if (slot >= 0) {
 			// Question : does it have to be tagged or defined ahead of time for storing items or parts ?
-			return (int)Math.floor(rCap / s.massPerItem);
+			return (int)Math.floor(rCap / table.getMassPerItem(slot));
 		}
 		else {
 			double massPerItem = ItemResourceUtil.findItemResource(resource).getMassPerItem();
@@ -747,9 +691,9 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public double getSpecificAmountResourceStored(int resource) {
-		AmountStored s = specificAmountStorage.get(resource);
-		if (s != null) {
-			return s.storedAmount;
+		int slot = findSpecific(resource);
+		if (slot >= 0) {
+			return table.getSpecific(slot);
 		}
 		return 0;
 	}
@@ -761,7 +705,11 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public double getStockAmountResourceStored(int resource) {
-		return stockAmountStorage.getOrDefault(resource, 0.0);
+		int slot = table.find(resource);
+		if (slot >= 0) {
+			return table.getStock(slot);
+		}
+		return 0;
 	}
 	
 	/**
@@ -771,7 +719,11 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public double getAllAmountResourceStored(int resource) {
-		return getStockAmountResourceStored(resource) + getSpecificAmountResourceStored(resource);
+		int slot = table.find(resource);
+		if (slot >= 0) {
+			return table.getStock(slot) + table.getSpecific(slot);
+		}
+		return 0;
 	}
 	
 	/**
@@ -780,12 +732,7 @@ public class MicroInventory implements Serializable {
 	 * @return total amount
 	 */
 	public double getTotalSpecificAmountResourceStored() {
-		double total = 0;
-		for (Map.Entry<Integer, AmountStored> entry : specificAmountStorage.entrySet()) {
-			AmountStored s = entry.getValue();
-			total += s.storedAmount;
-        }
-		return total;
+		return specificAmountTotalMass;
 	}
 	
 	/**
@@ -794,8 +741,7 @@ public class MicroInventory implements Serializable {
 	 * @return total amount
 	 */
 	public double getTotalStockAmountResourceStored() {
-		updateStockAmountResourceTotalMass();
-		return this.stockAmountTotalMass;
+		return stockAmountTotalMass;
 	}
 
 	/**
@@ -805,9 +751,9 @@ public class MicroInventory implements Serializable {
 	 * @return quantity
 	 */
 	public int getItemResourceStored(int resource) {
-		ItemStored s = itemStorage.get(resource);
-		if (s != null) {
-			return s.quantity;
+		int slot = findItem(resource);
+		if (slot >= 0) {
+			return table.getQuantity(slot);
 		}
 		return 0;
 	}
@@ -819,15 +765,24 @@ public class MicroInventory implements Serializable {
 	 * @return
 	 */
 	public boolean isResourceSupported(int resource) {
-		return specificAmountStorage.containsKey(resource);
+		return findSpecific(resource) >= 0;
 	}
 
+	/**
+	 * Estimates the heap used by the resource storage.
+	 *
+	 * @return Bytes
+	 */
+	public long getStorageFootprint() {
+		return table.getFootprint();
+	}
 
 	/**
-	 * Cleans this container for future use.
+	 * Cleans this container for future use. Stock amount resources are kept.
 	 */
 	public void clean() {
-		specificAmountStorage.clear();
-		itemStorage.clear();
+		table.clear(true);
+		specificAmountTotalMass = 0D;
+		itemTotalMass = 0D;
 	}
 }
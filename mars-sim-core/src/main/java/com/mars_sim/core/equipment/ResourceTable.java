@@ -0,0 +1,321 @@
+/*
+ * Mars Simulation Project
+ * ResourceTable.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.equipment;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The storage engine of a {@link MicroInventory}. This is an open addressing hash table
+ * keyed on the resource id with the values held in parallel primitive columns, so there is
+ * no boxing and no per-resource objects. A resource occupies one slot whether it is an
+ * amount or an item resource since their ids come from different ranges.
+ * A value column is only allocated once it is written since most inventories only use
+ * one kind of storage.
+ * Slots are never removed individually; {@link #clear(boolean)} resets the columns.
+ * Resource id zero is not a valid resource so it marks an empty slot.
+ */
+public final class ResourceTable implements Serializable {
+
+	/**
+	 * Receives a resource and a value without boxing.
+	 */
+	@FunctionalInterface
+	public interface ResourceConsumer {
+		void accept(int resource, double value);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int EMPTY = 0;
+	private static final int INITIAL_SLOTS = 4;
+
+	/** Slot has a specific capacity defined. */
+	public static final byte SPECIFIC = 1;
+	/** Slot has been used as stock storage. */
+	public static final byte STOCK = 2;
+	/** Slot holds an item resource. */
+	public static final byte ITEM = 4;
+
+	private int[] keys;
+	private byte[] flags;
+	private double[] capacity;
+	private double[] specific;
+	private double[] stock;
+	private int[] quantity;
+	private double[] massPerItem;
+	private int size;
+
+	public ResourceTable() {
+		keys = new int[INITIAL_SLOTS];
+		flags = new byte[INITIAL_SLOTS];
+	}
+
+	/**
+	 * Copies a column to a new length; a column that has never been written stays absent.
+	 */
+	private static double[] resize(double[] column, int slots) {
+		return (column == null ? null : new double[slots]);
+	}
+
+	private static int hash(int resource, int mask) {
+		// Fibonacci hashing spreads the clustered ids
+		return ((resource * 0x9E3779B9) >>> 16) & mask;
+	}
+
+	/**
+	 * Finds the slot of a resource.
+	 *
+	 * @param resource
+	 * @return Slot or -1 if the resource has not been added
+	 */
+	public int find(int resource) {
+		int mask = keys.length - 1;
+		int idx = hash(resource, mask);
+		while (true) {
+			int k = keys[idx];
+			if (k == resource) {
+				return idx;
+			}
+			if (k == EMPTY) {
+				return -1;
+			}
+			idx = (idx + 1) & mask;
+		}
+	}
+
+	/**
+	 * Finds the slot of a resource, adding it if needed. Adding may move the other slots.
+	 *
+	 * @param resource
+	 * @return Slot
+	 */
+	public int add(int resource) {
+		int slot = find(resource);
+		if (slot >= 0) {
+			return slot;
+		}
+
+		// Keep the load factor below 3/4
+		if ((size + 1) * 4 > keys.length * 3) {
+			grow();
+		}
+		int mask = keys.length - 1;
+		int idx = hash(resource, mask);
+		while (keys[idx] != EMPTY) {
+			idx = (idx + 1) & mask;
+		}
+		keys[idx] = resource;
+		size++;
+		return idx;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		byte[] oldFlags = flags;
+		double[] oldCapacity = capacity;
+		double[] oldSpecific = specific;
+		double[] oldStock = stock;
+		int[] oldQuantity = quantity;
+		double[] oldMass = massPerItem;
+
+		int slots = oldKeys.length * 2;
+		keys = new int[slots];
+		flags = new byte[slots];
+		capacity = resize(oldCapacity, slots);
+		specific = resize(oldSpecific, slots);
+		stock = resize(oldStock, slots);
+		quantity = (oldQuantity == null ? null : new int[slots]);
+		massPerItem = resize(oldMass, slots);
+
+		int mask = slots - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			int k = oldKeys[i];
+			if (k != EMPTY) {
+				int idx = hash(k, mask);
+				while (keys[idx] != EMPTY) {
+					idx = (idx + 1) & mask;
+				}
+				keys[idx] = k;
+				flags[idx] = oldFlags[i];
+				if (capacity != null) {
+					capacity[idx] = oldCapacity[i];
+				}
+				if (specific != null) {
+					specific[idx] = oldSpecific[i];
+				}
+				if (stock != null) {
+					stock[idx] = oldStock[i];
+				}
+				if (quantity != null) {
+					quantity[idx] = oldQuantity[i];
+				}
+				if (massPerItem != null) {
+					massPerItem[idx] = oldMass[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Number of slots to loop over with {@link #resourceAt(int)}.
+	 */
+	public int slots() {
+		return keys.length;
+	}
+
+	/**
+	 * Number of resources held.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Resource in a slot; zero if the slot is empty.
+	 */
+	public int resourceAt(int slot) {
+		return keys[slot];
+	}
+
+	public boolean is(int slot, byte flag) {
+		return (flags[slot] & flag) != 0;
+	}
+
+	public void mark(int slot, byte flag) {
+		flags[slot] |= flag;
+	}
+
+	public double getCapacity(int slot) {
+		return (capacity == null ? 0D : capacity[slot]);
+	}
+
+	public void setCapacity(int slot, double value) {
+		if (capacity == null) {
+			capacity = new double[keys.length];
+		}
+		capacity[slot] = value;
+	}
+
+	public double getSpecific(int slot) {
+		return (specific == null ? 0D : specific[slot]);
+	}
+
+	public void setSpecific(int slot, double value) {
+		if (specific == null) {
+			specific = new double[keys.length];
+		}
+		specific[slot] = value;
+	}
+
+	public double getStock(int slot) {
+		return (stock == null ? 0D : stock[slot]);
+	}
+
+	public void setStock(int slot, double value) {
+		if (stock == null) {
+			stock = new double[keys.length];
+		}
+		stock[slot] = value;
+	}
+
+	public int getQuantity(int slot) {
+		return (quantity == null ? 0 : quantity[slot]);
+	}
+
+	public void setQuantity(int slot, int value) {
+		if (quantity == null) {
+			quantity = new int[keys.length];
+		}
+		quantity[slot] = value;
+	}
+
+	public double getMassPerItem(int slot) {
+		return (massPerItem == null ? 0D : massPerItem[slot]);
+	}
+
+	public void setMassPerItem(int slot, double value) {
+		if (massPerItem == null) {
+			massPerItem = new double[keys.length];
+		}
+		massPerItem[slot] = value;
+	}
+
+	/**
+	 * Visits every resource that has a flag.
+	 *
+	 * @param flag Flag to match
+	 * @param values Column of the value passed to the consumer
+	 * @param consumer
+	 */
+	private void forEach(byte flag, double[] values, ResourceConsumer consumer) {
+		for (int i = 0; i < keys.length; i++) {
+			if ((flags[i] & flag) != 0) {
+				consumer.accept(keys[i], (values == null ? 0D : values[i]));
+			}
+		}
+	}
+
+	public void forEachSpecific(ResourceConsumer consumer) {
+		forEach(SPECIFIC, specific, consumer);
+	}
+
+	public void forEachStock(ResourceConsumer consumer) {
+		forEach(STOCK, stock, consumer);
+	}
+
+	public void forEachItem(ResourceConsumer consumer) {
+		for (int i = 0; i < keys.length; i++) {
+			if ((flags[i] & ITEM) != 0) {
+				consumer.accept(keys[i], getQuantity(i));
+			}
+		}
+	}
+
+	/**
+	 * Clears the specific amount and item columns; stock is optionally retained.
+	 *
+	 * @param keepStock
+	 */
+	public void clear(boolean keepStock) {
+		if (!keepStock) {
+			Arrays.fill(keys, EMPTY);
+			Arrays.fill(flags, (byte) 0);
+			stock = null;
+			size = 0;
+		}
+		else {
+			for (int i = 0; i < flags.length; i++) {
+				flags[i] &= STOCK;
+			}
+		}
+		capacity = null;
+		specific = null;
+		quantity = null;
+		massPerItem = null;
+	}
+
+	/**
+	 * Estimates the heap used by the table assuming compressed references.
+	 *
+	 * @return Bytes
+	 */
+	public long getFootprint() {
+		long slots = keys.length;
+		// Object header and fields plus the key and flag arrays
+		long result = 48L + 2 * 16L + (slots * (4 + 1));
+		for (double[] column : new double[][] {capacity, specific, stock, massPerItem}) {
+			if (column != null) {
+				result += 16L + (slots * 8);
+			}
+		}
+		if (quantity != null) {
+			result += 16L + (slots * 4);
+		}
+		return result;
+	}
+}
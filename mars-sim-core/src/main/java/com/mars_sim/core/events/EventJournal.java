@@ -0,0 +1,580 @@
+/*
+ * Mars Simulation Project
+ * EventJournal.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.events;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.mars_sim.core.Entity;
+import com.mars_sim.core.EntityIdentifier;
+import com.mars_sim.core.logging.SimLogger;
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.time.MarsTime;
+
+/**
+ * An append only journal of every historical event on disk. The events are held as
+ * fixed size records in memory mapped segment files; a new segment is started every few
+ * sols. Text values are held once in a string table and the records refer to them by
+ * identifier.
+ * Only indices are held in memory; these are lists of record positions by category, type,
+ * source entity and the first record of each sol. Queries return the newest events first
+ * and are paged so a viewer never has to load the whole journal.
+ */
+public final class EventJournal implements AutoCloseable {
+
+	/**
+	 * A growable list of record positions in increasing order.
+	 */
+	private static final class Postings {
+		private int[] values = new int[16];
+		private int size;
+
+		void add(int v) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = v;
+		}
+
+		/**
+		 * Finds the first entry that is not less than a position.
+		 */
+		int lowerBound(int position) {
+			int lo = 0;
+			int hi = size;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (values[mid] < position) {
+					lo = mid + 1;
+				}
+				else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+	}
+
+	private static final SimLogger logger = SimLogger.getLogger(EventJournal.class.getName());
+
+	/** Default number of sols held in a segment. */
+	public static final int DEFAULT_SOLS_PER_SEGMENT = 50;
+	/** Most records in one segment. */
+	static final int SEGMENT_CAPACITY = 1 << 16;
+
+	private static final String SEGMENT_PREFIX = "events-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final String STRINGS_FILE = "strings.dat";
+	private static final int NO_STRING = -1;
+	/** Longest text held; longer values are cut. */
+	private static final int MAX_STRING = 8192;
+
+	private final Path dir;
+	private final int solsPerSegment;
+	private final int segmentCapacity;
+
+	private final List<JournalSegment> segments = new ArrayList<>();
+	/** Position of the first record in each segment. */
+	private final Postings segmentStart = new Postings();
+	private int size;
+	private int nextSegment;
+
+	private final List<String> strings = new ArrayList<>();
+	private final Map<String, Integer> stringIds = new HashMap<>();
+	private final List<HistoricalEventType> typeOfString = new ArrayList<>();
+	private DataOutputStream stringsOut;
+
+	private final Map<HistoricalEventCategory, Postings> byCategory = new EnumMap<>(HistoricalEventCategory.class);
+	private final Map<HistoricalEventType, Postings> byType = new EnumMap<>(HistoricalEventType.class);
+	private final Map<Integer, Postings> bySource = new HashMap<>();
+	/** Position of the first record of each sol; index 0 is unused. */
+	private final Postings solStart = new Postings();
+
+	private EventJournal(Path dir, int solsPerSegment, int segmentCapacity) {
+		this.dir = dir;
+		this.solsPerSegment = solsPerSegment;
+		this.segmentCapacity = segmentCapacity;
+	}
+
+	/**
+	 * Opens the journal in a directory, creating it if needed.
+	 *
+	 * @param dir Directory holding the journal files
+	 * @return
+	 * @throws IOException
+	 */
+	public static EventJournal open(Path dir) throws IOException {
+		return open(dir, DEFAULT_SOLS_PER_SEGMENT, SEGMENT_CAPACITY);
+	}
+
+	/**
+	 * Opens the journal in a directory, creating it if needed.
+	 *
+	 * @param dir Directory holding the journal files
+	 * @param solsPerSegment Number of sols in a segment before a new one is started
+	 * @param segmentCapacity Most records in a segment
+	 * @return
+	 * @throws IOException
+	 */
+	static EventJournal open(Path dir, int solsPerSegment, int segmentCapacity) throws IOException {
+		Files.createDirectories(dir);
+		var journal = new EventJournal(dir, solsPerSegment, segmentCapacity);
+		try {
+			journal.load();
+		}
+		catch (IOException e) {
+			journal.close();
+			throw e;
+		}
+		return journal;
+	}
+
+	/**
+	 * Loads the string table and the segments and builds the indices.
+	 */
+	private void load() throws IOException {
+		Path stringsPath = dir.resolve(STRINGS_FILE);
+		if (Files.exists(stringsPath)) {
+			try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stringsPath)))) {
+				while (true) {
+					registerString(in.readUTF());
+				}
+			}
+			catch (EOFException e) {
+				// End of the table; a part written entry at the end is dropped
+			}
+		}
+		stringsOut = new DataOutputStream(new BufferedOutputStream(
+						Files.newOutputStream(stringsPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+
+		List<Path> files;
+		try (Stream<Path> found = Files.list(dir)) {
+			files = found.filter(p -> {
+							String n = p.getFileName().toString();
+							return n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX);
+						})
+						.sorted()
+						.toList();
+		}
+		for (Path p : files) {
+			var s = JournalSegment.open(p);
+			segmentStart.add(size);
+			segments.add(s);
+			for (int i = 0; i < s.getCount(); i++) {
+				index(s, i, size++);
+			}
+			String n = p.getFileName().toString();
+			nextSegment = Math.max(nextSegment, Integer.parseInt(n.substring(SEGMENT_PREFIX.length(),
+													n.length() - SEGMENT_SUFFIX.length())) + 1);
+		}
+	}
+
+	private int registerString(String s) {
+		int id = strings.size();
+		strings.add(s);
+		stringIds.put(s, id);
+		HistoricalEventType t = null;
+		try {
+			t = HistoricalEventType.valueOf(s);
+		}
+		catch (IllegalArgumentException e) {
+			// Not a type name
+		}
+		typeOfString.add(t);
+		return id;
+	}
+
+	/**
+	 * Gets the identifier of a string, adding it to the table if new.
+	 */
+	private int stringId(String s) throws IOException {
+		if (s == null) {
+			return NO_STRING;
+		}
+		if (s.length() > MAX_STRING) {
+			s = s.substring(0, MAX_STRING);
+		}
+		Integer id = stringIds.get(s);
+		if (id == null) {
+			// Written at once so no record on disk refers to a missing string
+			stringsOut.writeUTF(s);
+			stringsOut.flush();
+			id = registerString(s);
+		}
+		return id;
+	}
+
+	private String string(int id) {
+		return (id == NO_STRING ? null : strings.get(id));
+	}
+
+	/**
+	 * Gets the key used to index a source entity.
+	 *
+	 * @param id
+	 * @return
+	 */
+	static String sourceKey(EntityIdentifier id) {
+		return id.type() + ":" + (id.parentId() != null ? id.parentId() + ":" : "") + id.id();
+	}
+
+	private static String nameOf(Entity e) {
+		return (e != null ? e.getName() : null);
+	}
+
+	/**
+	 * Adds a record to the indices.
+	 */
+	private void index(JournalSegment s, int idx, int position) {
+		HistoricalEventType type = typeOfString.get(s.getInt(idx, JournalSegment.TYPE));
+		if (type != null) {
+			byType.computeIfAbsent(type, k -> new Postings()).add(position);
+			byCategory.computeIfAbsent(type.getCategory(), k -> new Postings()).add(position);
+		}
+		bySource.computeIfAbsent(s.getInt(idx, JournalSegment.SOURCE), k -> new Postings()).add(position);
+
+		int sol = s.getInt(idx, JournalSegment.SOL);
+		while (solStart.size <= sol) {
+			solStart.add(position);
+		}
+	}
+
+	/**
+	 * Adds an event to the journal. The event must have been time stamped.
+	 *
+	 * @param event
+	 * @throws IOException
+	 */
+	public synchronized void append(HistoricalEvent event) throws IOException {
+		MarsTime when = event.getTimestamp();
+		int sol = when.getMissionSol();
+
+		JournalSegment current = (segments.isEmpty() ? null : segments.get(segments.size() - 1));
+		if ((current == null) || current.isFull() || (sol >= current.getFirstSol() + solsPerSegment)) {
+			current = newSegment(sol);
+		}
+
+		Coordinates locn = event.getCoordinates();
+		int idx = current.append(when.getTotalMillisols(), sol, stringId(event.getType().name()),
+						stringId(sourceKey(event.getSource().getEntityIdentifier())),
+						stringId(event.getSource().getName()), stringId(nameOf(event.getHomeTown())),
+						stringId(event.getWhatCause()), stringId(event.getWhileDoing()),
+						stringId(nameOf(event.getAffected())),
+						(locn != null ? locn.getPhi() : Double.NaN), (locn != null ? locn.getTheta() : Double.NaN));
+		index(current, idx, size++);
+	}
+
+	private JournalSegment newSegment(int sol) throws IOException {
+		if (!segments.isEmpty()) {
+			segments.get(segments.size() - 1).force();
+		}
+		int firstSol = sol - ((sol - 1) % solsPerSegment);
+		var p = dir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+		var s = JournalSegment.create(p, segmentCapacity, firstSol);
+		segmentStart.add(size);
+		segments.add(s);
+		return s;
+	}
+
+	/**
+	 * Counts the events up to and including a time.
+	 */
+	private int countUpTo(MarsTime when) {
+		double limit = when.getTotalMillisols();
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (millisols(mid) <= limit) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Does the journal hold any events after a time.
+	 *
+	 * @param when
+	 * @return
+	 */
+	public synchronized boolean hasEventsAfter(MarsTime when) {
+		return countUpTo(when) < size;
+	}
+
+	/**
+	 * Copies the events up to a time into a new journal. This is used when an earlier save
+	 * is loaded; the later events belong to a later save so this journal is left as it is.
+	 *
+	 * @param target Directory of the new journal; this must not hold a journal
+	 * @param when Time of the last event copied
+	 * @return The new journal
+	 * @throws IOException
+	 */
+	public synchronized EventJournal forkTo(Path target, MarsTime when) throws IOException {
+		flush();
+		int kept = countUpTo(when);
+
+		Files.createDirectories(target);
+		Files.copy(dir.resolve(STRINGS_FILE), target.resolve(STRINGS_FILE));
+		for (int i = 0; (i < segments.size()) && (segmentStart.values[i] < kept); i++) {
+			Path p = segments.get(i).getPath();
+			Files.copy(p, target.resolve(p.getFileName()));
+		}
+
+		// The last segment copied may still hold later events
+		var fork = open(target, solsPerSegment, segmentCapacity);
+		try {
+			fork.truncateAfter(when);
+		}
+		catch (IOException e) {
+			fork.close();
+			throw e;
+		}
+		return fork;
+	}
+
+	/**
+	 * Removes any events after a time.
+	 *
+	 * @param when
+	 * @throws IOException
+	 */
+	public synchronized void truncateAfter(MarsTime when) throws IOException {
+		int lo = countUpTo(when);
+		if (lo == size) {
+			return;
+		}
+
+		int dropped = size - lo;
+		while (!segments.isEmpty() && (segmentStart.values[segments.size() - 1] >= lo)) {
+			var s = segments.remove(segments.size() - 1);
+			segmentStart.size--;
+			// Closing releases the mapping so the file can be deleted on every platform
+			s.close();
+			Files.delete(s.getPath());
+		}
+		if (!segments.isEmpty()) {
+			int last = segments.size() - 1;
+			segments.get(last).truncate(lo - segmentStart.values[last]);
+		}
+
+		// Rebuild the indices from what is left
+		size = 0;
+		byCategory.clear();
+		byType.clear();
+		bySource.clear();
+		solStart.size = 0;
+		for (var s : segments) {
+			for (int i = 0; i < s.getCount(); i++) {
+				index(s, i, size++);
+			}
+		}
+		logger.info("Removed " + dropped + " journal events after " + when.getDateTimeStamp());
+	}
+
+	/**
+	 * Gets the number of events held.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private int segmentOf(int position) {
+		int s = segmentStart.lowerBound(position + 1) - 1;
+		return Math.max(s, 0);
+	}
+
+	private double millisols(int position) {
+		int s = segmentOf(position);
+		return segments.get(s).getDouble(position - segmentStart.values[s], JournalSegment.MILLISOLS);
+	}
+
+	/**
+	 * Gets a single event.
+	 *
+	 * @param position Position in the journal; 0 is the oldest
+	 * @return
+	 */
+	public synchronized JournalEntry get(int position) {
+		if ((position < 0) || (position >= size)) {
+			throw new IndexOutOfBoundsException(position);
+		}
+		int si = segmentOf(position);
+		var s = segments.get(si);
+		int idx = position - segmentStart.values[si];
+
+		double phi = s.getDouble(idx, JournalSegment.PHI);
+		Coordinates locn = (Double.isNaN(phi) ? null : new Coordinates(phi, s.getDouble(idx, JournalSegment.THETA)));
+		return new JournalEntry(position, new MarsTime(s.getDouble(idx, JournalSegment.MILLISOLS)),
+						typeOfString.get(s.getInt(idx, JournalSegment.TYPE)),
+						string(s.getInt(idx, JournalSegment.SOURCE_NAME)),
+						string(s.getInt(idx, JournalSegment.SETTLEMENT)),
+						string(s.getInt(idx, JournalSegment.CAUSE)),
+						string(s.getInt(idx, JournalSegment.WHILE_DOING)),
+						string(s.getInt(idx, JournalSegment.AFFECTED)),
+						locn);
+	}
+
+	/**
+	 * Gets the position range [from, to) covered by the sols of a filter.
+	 */
+	private int[] range(JournalFilter filter) {
+		int from = 0;
+		int to = size;
+		if ((filter.fromSol() != null) && (filter.fromSol() > 0)) {
+			from = (filter.fromSol() < solStart.size ? solStart.values[filter.fromSol()] : size);
+		}
+		if (filter.toSol() != null) {
+			int next = filter.toSol() + 1;
+			to = (next < solStart.size ? solStart.values[Math.max(next, 0)] : size);
+		}
+		return new int[] {from, Math.max(from, to)};
+	}
+
+	/**
+	 * Does a record match the parts of the filter that are not answered by the
+	 * chosen index.
+	 */
+	private boolean matches(int position, JournalFilter filter, Integer sourceId) {
+		if ((filter.type() == null) && (filter.category() == null) && (sourceId == null)) {
+			return true;
+		}
+		int si = segmentOf(position);
+		var s = segments.get(si);
+		int idx = position - segmentStart.values[si];
+		HistoricalEventType type = typeOfString.get(s.getInt(idx, JournalSegment.TYPE));
+		return ((filter.type() == null) || (filter.type() == type))
+				&& ((filter.category() == null) || ((type != null) && (filter.category() == type.getCategory())))
+				&& ((sourceId == null) || (sourceId == s.getInt(idx, JournalSegment.SOURCE)));
+	}
+
+	/**
+	 * Finds the smallest index that answers part of the filter. Null means every record
+	 * has to be visited.
+	 *
+	 * @return The postings or an empty one if nothing can match
+	 */
+	private Postings chooseIndex(JournalFilter filter, Integer sourceId) {
+		Postings best = null;
+		if (filter.category() != null) {
+			best = byCategory.getOrDefault(filter.category(), new Postings());
+		}
+		if (filter.type() != null) {
+			best = smaller(best, byType.getOrDefault(filter.type(), new Postings()));
+		}
+		if (filter.source() != null) {
+			best = smaller(best, (sourceId == null ? new Postings() : bySource.get(sourceId)));
+		}
+		return best;
+	}
+
+	private static Postings smaller(Postings a, Postings b) {
+		return ((a == null) || (b.size < a.size) ? b : a);
+	}
+
+	/**
+	 * Visits the matching positions newest first.
+	 *
+	 * @return Number of matches found
+	 */
+	private int scan(JournalFilter filter, int skip, int limit, List<JournalEntry> results) {
+		Integer sourceId = (filter.source() == null ? null : stringIds.get(sourceKey(filter.source())));
+		int[] range = range(filter);
+		Postings postings = chooseIndex(filter, sourceId);
+
+		long end = (long) skip + limit;
+		int found = 0;
+		if (postings == null) {
+			for (int p = range[1] - 1; (p >= range[0]) && (found < end); p--) {
+				found = visit(p, filter, sourceId, skip, found, results);
+			}
+		}
+		else {
+			int lo = postings.lowerBound(range[0]);
+			for (int i = postings.lowerBound(range[1]) - 1; (i >= lo) && (found < end); i--) {
+				found = visit(postings.values[i], filter, sourceId, skip, found, results);
+			}
+		}
+		return found;
+	}
+
+	private int visit(int position, JournalFilter filter, Integer sourceId, int skip, int found,
+						List<JournalEntry> results) {
+		if (!matches(position, filter, sourceId)) {
+			return found;
+		}
+		if ((results != null) && (found >= skip)) {
+			results.add(get(position));
+		}
+		return found + 1;
+	}
+
+	/**
+	 * Counts the events that match a filter.
+	 *
+	 * @param filter
+	 * @return
+	 */
+	public synchronized int count(JournalFilter filter) {
+		return scan(filter, 0, Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * Gets a page of the events that match a filter, newest first.
+	 *
+	 * @param filter Selects the events
+	 * @param offset Number of matching events to skip
+	 * @param limit Most events returned
+	 * @return
+	 */
+	public synchronized List<JournalEntry> query(JournalFilter filter, int offset, int limit) {
+		List<JournalEntry> results = new ArrayList<>(Math.min(limit, 256));
+		scan(filter, offset, Math.max(limit, 0), results);
+		return results;
+	}
+
+	/**
+	 * Flushes the journal to disk.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void flush() throws IOException {
+		stringsOut.flush();
+		if (!segments.isEmpty()) {
+			segments.get(segments.size() - 1).force();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (stringsOut != null) {
+			stringsOut.close();
+		}
+		for (var s : segments) {
+			s.close();
+		}
+		segments.clear();
+	}
+}
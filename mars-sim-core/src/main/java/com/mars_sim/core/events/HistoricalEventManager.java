@@ -7,11 +7,14 @@
 
 package com.mars_sim.core.events;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import com.mars_sim.core.logging.SimLogger;
 import com.mars_sim.core.time.MasterClock;
 
 
@@ -23,11 +26,16 @@ import com.mars_sim.core.time.MasterClock;
  * time, i.e. most recent event first. It should be noted that the throughput of
  * new events of the manager can be in the order of 100 event per simulation
  * tick.
+ * Only the recent events are held in memory; an optional {@link EventJournal} keeps
+ * every event on disk.
  */
 public class HistoricalEventManager implements Serializable {
 
 	/** default serial id. */
 	private static final long serialVersionUID = 1L;
+
+	private static final SimLogger logger = SimLogger.getLogger(HistoricalEventManager.class.getName());
+
 	/**
 	 * This defines the maximum number of events that are stored. It should be a
 	 * standard property.
@@ -40,6 +48,10 @@ public class HistoricalEventManager implements Serializable {
 	// Static list - don't want to be serialized
 	private transient List<HistoricalEvent> lastEvents = new CopyOnWriteArrayList<>();
 
+	private transient volatile EventJournal journal;
+	/** Name of the journal shared by every save of this simulation. */
+	private String journalName;
+
 	private MasterClock masterClock;
 
 	/**
@@ -49,6 +61,7 @@ public class HistoricalEventManager implements Serializable {
 	public HistoricalEventManager(MasterClock masterClock) {
 		listeners = new CopyOnWriteArrayList<>();
 		this.masterClock = masterClock;
+		this.journalName = UUID.randomUUID().toString();
 	}
 
 	/**
@@ -116,6 +129,17 @@ public class HistoricalEventManager implements Serializable {
 				lastEvents.remove(0);
 		}
 
+		EventJournal j = journal;
+		if (j != null) {
+			try {
+				j.append(newEvent);
+			}
+			catch (IOException e) {
+				logger.severe("Problem writing to the event journal; it is now disabled.", e);
+				journal = null;
+			}
+		}
+
 		if (listeners != null) {
 			for(HistoricalEventListener l : listeners) {
 				l.eventAdded(newEvent);
@@ -133,6 +157,49 @@ public class HistoricalEventManager implements Serializable {
 		return (lastEvents != null) ? lastEvents : Collections.emptyList();
 	}
 
+	/**
+	 * Sets the journal that keeps every event.
+	 *
+	 * @param journal Journal or null to stop journalling
+	 */
+	public void setJournal(EventJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Gets the name of the journal of this simulation. The saves of a simulation share its
+	 * journal whilst other simulations have their own.
+	 *
+	 * @return
+	 */
+	public synchronized String getJournalName() {
+		if (journalName == null) {
+			// Saved before journals were named
+			journalName = UUID.randomUUID().toString();
+		}
+		return journalName;
+	}
+
+	/**
+	 * Gives this simulation a new journal name. This is used when a save is loaded whose
+	 * journal holds events of a later save so the two runs keep separate journals.
+	 *
+	 * @return The new name
+	 */
+	public synchronized String forkJournal() {
+		journalName = UUID.randomUUID().toString();
+		return journalName;
+	}
+
+	/**
+	 * Gets the journal of every event.
+	 *
+	 * @return Journal or null if not enabled
+	 */
+	public EventJournal getJournal() {
+		return journal;
+	}
+
 	/**
 	 * Gets the master clock
 	 * @return
@@ -0,0 +1,36 @@
+/*
+ * Mars Simulation Project
+ * JournalEntry.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.events;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.time.MarsTime;
+
+/**
+ * An event read back from an {@link EventJournal}. The entities are held by name as
+ * the journal outlives the simulation objects.
+ *
+ * @param index Position in the journal
+ * @param timestamp When the event occurred
+ * @param type Type of the event
+ * @param source Name of the source entity
+ * @param settlement Name of the associated Settlement; may be null
+ * @param whatCause Cause of the event; may be null
+ * @param whileDoing What the source was doing; may be null
+ * @param affected Name of the affected entity; may be null
+ * @param coordinates Where the event happened; may be null
+ */
+public record JournalEntry(int index, MarsTime timestamp, HistoricalEventType type, String source,
+						String settlement, String whatCause, String whileDoing, String affected,
+						Coordinates coordinates) {
+
+	/**
+	 * Gets the category of the event.
+	 */
+	public HistoricalEventCategory getCategory() {
+		return type.getCategory();
+	}
+}
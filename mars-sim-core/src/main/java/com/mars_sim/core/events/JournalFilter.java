@@ -0,0 +1,48 @@
+/*
+ * Mars Simulation Project
+ * JournalFilter.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.events;
+
+import com.mars_sim.core.EntityIdentifier;
+
+/**
+ * Selects events from an {@link EventJournal}. Any criteria that is null is not applied.
+ *
+ * @param category Category of the event
+ * @param type Type of the event
+ * @param source Source entity of the event
+ * @param fromSol First mission sol included
+ * @param toSol Last mission sol included
+ */
+public record JournalFilter(HistoricalEventCategory category, HistoricalEventType type,
+						EntityIdentifier source, Integer fromSol, Integer toSol) {
+
+	/** Selects every event. */
+	public static final JournalFilter ALL = new JournalFilter(null, null, null, null, null);
+
+	public static JournalFilter byCategory(HistoricalEventCategory category) {
+		return new JournalFilter(category, null, null, null, null);
+	}
+
+	public static JournalFilter byType(HistoricalEventType type) {
+		return new JournalFilter(null, type, null, null, null);
+	}
+
+	public static JournalFilter bySource(EntityIdentifier source) {
+		return new JournalFilter(null, null, source, null, null);
+	}
+
+	/**
+	 * Restricts this filter to a range of sols.
+	 *
+	 * @param from First mission sol included
+	 * @param to Last mission sol included
+	 * @return
+	 */
+	public JournalFilter withSols(int from, int to) {
+		return new JournalFilter(category, type, source, from, to);
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Mars Simulation Project
+ * JournalSegment.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.events;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed size event records that is memory mapped. The records are written
+ * in time order and a record is never changed once written, so readers can use the
+ * mapping while the single writer appends.
+ * The header holds the number of records written so a segment can be reopened.
+ * The mapping belongs to its own arena so it is released as soon as the segment is closed
+ * and the file can then be deleted.
+ */
+final class JournalSegment implements AutoCloseable {
+
+	private static final long MAGIC = 0x4D534A524E4C3031L; // MSJRNL01
+	private static final int VERSION = 1;
+	private static final int HEADER = 32;
+	private static final int COUNT_POS = 16;
+
+	// Offsets within a record; strings are identifiers in the journal string table
+	static final int MILLISOLS = 0;
+	static final int TYPE = 8;
+	static final int SOURCE = 12;
+	static final int SOURCE_NAME = 16;
+	static final int SETTLEMENT = 20;
+	static final int CAUSE = 24;
+	static final int WHILE_DOING = 28;
+	static final int AFFECTED = 32;
+	static final int SOL = 36;
+	static final int PHI = 40;
+	static final int THETA = 48;
+	static final int RECORD_SIZE = 56;
+
+	// Values are big endian, the same as the header
+	private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN);
+	private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN);
+	private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.BIG_ENDIAN);
+
+	private final Path path;
+	private final FileChannel channel;
+	private final Arena arena;
+	private final MemorySegment map;
+	private final int capacity;
+	private final int firstSol;
+	private volatile int count;
+
+	private JournalSegment(Path path, FileChannel channel, int capacity, int firstSol, int count)
+				throws IOException {
+		this.path = path;
+		this.channel = channel;
+		this.capacity = capacity;
+		this.firstSol = firstSol;
+		this.count = count;
+		this.arena = Arena.ofShared();
+		try {
+			this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + ((long) capacity * RECORD_SIZE), arena);
+		}
+		catch (IOException e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a new empty segment.
+	 *
+	 * @param path File to create
+	 * @param capacity Maximum number of records
+	 * @param firstSol First sol this segment covers
+	 * @return
+	 * @throws IOException
+	 */
+	static JournalSegment create(Path path, int capacity, int firstSol) throws IOException {
+		var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+										StandardOpenOption.WRITE);
+		try {
+			var s = new JournalSegment(path, channel, capacity, firstSol, 0);
+			s.map.set(LONG, 0, MAGIC);
+			s.map.set(INT, 8, VERSION);
+			s.map.set(INT, 12, capacity);
+			s.map.set(INT, COUNT_POS, 0);
+			s.map.set(INT, 20, firstSol);
+			return s;
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens an existing segment.
+	 *
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	static JournalSegment open(Path path) throws IOException {
+		var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			var header = ByteBuffer.allocate(HEADER);
+			channel.read(header, 0);
+			if ((header.getLong(0) != MAGIC) || (header.getInt(8) != VERSION)) {
+				throw new StreamCorruptedException("Not an event journal segment " + path);
+			}
+			int capacity = header.getInt(12);
+			int count = header.getInt(COUNT_POS);
+			if ((count < 0) || (count > capacity)) {
+				throw new StreamCorruptedException("Bad record count in " + path);
+			}
+			return new JournalSegment(path, channel, capacity, header.getInt(20), count);
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	Path getPath() {
+		return path;
+	}
+
+	int getFirstSol() {
+		return firstSol;
+	}
+
+	int getCount() {
+		return count;
+	}
+
+	boolean isFull() {
+		return count >= capacity;
+	}
+
+	/**
+	 * Appends a record. The count is updated last so a reader never sees a part
+	 * written record.
+	 *
+	 * @return Index of the record in this segment
+	 */
+	int append(double millisols, int sol, int type, int source, int sourceName, int settlement,
+				int cause, int whileDoing, int affected, double phi, double theta) {
+		int idx = count;
+		int pos = HEADER + (idx * RECORD_SIZE);
+		map.set(DOUBLE, pos + MILLISOLS, millisols);
+		map.set(INT, pos + TYPE, type);
+		map.set(INT, pos + SOURCE, source);
+		map.set(INT, pos + SOURCE_NAME, sourceName);
+		map.set(INT, pos + SETTLEMENT, settlement);
+		map.set(INT, pos + CAUSE, cause);
+		map.set(INT, pos + WHILE_DOING, whileDoing);
+		map.set(INT, pos + AFFECTED, affected);
+		map.set(INT, pos + SOL, sol);
+		map.set(DOUBLE, pos + PHI, phi);
+		map.set(DOUBLE, pos + THETA, theta);
+		map.set(INT, COUNT_POS, idx + 1);
+		count = idx + 1;
+		return idx;
+	}
+
+	/**
+	 * Drops the records from an index onwards.
+	 *
+	 * @param newCount
+	 */
+	void truncate(int newCount) {
+		count = newCount;
+		map.set(INT, COUNT_POS, newCount);
+	}
+
+	int getInt(int idx, int field) {
+		return map.get(INT, HEADER + ((long) idx * RECORD_SIZE) + field);
+	}
+
+	double getDouble(int idx, int field) {
+		return map.get(DOUBLE, HEADER + ((long) idx * RECORD_SIZE) + field);
+	}
+
+	/**
+	 * Flushes the records to disk.
+	 */
+	void force() {
+		map.force();
+	}
+
+	/**
+	 * Flushes the records and releases the mapping and the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			force();
+		}
+		finally {
+			arena.close();
+			channel.close();
+		}
+	}
+}
@@ -6,10 +6,18 @@
  */
 package com.mars_sim.core.events;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
 
 import com.mars_sim.core.time.ClockPulse;
 import com.mars_sim.core.time.MarsTime;
@@ -18,21 +26,52 @@ import com.mars_sim.core.time.Temporal;
 
 /**
  * This class manages a list off future scheduled events.
+ * The events are held in a hierarchical timing wheel keyed on whole millisols. The first
+ * wheel has a slot per millisol for the next 256 millisols; each outer wheel has 64 slots
+ * that each cover a full turn of the wheel inside it. When the inner wheel completes a turn,
+ * the next slot of the outer wheel is cascaded down. Events beyond the outer wheel wait in
+ * an overflow slot. Each slot is an intrusive linked list so adding and cancelling an event
+ * are constant time, and a pulse only visits the slots of the millisols it covers.
  */
 public class ScheduledEventManager implements Serializable, Temporal {
 
-	private static final long serialVersionUID = 1L;
-	
+	private static final long serialVersionUID = 2L;
+
+    private static final int INNER_BITS = 8;
+    private static final int OUTER_BITS = 6;
+    private static final int OUTER_WHEELS = 3;
+    private static final int INNER_SLOTS = 1 << INNER_BITS;
+    private static final int OUTER_SLOTS = 1 << OUTER_BITS;
+    private static final int OVERFLOW = INNER_SLOTS + (OUTER_WHEELS * OUTER_SLOTS);
+    /** Range of the whole wheel in millisols. */
+    private static final long WHEEL_RANGE = 1L << (INNER_BITS + (OUTER_WHEELS * OUTER_BITS));
+
+    /** Slot of an event that is not scheduled. */
+    private static final int UNSCHEDULED = -1;
+    /** Slot of an event that is due in the pulse being processed. */
+    private static final int DUE = -2;
+
+    private static final Comparator<ScheduledEvent> DUE_ORDER = Comparator
+                        .comparingDouble((ScheduledEvent e) -> e.when.getTotalMillisols())
+                        .thenComparingLong(e -> e.seq);
+
     /**
      * Represents an event that is scheduled for future execution.
      */
     public class ScheduledEvent implements Comparable<ScheduledEvent>, Serializable {
 
 		private static final long serialVersionUID = 1L;
-		
+
         private MarsTime when;
         private ScheduledEventHandler handler;
 
+        // Order of scheduling; breaks ties between events at the same time
+        private long seq;
+
+        // Position in the wheel
+        private transient int slot = UNSCHEDULED;
+        private transient ScheduledEvent prev;
+        private transient ScheduledEvent next;
 
         public ScheduledEvent(MarsTime when, ScheduledEventHandler handler) {
             this.when = when;
@@ -42,10 +81,10 @@ public class ScheduledEventManager implements Serializable, Temporal {
         public MarsTime getWhen() {
             return when;
         }
-        
+
         /**
          * Gets the handler waiting for this scheduled event to occur.
-         * 
+         *
          * @return
          */
         public ScheduledEventHandler getHandler() {
@@ -59,6 +98,13 @@ public class ScheduledEventManager implements Serializable, Temporal {
             return handler.getEventDescription();
         }
 
+        /**
+         * Is this event waiting to be executed.
+         */
+        public boolean isScheduled() {
+            return slot != UNSCHEDULED;
+        }
+
         @Override
         public int hashCode() {
             final int prime = 31;
@@ -82,7 +128,7 @@ public class ScheduledEventManager implements Serializable, Temporal {
 
         /**
          * Compares the scheduled events according to when the event is scheduled.
-         * 
+         *
          * @param o
          * @return
          */
@@ -90,18 +136,79 @@ public class ScheduledEventManager implements Serializable, Temporal {
         public int compareTo(ScheduledEvent o) {
             return Double.compare(when.getTotalMillisols(), o.when.getTotalMillisols());
         }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+
+            // A handle of an event that has fired may still be held; only the manager links those waiting
+            slot = UNSCHEDULED;
+        }
+    }
+
+    /**
+     * A read only view of the events in time order. The order is only built when the view
+     * is read after a change.
+     */
+    private class EventView extends AbstractList<ScheduledEvent> {
+
+        @Override
+        public ScheduledEvent get(int index) {
+            return getSorted().get(index);
+        }
+
+        @Override
+        public int size() {
+            synchronized(ScheduledEventManager.this) {
+                return size;
+            }
+        }
+
+        @Override
+        public Iterator<ScheduledEvent> iterator() {
+            return getSorted().iterator();
+        }
+
+        @Override
+        public Spliterator<ScheduledEvent> spliterator() {
+            return getSorted().spliterator();
+        }
     }
 
     private MasterClock master;
-    private List<ScheduledEvent> eventQueue = new ArrayList<>();
+    // Last whole millisol processed
+    private long current;
+    private long nextSeq = 0;
+
+    private transient ScheduledEvent[] slots;
+    private transient int size;
+    private transient int changes;
+    private transient PriorityQueue<ScheduledEvent> due;
+    private transient double dueTime;
+    private transient List<ScheduledEvent> sorted;
+    private transient int sortedChanges;
+    private transient List<ScheduledEvent> view;
 
     public ScheduledEventManager(MasterClock clock) {
         this.master = clock;
+        this.current = tick(clock.getMarsTime());
+        init();
+    }
+
+    private void init() {
+        slots = new ScheduledEvent[OVERFLOW + 1];
+        size = 0;
+        changes = 0;
+        sorted = null;
+        view = new EventView();
+    }
+
+    private static long tick(MarsTime when) {
+        return (long) Math.floor(when.getTotalMillisols());
     }
 
     /**
      * Adds an event to be executed in the future.
-     * 
+     *
      * @param duration Duration in miliisols until the event is executed
      * @param handler Handler when the event expires
      */
@@ -112,7 +219,7 @@ public class ScheduledEventManager implements Serializable, Temporal {
 
     /**
      * Adds an event to be executed in the future at a specific time.
-     * 
+     *
      * @param when Time on Mars this event will happen
      * @param handler Handler when the event expires
      */
@@ -127,73 +234,266 @@ public class ScheduledEventManager implements Serializable, Temporal {
         return result;
     }
 
+    private synchronized void addEvent(ScheduledEvent newEvent) {
+        newEvent.seq = nextSeq++;
+        schedule(newEvent);
+        size++;
+        changes++;
+    }
+
+    /**
+     * Places an event in the wheel. An event that is due in the pulse being
+     * processed joins the due queue so it runs in time order within the pulse.
+     */
+    private void schedule(ScheduledEvent e) {
+        if ((due != null) && (e.when.getTotalMillisols() <= dueTime)) {
+            e.slot = DUE;
+            due.add(e);
+            return;
+        }
+
+        long delta = tick(e.when) - current;
+        long target = Math.max(tick(e.when), current);
+        int slot;
+        if (delta < INNER_SLOTS) {
+            // Includes anything already past which is picked up by the next pulse
+            slot = (int) (target & (INNER_SLOTS - 1));
+        }
+        else if (delta >= WHEEL_RANGE) {
+            slot = OVERFLOW;
+        }
+        else {
+            int wheel = (63 - Long.numberOfLeadingZeros(delta) - INNER_BITS) / OUTER_BITS;
+            int shift = INNER_BITS + (wheel * OUTER_BITS);
+            slot = INNER_SLOTS + (wheel * OUTER_SLOTS) + (int) ((target >>> shift) & (OUTER_SLOTS - 1));
+        }
+        link(e, slot);
+    }
+
+    private void link(ScheduledEvent e, int slot) {
+        ScheduledEvent head = slots[slot];
+        e.slot = slot;
+        e.prev = null;
+        e.next = head;
+        if (head != null) {
+            head.prev = e;
+        }
+        slots[slot] = e;
+    }
+
+    private void unlink(ScheduledEvent e) {
+        if (e.slot == DUE) {
+            due.remove(e);
+        }
+        else {
+            if (e.prev != null) {
+                e.prev.next = e.next;
+            }
+            else {
+                slots[e.slot] = e.next;
+            }
+            if (e.next != null) {
+                e.next.prev = e.prev;
+            }
+        }
+        e.prev = null;
+        e.next = null;
+        e.slot = UNSCHEDULED;
+    }
+
+    /**
+     * Removes all the events of a slot.
+     */
+    private ScheduledEvent detach(int slot) {
+        ScheduledEvent head = slots[slot];
+        slots[slot] = null;
+        return head;
+    }
 
-    private void addEvent(ScheduledEvent newEvent) {
-        synchronized(eventQueue) {
-            eventQueue.add(newEvent);
-            Collections.sort(eventQueue);
+    /**
+     * Moves the events of an outer slot into the inner wheels.
+     */
+    private void cascade(int slot) {
+        ScheduledEvent e = detach(slot);
+        while (e != null) {
+            ScheduledEvent next = e.next;
+            schedule(e);
+            e = next;
         }
     }
 
     /**
-     * Removes a previously registered event against a handler.
-     * 
+     * Cancels a scheduled event.
+     *
+     * @param event Event returned when it was added
+     * @return Was the event still waiting
+     */
+    public synchronized boolean removeEvent(ScheduledEvent event) {
+        if ((event == null) || !event.isScheduled()) {
+            return false;
+        }
+        unlink(event);
+        size--;
+        changes++;
+        return true;
+    }
+
+    /**
+     * Removes a previously registered event against a handler. This has to search the
+     * events so callers should prefer to keep the scheduled event and remove that.
+     *
      * @param handler Handler to be removed
      */
-    public void removeEvent(ScheduledEventHandler handler) {
-        synchronized(eventQueue) {
-            for(ScheduledEvent event : eventQueue) {
-                if (event.handler.equals(handler)) {
-                    eventQueue.remove(event);
-                    return;
-                }
+    public synchronized void removeEvent(ScheduledEventHandler handler) {
+        for (ScheduledEvent event : getSorted()) {
+            if (event.handler.equals(handler)) {
+                removeEvent(event);
+                return;
             }
         }
     }
 
     /**
      * Returns a list of events are scheduled for the future.
-     * 
+     *
      * @return
      */
     public List<ScheduledEvent> getEvents() {
-        return Collections.unmodifiableList(eventQueue);
+        return view;
+    }
+
+    /**
+     * Gets the events in time order; this is rebuilt only after a change.
+     */
+    private synchronized List<ScheduledEvent> getSorted() {
+        if ((sorted == null) || (sortedChanges != changes)) {
+            List<ScheduledEvent> result = new ArrayList<>(size);
+            for (ScheduledEvent head : slots) {
+                for (ScheduledEvent e = head; e != null; e = e.next) {
+                    result.add(e);
+                }
+            }
+            if (due != null) {
+                result.addAll(due);
+            }
+            result.sort(DUE_ORDER);
+            sorted = Collections.unmodifiableList(result);
+            sortedChanges = changes;
+        }
+        return sorted;
+    }
+
+    /**
+     * Collects the events of an inner slot that are due.
+     */
+    private void collectDue(int slot, double now) {
+        ScheduledEvent e = slots[slot];
+        while (e != null) {
+            ScheduledEvent next = e.next;
+            if (e.when.getTotalMillisols() <= now) {
+                unlink(e);
+                e.slot = DUE;
+                due.add(e);
+            }
+            e = next;
+        }
+    }
+
+    /**
+     * Advances the wheel to a millisol; any outer slot that starts at this millisol
+     * is cascaded first.
+     */
+    private void advanceTo(long t) {
+        current = t;
+        if ((t & (INNER_SLOTS - 1)) != 0) {
+            return;
+        }
+        long block = t >>> INNER_BITS;
+        for (int wheel = 0; wheel < OUTER_WHEELS; wheel++) {
+            int idx = (int) (block & (OUTER_SLOTS - 1));
+            cascade(INNER_SLOTS + (wheel * OUTER_SLOTS) + idx);
+            if (idx != 0) {
+                return;
+            }
+            block >>>= OUTER_BITS;
+        }
+        // Completed a turn of the outermost wheel
+        cascade(OVERFLOW);
     }
 
     /**
      * Processes any expired events.
-     * 
+     *
      * @param clockPulse
      */
     @Override
-    public boolean timePassing(ClockPulse clockPulse) {
-        synchronized(eventQueue) {
-            MarsTime currentTime = clockPulse.getMarsTime();
-
-            if (!eventQueue.isEmpty()) {
-                ScheduledEvent next = eventQueue.get(0);
-
-                // Keep executing events that have past
-                while((next != null) && next.when.getTotalMillisols() <= currentTime.getTotalMillisols()) {
-                    eventQueue.remove(next);
-                    int repeatInterval = next.handler.execute(currentTime);
-                    if (repeatInterval > 0) {
-                        // Update the when and add back into the queue
-                        next.when = next.when.addTime(repeatInterval);
-                        addEvent(next);
-                    }
-
-                    // Get next event
-                    if (eventQueue.isEmpty()) {
-                        next = null;
-                    }
-                    else {
-                        next = eventQueue.get(0);
-                    }
+    public synchronized boolean timePassing(ClockPulse clockPulse) {
+        MarsTime currentTime = clockPulse.getMarsTime();
+        double now = currentTime.getTotalMillisols();
+        long target = (long) Math.floor(now);
+
+        if (size == 0) {
+            current = Math.max(current, target);
+            return true;
+        }
+
+        due = new PriorityQueue<>(DUE_ORDER);
+        dueTime = now;
+        try {
+            // The current slot may hold events later in the millisol or scheduled in the past
+            collectDue((int) (current & (INNER_SLOTS - 1)), now);
+            while (current < target) {
+                advanceTo(current + 1);
+                collectDue((int) (current & (INNER_SLOTS - 1)), now);
+            }
+
+            // Keep executing events that have past
+            ScheduledEvent next;
+            while ((next = due.poll()) != null) {
+                next.slot = UNSCHEDULED;
+                size--;
+                changes++;
+                int repeatInterval = next.handler.execute(currentTime);
+                if (repeatInterval > 0) {
+                    // Update the when and add back into the queue
+                    next.when = next.when.addTime(repeatInterval);
+                    addEvent(next);
                 }
             }
         }
-        
+        finally {
+            // Anything left if a handler failed goes back in the wheel
+            var left = new ArrayList<>(due);
+            due = null;
+            left.forEach(this::schedule);
+        }
+
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the events as a list; the wheel is rebuilt when loaded.
+     */
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(new ArrayList<>(getSorted()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+        List<ScheduledEvent> saved = (List<ScheduledEvent>) in.readObject();
+
+        // An event reached before this manager is still being read so the wheel is
+        // rebuilt once the whole graph has been read
+        in.registerValidation(() -> {
+            synchronized (this) {
+                for (ScheduledEvent e : saved) {
+                    schedule(e);
+                    size++;
+                }
+            }
+        }, 0);
+    }
+}
@@ -6,11 +6,14 @@
  */
 package com.mars_sim.core.goods;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.mars_sim.core.UnitManager;
 import com.mars_sim.core.equipment.Container;
@@ -24,6 +27,7 @@ import com.mars_sim.core.resource.AmountResource;
 import com.mars_sim.core.resource.ResourceUtil;
 import com.mars_sim.core.structure.Settlement;
 import com.mars_sim.core.time.MarsTime;
+import com.mars_sim.core.tool.RandomUtil;
 import com.mars_sim.core.vehicle.Crewable;
 import com.mars_sim.core.vehicle.Vehicle;
 import com.mars_sim.core.vehicle.VehicleType;
@@ -42,7 +46,12 @@ public final class CommerceUtil {
 	 */
 	private static final double SELL_CREDIT_LIMIT = 10_000_000D;
 
+	/** Number of settlements at which the trading partners are evaluated in parallel. */
+	private static final int PARALLEL_SETTLEMENTS = 8;
+
 	private static UnitManager unitManager;
+
+	private static final TradeMatrix matrix = new TradeMatrix();
 			
 	/**
 	 * Private constructor for utility class.
@@ -59,14 +68,20 @@ public final class CommerceUtil {
 	 * @return the deal(value points) for trade.
 	 */
 	public static Deal getBestDeal(Settlement startingSettlement, MissionType commerceType, Vehicle delivery) {
-		Deal bestDeal = null;
-		for (Settlement tradingSettlement : unitManager.getSettlements()) {
-			Deal deal = getPotentialDeal(startingSettlement, commerceType, tradingSettlement, delivery);
-			if ((deal != null) 
-				&& ((bestDeal == null) || (bestDeal.getProfit() > deal.getProfit()))) {
-					bestDeal = deal;
-			}
-		}
+		// Partners the starting settlement already has a mission to are only found once
+		Set<Settlement> activePartners = getCommercePartners(startingSettlement);
+
+		Collection<Settlement> candidates = unitManager.getSettlements();
+		// A seeded simulation stays on the calling thread so the settlement stream is used
+		boolean parallel = (candidates.size() >= PARALLEL_SETTLEMENTS) && !RandomUtil.isSeeded();
+		var search = (parallel ? candidates.parallelStream()
+								: candidates.stream());
+		Deal bestDeal = search
+				.filter(t -> !activePartners.contains(t))
+				.map(t -> getPotentialDeal(startingSettlement, commerceType, t, delivery, false))
+				.filter(Objects::nonNull)
+				.min(Comparator.comparingDouble(Deal::getProfit))
+				.orElse(null);
 
 		if (bestDeal == null) {
 			logger.info(startingSettlement, 30_000, "No deal for a " 
@@ -90,16 +105,26 @@ public final class CommerceUtil {
 	 */
 	public static Deal getPotentialDeal(Settlement startingSettlement, MissionType commerceType, Settlement tradingSettlement,
 										Vehicle delivery) {
+		return getPotentialDeal(startingSettlement, commerceType, tradingSettlement, delivery, true);
+	}
+
+	/**
+	 * Gets the available trade deal for combination of settlements. The cheaper checks are done first.
+	 * 
+	 * @param checkStarting Check the missions of the starting settlement for a current commerce mission
+	 */
+	private static Deal getPotentialDeal(Settlement startingSettlement, MissionType commerceType, Settlement tradingSettlement,
+										Vehicle delivery, boolean checkStarting) {
 		double possibleRange = delivery.getEstimatedRange() * .8D;
 
 		if (!startingSettlement.equals(tradingSettlement) && tradingSettlement.getMissionControl().isMissionEnable(commerceType)) {
 
-			boolean hasCurrentCommerce = hasCurrentCommerceMission(startingSettlement, tradingSettlement);
-
 			double settlementRange = tradingSettlement.getCoordinates().getDistance(startingSettlement.getCoordinates());
 			boolean withinRange = (settlementRange <= possibleRange);
 
-			if (!hasCurrentCommerce && withinRange) {					
+			if (withinRange 
+					&& !(checkStarting && hasCommerceMissionTo(startingSettlement, tradingSettlement))
+					&& !hasCommerceMissionTo(tradingSettlement, startingSettlement)) {					
 				// Determine desired buy load at the other end. So reverse the buyer & seller 
 				// when calling
 				Shipment buyLoad = getDesiredBuyLoad(startingSettlement, delivery, tradingSettlement);
@@ -117,21 +142,31 @@ public final class CommerceUtil {
 	}
 
 	/**
-	 * Checks if there is currently a commerce mission between two settlements.
+	 * Checks if a settlement currently has a commerce mission to another settlement.
 	 * 
-	 * @param settlement1 the first settlement.
-	 * @param settlement2 the second settlement.
-	 * @return true if current trade mission between settlements.
+	 * @param settlement the settlement owning the mission.
+	 * @param partner the trading settlement of the mission.
+	 * @return true if current commerce mission to the partner.
 	 */
-	private static boolean hasCurrentCommerceMission(Settlement settlement1, Settlement settlement2) {
-		return (settlement1.getMissionControl().getActiveMissions().stream()
+	private static boolean hasCommerceMissionTo(Settlement settlement, Settlement partner) {
+		return settlement.getMissionControl().getActiveMissions().stream()
 			.filter(CommerceMission.class::isInstance)
 			.map(CommerceMission.class::cast)
-			.anyMatch(m -> m.getTradingSettlement().equals(settlement2))
-			|| settlement2.getMissionControl().getActiveMissions().stream()
-				.filter(CommerceMission.class::isInstance)
-				.map(CommerceMission.class::cast)
-				.anyMatch(m -> m.getTradingSettlement().equals(settlement1)));
+			.anyMatch(m -> m.getTradingSettlement().equals(partner));
+	}
+
+	/**
+	 * Gets the trading settlements of the current commerce missions of a settlement.
+	 * 
+	 * @param settlement the settlement owning the missions.
+	 * @return trading settlements
+	 */
+	private static Set<Settlement> getCommercePartners(Settlement settlement) {
+		return settlement.getMissionControl().getActiveMissions().stream()
+			.filter(CommerceMission.class::isInstance)
+			.map(CommerceMission.class::cast)
+			.map(CommerceMission::getTradingSettlement)
+			.collect(Collectors.toSet());
 	}
 
 	/**
@@ -240,21 +275,19 @@ public final class CommerceUtil {
 
 		Map<Good, Integer> tradeList = new HashMap<>();
 		double costValue = 0;
-		Map<Good, ShoppingItem> buyList = buyingSettlement.getGoodsManager().getBuyList();
-		Map<Good, ShoppingItem> sellList = sellingSettlement.getGoodsManager().getSellList();
 
 		double massCapacity = delivery.getCargoCapacity() * 0.8D;
 
 		// Find the matching Goods being sold and bought
-		Set<Good> unionGoods = new HashSet<>(buyList.keySet());
-		unionGoods.retainAll(sellList.keySet());
+		var matches = matrix.getMatches(buyingSettlement.getIdentifier(), 
+								buyingSettlement.getGoodsManager().getBuyList(),
+								sellingSettlement.getIdentifier(),
+								sellingSettlement.getGoodsManager().getSellList());
 		
-		for(Good good : unionGoods) {
-			ShoppingItem buy = buyList.get(good);
-			ShoppingItem sell = sellList.get(good);
-			if (buy.price() <= sell.price()) {
-				continue;
-			}
+		for(var match : matches) {
+			Good good = match.good();
+			ShoppingItem buy = match.buy();
+			ShoppingItem sell = match.sell();
 
 			int amountToTrade = Math.min(buy.quantity(), sell.quantity());
 
@@ -525,5 +558,6 @@ public final class CommerceUtil {
 
 	public static void initializeInstances(UnitManager u) {
 		unitManager = u;
+		matrix.clear();
 	}
 }
\ No newline at end of file
@@ -14,7 +14,6 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import com.mars_sim.core.SimulationConfig;
@@ -126,7 +125,7 @@ public class GoodsManager implements Serializable {
  	}
 
 	/** default serial id. */
-	private static final long serialVersionUID = 12L;
+	private static final long serialVersionUID = 13L;
 
 	/** Initialized logger. */
 	private static final SimLogger logger = SimLogger.getLogger(GoodsManager.class.getName());
@@ -174,14 +173,10 @@ public class GoodsManager implements Serializable {
 	
 	private Map<CommerceType, Double> factors = new EnumMap<>(CommerceType.class);
 
-	private Map<Integer, Double> goodsValues = new HashMap<>();
-	
-	private Map<Integer, Double> projectedDemandCache = new HashMap<>();
-	private Map<Integer, Double> tradeDemandCache = new HashMap<>();
-	private Map<Integer, Double> demandCache = new HashMap<>();
-	private Map<Integer, Double> supplyCache = new HashMap<>();
-
-	private Map<Integer, Integer> deflationIndexMap = new HashMap<>();
+	/** The value, demand, supply and deflation of each good. */
+	private GoodsTable table;
+	/** The measures last published for other settlements. */
+	private transient volatile GoodsTable.Snapshot snapshot;
 	
 	/** A standard list of buying resources in buying negotiation. */
 	private Map<Good, ShoppingItem> buyList =  Collections.emptyMap();
@@ -212,29 +207,13 @@ public class GoodsManager implements Serializable {
 		// Future event to update Goods values; randomise first trigger
 		settlement.getFutureManager().addEvent(RandomUtil.getRandomInt(1, 50), new GoodsUpdater());
 		
-		// Populate the caches
-		populateCaches();
+		// Populate the caches with default values
+		table = new GoodsTable();
 
 		// Schedule reseting the first review cycle during early morning
 		settlement.getFutureManager().addEvent(startOfDayOffset + 15, new ResourcesReset());
 	}
     
-	/**
-	 * Populates the cache maps.
-	 */
-	private void populateCaches() {
-		// Preload the caches with default values
-		for(Good good : GoodsUtil.getGoodsList()) {
-			int id = good.getID();
-			goodsValues.put(id, 1D);
-			tradeDemandCache.put(id, 0D);
-			deflationIndexMap.put(id, 0);
-			projectedDemandCache.put(id, good.getDefaultDemandValue());
-			demandCache.put(id, good.getDefaultDemandValue());
-			supplyCache.put(id, good.getDefaultSupplyValue());
-		}
-	}
-	
 	/**
      * Gets the flattened demand of a good.
      * 
@@ -308,7 +287,25 @@ public class GoodsManager implements Serializable {
  		// Update the metrics on all goods 
 		for (Good g: GoodsUtil.getGoodsList()) {
 			updateOneGood(g);
-		}				
+		}
+
+		// Publish the new measures for other settlements
+		snapshot = table.snapshot();
+	}
+
+	/**
+	 * Gets the measures as they were after the last update. This is the view that should
+	 * be used when reading the goods of another settlement.
+	 * 
+	 * @return
+	 */
+	public GoodsTable.Snapshot getSnapshot() {
+		var result = snapshot;
+		if (result == null) {
+			result = table.snapshot();
+			snapshot = result;
+		}
+		return result;
 	}
 
 	/**
@@ -360,9 +357,10 @@ public class GoodsManager implements Serializable {
 			good.refreshSupplyDemandScore(this);
 
 			int id = good.getID();
+			int idx = GoodsUtil.getGoodIndex(id);
 		
-			double totalSupply = supplyCache.get(id);
-			double oldDemand = demandCache.get(id);
+			double totalSupply = table.get(GoodsTable.Measure.SUPPLY, idx);
+			double oldDemand = table.get(GoodsTable.Measure.DEMAND, idx);
 			double newDemand = oldDemand;
 				
 			int msol = masterClock.getMarsTime().getMillisolInt();
@@ -386,17 +384,17 @@ public class GoodsManager implements Serializable {
 			// Check if it surpasses MAX_VP
 			if (newGoodValue > MAX_VP) {
 				// Update deflationIndexMap for other resources of the same category
-				newGoodValue = updateDeflationMap(id, newGoodValue, good.getCategory(), true);
+				newGoodValue = updateDeflationMap(idx, newGoodValue, good.getCategory(), true);
 			}
 			// Check if it falls below MIN_VP
 			else if (newGoodValue < MIN_VP) {
 				// Update deflationIndexMap for other resources of the same category
-				updateDeflationMap(id, newGoodValue, good.getCategory(), false);
+				updateDeflationMap(idx, newGoodValue, good.getCategory(), false);
 			}
 
 			
 			// Check for inflation and deflation adjustment due to other resources
-			newGoodValue = checkDeflation(id, newGoodValue);
+			newGoodValue = checkDeflation(idx, newGoodValue);
 			
 			if (msol % FREQUENCY == 0) {
 				// Adjust the market VP
@@ -404,7 +402,7 @@ public class GoodsManager implements Serializable {
 				newGoodValue = LIMIT * newGoodValue + DELTA * marketVP;
 				
 				// Save the value point if it has changed
-				double oldValue = goodsValues.get(id);
+				double oldValue = table.get(GoodsTable.Measure.VALUE, idx);
 				
 				if (oldValue != newGoodValue) {
 					setGoodValue(good, newGoodValue);
@@ -451,13 +449,13 @@ public class GoodsManager implements Serializable {
 	/**
 	 * Checks the deflation of a resource.
 	 * 
-	 * @param id
+	 * @param idx Index of the good
 	 * @param value
 	 * @return
 	 */
-	private double checkDeflation(int id, double value) {
+	private double checkDeflation(int idx, double value) {
 		// Check for inflation and deflation adjustment
-		int index = deflationIndexMap.get(id);
+		int index = table.getDeflation(idx);
 
 		if (index > 0) { // if the index is positive, need to deflate the value
 			for (int i = 0; i < index; i++) {
@@ -481,38 +479,35 @@ public class GoodsManager implements Serializable {
 			}
 		}
 
-		deflationIndexMap.put(id, 0);
+		table.setDeflation(idx, 0);
 		return value;
 	}
 
 	/**
-	 * Updates the deflation index Map.
+	 * Updates the deflation index.
 	 *
-	 * @param id     the id of the resource that cause the deflation
+	 * @param idx    the index of the resource that cause the deflation
 	 * @param value  the demand value to be adjusted
 	 * @param exceed true if it surpasses the upper limit; false if it falls below
 	 *               the lower limit
 	 * @return the adjusted value
 	 */
-	private double updateDeflationMap(int id, double value, GoodCategory type, boolean exceed) {
-		if (!deflationIndexMap.containsKey(id)) {
+	private double updateDeflationMap(int idx, double value, GoodCategory type, boolean exceed) {
+		if (idx < 0) {
 			return 0;
 		}
-		if (type == GoodsUtil.getGood(id).getCategory()) {
+		int oldIndex = table.getDeflation(idx);
+		if (type == GoodsUtil.getGoodAt(idx).getCategory()) {
 			// This good is of the same category as the one that cause the
 			// inflation/deflation
-			int oldIndex = deflationIndexMap.get(id);
 			if (exceed) {
 				// reduce twice
-				deflationIndexMap.put(id, oldIndex + 2);
+				table.setDeflation(idx, oldIndex + 2);
 			}
 		}
-		else { // This good is of different category
-			int oldIndex = deflationIndexMap.get(id);
-			if (exceed) {
-				// reduce once
-				deflationIndexMap.put(id, oldIndex + 1);
-			}
+		else if (exceed) {
+			// This good is of different category so reduce once
+			table.setDeflation(idx, oldIndex + 1);
 		}
 
 		if (exceed)
@@ -556,7 +551,7 @@ public class GoodsManager implements Serializable {
 
 		for (Settlement tempSettlement : unitManager.getSettlements()) {
 			if (tempSettlement != settlement) {
-				double baseValue = tempSettlement.getGoodsManager().getDemandScore(good);
+				double baseValue = tempSettlement.getGoodsManager().getSnapshot().getDemandScore(good);
 				double distance = settlement.getCoordinates().getDistance(
 												tempSettlement.getCoordinates());
 				double tradeValue = baseValue / (1D + (distance / 1000D));
@@ -711,8 +706,9 @@ public class GoodsManager implements Serializable {
 	 * @return value (VP)
 	 */
 	public double getGoodValuePoint(int id) {
-		if (goodsValues.containsKey(id))
-			return goodsValues.get(id);
+		int idx = GoodsUtil.getGoodIndex(id);
+		if (idx >= 0)
+			return table.get(GoodsTable.Measure.VALUE, idx);
 		else
 			logger.severe(settlement, " - Good Value of " + id + " not valid.");
 		return 0;
@@ -725,8 +721,9 @@ public class GoodsManager implements Serializable {
 	 * @return demand value
 	 */
 	public double getDemandScoreWithID(int id) {
-		if (demandCache.containsKey(id))
-			return demandCache.get(id);
+		int idx = GoodsUtil.getGoodIndex(id);
+		if (idx >= 0)
+			return table.get(GoodsTable.Measure.DEMAND, idx);
 		else
 			logger.severe(settlement, "id: " + id + " not valid.");
 		return 1;
@@ -739,7 +736,7 @@ public class GoodsManager implements Serializable {
 	 * @return
 	 */
 	public double getDemandScore(Good good) {
-		return demandCache.get(good.getID());
+		return get(GoodsTable.Measure.DEMAND, good.getID());
 	}
 	
 	/**
@@ -749,7 +746,7 @@ public class GoodsManager implements Serializable {
 	 * @return
 	 */
 	public double getProjectedDemandScore(Good good) {
-		return projectedDemandCache.get(good.getID());
+		return get(GoodsTable.Measure.PROJECTED_DEMAND, good.getID());
 	}
 	
 
@@ -761,7 +758,7 @@ public class GoodsManager implements Serializable {
 	 */
 	public void setProjectedDemandScore(Good good, double newScore) {
 		double clippedValue = MathUtils.between(newScore, MIN_DEMAND, MAX_DEMAND);
-		projectedDemandCache.put(good.getID(), clippedValue);
+		set(GoodsTable.Measure.PROJECTED_DEMAND, good.getID(), clippedValue);
 		settlement.fireUnitUpdate(EntityEventType.PROJECTED_DEMAND_EVENT, good);
 	}
 	
@@ -772,7 +769,7 @@ public class GoodsManager implements Serializable {
 	 * @return
 	 */
 	public double getTradeDemandScore(Good good) {
-		return tradeDemandCache.get(good.getID());
+		return get(GoodsTable.Measure.TRADE_DEMAND, good.getID());
 	}	
 	
 	/**
@@ -783,7 +780,7 @@ public class GoodsManager implements Serializable {
 	 */
 	public void setTradeDemandScore(Good good, double newScore) {
 		double clippedValue = MathUtils.between(newScore, 0, MAX_DEMAND);
-		tradeDemandCache.put(good.getID(), clippedValue);
+		set(GoodsTable.Measure.TRADE_DEMAND, good.getID(), clippedValue);
 		settlement.fireUnitUpdate(EntityEventType.TRADE_DEMAND_EVENT, good);
 	}
 	
@@ -795,7 +792,7 @@ public class GoodsManager implements Serializable {
 	 */
 	public void setDemandScore(Good good, double newScore) {
 		double clippedValue = MathUtils.between(newScore, MIN_DEMAND, MAX_DEMAND);
-		demandCache.put(good.getID(), clippedValue);
+		set(GoodsTable.Measure.DEMAND, good.getID(), clippedValue);
 		settlement.fireUnitUpdate(EntityEventType.DEMAND_EVENT, good);
 	}
 
@@ -807,7 +804,7 @@ public class GoodsManager implements Serializable {
 	 */
 	public void setGoodValue(Good good, double newValue) {
 		double clippedValue = MathUtils.between(newValue, MIN_VP, MAX_VP);
-		goodsValues.put(good.getID(), clippedValue);
+		set(GoodsTable.Measure.VALUE, good.getID(), clippedValue);
 		settlement.fireUnitUpdate(EntityEventType.VALUE_EVENT, good);
 	}
 	
@@ -830,7 +827,7 @@ public class GoodsManager implements Serializable {
 	 */
 	public void setSupplyScore(int id, double newScore) {
 		double clippedValue = MathUtils.between(newScore, MIN_SUPPLY, MAX_SUPPLY);
-		supplyCache.put(id, clippedValue);
+		set(GoodsTable.Measure.SUPPLY, id, clippedValue);
 	}
 
 	/**
@@ -850,7 +847,29 @@ public class GoodsManager implements Serializable {
 	 * @return
 	 */
 	public double getSupplyScore(int id) {
-		return supplyCache.get(id);
+		return get(GoodsTable.Measure.SUPPLY, id);
+	}
+
+	/**
+	 * Gets a measure of a good.
+	 * 
+	 * @param m
+	 * @param id Good id
+	 * @return
+	 */
+	private double get(GoodsTable.Measure m, int id) {
+		return table.get(m, GoodsUtil.getGoodIndex(id));
+	}
+
+	/**
+	 * Sets a measure of a good.
+	 * 
+	 * @param m
+	 * @param id Good id
+	 * @param value
+	 */
+	private void set(GoodsTable.Measure m, int id, double value) {
+		table.set(m, GoodsUtil.getGoodIndex(id), value);
 	}
 
 	/**
@@ -1096,8 +1115,8 @@ public class GoodsManager implements Serializable {
 		Set<Good> excluded = new HashSet<>(GoodsManager.getUnsellableGoods());
 		excluded.addAll(buyList.keySet());   // Exclude goods that are already being bought
 
-		for(Entry<Integer, Double> item : supplyCache.entrySet()) {
-			Good good = GoodsUtil.getGood(item.getKey());
+		for (int idx = 0; idx < table.size(); idx++) {
+			Good good = GoodsUtil.getGoodAt(idx);
 
 			if (excluded.contains(good)) {
 				continue;
@@ -1130,14 +1149,14 @@ public class GoodsManager implements Serializable {
 		// This logic is a draft and need more refinement
 		Map<Good, ShoppingItem> newBuy = new HashMap<>();
 		Set<Good> excluded = GoodsManager.getUnsellableGoods();
-		for(Entry<Integer, Double> item : demandCache.entrySet()) {
-			Good good = GoodsUtil.getGood(item.getKey());
+		for (int idx = 0; idx < table.size(); idx++) {
+			Good good = GoodsUtil.getGoodAt(idx);
 			if (excluded.contains(good)) {
 				continue;
 			}
 
 			// Take Goods in demand more than supply
-			if (item.getValue() > supplyCache.get(good.getID())) {
+			if (table.get(GoodsTable.Measure.DEMAND, idx) > table.get(GoodsTable.Measure.SUPPLY, idx)) {
 				double buyPrice = getPrice(good) * 1.1D;
 				int quantity = (int)(good.getNumberForSettlement(settlement) * 0.1D);
 				if (quantity == 0) {
@@ -1161,6 +1180,8 @@ public class GoodsManager implements Serializable {
     	throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
 		
+		// Goods may have changed since the save
+		table = table.realign();
 		deals = new EnumMap<>(MissionType.class);
 		buyList = Collections.emptyMap();
 		sellList = Collections.emptyMap();
@@ -1189,22 +1210,8 @@ public class GoodsManager implements Serializable {
 	public void destroy() {
 
 		settlement = null;
-		deflationIndexMap = null;
-		
-		goodsValues.clear();
-		goodsValues = null;
-		
-		demandCache.clear();
-		demandCache = null;
-		
-		tradeDemandCache.clear();
-		tradeDemandCache = null;
-		
-		projectedDemandCache.clear();
-		projectedDemandCache = null;
-
-		supplyCache.clear();
-		supplyCache = null;
+		table = null;
+		snapshot = null;
 
 		buyList = null;
 		sellList = null;
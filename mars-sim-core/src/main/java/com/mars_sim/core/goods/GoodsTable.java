@@ -0,0 +1,154 @@
+/*
+ * Mars Simulation Project
+ * GoodsTable.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.goods;
+
+import java.io.Serializable;
+
+/**
+ * The per settlement measures of every good held as columns of primitives. Each column is
+ * indexed by the good index from {@link GoodsUtil#getGoodIndex(int)} so a lookup is an array
+ * read with no boxing.
+ * The table is only changed by the owning settlement; other settlements read an immutable
+ * {@link Snapshot} that is published after each update.
+ */
+public final class GoodsTable implements Serializable {
+
+	/**
+	 * The measures held for each good.
+	 */
+	enum Measure {
+		VALUE, DEMAND, PROJECTED_DEMAND, TRADE_DEMAND, SUPPLY
+	}
+
+	/**
+	 * An immutable copy of the measures for reading from other settlements.
+	 */
+	public static final class Snapshot {
+
+		private final double[][] columns;
+
+		private Snapshot(double[][] columns) {
+			this.columns = columns;
+		}
+
+		private double get(Measure m, Good good) {
+			int idx = GoodsUtil.getGoodIndex(good.getID());
+			return (idx < 0 ? 0D : columns[m.ordinal()][idx]);
+		}
+
+		/**
+		 * Gets the value point of a good.
+		 */
+		public double getGoodValuePoint(Good good) {
+			return get(Measure.VALUE, good);
+		}
+
+		/**
+		 * Gets the demand score of a good.
+		 */
+		public double getDemandScore(Good good) {
+			return get(Measure.DEMAND, good);
+		}
+
+		/**
+		 * Gets the supply score of a good.
+		 */
+		public double getSupplyScore(Good good) {
+			return get(Measure.SUPPLY, good);
+		}
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Measure[] MEASURES = Measure.values();
+
+	// The good id of each index when the table was built
+	private int[] ids;
+	private double[][] columns;
+	private int[] deflation;
+
+	/**
+	 * Creates a table for the current goods populated with the defaults.
+	 */
+	GoodsTable() {
+		int count = GoodsUtil.getGoodsCount();
+		ids = new int[count];
+		columns = new double[MEASURES.length][count];
+		deflation = new int[count];
+		for (int i = 0; i < count; i++) {
+			Good good = GoodsUtil.getGoodAt(i);
+			ids[i] = good.getID();
+			set(Measure.VALUE, i, 1D);
+			set(Measure.PROJECTED_DEMAND, i, good.getDefaultDemandValue());
+			set(Measure.DEMAND, i, good.getDefaultDemandValue());
+			set(Measure.SUPPLY, i, good.getDefaultSupplyValue());
+		}
+	}
+
+	/**
+	 * Gets the number of goods in the table.
+	 */
+	int size() {
+		return ids.length;
+	}
+
+	double get(Measure m, int index) {
+		return columns[m.ordinal()][index];
+	}
+
+	void set(Measure m, int index, double value) {
+		columns[m.ordinal()][index] = value;
+	}
+
+	int getDeflation(int index) {
+		return deflation[index];
+	}
+
+	void setDeflation(int index, int value) {
+		deflation[index] = value;
+	}
+
+	/**
+	 * Copies the measures into an immutable snapshot.
+	 */
+	Snapshot snapshot() {
+		double[][] copy = new double[columns.length][];
+		for (int m = 0; m < columns.length; m++) {
+			copy[m] = columns[m].clone();
+		}
+		return new Snapshot(copy);
+	}
+
+	/**
+	 * Checks the table matches the current goods after a reload. If the goods have
+	 * changed, the values are moved to the new indexes and any new good gets the defaults.
+	 *
+	 * @return The table to use
+	 */
+	GoodsTable realign() {
+		int count = GoodsUtil.getGoodsCount();
+		boolean aligned = (count == ids.length);
+		for (int i = 0; aligned && (i < count); i++) {
+			aligned = (GoodsUtil.getGoodAt(i).getID() == ids[i]);
+		}
+		if (aligned) {
+			return this;
+		}
+
+		GoodsTable result = new GoodsTable();
+		for (int old = 0; old < ids.length; old++) {
+			int idx = GoodsUtil.getGoodIndex(ids[old]);
+			if (idx >= 0) {
+				for (int m = 0; m < columns.length; m++) {
+					result.columns[m][idx] = columns[m][old];
+				}
+				result.deflation[idx] = deflation[old];
+			}
+		}
+		return result;
+	}
+}
@@ -7,6 +7,8 @@
 package com.mars_sim.core.goods;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -35,8 +37,11 @@ public class GoodsUtil {
     private static final SimLogger logger = SimLogger.getLogger(GoodsUtil.class.getName());
 
     // Data members
-    private static Map<Integer, Good> goodsMap = null;
-    private static List<Good> goodsList = null;
+    // Written together under the lock with goodsMap last; a non-null goodsMap means all are set
+    private static volatile Map<Integer, Good> goodsMap = null;
+    private static volatile List<Good> goodsList = null;
+    // Dense index of each good in goodsList keyed on the good id
+    private static volatile int[] goodsIndex = null;
 
     private static VehicleConfig vehicleConfig = SimulationConfig.instance().getVehicleConfiguration();
 
@@ -47,13 +52,13 @@ public class GoodsUtil {
     }
 
     /**
-     * Gets a list of all goods in the simulation.
+     * Gets a list of all goods in the simulation ordered by id.
      *
      * @return list of goods
      */
     public static List<Good> getGoodsList() {
-        if (goodsList == null) {
-            getGoodsMap();
+        if (goodsMap == null) {
+            populateGoods();
         }
         return goodsList;
     }
@@ -66,18 +71,65 @@ public class GoodsUtil {
     static Map<Integer, Good> getGoodsMap() {
         if (goodsMap == null) {
             populateGoods();
-            goodsList = new ArrayList<>(goodsMap.values());
-            calculateGoodCost();
         }
 
         return goodsMap;
     }
 
+    /**
+     * Builds the lookup from a good id to its position in the list.
+     *
+     * @param goods Goods in id order
+     * @return
+     */
+    private static int[] buildIndex(List<Good> goods) {
+        int[] index = new int[goods.get(goods.size() - 1).getID() + 1];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < goods.size(); i++) {
+            index[goods.get(i).getID()] = i;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the number of goods in the simulation.
+     *
+     * @return
+     */
+    public static int getGoodsCount() {
+        return getGoodsList().size();
+    }
+
+    /**
+     * Gets the dense index of a good. The index is the position in {@link #getGoodsList()}
+     * and is used to hold the measures of goods in arrays.
+     *
+     * @param id the good id
+     * @return index or -1 if the id is not a good
+     */
+    public static int getGoodIndex(int id) {
+        if (goodsMap == null) {
+            populateGoods();
+        }
+        int[] index = goodsIndex;
+        return ((id >= 0) && (id < index.length) ? index[id] : -1);
+    }
+
+    /**
+     * Gets the good at a dense index.
+     *
+     * @param index
+     * @return
+     */
+    public static Good getGoodAt(int index) {
+        return getGoodsList().get(index);
+    }
+
     /**
      * Calculates the cost of each good.
      */
-    private static void calculateGoodCost() {
-        for (Good g : goodsList) {
+    private static void calculateGoodCost(List<Good> goods) {
+        for (Good g : goods) {
             g.computeAllCosts();
         }
     }
@@ -177,8 +229,15 @@ public class GoodsUtil {
 
         // Populate robots.
         populateRobots(newMap);
-        
+
+        List<Good> newList = new ArrayList<>(newMap.values());
+        newList.sort(Comparator.comparingInt(Good::getID));
+        goodsList = newList;
+        goodsIndex = buildIndex(newList);
+
+        // Publish the map last so other threads only see it once the list and index are set
         goodsMap = newMap;
+        calculateGoodCost(newList);
     }
 
 
@@ -295,5 +354,7 @@ public class GoodsUtil {
         }
 
         goodsMap = null;
+        goodsList = null;
+        goodsIndex = null;
     }
 }
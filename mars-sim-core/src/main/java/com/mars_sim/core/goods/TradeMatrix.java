@@ -0,0 +1,84 @@
+/*
+ * Mars Simulation Project
+ * TradeMatrix.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.goods;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The trade opportunities between every pair of settlements. An opportunity is the list of
+ * Goods that one settlement wants to buy and another sells for less.
+ * The shopping lists of a GoodsManager are replaced whenever they are recalculated, so each
+ * entry remembers the lists it was matched from and is only rebuilt when one of them changes.
+ * The matrix can be read by several threads at once.
+ */
+final class TradeMatrix {
+
+	/**
+	 * A Good that can be traded with the buying and selling terms.
+	 */
+	record Match(Good good, ShoppingItem buy, ShoppingItem sell) {}
+
+	private record Opportunity(Map<Good, ShoppingItem> buyList, Map<Good, ShoppingItem> sellList,
+								List<Match> matches) {}
+
+	private final Map<Long, Opportunity> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the Goods a buyer can purchase at a profit from a seller.
+	 *
+	 * @param buyerId Identifier of the buying settlement
+	 * @param buyList Current buy list of the buyer
+	 * @param sellerId Identifier of the selling settlement
+	 * @param sellList Current sell list of the seller
+	 * @return Matching goods
+	 */
+	List<Match> getMatches(int buyerId, Map<Good, ShoppingItem> buyList,
+							int sellerId, Map<Good, ShoppingItem> sellList) {
+		long key = ((long) buyerId << 32) | (sellerId & 0xFFFFFFFFL);
+		Opportunity current = entries.get(key);
+		if ((current == null) || (current.buyList() != buyList) || (current.sellList() != sellList)) {
+			current = new Opportunity(buyList, sellList, match(buyList, sellList));
+			entries.put(key, current);
+		}
+		return current.matches();
+	}
+
+	/**
+	 * Finds the Goods on both lists where the buying price is higher than the selling price.
+	 */
+	private static List<Match> match(Map<Good, ShoppingItem> buyList, Map<Good, ShoppingItem> sellList) {
+		// Scan the smaller list
+		boolean scanBuy = buyList.size() <= sellList.size();
+		Map<Good, ShoppingItem> scanned = (scanBuy ? buyList : sellList);
+		Map<Good, ShoppingItem> other = (scanBuy ? sellList : buyList);
+
+		List<Match> matches = new ArrayList<>();
+		for (Entry<Good, ShoppingItem> e : scanned.entrySet()) {
+			ShoppingItem found = other.get(e.getKey());
+			if (found != null) {
+				ShoppingItem buy = (scanBuy ? e.getValue() : found);
+				ShoppingItem sell = (scanBuy ? found : e.getValue());
+				if (buy.price() > sell.price()) {
+					matches.add(new Match(e.getKey(), buy, sell));
+				}
+			}
+		}
+		return Collections.unmodifiableList(matches);
+	}
+
+	/**
+	 * Removes all the opportunities.
+	 */
+	void clear() {
+		entries.clear();
+	}
+}
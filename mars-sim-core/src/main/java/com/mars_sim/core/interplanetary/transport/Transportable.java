@@ -15,6 +15,7 @@ import com.mars_sim.core.events.HistoricalEvent;
 import com.mars_sim.core.events.HistoricalEventType;
 import com.mars_sim.core.events.ScheduledEventHandler;
 import com.mars_sim.core.events.ScheduledEventManager;
+import com.mars_sim.core.events.ScheduledEventManager.ScheduledEvent;
 import com.mars_sim.core.interplanetary.transport.resupply.ResupplyUtil;
 import com.mars_sim.core.map.location.Coordinates;
 import com.mars_sim.core.time.MarsTime;
@@ -33,6 +34,7 @@ public abstract class Transportable
 	private TransitState state;
 	private Coordinates landingSite;
 	private String name;
+	private ScheduledEvent nextEvent;
 
 	protected static TransportManager tm;
 
@@ -123,8 +125,8 @@ public abstract class Transportable
 
 		// Set the event handle for the next future change
 		ScheduledEventManager trigger = getOwningManager();
-		trigger.removeEvent(this); // Remove any old scheduled event
-		trigger.addEvent(nextScheduledEvent, this);
+		trigger.removeEvent(nextEvent); // Remove any old scheduled event
+		nextEvent = trigger.addEvent(nextScheduledEvent, this);
 	}
 
 	/**
@@ -164,7 +166,8 @@ public abstract class Transportable
 		state = TransitState.CANCELED;
 		tm.fireEvent(TransportManager.createEvent(this, HistoricalEventType.TRANSPORT_ITEM_CANCELLED));
 
-		getOwningManager().removeEvent(this);
+		getOwningManager().removeEvent(nextEvent);
+		nextEvent = null;
 	}
 
 	/**
@@ -175,14 +178,14 @@ public abstract class Transportable
 	 */
 	@Override
 	public int execute(MarsTime now) {
-		int nextEvent = 0;
+		int repeat = 0;
 		HistoricalEvent event = null;
 		switch(state) {
 			case PLANNED:
 				// Launch has arrived
 				state = TransitState.IN_TRANSIT;
 				event = TransportManager.createEvent(this, HistoricalEventType.TRANSPORT_ITEM_LAUNCHED);
-				nextEvent = (int) arrivalDate.getTimeDiff(now);
+				repeat = (int) arrivalDate.getTimeDiff(now);
 				break;
 			case IN_TRANSIT:
 				// Arrvived
@@ -196,7 +199,11 @@ public abstract class Transportable
 		if (event != null) {
 			tm.fireEvent(event);
 		}
-		return nextEvent;
+		if (repeat <= 0) {
+			// The event has fired and is not rescheduled
+			nextEvent = null;
+		}
+		return repeat;
 	}
 
 	/**
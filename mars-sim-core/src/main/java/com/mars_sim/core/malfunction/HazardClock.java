@@ -0,0 +1,67 @@
+/*
+ * Mars Simulation Project
+ * HazardClock.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.malfunction;
+
+import java.io.Serializable;
+
+import com.mars_sim.core.tool.RandomUtil;
+
+/**
+ * Tracks when the next random event of a hazard rate that can change over time occurs.
+ * The cumulative hazard at which the event occurs is sampled once from an exponential
+ * distribution; time passing then only adds up the hazard until that point is reached.
+ * The number of events therefore depends on the total time and not on how it is split
+ * into pulses, and no random numbers are drawn between events.
+ */
+final class HazardClock implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private double target;
+	private double accumulated;
+
+	HazardClock() {
+		resample();
+	}
+
+	/**
+	 * Samples the point of the next event.
+	 */
+	void resample() {
+		target = -Math.log(1D - RandomUtil.getRandomDouble(1D));
+		accumulated = 0D;
+	}
+
+	/**
+	 * Adds time at a hazard rate. When the event occurs the next one is sampled.
+	 *
+	 * @param rate Expected number of events per millisol
+	 * @param time Millisols passing
+	 * @return true if the event occurs
+	 */
+	boolean advance(double rate, double time) {
+		accumulated += rate * time;
+		if (accumulated >= target) {
+			resample();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the time to the next event if the rate stays the same.
+	 *
+	 * @param rate Expected number of events per millisol
+	 * @return millisols
+	 */
+	double getTimeToEvent(double rate) {
+		if (rate <= 0D) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return (target - accumulated) / rate;
+	}
+}
@@ -91,6 +91,11 @@ public class MalfunctionManager implements Serializable, Temporal {
 	private static final int FREQUENCY = 7;
 	private static final int SCORE_DEFAULT = 50;
 	private static final int MAX_DELAY = 100;
+	/**
+	 * Average number of per pulse malfunction checks in a millisol. A check is made when the
+	 * millisol is a multiple of FREQUENCY or otherwise with a 1 in 9 chance.
+	 */
+	private static final double CHECKS_PER_MILLISOL = (1D / FREQUENCY) + ((FREQUENCY - 1D) / FREQUENCY / 9D);
 	
 	/** Initial estimate for malfunctions per orbit for an entity. */
 	private static final double ESTIMATED_MALFUNCTIONS_PER_ORBIT = 5;
@@ -134,6 +139,8 @@ public class MalfunctionManager implements Serializable, Temporal {
 	private static final MetricCategory MALFUNCTION_CAT = new MetricCategory("Malfunction", false);
 
 	private static boolean noFailures = false;
+	/** Sample the time of the next malfunction instead of drawing every pulse. */
+	private static boolean eventSampling = false;
 	
 	// Data members
 	private boolean supportInsideRepair = true;
@@ -167,6 +174,8 @@ public class MalfunctionManager implements Serializable, Temporal {
 	private double cumulativeTime;
 	/** The current life time [in millisols] of active use. */
 	private double currentWearLifeTime;
+	/** Active time left before another malfunction can be sampled. */
+	private double quietTime;
 	/**
 	 * The expected life time [in millisols] of active use before the malfunctionable
 	 * is worn out.
@@ -186,6 +195,9 @@ public class MalfunctionManager implements Serializable, Temporal {
 	private Map<MaintenanceScope, Integer> partsNeededForMaintenance;
 	/** The map of collections of scopes. */
 	private Map<Collection<String>, List<MaintenanceScope>> scopeCollection = new HashMap<>();
+
+	private HazardClock malfunctionClock;
+	private HazardClock maintenanceClock;
 	
 	private static MasterClock masterClock;
 	private static MedicalManager medic;
@@ -734,7 +746,8 @@ public class MalfunctionManager implements Serializable, Temporal {
 		// Updates params
 		cumulativeTime += time;
 		effTimeSinceLastMaint += time;
-		currentWearLifeTime -= time * RandomUtil.getRandomDouble(.75, 1.25);
+		// The wear jitter averages out so event sampling uses the mean
+		currentWearLifeTime -= (eventSampling ? time : time * RandomUtil.getRandomDouble(.75, 1.25));
 		if (currentWearCondPercent < 0D)
 			currentWearCondPercent = 0D;
 		currentWearCondPercent = currentWearLifeTime/baseWearLifeTime * 100;
@@ -758,6 +771,10 @@ public class MalfunctionManager implements Serializable, Temporal {
 			cumulativeFatigue = 0;
 		}
 		
+		if (eventSampling) {
+			sampleMalfunction(time);
+			return;
+		}
 		
 		if (pulse.isNewIntMillisol()
 				&& pulse.getMarsTime().getMillisolInt() % FREQUENCY * RandomUtil.getRandomInt(-4, 4) == 0) {
@@ -801,6 +818,48 @@ public class MalfunctionManager implements Serializable, Temporal {
 		}
 	}
 		
+	/**
+	 * Adds active time to the malfunction hazard. The hazard rate per millisol is the chance of
+	 * the per pulse check times the number of checks in a millisol so the rate of malfunctions
+	 * is the same as the per pulse check at a pulse width of one millisol.
+	 * 
+	 * @param time amount of active time (in millisols)
+	 */
+	private void sampleMalfunction(double time) {
+		if (quietTime > 0) {
+			// Space out malfunctions as the delay does
+			quietTime -= time;
+			return;
+		}
+
+		double inspectFactor = (effTimeSinceLastMaint/standardInspectionWindow) + .1D;
+		double wearFactor = (100 - currentWearCondPercent) * WEAR_MALFUNCTION_FACTOR;		
+		malfunctionProbability = 1.0 - Math.exp(-inspectFactor * wearFactor);
+
+		if (malfunctionClock == null) {
+			malfunctionClock = new HazardClock();
+		}
+		double rate = CHECKS_PER_MILLISOL * malfunctionProbability / 100D;
+		if (time > 0 && malfunctionClock.advance(rate, time)) {
+			quietTime = MAX_DELAY / CHECKS_PER_MILLISOL;
+			selectMalfunction((Unit)entity);
+		}
+	}
+
+	/**
+	 * Gets the active time to the next malfunction if the hazard stays the same.
+	 * This is only known when the malfunctions are sampled.
+	 * 
+	 * @return millisols or infinity if not known
+	 */
+	public double getTimeToMalfunction() {
+		if (!eventSampling || (malfunctionClock == null)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double rate = CHECKS_PER_MILLISOL * malfunctionProbability / 100D;
+		return Math.max(quietTime, 0) + malfunctionClock.getTimeToEvent(rate);
+	}
+
 	/**
 	 * Randomly picks one of the scopes.
 	 * 
@@ -860,7 +919,7 @@ public class MalfunctionManager implements Serializable, Temporal {
 		// Need for debugging: logger.info(entity, "maintenanceChance log10: " + Math.round(maintenanceChance * 100_000.0)/100_000.0 + " %")
 		
 		// Check for repair items needed due to lack of maintenance and wear condition.
-		if (time > 0 && RandomUtil.lessThanRandPercent(maintenanceProbability)) {
+		if (time > 0 && isMaintenanceNeeded(time)) {
 
 			// Note: call determineNewMaintenanceParts is just checking for the possibility 
 			// of having needed repair parts and doesn't necessarily result in generating parts 
@@ -881,8 +940,25 @@ public class MalfunctionManager implements Serializable, Temporal {
 	}
 
 	/**
-	 * Gets the malfunction probability %.
-	 * Note: Assumes malfunctionProbability already multiplied by the pulse width in millisols.  
+	 * Checks if the inspection finds parts needing maintenance. When sampling, the
+	 * probability is taken as the rate per millisol of inspection work.
+	 * 
+	 * @param time
+	 */
+	private boolean isMaintenanceNeeded(double time) {
+		if (eventSampling) {
+			if (maintenanceClock == null) {
+				maintenanceClock = new HazardClock();
+			}
+			return maintenanceClock.advance(maintenanceProbability / 100D, time);
+		}
+		return RandomUtil.lessThanRandPercent(maintenanceProbability);
+	}
+
+	/**
+	 * Gets the malfunction probability % of one malfunction check.
+	 * Note: When the malfunctions are sampled, the hazard rate per millisol is this chance 
+	 * times the average number of checks in a millisol.
 	 * Each sol has 1000 millisols and each orbit has 668.6 sols.
 	 * 
 	 * @return probability
@@ -892,8 +968,8 @@ public class MalfunctionManager implements Serializable, Temporal {
 	}
 	
 	/**
-	 * Gets the maintenance probability %.
-	 * Note: Assumes maintenanceProbability already multiplied by the pulse width in millisols. 
+	 * Gets the maintenance probability % of one inspection.
+	 * Note: When the malfunctions are sampled, this is the rate per millisol of inspection work. 
 	 * Each sol has 1000 millisols and each orbit has 668.6 sols.
 	 * 
 	 * @return probability 
@@ -1715,6 +1791,21 @@ public class MalfunctionManager implements Serializable, Temporal {
 		noFailures = newFlag;
 	}
 
+	/**
+	 * Sets if the next malfunction and maintenance are sampled from the hazard rate
+	 * instead of being drawn for each pulse.
+	 */
+	public static void setEventSampling(boolean enabled) {
+		eventSampling = enabled;
+	}
+
+	/**
+	 * Are the malfunctions sampled from the hazard rate ?
+	 */
+	public static boolean isEventSampling() {
+		return eventSampling;
+	}
+
 	/**
 	 * Prepares object for garbage collection.
 	 */
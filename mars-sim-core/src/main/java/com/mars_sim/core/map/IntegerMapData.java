@@ -20,6 +20,8 @@ import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,6 +54,9 @@ import com.mars_sim.core.map.location.Coordinates;
  	// The factor to apply for calculate the min & max rho
   	private static final double MAX_RHO_MULTIPLER = 10;
   	private static final double MIN_RHO_MULTIPLER = 0.9;
+
+	// Number of CPU projections kept for reuse
+	private static final int MAX_PROJECTIONS = 3;
   	
  	private static final double HALF_PI = Math.PI / 2D;
 
@@ -67,8 +72,10 @@ import com.mars_sim.core.map.location.Coordinates;
 	/* The default value of rho. */
 	private double rhoDefault;
 	
-	/* The base map color pixels double array. */
- 	private int[][] colorPixels = new int[0][0];
+	/* The base map color pixels stored row by row. */
+ 	private int[] colorPixels = new int[0];
+	/* The recent CPU projections; the most recently used is first. */
+	private List<MapProjection> projections = new ArrayList<>();
  	
 	// The max rho
  	private Range rhoRange; 	
@@ -219,6 +226,9 @@ import com.mars_sim.core.map.location.Coordinates;
 	 		}
 
 			// Update as ready
+			synchronized (projections) {
+				projections.clear();
+			}
 	 		loaded = MapState.LOADED;
 			meta.setLocallyAvailable(resolution);
 		} catch (IOException e) {
@@ -229,11 +239,6 @@ import com.mars_sim.core.map.location.Coordinates;
 		rhoDefault = pixelHeight / Math.PI;
 		rhoRange = new Range(rhoDefault * MIN_RHO_MULTIPLER,
 							 rhoDefault * MAX_RHO_MULTIPLER);
-		
-//		int r = colorPixels.length;
-//		int c = colorPixels[r-1].length;
-//		int totalElements = r * c;
-//		System.out.println("totalElements: " + totalElements);
  	}
  	
 	/**
@@ -242,9 +247,9 @@ import com.mars_sim.core.map.location.Coordinates;
 	 * @param pixels Source mono byte values
 	 * @return
 	 */
- 	private int[][] loadColourImage(byte[] pixels) {
+ 	private int[] loadColourImage(byte[] pixels) {
 
-		var loadPixels = new int[pixelHeight][pixelWidth];
+		var loadPixels = new int[pixelHeight * pixelWidth];
 
 		final int pixelLength = 3;
 		for (int pixel = 0, row = 0, col = 0; pixel + 2 < pixels.length; pixel += pixelLength) {
@@ -263,7 +268,7 @@ import com.mars_sim.core.map.location.Coordinates;
 			argb += ((pixels[pixel + 1] & 0xff) << 8); // green
 			argb += ((pixels[pixel + 2] & 0xff) << 16); // red
 			
-			loadPixels[row][col] = argb;
+			loadPixels[(row * pixelWidth) + col] = argb;
 			col++;
 			if (col == pixelWidth) {
 				col = 0;
@@ -279,9 +284,9 @@ import com.mars_sim.core.map.location.Coordinates;
 	 * @param pixels
 	 * @return
 	 */
-	private int[][] loadAlphaImage(byte[] pixels) {
+	private int[] loadAlphaImage(byte[] pixels) {
 		// Note: 'Viking Geologic' and 'MOLA Shade' have alpha channel.
-		var loadPixels = new int[pixelHeight][pixelWidth];
+		var loadPixels = new int[pixelHeight * pixelWidth];
 
 		final int pixelLength = 4;
 
@@ -317,7 +322,7 @@ import com.mars_sim.core.map.location.Coordinates;
 			// do ((int) pixels[pixel + pixel_offset + 1] & 0xff); // green
 			// and merge the two loops into one. – Tomáš Zato Mar 23 '15 at 23:02
 					
-			loadPixels[row][col] = argb;
+			loadPixels[(row * pixelWidth) + col] = argb;
 			col++;
 			if (col == pixelWidth) {
 				col = 0;
@@ -334,16 +339,16 @@ import com.mars_sim.core.map.location.Coordinates;
 	 * @param cylindricalMapImage
 	 * @return
 	 */
-	private int[][] loadMonoImage(BufferedImage cylindricalMapImage) {
+	private int[] loadMonoImage(BufferedImage cylindricalMapImage) {
 		// Note: May use the shade map to get height values
-		var loadPixels = new int[pixelHeight][pixelWidth];
+		var loadPixels = new int[pixelHeight * pixelWidth];
 
 		Raster raster = cylindricalMapImage.getData();
 		int h = raster.getHeight();
 		int w = raster.getWidth();
 		for (int i = 0; i < w; i++) {
 			for (int j = 0; j < h; j++) {
-				loadPixels[j][i] = raster.getSample(i, j, 0);
+				loadPixels[(j * pixelWidth) + i] = raster.getSample(i, j, 0);
 			}
 		}
 
@@ -389,7 +394,7 @@ import com.mars_sim.core.map.location.Coordinates;
 		
 		if (!rendered) {
 			try {
-				cpu0(centerPhi, centerTheta, mapBoxWidth, mapBoxHeight, newRho, mapArray);
+				cpu(centerPhi, centerTheta, mapBoxWidth, mapBoxHeight, newRho, mapArray);
 			} catch(Exception e) {
 				rendered = false;
 				logger.log(Level.SEVERE, "Exception in CPU map rendering: " + e.getMessage());
@@ -517,7 +522,7 @@ import com.mars_sim.core.map.location.Coordinates;
 				 mapArray[i] = 0;
 			 }
 			 else {
-				 mapArray[i] = colorPixels[x-1][y-1];
+				 mapArray[i] = colorPixels[((x-1) * pixelWidth) + (y-1)];
 			 }
 		 }
 
@@ -526,32 +531,54 @@ import com.mars_sim.core.map.location.Coordinates;
 	 }
 
 	/**
- 	 * Constructs a map array for display with CPU.
+ 	 * Constructs a map array for display with CPU. The projection for the center latitude
+ 	 * is reused when only the center longitude has changed.
  	 * 
  	 * @param centerPhi
  	 * @param centerTheta
  	 * @param mapBoxWidth
  	 * @param mapBoxHeight
+ 	 * @param rho
  	 * @param mapArray
- 	 * @param scale
  	 */
-	 private void cpu0(double centerPhi, double centerTheta, int mapBoxWidth, int mapBoxHeight, double rho, int[] mapArray) {
-		 int halfWidth = mapBoxWidth / 2;
-		 int halfHeight = mapBoxHeight / 2;
+	 private void cpu(double centerPhi, double centerTheta, int mapBoxWidth, int mapBoxHeight, double rho, int[] mapArray) {
+		 if (loaded != MapState.LOADED) {
+			 return;
+		 }
+		 getProjection(centerPhi, rho, mapBoxWidth, mapBoxHeight).render(colorPixels, centerTheta, mapArray);
+	 }
+
+	 /**
+	  * Gets a projection matching the view, either a recent one or a new one.
+	  */
+	 private MapProjection getProjection(double centerPhi, double rho, int mapBoxWidth, int mapBoxHeight) {
+		 synchronized (projections) {
+			 for (int i = 0; i < projections.size(); i++) {
+				 var p = projections.get(i);
+				 if (p.matches(centerPhi, rho, mapBoxWidth, mapBoxHeight)) {
+					 if (i > 0) {
+						 projections.remove(i);
+						 projections.add(0, p);
+					 }
+					 return p;
+				 }
+			 }
+		 }
 
-		 for(int y = 0; y < mapBoxHeight; y++) {
-			 for(int x = 0; x < mapBoxWidth; x++) {
-				 int index = x + (y * mapBoxWidth);
-				 MapPoint loc = convertRectIntToSpherical(x - halfWidth, y - halfHeight, centerPhi, centerTheta, rho);
-				 mapArray[index] = getRGBColorInt(loc.phi(), loc.theta());
+		 var created = MapProjection.create(centerPhi, rho, mapBoxWidth, mapBoxHeight, pixelWidth, pixelHeight);
+		 synchronized (projections) {
+			 projections.add(0, created);
+			 if (projections.size() > MAX_PROJECTIONS) {
+				 projections.remove(projections.size() - 1);
 			 }
 		 }
+		 return created;
 	 }
 	 
  	/**
  	 * Constructs a map array for display with CPU without the projected background issue.
  	 * 
- 	 * @Note: this method cpu1 will replace cpu0 method. Currently not working. Retain for further debugging.
+ 	 * @Note: this method cpu1 will replace cpu method. Currently not working. Retain for further debugging.
  	 * 
  	 * @param centerPhi
  	 * @param centerTheta
@@ -785,20 +812,20 @@ import com.mars_sim.core.map.location.Coordinates;
  		while (theta < 0)
  			theta += TWO_PI;
 
- 		int row = (int) Math.round(phi * (colorPixels.length / Math.PI));
- 		if (row >= colorPixels.length) {
- 			row = colorPixels.length - 1;
+ 		int row = (int) Math.round(phi * (pixelHeight / Math.PI));
+ 		if (row >= pixelHeight) {
+ 			row = pixelHeight - 1;
  		}
  			
- 		int column = (int) Math.round(theta * (colorPixels[0].length / TWO_PI));
+ 		int column = (int) Math.round(theta * (pixelWidth / TWO_PI));
  		if (column <= 0) {
  			column = 1;
  		}
- 		else if (column >= colorPixels[0].length) {
- 			column = colorPixels[0].length - 1;
+ 		else if (column >= pixelWidth) {
+ 			column = pixelWidth - 1;
  		}
  		
- 		return colorPixels[row][column];
+ 		return colorPixels[(row * pixelWidth) + column];
  	}
 
  	/**
@@ -840,6 +867,7 @@ import com.mars_sim.core.map.location.Coordinates;
 	 */
 	public void destroy() {
 	 	colorPixels = null;
+		projections.clear();
 	 	meta = null;
 		kernel = null;
 	}
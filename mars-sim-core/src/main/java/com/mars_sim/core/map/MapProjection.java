@@ -0,0 +1,189 @@
+/*
+ * Mars Simulation Project
+ * MapProjection.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.map;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The orthographic projection of a cylindrical map onto a globe image. For every pixel of
+ * the image it holds the source row and the longitude offset from the center of the view.
+ * Changing the center longitude only rotates the globe about its axis, so the same projection
+ * can render any longitude by adding that longitude to the offset. A projection therefore
+ * only depends on the center latitude, rho and image size.
+ * Rendering splits the image into bands of rows that are processed in parallel and does not
+ * allocate anything per pixel.
+ */
+public final class MapProjection {
+
+	private static final double TWO_PI = Math.PI * 2D;
+
+	// Longitude offsets are in source columns with this many fraction bits
+	private static final int FRACTION_BITS = 10;
+	private static final int ONE = 1 << FRACTION_BITS;
+	private static final int HALF = ONE >> 1;
+
+	// Number of image rows processed as one parallel task
+	private static final int BAND_ROWS = 16;
+
+	private final double centerPhi;
+	private final double rho;
+	private final int width;
+	private final int height;
+	private final int sourceWidth;
+	private final int sourceHeight;
+
+	// Index of the first source pixel of the row for each image pixel; -1 is off the globe
+	private final int[] rowBase;
+	// Longitude offset of each image pixel in fixed point source columns
+	private final int[] columnOffset;
+
+	private MapProjection(double centerPhi, double rho, int width, int height,
+							int sourceWidth, int sourceHeight) {
+		this.centerPhi = centerPhi;
+		this.rho = rho;
+		this.width = width;
+		this.height = height;
+		this.sourceWidth = sourceWidth;
+		this.sourceHeight = sourceHeight;
+		this.rowBase = new int[width * height];
+		this.columnOffset = new int[width * height];
+	}
+
+	/**
+	 * Creates the projection for a view.
+	 *
+	 * @param centerPhi Latitude of the view center
+	 * @param rho Radius of the globe in pixels
+	 * @param width Width of the image
+	 * @param height Height of the image
+	 * @param sourceWidth Width of the cylindrical source map
+	 * @param sourceHeight Height of the cylindrical source map
+	 * @return
+	 */
+	public static MapProjection create(double centerPhi, double rho, int width, int height,
+										int sourceWidth, int sourceHeight) {
+		var p = new MapProjection(centerPhi, rho, width, height, sourceWidth, sourceHeight);
+		p.build();
+		return p;
+	}
+
+	/**
+	 * Calculates the source position of every pixel. The per row and per column terms
+	 * are precomputed so each pixel only needs a square root, an arc cosine and an arc tangent.
+	 */
+	private void build() {
+		double sinPhi = Math.sin(centerPhi);
+		double cosPhi = Math.cos(centerPhi);
+		double rhoSquared = rho * rho;
+		double rowScale = sourceHeight / Math.PI;
+		double columnScale = sourceWidth * ONE / TWO_PI;
+
+		int halfWidth = width / 2;
+		int halfHeight = height / 2;
+		double[] xSquared = new double[width];
+		for (int x = 0; x < width; x++) {
+			int dx = x - halfWidth;
+			xSquared[x] = (double) dx * dx;
+		}
+
+		forEachBand(band -> {
+			int last = Math.min(band + BAND_ROWS, height);
+			for (int y = band; y < last; y++) {
+				int dy = y - halfHeight;
+				double ySinPhi = dy * sinPhi;
+				double yCosPhi = dy * cosPhi;
+				double remaining = rhoSquared - ((double) dy * dy);
+				int index = y * width;
+				for (int x = 0; x < width; x++, index++) {
+					double zSquared = remaining - xSquared[x];
+					if (zSquared < 0D) {
+						rowBase[index] = -1;
+						continue;
+					}
+					double z = Math.sqrt(zSquared);
+					double y2 = yCosPhi + (z * sinPhi);
+					double z2 = (z * cosPhi) - ySinPhi;
+
+					double phi = Math.acos(Math.clamp(z2 / rho, -1D, 1D));
+					int row = (int) Math.round(phi * rowScale);
+					if (row >= sourceHeight) {
+						row = sourceHeight - 1;
+					}
+					rowBase[index] = row * sourceWidth;
+
+					// Longitude relative to the center of the view
+					columnOffset[index] = (int) Math.round(Math.atan2(x - halfWidth, y2) * columnScale);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Renders the source map centered on a longitude.
+	 *
+	 * @param source Source pixels stored row by row
+	 * @param centerTheta Longitude of the view center
+	 * @param out Destination of the image pixels stored row by row
+	 */
+	public void render(int[] source, double centerTheta, int[] out) {
+		int wrap = sourceWidth * ONE;
+		int shift = (int) Math.round(centerTheta * sourceWidth * ONE / TWO_PI) % wrap;
+		if (shift < 0) {
+			shift += wrap;
+		}
+		int lastColumn = sourceWidth - 1;
+		int thetaShift = shift;
+
+		forEachBand(band -> {
+			int end = Math.min(band + BAND_ROWS, height) * width;
+			for (int i = band * width; i < end; i++) {
+				int base = rowBase[i];
+				if (base < 0) {
+					out[i] = 0;
+					continue;
+				}
+				int v = columnOffset[i] + thetaShift;
+				if (v < 0) {
+					v += wrap;
+				}
+				else if (v >= wrap) {
+					v -= wrap;
+				}
+				int column = (v + HALF) >> FRACTION_BITS;
+				if (column <= 0) {
+					column = 1;
+				}
+				else if (column > lastColumn) {
+					column = lastColumn;
+				}
+				out[i] = source[base + column];
+			}
+		});
+	}
+
+	/**
+	 * Runs a task in parallel for each band of rows; the task is given the first row of the band.
+	 */
+	private void forEachBand(IntConsumer task) {
+		int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+		IntStream.range(0, bands).parallel()
+				.forEach(b -> task.accept(b * BAND_ROWS));
+	}
+
+	/**
+	 * Can this projection render a view ?
+	 *
+	 * @param phi Latitude of the view center
+	 * @param newRho Radius of the globe in pixels
+	 * @param newWidth Width of the image
+	 * @param newHeight Height of the image
+	 */
+	public boolean matches(double phi, double newRho, int newWidth, int newHeight) {
+		return (centerPhi == phi) && (rho == newRho) && (width == newWidth) && (height == newHeight);
+	}
+}
@@ -485,6 +485,9 @@ public final class Coordinates implements Serializable {
 	 * @return hash code.
 	 */
 	public int hashCode() {
-		return (int) ((phi * 1000D) + (theta * 1000D));
+		// Use the full precision as equality is exact; a coarse hash collides heavily
+		// when many locations are indexed, e.g. mineral deposits. Adding zero turns -0.0 into
+		// 0.0 so values that are equal give the same hash
+		return (31 * Double.hashCode(phi + 0D)) + Double.hashCode(theta + 0D);
 	}
 }
@@ -1,103 +1,317 @@
 /*
  * Mars Simulation Project
  * SurfaceManager.java
- * @date 2024-10-02
+ * @date 2026-10-16
  * @author Barry Evans
  */
 package com.mars_sim.core.map.location;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This class manages a collection of SurfaceFeatures on the surface of Mars.
- * These are held in a tiled internal structure based on the Coordinates
+ * These are held in a spherical spatial index based on the Coordinates
  * giving it optimised lookup on Coordinate.
+ * The index is an equal-area grid; rows are evenly spaced in cos(phi) and every row
+ * has the same number of longitude columns, so each cell covers the same surface area.
+ * Exact point lookups use a hash whilst radius queries walk only the cells that
+ * intersect the spherical cap.
  */
 public class SurfaceManager<T extends SurfacePOI> implements Serializable {
 	private static final long serialVersionUID = 1L;
-    private static final int LATITUDE_SLICES = 6;
-    private static final double LATITUDE_RANGE = Math.PI/LATITUDE_SLICES;
 
-    @SuppressWarnings("unchecked")
-    private List<T>[] slices = new List[LATITUDE_SLICES];
+    /** Default number of rows; each cell is roughly 3 degrees of longitude. */
+    public static final int DEFAULT_ROWS = 64;
+
+    private static final double TWO_PI = Math.PI * 2;
+
+    // Not final as a save from before the grid is given the default size when loaded
+    private int rows;
+    private int cols;
 
+    // The index is rebuilt on deserialisation from the feature list
+    private List<T> features = new ArrayList<>();
+    private transient List<T>[] cells;
+    private transient Map<Coordinates, T> exact;
+    private transient ReadWriteLock lock;
+
+    /**
+     * Creates a manager with the default grid resolution.
+     */
     public SurfaceManager() {
-        Arrays.setAll(slices, element -> new ArrayList<>());
+        this(DEFAULT_ROWS);
     }
 
+    /**
+     * Creates a manager with a specific grid resolution.
+     *
+     * @param rows Number of latitude rows; there are twice as many longitude columns.
+     */
+    public SurfaceManager(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("Rows must be positive: " + rows);
+        }
+        this.rows = rows;
+        this.cols = rows * 2;
+        createIndex();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createIndex() {
+        cells = new List[rows * cols];
+        exact = new HashMap<>();
+        lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Adds a feature to the index.
+     *
+     * @param newFeature
+     */
     public void addFeature(T newFeature) {
-        // select the best collection 
-        int subId = getSlice(newFeature.getCoordinates().getPhi());
-        slices[subId].add(newFeature);
+        lock.writeLock().lock();
+        try {
+            features.add(newFeature);
+            index(newFeature);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(T newFeature) {
+        var locn = newFeature.getCoordinates();
+        int cellId = getCell(getRow(locn.getPhi()), getCol(locn.getTheta()));
+        var cell = cells[cellId];
+        if (cell == null) {
+            cell = new ArrayList<>();
+            cells[cellId] = cell;
+        }
+        cell.add(newFeature);
+
+        // First feature at a location wins
+        exact.putIfAbsent(locn, newFeature);
     }
 
     /**
-     * Selects the best slicer based on the coordinate. This is based on the Latitude (phi).
-     * 
+     * Selects the grid row based on the Latitude (phi). Rows are equally spaced in cos(phi)
+     * which makes them equal-area.
+     *
      * @param phi Latitude phi value
      * @return
      */
-    private int getSlice(double phi) {
-        int idx = (int)(phi/LATITUDE_RANGE);
-        if (idx < 0) {
-            return 0;
-        }
-        else if (idx >= slices.length) {
-            return slices.length-1;
-        }
-        return idx;
+    private int getRow(double phi) {
+        int idx = (int)(((1D - Math.cos(phi)) / 2D) * rows);
+        return Math.clamp(idx, 0, rows - 1);
+    }
+
+    /**
+     * Selects the grid column based on the Longitude (theta).
+     *
+     * @param theta Longitude value
+     * @return
+     */
+    private int getCol(double theta) {
+        int idx = (int)((theta / TWO_PI) * cols);
+        return Math.floorMod(idx, cols);
+    }
+
+    private int getCell(int row, int col) {
+        return (row * cols) + col;
     }
 
     /**
      * Gets a feature at a specific location.
-     * 
+     *
      * @param newLocation
      * @return
      */
     public T getFeature(Coordinates newLocation) {
-        var top = getSlice(newLocation.getPhi());
-        return slices[top].stream()
-                .filter(c -> c.getCoordinates().equals(newLocation))
-                .findFirst().orElse(null);
+        lock.readLock().lock();
+        try {
+            return exact.get(newLocation);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Finds all features within a range from a center location.
-     * 
+     *
      * @param center Center point
-     * @param arcAngle 
+     * @param arcAngle
      * @return
      */
     public List<T> getFeatures(Coordinates center, double arcAngle) {
-        // Find the source the sublists based on the 4 points
-        var top = getSlice(center.getPhi() + arcAngle);
-        var bottom = getSlice(center.getPhi() - arcAngle);
-
         List<T> result = new ArrayList<>();
-        for(int i = bottom; i <= top; i++) {
-            result.addAll(
-                slices[i].stream()
-                    .filter(c -> center.getAngle(c.getCoordinates()) <= arcAngle)
-                    .toList()
-            );
+        lock.readLock().lock();
+        try {
+            collect(center, arcAngle, result);
+        }
+        finally {
+            lock.readLock().unlock();
         }
-
         return result;
     }
 
     /**
-     * Gets the distribution of details per slice. 
-     * 
-     * @return Array of the number of items in each slice
+     * Walks the cells covering a spherical cap and collects the features inside it.
+     *
+     * @param center Center of the cap
+     * @param arcAngle Radius of the cap
+     * @param result Destination of matching features
+     */
+    private void collect(Coordinates center, double arcAngle, List<T> result) {
+        double phi = center.getPhi();
+        double minPhi = phi - arcAngle;
+        double maxPhi = phi + arcAngle;
+        int topRow = getRow(Math.max(minPhi, 0D));
+        int bottomRow = getRow(Math.min(maxPhi, Math.PI));
+
+        // Longitude half width of the cap; if it covers a pole then every column is needed
+        int firstCol = 0;
+        int colCount = cols;
+        if ((minPhi > 0D) && (maxPhi < Math.PI)) {
+            double ratio = Math.sin(arcAngle) / Math.sin(phi);
+            if (ratio < 1D) {
+                double halfWidth = Math.asin(ratio);
+                firstCol = (int)Math.floor(((center.getTheta() - halfWidth) / TWO_PI) * cols);
+                int lastCol = (int)Math.floor(((center.getTheta() + halfWidth) / TWO_PI) * cols);
+                colCount = Math.min(lastCol - firstCol + 1, cols);
+            }
+        }
+
+        for (int r = topRow; r <= bottomRow; r++) {
+            for (int c = 0; c < colCount; c++) {
+                var cell = cells[getCell(r, Math.floorMod(firstCol + c, cols))];
+                if (cell != null) {
+                    for (T f : cell) {
+                        if (center.getAngle(f.getCoordinates()) <= arcAngle) {
+                            result.add(f);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the nearest features to a location ordered by increasing distance.
+     * The search radius starts at one cell and doubles until enough features are found.
+     *
+     * @param center Center point
+     * @param k Maximum number of features to return
+     * @return
+     */
+    public List<T> getNearest(Coordinates center, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        Comparator<T> byDistance = Comparator.comparingDouble(f -> center.getAngle(f.getCoordinates()));
+        double radius = Math.PI / rows;
+        lock.readLock().lock();
+        try {
+            int total = features.size();
+            while (true) {
+                List<T> found = new ArrayList<>();
+                collect(center, radius, found);
+
+                // All features within radius are found, so the kth is correct if it is within
+                if ((found.size() >= k) || (found.size() == total) || (radius >= Math.PI)) {
+                    found.sort(byDistance);
+                    return (found.size() > k ? new ArrayList<>(found.subList(0, k)) : found);
+                }
+                radius = Math.min(radius * 2D, Math.PI);
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of features managed.
+     *
+     * @return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return features.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the distribution of details per latitude row.
+     *
+     * @return Array of the number of items in each row
      */
     public int[] getStats() {
-        int[] result = new int[slices.length];
-        for(int i = 0; i < slices.length; i++) {
-            result[i] = slices[i].size();
+        int[] result = new int[rows];
+        lock.readLock().lock();
+        try {
+            for(int i = 0; i < cells.length; i++) {
+                if (cells[i] != null) {
+                    result[i / cols] += cells[i].size();
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
         }
         return result;
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.defaultWriteObject();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the features and rebuilds the index. A save made before the grid held the
+     * features in latitude slices; these are merged into the feature list.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        var fields = in.readFields();
+        if (fields.defaulted("rows")) {
+            rows = DEFAULT_ROWS;
+            features = new ArrayList<>();
+            var slices = (List<T>[]) fields.get("slices", null);
+            if (slices != null) {
+                for (List<T> s : slices) {
+                    features.addAll(s);
+                }
+            }
+        }
+        else {
+            rows = fields.get("rows", DEFAULT_ROWS);
+            features = (List<T>) fields.get("features", null);
+        }
+        cols = rows * 2;
+        createIndex();
+        for (T f : features) {
+            index(f);
+        }
+    }
 }
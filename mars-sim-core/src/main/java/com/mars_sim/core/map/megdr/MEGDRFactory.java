@@ -25,13 +25,14 @@ public class MEGDRFactory {
 	static final String ARRAY_READER = "array";
 	static final String DIRECT_READER = "direct";
 	static final String MEMORY_READER = "memory";
+	static final String MAPPED_READER = "mapped";
 
     private static final String ELEVATION_FOLDER = "/elevation/";
 	
     private static Logger logger = Logger.getLogger(MEGDRFactory.class.getName());
 
-	private static MEGDRMapReader reader;
-    private static String defaultSpec = MEMORY_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE;
+	private static volatile MEGDRMapReader reader;
+    private static String defaultSpec = MAPPED_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE;
 
     private MEGDRFactory() {
         // Stop creation of helper classes
@@ -45,10 +46,46 @@ public class MEGDRFactory {
 	 * @return the elevation as an integer.
 	 */
     public static short getElevation(double phi, double theta) {
-        if (reader == null) {
-            reader = createReader(defaultSpec);
-        }
-        return reader.getElevation(phi, theta);
+        return getReader().getElevation(phi, theta);
+	}
+
+    /**
+	 * Gets the elevation at a given location interpolated from the surrounding points.
+	 * 
+	 * @param phi   the phi location.
+	 * @param theta the theta location.
+	 * @return the elevation.
+	 */
+    public static double getInterpolatedElevation(double phi, double theta) {
+        return getReader().getInterpolatedElevation(phi, theta);
+	}
+
+    /**
+	 * Gets the elevation of a batch of locations.
+	 * 
+	 * @param phi   the phi locations.
+	 * @param theta the theta locations.
+	 * @param result Destination of the elevations.
+	 */
+    public static void getElevations(double[] phi, double[] theta, short[] result) {
+        getReader().getElevations(phi, theta, result);
+	}
+
+	/**
+	 * Gets the active reader, creating it from the spec on first use.
+	 */
+	private static MEGDRMapReader getReader() {
+		var r = reader;
+		if (r == null) {
+			synchronized (MEGDRFactory.class) {
+				r = reader;
+				if (r == null) {
+					r = createReader(defaultSpec);
+					reader = r;
+				}
+			}
+		}
+		return r;
 	}
 
 	/**
@@ -70,6 +107,7 @@ public class MEGDRFactory {
 				case ARRAY_READER -> new MEGDRMapArray(imageName);
 				case DIRECT_READER -> new MEGDRMapDirect(imageName);
 				case MEMORY_READER -> new MEGDRMapMemory(imageName);
+				case MAPPED_READER -> new MEGDRMapMapped(imageName);
 				default -> throw new IllegalArgumentException("Unknown MEGDR reader called " + reader);
 			};
 		}
@@ -79,8 +117,15 @@ public class MEGDRFactory {
 		}
 	}
 
-    public static void setSpec(String newSpec) {
+    /**
+	 * Selects the reader to use via a spec of "reader type, filename". Any existing
+	 * reader is replaced on the next lookup.
+	 * 
+	 * @param newSpec
+	 */
+    public static synchronized void setSpec(String newSpec) {
         defaultSpec = newSpec;
+        reader = null;
     }
 
 
@@ -88,6 +133,7 @@ public class MEGDRFactory {
 		runPerfTest(DIRECT_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
 		runPerfTest(ARRAY_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
 		runPerfTest(MEMORY_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
+		runPerfTest(MAPPED_READER + SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
 	}
 
 	private static void runPerfTest(String spec) {
@@ -0,0 +1,71 @@
+/*
+ * Mars Simulation Project
+ * MEGDRMapMapped.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.map.megdr;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import com.mars_sim.core.map.common.FileLocator;
+
+/**
+ * Gets elevation data by reading shorts directly from a read-only memory mapped MEGDR file.
+ * Unlike {@link MEGDRMapMemory} there is no lock, no per read allocation and no cache;
+ * the operating system page cache already holds the data. Only absolute reads are used on
+ * the buffer so it is safe to share between the settlement threads.
+ */
+public class MEGDRMapMapped extends MEGDRMapReader
+			implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(MEGDRMapMapped.class.getName());
+
+	private MappedByteBuffer memoryBuffer;
+	private FileChannel channel;
+
+    public MEGDRMapMapped(String imgName) throws IOException {
+		prepareMemoryFile(FileLocator.locateFile(imgName));
+	}
+
+	/**
+	 * Reads the big endian short at the index.
+	 */
+	@Override
+    protected short getElevation(int index) {
+		return memoryBuffer.getShort(index << 1);
+	}
+
+	/**
+	 * Opens the map file for memory mapped access.
+	 *
+	 * @throws IOException
+	 */
+	private void prepareMemoryFile(File mapSource) throws IOException {
+		channel = FileChannel.open(mapSource.toPath(), StandardOpenOption.READ);
+		long fileSize = channel.size();
+
+        memoryBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+		memoryBuffer.order(ByteOrder.BIG_ENDIAN);
+
+		short mapHeight = (short) Math.sqrt(fileSize / 4D);
+		short mapWidth = (short) (mapHeight * 2);
+
+		logger.info("Reading elevation lock-free memory mapped to '" + mapSource.getName()
+						+ "' (" + mapWidth + " by " + mapHeight + ").");
+
+		setSize(mapWidth, mapHeight);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -75,6 +75,20 @@ public abstract class MEGDRMapReader {
 		this.mapHeight = height;
     }
 
+	/**
+	 * Gets the number of columns in the map.
+	 */
+	public short getMapWidth() {
+		return mapWidth;
+	}
+
+	/**
+	 * Gets the number of rows in the map.
+	 */
+	public short getMapHeight() {
+		return mapHeight;
+	}
+
    /**
 	 * Gets the elevation as a short integer at a given location.
 	 * 
@@ -83,6 +97,17 @@ public abstract class MEGDRMapReader {
 	 * @return the elevation as an integer.
 	 */
 	public short getElevation(double phi, double theta) {
+		return getElevation(getIndex(phi, theta));
+	}
+
+	/**
+	 * Converts a location into the index of the nearest point in the source file.
+	 * 
+	 * @param phi   the phi location.
+	 * @param theta the theta location.
+	 * @return
+	 */
+	private int getIndex(double phi, double theta) {
 		// Note that row 0 and column 0 are at top left 
 		int row = (int)Math.round(phi * mapHeight / Math.PI);
 		
@@ -99,7 +124,54 @@ public abstract class MEGDRMapReader {
 		if (index > mapHeight * mapWidth - 1)
 			index = mapHeight * mapWidth - 1;
 		
-		return getElevation(index);
+		return index;
+	}
+
+	/**
+	 * Gets the elevation for a batch of locations. This avoids the per call overhead
+	 * when sampling many points, e.g. along a route.
+	 * 
+	 * @param phi   the phi locations.
+	 * @param theta the theta locations; must be the same length as phi.
+	 * @param result Destination of the elevations; must be the same length as phi.
+	 */
+	public void getElevations(double[] phi, double[] theta, short[] result) {
+		if ((phi.length != theta.length) || (phi.length != result.length)) {
+			throw new IllegalArgumentException("Location and result arrays must be the same length");
+		}
+		for (int i = 0; i < phi.length; i++) {
+			result[i] = getElevation(getIndex(phi[i], theta[i]));
+		}
+	}
+
+	/**
+	 * Gets the elevation at a given location by bilinear interpolation between the four
+	 * surrounding points. Longitude wraps around; latitude is clamped at the poles.
+	 * 
+	 * @param phi   the phi location.
+	 * @param theta the theta location.
+	 * @return the interpolated elevation.
+	 */
+	public double getInterpolatedElevation(double phi, double theta) {
+		double y = Math.clamp(phi * mapHeight / Math.PI, 0D, mapHeight - 1D);
+		double x = theta * mapWidth / TWO_PI;
+
+		int row0 = (int) y;
+		int row1 = Math.min(row0 + 1, mapHeight - 1);
+		int col0 = Math.floorMod((int) Math.floor(x), mapWidth);
+		int col1 = (col0 + 1) % mapWidth;
+		double dy = y - row0;
+		double dx = x - Math.floor(x);
+
+		double top = interpolate(getElevation(row0 * mapWidth + col0),
+								getElevation(row0 * mapWidth + col1), dx);
+		double bottom = interpolate(getElevation(row1 * mapWidth + col0),
+								getElevation(row1 * mapWidth + col1), dx);
+		return interpolate(top, bottom, dy);
+	}
+
+	private static double interpolate(double a, double b, double fraction) {
+		return a + ((b - a) * fraction);
 	}
 
 	/**
@@ -0,0 +1,50 @@
+/*
+ * Mars Simulation Project
+ * Route.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.map.route;
+
+import java.util.List;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.time.MarsTime;
+
+/**
+ * A planned route across the surface.
+ *
+ * @param waypoints Locations to drive through including the start and the end
+ * @param distance Total driving distance in km
+ * @param ascent Total climb in km
+ * @param descent Total drop in km
+ * @param direct Is this a straight line because no route around the terrain was found
+ */
+public record Route(List<Coordinates> waypoints, double distance, double ascent, double descent,
+					boolean direct) {
+
+	/**
+	 * Number of km of flat driving that uses the same energy as climbing one km.
+	 */
+	public static final double CLIMB_DISTANCE_FACTOR = 6D;
+
+	/**
+	 * Gets the flat driving distance using the same energy as this route.
+	 * This can be used for fuel and range estimates.
+	 *
+	 * @return km
+	 */
+	public double getEquivalentDistance() {
+		return distance + (ascent * CLIMB_DISTANCE_FACTOR);
+	}
+
+	/**
+	 * Gets the driving time of the route.
+	 *
+	 * @param speed Average speed in kph
+	 * @return millisols
+	 */
+	public double getTravelTime(double speed) {
+		return MarsTime.convertSecondsToMillisols(distance / speed * 3600D);
+	}
+}
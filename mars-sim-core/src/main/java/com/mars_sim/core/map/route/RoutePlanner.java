@@ -0,0 +1,353 @@
+/*
+ * Mars Simulation Project
+ * RoutePlanner.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.map.route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mars_sim.core.map.location.Coordinates;
+
+/**
+ * Plans driving routes that avoid steep terrain. An A* search runs over the cells of a
+ * {@link SlopeCostGrid} within a window around the start and the end, and the path is reduced
+ * to the cells where it turns. The route between two cells is kept so routes between
+ * settlements and sites that are travelled often are only searched once.
+ * This class can be used by several threads at once.
+ */
+public final class RoutePlanner {
+
+	// Extra cells around the start and end searched for a way round
+	private static final int MIN_MARGIN = 12;
+	private static final int MAX_MARGIN = 80;
+
+	private static final int MAX_CORRIDORS = 256;
+
+	// Neighbour offsets; the first two are north-south and the next two east-west
+	private static final int[] ROW_STEP = {-1, 1, 0, 0, -1, -1, 1, 1};
+	private static final int[] COLUMN_STEP = {0, 0, -1, 1, -1, 1, -1, 1};
+
+	/**
+	 * The part of a route between two cells that does not depend on the exact start and end.
+	 */
+	private record Corridor(List<Coordinates> interior, double ascent, double descent, boolean direct) {}
+
+	private final SlopeCostGrid grid;
+
+	@SuppressWarnings("serial")
+	private final Map<Long, Corridor> corridors = new LinkedHashMap<>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Corridor> eldest) {
+			return size() > MAX_CORRIDORS;
+		}
+	};
+
+	/**
+	 * Creates a planner.
+	 *
+	 * @param grid Grid of the terrain
+	 */
+	public RoutePlanner(SlopeCostGrid grid) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Plans a route between two locations.
+	 *
+	 * @param start
+	 * @param end
+	 * @return the route; this is a straight line if the terrain blocks every way
+	 */
+	public Route plan(Coordinates start, Coordinates end) {
+		int startRow = grid.getRow(start.getPhi());
+		int startColumn = grid.getColumn(start.getTheta());
+		int endRow = grid.getRow(end.getPhi());
+		int endColumn = grid.getColumn(end.getTheta());
+
+		long cells = (long) grid.getRows() * grid.getColumns();
+		long key = ((startRow * (long) grid.getColumns() + startColumn) * cells)
+						+ (endRow * (long) grid.getColumns() + endColumn);
+		Corridor corridor;
+		synchronized (corridors) {
+			corridor = corridors.get(key);
+		}
+		if (corridor == null) {
+			corridor = search(startRow, startColumn, endRow, endColumn);
+			synchronized (corridors) {
+				corridors.put(key, corridor);
+			}
+		}
+
+		List<Coordinates> points = new ArrayList<>(corridor.interior().size() + 2);
+		points.add(start);
+		points.addAll(corridor.interior());
+		points.add(end);
+		double distance = 0;
+		for (int i = 1; i < points.size(); i++) {
+			distance += points.get(i - 1).getDistance(points.get(i));
+		}
+		return new Route(Collections.unmodifiableList(points), distance, corridor.ascent(),
+							corridor.descent(), corridor.direct());
+	}
+
+	/**
+	 * Searches for the cheapest path between two cells.
+	 */
+	private Corridor search(int startRow, int startColumn, int endRow, int endColumn) {
+		// Go the short way round in longitude
+		int columns = grid.getColumns();
+		int columnChange = endColumn - startColumn;
+		if (columnChange > columns / 2) {
+			columnChange -= columns;
+		}
+		else if (columnChange < -columns / 2) {
+			columnChange += columns;
+		}
+		int span = Math.max(Math.abs(endRow - startRow), Math.abs(columnChange));
+		if (span == 0) {
+			return direct(startRow, startColumn, endRow, endColumn, false);
+		}
+
+		// Window of cells searched; columns are not wrapped so may be outside the grid
+		int margin = Math.clamp(span / 2, MIN_MARGIN, MAX_MARGIN);
+		int row0 = Math.max(0, Math.min(startRow, endRow) - margin);
+		int row1 = Math.min(grid.getRows() - 1, Math.max(startRow, endRow) + margin);
+		int column0 = Math.min(startColumn, startColumn + columnChange) - margin;
+		int height = row1 - row0 + 1;
+		int width = Math.min(columns, Math.abs(columnChange) + (2 * margin) + 1);
+		var window = new Window(row0, column0, width, height);
+
+		int start = window.node(startRow, startColumn);
+		int goal = window.node(endRow, startColumn + columnChange);
+		double[] cost = new double[width * height];
+		Arrays.fill(cost, Double.POSITIVE_INFINITY);
+		int[] parent = new int[width * height];
+		boolean[] closed = new boolean[width * height];
+
+		var open = new NodeHeap();
+		cost[start] = 0;
+		open.add(start, window.remaining(start, goal));
+		while (!open.isEmpty()) {
+			int n = open.poll();
+			if (closed[n]) {
+				continue;
+			}
+			closed[n] = true;
+			if (n == goal) {
+				break;
+			}
+
+			int r = n / width;
+			int c = n % width;
+			double elevation = window.elevation(n);
+			for (int k = 0; k < ROW_STEP.length; k++) {
+				int nr = r + ROW_STEP[k];
+				int nc = c + COLUMN_STEP[k];
+				if ((nr < 0) || (nr >= height) || (nc < 0) || (nc >= width)) {
+					continue;
+				}
+				int m = (nr * width) + nc;
+				if (closed[m]) {
+					continue;
+				}
+				double step = window.step(r, k);
+				double next = cost[n] + SlopeCostGrid.getStepCost(step, window.elevation(m) - elevation);
+				if (next < cost[m]) {
+					cost[m] = next;
+					parent[m] = n;
+					open.add(m, next + window.remaining(m, goal));
+				}
+			}
+		}
+
+		if (!closed[goal]) {
+			return direct(startRow, startColumn, endRow, endColumn, true);
+		}
+
+		// Walk back from the goal
+		List<Integer> path = new ArrayList<>();
+		for (int n = goal; n != start; n = parent[n]) {
+			path.add(n);
+		}
+		path.add(start);
+		Collections.reverse(path);
+
+		// Keep the cells where the path turns
+		List<Coordinates> interior = new ArrayList<>();
+		double ascent = 0;
+		double descent = 0;
+		for (int i = 1; i < path.size(); i++) {
+			int prev = path.get(i - 1);
+			int n = path.get(i);
+			double rise = window.elevation(n) - window.elevation(prev);
+			if (rise > 0) {
+				ascent += rise;
+			}
+			else {
+				descent -= rise;
+			}
+
+			if ((i < path.size() - 1) && ((n - prev) != (path.get(i + 1) - n))) {
+				interior.add(window.center(n));
+			}
+		}
+		return new Corridor(Collections.unmodifiableList(interior), ascent, descent, false);
+	}
+
+	/**
+	 * Creates a straight corridor between two cells.
+	 */
+	private Corridor direct(int startRow, int startColumn, int endRow, int endColumn, boolean blocked) {
+		double rise = grid.getElevation(endRow, endColumn) - grid.getElevation(startRow, startColumn);
+		return new Corridor(List.of(), Math.max(0, rise), Math.max(0, -rise), blocked);
+	}
+
+	/**
+	 * Gets the number of corridors kept.
+	 */
+	public int getCorridors() {
+		synchronized (corridors) {
+			return corridors.size();
+		}
+	}
+
+	/**
+	 * The cells being searched with the elevations loaded as they are reached.
+	 */
+	private final class Window {
+		private final int row0;
+		private final int column0;
+		private final int width;
+		private final double[] elevations;
+		private final double[] sinPhi;
+		private final double[] cosPhi;
+		private final double[] eastKm;
+		private final double cellKm;
+
+		Window(int row0, int column0, int width, int height) {
+			this.row0 = row0;
+			this.column0 = column0;
+			this.width = width;
+			this.elevations = new double[width * height];
+			Arrays.fill(elevations, Double.NaN);
+
+			cellKm = grid.getCellKm();
+			sinPhi = new double[height];
+			cosPhi = new double[height];
+			eastKm = new double[height];
+			for (int r = 0; r < height; r++) {
+				double phi = grid.getPhi(row0 + r);
+				sinPhi[r] = Math.sin(phi);
+				cosPhi[r] = Math.cos(phi);
+				eastKm[r] = cellKm * Math.max(sinPhi[r], 0.01);
+			}
+		}
+
+		int node(int row, int column) {
+			return ((row - row0) * width) + (column - column0);
+		}
+
+		double elevation(int n) {
+			double e = elevations[n];
+			if (Double.isNaN(e)) {
+				e = grid.getElevation(row0 + (n / width), column0 + (n % width));
+				elevations[n] = e;
+			}
+			return e;
+		}
+
+		/**
+		 * Gets the length of a step from a row in one of the neighbour directions.
+		 */
+		double step(int r, int direction) {
+			if (direction < 2) {
+				return cellKm;
+			}
+			if (direction < 4) {
+				return eastKm[r];
+			}
+			return Math.hypot(cellKm, eastKm[r]);
+		}
+
+		/**
+		 * Estimates the remaining cost as the great circle distance between two cells.
+		 */
+		double remaining(int from, int to) {
+			int r1 = from / width;
+			int r2 = to / width;
+			double dTheta = grid.getTheta(column0 + (to % width)) - grid.getTheta(column0 + (from % width));
+			double cosD = (cosPhi[r1] * cosPhi[r2]) + (sinPhi[r1] * sinPhi[r2] * Math.cos(dTheta));
+			return Math.acos(Math.clamp(cosD, -1D, 1D)) * Coordinates.MARS_RADIUS_KM * 0.99;
+		}
+
+		Coordinates center(int n) {
+			return new Coordinates(grid.getPhi(row0 + (n / width)), grid.getTheta(column0 + (n % width)));
+		}
+	}
+
+	/**
+	 * Binary heap of nodes ordered by an estimated cost. A node may be added again with a
+	 * lower cost and the older entry is skipped when it is polled.
+	 */
+	private static final class NodeHeap {
+		private int[] nodes = new int[256];
+		private double[] keys = new double[256];
+		private int size = 0;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void add(int node, double key) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, size * 2);
+				keys = Arrays.copyOf(keys, size * 2);
+			}
+			int i = size++;
+			while (i > 0) {
+				int p = (i - 1) >> 1;
+				if (keys[p] <= key) {
+					break;
+				}
+				nodes[i] = nodes[p];
+				keys[i] = keys[p];
+				i = p;
+			}
+			nodes[i] = node;
+			keys[i] = key;
+		}
+
+		int poll() {
+			int result = nodes[0];
+			size--;
+			int node = nodes[size];
+			double key = keys[size];
+			int i = 0;
+			while (true) {
+				int child = (2 * i) + 1;
+				if (child >= size) {
+					break;
+				}
+				if ((child + 1 < size) && (keys[child + 1] < keys[child])) {
+					child++;
+				}
+				if (keys[child] >= key) {
+					break;
+				}
+				nodes[i] = nodes[child];
+				keys[i] = keys[child];
+				i = child;
+			}
+			nodes[i] = node;
+			keys[i] = key;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Mars Simulation Project
+ * SlopeCostGrid.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.map.route;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.map.megdr.MEGDRFactory;
+
+/**
+ * A coarse grid over the surface of Mars holding the elevation at the center of each cell
+ * and the cost of driving between neighbouring cells. The grid is split into square tiles
+ * that are loaded from the elevation data in one batch the first time a cell is used and
+ * are then kept.
+ */
+public final class SlopeCostGrid {
+
+	/**
+	 * Source of elevations in meters for a batch of locations.
+	 */
+	@FunctionalInterface
+	public interface ElevationSource {
+		void getElevations(double[] phi, double[] theta, short[] result);
+	}
+
+	/** Number of cells per degree of latitude or longitude. */
+	public static final int CELLS_PER_DEGREE = 4;
+
+	/** Steepest grade (rise over run) a rover can drive. */
+	public static final double MAX_GRADE = 0.15;
+
+	// Extra cost for each unit of grade; driving downhill costs half as much
+	private static final double GRADE_PENALTY = 20D;
+
+	private static final int TILE_SIZE = 32;
+
+	private final int rows = 180 * CELLS_PER_DEGREE;
+	private final int columns = 360 * CELLS_PER_DEGREE;
+	private final int tileColumns = (columns + TILE_SIZE - 1) / TILE_SIZE;
+	private final double cellRadians = Math.toRadians(1D / CELLS_PER_DEGREE);
+
+	private final ElevationSource source;
+	private final Map<Integer, short[]> tiles = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a grid using the MEGDR elevation data.
+	 */
+	public SlopeCostGrid() {
+		this(MEGDRFactory::getElevations);
+	}
+
+	/**
+	 * Creates a grid from an elevation source.
+	 *
+	 * @param source
+	 */
+	public SlopeCostGrid(ElevationSource source) {
+		this.source = source;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the length of a cell from north to south.
+	 *
+	 * @return km
+	 */
+	public double getCellKm() {
+		return cellRadians * Coordinates.MARS_RADIUS_KM;
+	}
+
+	/**
+	 * Gets the row holding a latitude.
+	 *
+	 * @param phi
+	 */
+	public int getRow(double phi) {
+		return Math.clamp((int) (phi / cellRadians), 0, rows - 1);
+	}
+
+	/**
+	 * Gets the column holding a longitude.
+	 *
+	 * @param theta
+	 */
+	public int getColumn(double theta) {
+		return Math.floorMod((int) Math.floor(theta / cellRadians), columns);
+	}
+
+	/**
+	 * Gets the latitude of the center of a row.
+	 */
+	public double getPhi(int row) {
+		return (row + 0.5) * cellRadians;
+	}
+
+	/**
+	 * Gets the longitude of the center of a column.
+	 */
+	public double getTheta(int column) {
+		return (Math.floorMod(column, columns) + 0.5) * cellRadians;
+	}
+
+	/**
+	 * Gets the elevation at the center of a cell.
+	 *
+	 * @param row
+	 * @param column Column which may be outside the grid and is wrapped
+	 * @return elevation in km
+	 */
+	public double getElevation(int row, int column) {
+		int c = Math.floorMod(column, columns);
+		int key = ((row / TILE_SIZE) * tileColumns) + (c / TILE_SIZE);
+		short[] tile = tiles.computeIfAbsent(key, this::loadTile);
+		return tile[((row % TILE_SIZE) * TILE_SIZE) + (c % TILE_SIZE)] / 1000D;
+	}
+
+	/**
+	 * Loads the elevations of all the cells in a tile.
+	 */
+	private short[] loadTile(int key) {
+		int firstRow = (key / tileColumns) * TILE_SIZE;
+		int firstColumn = (key % tileColumns) * TILE_SIZE;
+		int size = TILE_SIZE * TILE_SIZE;
+		double[] phi = new double[size];
+		double[] theta = new double[size];
+		for (int i = 0; i < size; i++) {
+			phi[i] = getPhi(Math.min(firstRow + (i / TILE_SIZE), rows - 1));
+			theta[i] = getTheta(firstColumn + (i % TILE_SIZE));
+		}
+		short[] result = new short[size];
+		source.getElevations(phi, theta, result);
+		return result;
+	}
+
+	/**
+	 * Gets the number of tiles loaded.
+	 */
+	public int getLoadedTiles() {
+		return tiles.size();
+	}
+
+	/**
+	 * Gets the cost of driving a step between two cells. The cost is the distance
+	 * increased by the grade of the step.
+	 *
+	 * @param stepKm Distance of the step
+	 * @param riseKm Change of elevation
+	 * @return the cost or infinity if too steep to drive
+	 */
+	public static double getStepCost(double stepKm, double riseKm) {
+		double grade = Math.abs(riseKm) / stepKm;
+		if (grade > MAX_GRADE) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double penalty = (riseKm > 0 ? GRADE_PENALTY : GRADE_PENALTY / 2);
+		return stepKm * (1 + (penalty * grade));
+	}
+}
@@ -129,6 +129,21 @@ public abstract class MetricManager implements Serializable {
         return Simulation.instance().getMasterClock().getMarsTime();
     }
 
+    /**
+     * Makes sure any recorded values held in buffers are written to the underlying store.
+     * This is called before the manager is saved.
+     */
+    public void flush() {
+        // By default values are stored immediately
+    }
+
+    /**
+     * Releases any resources held, e.g. background writers, after flushing.
+     */
+    public void close() {
+        flush();
+    }
+
     /**
      * Reinitializes the metric manager, clearing all existing metrics and resetting internal state.
      */
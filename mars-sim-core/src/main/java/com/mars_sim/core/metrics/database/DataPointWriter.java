@@ -0,0 +1,211 @@
+/*
+ * Mars Simulation Project
+ * DataPointWriter.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.metrics.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mars_sim.core.logging.SimLogger;
+
+/**
+ * Write-behind writer for {@link DatabaseMetric} data points. Metrics buffer their points
+ * in memory and register here when they become dirty. A background thread drains the dirty
+ * metrics and writes them with JDBC batch {@code MERGE} statements once either the number
+ * of pending points reaches the batch size or the flush interval expires.
+ */
+class DataPointWriter implements Runnable {
+
+    /**
+     * A primitive backed batch of points for one MERGE statement.
+     */
+    static final class Batch implements BatchPreparedStatementSetter {
+        private long[] metricIds = new long[64];
+        private int[] sols = new int[64];
+        private double[] millisols = new double[64];
+        private double[] values = new double[64];
+        private int size = 0;
+
+        /**
+         * Adds a point to the batch.
+         */
+        void add(long metricId, int sol, double totalMillisols, double value) {
+            if (size == metricIds.length) {
+                int newSize = size * 2;
+                metricIds = Arrays.copyOf(metricIds, newSize);
+                sols = Arrays.copyOf(sols, newSize);
+                millisols = Arrays.copyOf(millisols, newSize);
+                values = Arrays.copyOf(values, newSize);
+            }
+            metricIds[size] = metricId;
+            sols[size] = sol;
+            millisols[size] = totalMillisols;
+            values[size] = value;
+            size++;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, metricIds[i]);
+            ps.setInt(2, sols[i]);
+            ps.setDouble(3, millisols[i]);
+            ps.setDouble(4, values[i]);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+
+    private static final SimLogger logger = SimLogger.getLogger(DataPointWriter.class.getName());
+
+    private static final String MERGE_START =
+        "MERGE INTO DATA_POINT t "
+        + "USING (SELECT CAST(? AS BIGINT) AS metric_id, CAST(? AS INT) AS sol, "
+        + "  CAST(? AS DOUBLE) AS total_millisols, CAST(? AS DOUBLE) AS metric_value) s "
+        + "ON t.metric_id = s.metric_id AND t.total_millisols = s.total_millisols ";
+    private static final String MERGE_END =
+        "WHEN NOT MATCHED THEN INSERT (metric_id, sol, total_millisols, metric_value) "
+        + "VALUES (s.metric_id, s.sol, s.total_millisols, s.metric_value)";
+
+    /** Merge that replaces an existing value at the same time. */
+    private static final String MERGE_REPLACE = MERGE_START
+        + "WHEN MATCHED THEN UPDATE SET metric_value = s.metric_value "
+        + MERGE_END;
+
+    /** Merge that accumulates onto an existing value at the same time. */
+    private static final String MERGE_ACCUMULATE = MERGE_START
+        + "WHEN MATCHED THEN UPDATE SET metric_value = t.metric_value + s.metric_value "
+        + MERGE_END;
+
+    private final JdbcTemplate template;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Queue<DatabaseMetric> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Batches are only touched whilst holding the monitor in flush
+    private Batch replaceBatch = new Batch();
+    private Batch accumulateBatch = new Batch();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    /**
+     * Creates and starts a writer.
+     *
+     * @param template Template to write through
+     * @param batchSize Number of pending points that triggers an early flush
+     * @param flushInterval Maximum time in milliseconds a point stays pending
+     */
+    DataPointWriter(JdbcTemplate template, int batchSize, long flushInterval) {
+        this.template = template;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+
+        worker = new Thread(this, "Metric-Writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * A metric has buffered a new point.
+     *
+     * @param metric Metric with the point
+     * @param firstPending Is this the first pending point of the metric, i.e. it is newly dirty
+     */
+    void pointAdded(DatabaseMetric metric, boolean firstPending) {
+        if (firstPending) {
+            dirty.add(metric);
+        }
+        if (pending.incrementAndGet() >= batchSize) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Get the number of points waiting to be written.
+     */
+    int getPending() {
+        return pending.get();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            if (pending.get() > 0) {
+                try {
+                    flush();
+                }
+                catch (DataAccessException dae) {
+                    logger.severe("Problem writing metric data points", dae);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all pending points to the database and block until complete.
+     */
+    synchronized void flush() {
+        DatabaseMetric m = dirty.poll();
+        while (m != null) {
+            int drained = m.drainPending(m.getKey().category().isAbsolute() ? replaceBatch : accumulateBatch);
+            pending.addAndGet(-drained);
+            m = dirty.poll();
+        }
+
+        boolean written = write(MERGE_REPLACE, replaceBatch);
+        written |= write(MERGE_ACCUMULATE, accumulateBatch);
+        if (written) {
+            template.execute("commit;");
+        }
+    }
+
+    /**
+     * Executes a batch and empties it. A failed batch is discarded so it does not block later ones.
+     */
+    private boolean write(String sql, Batch batch) {
+        if (batch.size == 0) {
+            return false;
+        }
+        try {
+            template.batchUpdate(sql, batch);
+        }
+        finally {
+            batch.size = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Stops the background thread after draining any pending points.
+     */
+    void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 1000L);
+        }
+        catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.mars_sim.core.metrics.database;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,11 @@ import com.mars_sim.core.time.MarsTime;
  * foreign key back to the parent {@code METRIC} row.
  * </p>
  * <p>
+ * When the parent manager runs in write-behind mode, points are buffered in primitive
+ * arrays on this metric and written later in batches by the {@link DataPointWriter};
+ * queries flush the buffer first so they always see every recorded point.
+ * </p>
+ * <p>
  * The {@link JdbcTemplate} is marked {@code transient} because H2 in-memory
  * databases do not survive JVM serialisation.
  * </p>
@@ -42,6 +48,13 @@ class DatabaseMetric extends Metric {
     /** Parent used to manage Data points on this metric. */
     private DatabaseMetricManager parent;
 
+    // Points buffered for write-behind; coalesced per millisol
+    private transient int pendingCount = 0;
+    private transient int recordedCount = 0;
+    private transient int[] pendingSols;
+    private transient double[] pendingMillisols;
+    private transient double[] pendingValues;
+
     /**
      * Package-private constructor – instances are created exclusively by
      * {@link DatabaseMetricFactory}.
@@ -89,6 +102,13 @@ class DatabaseMetric extends Metric {
     protected void addDataPoint(int sol, DataPoint dataPoint) {
         double totalMillisols = dataPoint.getWhen().getTotalMillisols();
 
+        var writer = parent.getWriter();
+        if (writer != null) {
+            boolean first = bufferPoint(sol, totalMillisols, dataPoint.getValue());
+            writer.pointAdded(this, first);
+            return;
+        }
+
         List<Map<String, Object>> existing = template().queryForList(
             "SELECT id, metric_value FROM DATA_POINT WHERE metric_id = ? AND total_millisols = ?",
             metricId, totalMillisols);
@@ -111,6 +131,64 @@ class DatabaseMetric extends Metric {
         template().execute("commit;");
     }
 
+    /**
+     * Buffers a point in memory ready for the write-behind. Points arrive in time order
+     * so a point at the same millisol as the last buffered one is coalesced into it.
+     *
+     * @return Is this the first pending point.
+     */
+    private synchronized boolean bufferPoint(int sol, double totalMillisols, double value) {
+        recordedCount++;
+        if (pendingCount > 0 && pendingMillisols[pendingCount - 1] == totalMillisols) {
+            int last = pendingCount - 1;
+            pendingValues[last] = getKey().category().isAbsolute() ? value : pendingValues[last] + value;
+            return false;
+        }
+
+        if (pendingSols == null) {
+            pendingSols = new int[4];
+            pendingMillisols = new double[4];
+            pendingValues = new double[4];
+        }
+        else if (pendingCount == pendingSols.length) {
+            int newSize = pendingCount * 2;
+            pendingSols = Arrays.copyOf(pendingSols, newSize);
+            pendingMillisols = Arrays.copyOf(pendingMillisols, newSize);
+            pendingValues = Arrays.copyOf(pendingValues, newSize);
+        }
+        pendingSols[pendingCount] = sol;
+        pendingMillisols[pendingCount] = totalMillisols;
+        pendingValues[pendingCount] = value;
+        pendingCount++;
+        return (pendingCount == 1);
+    }
+
+    /**
+     * Moves all the pending points into a write batch.
+     *
+     * @param batch Destination of the points
+     * @return Number of buffered points recorded, including those coalesced
+     */
+    synchronized int drainPending(DataPointWriter.Batch batch) {
+        for (int i = 0; i < pendingCount; i++) {
+            batch.add(metricId, pendingSols[i], pendingMillisols[i], pendingValues[i]);
+        }
+        int drained = recordedCount;
+        pendingCount = 0;
+        recordedCount = 0;
+        return drained;
+    }
+
+    /**
+     * Makes sure any buffered points are visible to queries.
+     */
+    private void flushPending() {
+        var writer = parent.getWriter();
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -120,6 +198,7 @@ class DatabaseMetric extends Metric {
      */
     @Override
     protected void applyCalculator(Integer sol, Calculator evaluator) {
+        flushPending();
         template().query(
             "SELECT total_millisols, metric_value FROM DATA_POINT "
             + "WHERE metric_id = ? AND sol = ? ORDER BY total_millisols",
@@ -140,6 +219,7 @@ class DatabaseMetric extends Metric {
      */
     @Override
     public Set<Integer> getSolRange() {
+        flushPending();
         return new HashSet<>(template().queryForList(
             "SELECT DISTINCT sol FROM DATA_POINT WHERE metric_id = ?",
             Integer.class, metricId));
@@ -153,6 +233,7 @@ class DatabaseMetric extends Metric {
      */
     @Override
     public int getSize() {
+        flushPending();
         Integer count = template().queryForObject(
             "SELECT COUNT(*) FROM DATA_POINT WHERE metric_id = ?",
             Integer.class, metricId);
@@ -169,6 +250,7 @@ class DatabaseMetric extends Metric {
      */
     @Override
     public DataPoint getDataPoint(int item) {
+        flushPending();
         List<DataPoint> result = template().query(
             "SELECT total_millisols, metric_value FROM DATA_POINT "
             + "WHERE metric_id = ? ORDER BY sol, total_millisols "
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
@@ -33,15 +34,26 @@ import com.mars_sim.core.metrics.MetricManager;
 
 /**
  * Database-backed metric manager that creates metrics in a H2 database.
+ * Optionally the manager can run in write-behind mode where recorded values are buffered
+ * in memory and written in batches by a background {@link DataPointWriter}. This keeps the
+ * JDBC cost off the simulation threads.
  */
 public class DatabaseMetricManager extends MetricManager {
 
     private static SimLogger logger = SimLogger.getLogger(DatabaseMetricManager.class.getName());
     private static final long serialVersionUID = 1L;
     private static final String NULL_PARENT_SENTINEL = "";
+
+    /** Pending points that trigger an early write-behind flush. */
+    private static final int WRITE_BATCH_SIZE = 2000;
+    /** Maximum time in milliseconds a point is pending. */
+    private static final long WRITE_INTERVAL = 2000L;
       
     private transient JdbcTemplate jdbcTemplate;
+    private transient DataPointWriter writer;
+    private transient Map<MetricKey, Metric> metricCache;
     private String dbPath;
+    private boolean writeBehind;
 
     /**
      * Creates a new DatabaseMetricManager with the given database path.
@@ -49,8 +61,19 @@ public class DatabaseMetricManager extends MetricManager {
      * @param dbPath Optional path where database is stored.
      */
     public DatabaseMetricManager(String dbPath) {
+        this(dbPath, false);
+    }
+
+    /**
+     * Creates a new DatabaseMetricManager with the given database path.
+     * If the path is null, an in-memory database is used.
+     * @param dbPath Optional path where database is stored.
+     * @param writeBehind Are data points written asynchronously in batches
+     */
+    public DatabaseMetricManager(String dbPath, boolean writeBehind) {
         super();
         this.dbPath = dbPath;
+        this.writeBehind = writeBehind;
 
         reinit();
     }
@@ -75,6 +98,33 @@ public class DatabaseMetricManager extends MetricManager {
         logger.info("Open database with dbPath: " + dbPath);
         var config = new DatabaseMetricConfig(dbPath);
         this.jdbcTemplate = config.getJdbcTemplate();
+        this.metricCache = new ConcurrentHashMap<>();
+
+        if (writer != null) {
+            writer.close();
+        }
+        writer = (writeBehind ? new DataPointWriter(jdbcTemplate, WRITE_BATCH_SIZE, WRITE_INTERVAL) : null);
+    }
+
+    /**
+     * Writes any data points that are pending in the write-behind buffers.
+     */
+    @Override
+    public void flush() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Flushes the pending points and stops the background writer.
+     */
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
     }
 
     /**
@@ -235,13 +285,30 @@ public class DatabaseMetricManager extends MetricManager {
     }
 
     /**
-     * Find the specifc Metric from the database by it's key.
+     * Find the specifc Metric from the database by it's key. Metrics are cached once found
+     * so recording a value does not need a query.
      */
     @Override
     public Metric getMetric(MetricKey key) {
-        Metric m = findMetric(key);
-        if (m == null) {
-            m = insertMetric(key, false);
+        Metric m = metricCache.get(key);
+        if (m != null) {
+            return m;
+        }
+
+        boolean created = false;
+        synchronized (metricCache) {
+            m = metricCache.get(key);
+            if (m == null) {
+                m = findMetric(key);
+                if (m == null) {
+                    m = insertMetric(key, false);
+                    created = true;
+                }
+                metricCache.put(key, m);
+            }
+        }
+
+        if (created) {
             notifyListeners(m);
         }
         return m;
@@ -283,4 +350,12 @@ public class DatabaseMetricManager extends MetricManager {
     JdbcTemplate getJdbcTemplate() {
         return jdbcTemplate;
     }
+
+    /**
+     * Get the write-behind writer.
+     * @return Null if points are written synchronously
+     */
+    DataPointWriter getWriter() {
+        return writer;
+    }
 }
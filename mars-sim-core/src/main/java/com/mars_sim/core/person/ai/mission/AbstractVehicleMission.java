@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -202,6 +203,12 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 		// NavPoints are fixed in so how far to go?
 		computeTotalDistanceProposed();
 
+		if (!isTripWithinRange()) {
+			logger.warning(vehicle, "Can not drive to the farthest navpoint of " + getName() + " and back.");
+			endMission(NO_VEHICLE_WITHIN_RANGE);
+			return;
+		}
+
 		if (needsReview) {
 			// Set initial mission phase.
 			startReview();
@@ -216,6 +223,33 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 			logger.info(startingMember, "Assessing " + getName() + " using " + getVehicle().getName() + ".");
 	}
 
+	/**
+	 * Checks if a rover can drive to the farthest navpoint and back to the starting settlement
+	 * following the terrain. Missions that do not return to the starting settlement and vehicles
+	 * that do not drive are not checked.
+	 *
+	 * @return
+	 */
+	private boolean isTripWithinRange() {
+		if ((vehicle == null) || !VehicleType.isRover(vehicle.getVehicleType())
+				|| (startingSettlement == null) || navPoints.isEmpty()
+				|| !startingSettlement.equals(navPoints.get(navPoints.size() - 1).getSettlement())) {
+			return true;
+		}
+
+		Coordinates home = startingSettlement.getCoordinates();
+		Coordinates farthest = null;
+		double farthestDistance = 0D;
+		for (NavPoint p : navPoints) {
+			double distance = home.getDistance(p.getLocation());
+			if (distance > farthestDistance) {
+				farthest = p.getLocation();
+				farthestDistance = distance;
+			}
+		}
+		return (farthest == null) || MissionUtil.isRoundTripWithinRange(vehicle, home, farthest);
+	}
+
 	/**
 	 * Is the vehicle under maintenance and unable to be embarked ?
 	 *
@@ -725,6 +759,14 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 			}
 		}
 
+		// A waypoint is only a turn on the route so drive on to the next navpoint
+		if (reachedDestination && destination.isWaypoint()) {
+			reachedNextNode();
+			startTravelToNextNode();
+			updateTravelDestination();
+			return;
+		}
+
 		// If the destination has been reached, end the phase.
 		if (reachedDestination) {
 			Settlement base = destination.getSettlement();
@@ -942,7 +984,7 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 	 *         number.
 	 */
 	protected Map<Integer, Number> getResourcesNeededForRemainingMission(boolean useMargin) {
-		double distance = computeTotalDistanceRemaining();
+		double distance = computeEquivalentDistanceRemaining();
 		if (distance > 0) {
 			return getResourcesNeededForTrip(useMargin, distance);
 		}
@@ -1337,9 +1379,9 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 	 * Resets the trip statistics to return home.
 	 * 
 	 * @param currentNavPoint
-	 * @param destNavPoint
+	 * @param destination Settlement to return to
 	 */
-	protected void resetToReturnTrip(NavPoint currentNavPoint, NavPoint destNavPoint) {
+	protected void resetToReturnTrip(NavPoint currentNavPoint, Settlement destination) {
 	
 		navPoints.clear();
 		
@@ -1347,13 +1389,13 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 		 
 		addNavpoint(currentNavPoint);
 		
-		addNavpoint(destNavPoint);
+		addNavpoint(destination);
 		
 		lastStopNavpoint = currentNavPoint;
 
 		setTravelStatus(AT_NAVPOINT);
 
-		logger.info(vehicle, "Set return to " + destNavPoint);
+		logger.info(vehicle, "Set return to " + destination.getName());
 
 		// Need to recalculate what is left to travel to get resources loaded
 		// for return
@@ -1385,13 +1427,39 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 		return navPoints.get(navPoints.size() - 1).getLocation();
 	}
 
+	/**
+	 * Adds a navpoint at the end of a leg. A rover follows a route around the steep terrain
+	 * so the turns of the route are added first as waypoints and the climbs are added
+	 * to the navpoint as extra distance.
+	 * 
+	 * @param from Start of the leg
+	 * @param to End of the leg
+	 * @param create Creates the navpoint from the location it is driven from
+	 */
+	private void addLeg(Coordinates from, Coordinates to, Function<Coordinates, NavPoint> create) {
+		double climb = 0D;
+		if ((from != null) && (vehicle != null) && VehicleType.isRover(vehicle.getVehicleType())) {
+			var route = MissionUtil.planRoute(from, to);
+			for (NavPoint p : MissionUtil.createNavPoints(route)) {
+				navPoints.add(p);
+				from = p.getLocation();
+			}
+			climb = route.getEquivalentDistance() - route.distance();
+		}
+
+		NavPoint end = create.apply(from);
+		end.setClimbDistance(climb);
+		navPoints.add(end);
+	}
+
 	/**
 	 * Add a Nav point for a Settlement.
 	 * 
 	 * @param s
 	 */
 	protected void addNavpoint(Settlement s) {
-		addNavpoint(new NavPoint(s, getLastNavpoint()));
+		addLeg(getLastNavpoint(), s.getCoordinates(), start -> new NavPoint(s, start));
+		fireMissionUpdate(NAVPOINTS_EVENT);
 	}
 	
 
@@ -1402,7 +1470,8 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 	 * @param n Name
 	 */
 	protected void addNavpoint(Coordinates c, String n) {
-		addNavpoint(new NavPoint(c, n, getLastNavpoint()));
+		addLeg(getLastNavpoint(), c, start -> new NavPoint(c, n, start));
+		fireMissionUpdate(NAVPOINTS_EVENT);
 	}
 	
 	
@@ -1414,11 +1483,10 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 	 * @param nameFunc Function takes the index of the Coordinate
 	 */
 	protected void addNavpoints(List<Coordinates> points, IntFunction<String> nameFunc) {
-		Coordinates prev = getLastNavpoint();
 		for (int x = 0; x < points.size(); x++) {
 			Coordinates location = points.get(x);
-			navPoints.add(new NavPoint(location, nameFunc.apply(x), prev));
-			prev = location;
+			String name = nameFunc.apply(x);
+			addLeg(getLastNavpoint(), location, start -> new NavPoint(location, name, start));
 		}
 		fireMissionUpdate(NAVPOINTS_EVENT);
 	}
@@ -1497,6 +1565,36 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 	public List<NavPoint> getNavpoints() {
 		return navPoints;
 	}
+
+	/**
+	 * Gets the number of navpoints the mission stops at. Waypoints are only driven through
+	 * so are not counted.
+	 * 
+	 * @return number of stops including the start
+	 */
+	protected final int getNumStops() {
+		return (int) navPoints.stream().filter(p -> !p.isWaypoint()).count();
+	}
+
+	/**
+	 * Gets the position of the current navpoint among the stops of the mission. Unlike the
+	 * navpoint index this does not count the waypoints so it can be used to number the sites.
+	 * 
+	 * @return position of the current navpoint or -1 if the mission is not stopped at one
+	 */
+	protected final int getCurrentStopIndex() {
+		int index = getCurrentNavpointIndex();
+		if (index < 0) {
+			return -1;
+		}
+		int stops = 0;
+		for (int x = 0; x < index; x++) {
+			if (!navPoints.get(x).isWaypoint()) {
+				stops++;
+			}
+		}
+		return stops;
+	}
 	
 	/**
 	 * Gets the current navpoint the mission is stopped at.
@@ -1661,7 +1759,9 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 		// Clear remaining route and add a new one
 		clearRemainingNavpoints();
 		// Set the new destination as the travel mission's next and final navpoint.
-		addNavpoint(new NavPoint(newDestination, vehicle.getCoordinates()));
+		addLeg(vehicle.getCoordinates(), newDestination.getCoordinates(),
+					start -> new NavPoint(newDestination, start));
+		fireMissionUpdate(NAVPOINTS_EVENT);
 		
 		if (getPhase().equals(TRAVELLING)) {
 			// Already travelling so just change destination
@@ -1853,7 +1953,7 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 			double result = 0D;
 			
 			for (int x = 1; x < navPoints.size(); x++) {
-				result += navPoints.get(x).getPointToPointDistance();
+				result += navPoints.get(x).getEquivalentDistance();
 			}
 			
 			if (Double.compare(distanceProposed, result) != 0) {
@@ -1875,6 +1975,21 @@ public abstract class AbstractVehicleMission extends AbstractMission implements
 		return distanceProposed;
 	}
 	
+	/**
+	 * Computes the remaining distance as the flat driving distance using the same energy
+	 * so the climbs of the routes still to be driven are included.
+	 * 
+	 * @return distance (km)
+	 */
+	private double computeEquivalentDistanceRemaining() {
+		double total = computeTotalDistanceRemaining();
+		int first = (isTravelling() ? navIndex : getCurrentNavpointIndex() + 1);
+		for (int x = first; x < navPoints.size(); x++) {
+			total += navPoints.get(x).getClimbDistance();
+		}
+		return total;
+	}
+
 	/**
 	 * Computes the estimated total remaining distance to travel in the mission.
 	 * 
@@ -276,9 +276,7 @@ public class Delivery extends DroneMission implements CommerceMission {
 		if (getPhaseEnded()) {
 			outbound = false;
 			var tradingSettlement = objective.getTradingVenue();
-			resetToReturnTrip(
-					new NavPoint(tradingSettlement, null),
-					new NavPoint(getStartingSettlement(), tradingSettlement.getCoordinates()));
+			resetToReturnTrip(new NavPoint(tradingSettlement, null), getStartingSettlement());
 
 			getStartingSettlement().getGoodsManager().clearDeal(MissionType.TRADE);
 		}
@@ -393,7 +393,7 @@ abstract class EVAMission extends RoverMission {
 	 * @return number of sites.
 	 */
 	public final int getNumEVASites() {
-		return getNavpoints().size() - 2;
+		return getNumStops() - 2;
 	}
 
 	/**
@@ -403,8 +403,8 @@ abstract class EVAMission extends RoverMission {
 	 * @return number of sites.
 	 */
 	private final int getNumEVASitesVisited() {
-		int result = getCurrentNavpointIndex();
-		if (result == (getNavpoints().size() - 1))
+		int result = getCurrentStopIndex();
+		if (result == (getNumStops() - 1))
 			result -= 1;
 		return result;
 	}
@@ -116,7 +116,7 @@ public class Exploration extends EVAMission
 	 */
 	private MineralSite retrieveASiteToClaim() {
 		
-		int idx = getCurrentNavpointIndex();
+		int idx = getCurrentStopIndex();
 		idx--; // Decrement to allow for starting
 
 		if (idx < 0 || idx >= claimedSites.size()) {
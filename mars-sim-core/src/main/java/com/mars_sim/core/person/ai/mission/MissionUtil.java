@@ -6,12 +6,18 @@
  */
 package com.mars_sim.core.person.ai.mission;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.mars_sim.core.UnitManager;
 import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.map.route.Route;
+import com.mars_sim.core.map.route.RoutePlanner;
+import com.mars_sim.core.map.route.SlopeCostGrid;
 import com.mars_sim.core.person.Person;
 import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.vehicle.Vehicle;
 
 /**
  * Helper class that provides numerous assessment method for the state of various
@@ -23,6 +29,7 @@ public class MissionUtil {
 	private static final String MINING = "mining";
 	private static final String TRADING = "trading";
     private static UnitManager unitManager;
+	private static volatile RoutePlanner routePlanner = new RoutePlanner(new SlopeCostGrid());
 
     private MissionUtil() {
     }
@@ -102,7 +109,49 @@ public class MissionUtil {
 		return result;
 	}
 
+	/**
+	 * Plans a route between two locations that avoids steep terrain.
+	 * 
+	 * @param start
+	 * @param end
+	 * @return the route
+	 */
+	public static Route planRoute(Coordinates start, Coordinates end) {
+		return routePlanner.plan(start, end);
+	}
+
+	/**
+	 * Checks if a vehicle can drive to a location and back following the terrain.
+	 * 
+	 * @param vehicle the vehicle being used
+	 * @param start the starting location
+	 * @param end the location to visit
+	 * @return true if the round trip is within the estimated range
+	 */
+	public static boolean isRoundTripWithinRange(Vehicle vehicle, Coordinates start, Coordinates end) {
+		double tripDistance = planRoute(start, end).getEquivalentDistance() * 2;
+		return tripDistance <= vehicle.getEstimatedRange();
+	}
+
+	/**
+	 * Creates the waypoint NavPoints for the turns of a route. Neither the start nor the end 
+	 * of the route is included so the caller can add the end as a settlement or a site.
+	 * 
+	 * @param route the route to follow
+	 * @return the waypoint NavPoints
+	 */
+	public static List<NavPoint> createNavPoints(Route route) {
+		List<Coordinates> waypoints = route.waypoints();
+		List<NavPoint> result = new ArrayList<>();
+		for (int i = 1; i < waypoints.size() - 1; i++) {
+			result.add(new NavPoint(waypoints.get(i), "Waypoint " + i, waypoints.get(i - 1), true));
+		}
+		return result;
+	}
+
     public static void initializeInstances(UnitManager u) {
         unitManager = u;
+        // Routes cached for the previous simulation are dropped
+        routePlanner = new RoutePlanner(new SlopeCostGrid());
     }
 }
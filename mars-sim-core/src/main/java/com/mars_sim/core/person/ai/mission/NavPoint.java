@@ -31,6 +31,12 @@ public class NavPoint implements Serializable, SurfacePOI {
 	private double point2PointDistance;
 
 	private double actualTravelled;
+
+	/** Is this only a turn on a route to the next navpoint. */
+	private boolean waypoint;
+
+	/** Flat driving distance using the same energy as the climbs of the route here. */
+	private double climbDistance;
 	
 	/**
 	 * Constructor with location.
@@ -40,10 +46,23 @@ public class NavPoint implements Serializable, SurfacePOI {
 	 * @param start Starting point
 	 */
 	public NavPoint(Coordinates location, String description, Coordinates start) {
+		this(location, description, start, false);
+	}
+
+	/**
+	 * Constructor with location that may be a waypoint.
+	 * 
+	 * @param location    the location of the navpoint.
+	 * @param description the navpoint description.
+	 * @param start Starting point
+	 * @param waypoint is this only a turn on a route rather than a stop
+	 */
+	public NavPoint(Coordinates location, String description, Coordinates start, boolean waypoint) {
 		if (location == null)
 			throw new IllegalArgumentException("location is null");
 		this.location = location;
 		this.description = description;
+		this.waypoint = waypoint;
 
 		if (start != null) {
 			point2PointDistance = location.getDistance(start);
@@ -95,6 +114,32 @@ public class NavPoint implements Serializable, SurfacePOI {
     public void addActualTravelled(double dist) {
         actualTravelled += dist;
     }
+
+	/**
+	 * Sets the flat driving distance that uses the same energy as the climbs of the
+	 * route from the previous navpoint.
+	 * 
+	 * @param climbDistance km
+	 */
+	public void setClimbDistance(double climbDistance) {
+		this.climbDistance = climbDistance;
+	}
+
+	/**
+	 * Gets the flat driving distance that uses the same energy as the climbs of the
+	 * route from the previous navpoint.
+	 */
+	public double getClimbDistance() {
+		return climbDistance;
+	}
+
+	/**
+	 * Gets the flat driving distance from the previous navpoint that uses the same
+	 * energy as the route including its climbs. This is used for fuel estimates.
+	 */
+	public double getEquivalentDistance() {
+		return point2PointDistance + climbDistance;
+	}
     
 	/**
 	 * Gets the name of the navpoint. This is the same as the description.
@@ -133,6 +178,16 @@ public class NavPoint implements Serializable, SurfacePOI {
 		return (settlement != null);
 	}
 
+	/**
+	 * Checks if this navpoint is only a turn on a route. A vehicle drives on
+	 * through a waypoint without stopping.
+	 * 
+	 * @return true if waypoint.
+	 */
+	public boolean isWaypoint() {
+		return waypoint;
+	}
+
 	/**
 	 * Checks if this NavPoint is the same as another object.
 	 * 
@@ -299,9 +299,7 @@ public class Trade extends RoverMission implements CommerceMission {
 		if (getPhaseEnded()) {
 			outbound = false;
 			var tradingSettlement = objective.getTradingVenue();
-			resetToReturnTrip(
-					new NavPoint(tradingSettlement, null),
-					new NavPoint(getStartingSettlement(), tradingSettlement.getCoordinates()));
+			resetToReturnTrip(new NavPoint(tradingSettlement, null), getStartingSettlement());
 
 			getStartingSettlement().getGoodsManager().clearDeal(MissionType.TRADE);
 		}
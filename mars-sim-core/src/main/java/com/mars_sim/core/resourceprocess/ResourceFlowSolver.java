@@ -0,0 +1,217 @@
+/*
+ * Mars Simulation Project
+ * ResourceFlowSolver.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.resourceprocess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mars_sim.core.building.Building;
+import com.mars_sim.core.building.function.FunctionType;
+import com.mars_sim.core.building.function.ResourceProcessor;
+import com.mars_sim.core.equipment.EquipmentInventory;
+import com.mars_sim.core.structure.Settlement;
+
+/**
+ * Moves the resources of all the resource and waste processes of a settlement together.
+ * Each building only marks its processes that have reached a check; the solver then works out
+ * how much of its demand each process can have from the stock held at the start of the
+ * pulse. A shortage of a shared input is split across its consumers in proportion to their
+ * demand, so the result does not depend on the order the buildings were processed in.
+ * The net change of each resource is then stored or retrieved in a single call.
+ */
+public final class ResourceFlowSolver {
+
+	private static final double SMALL_AMOUNT = 0.000001;
+	// Each pass can only cut shares so they settle quickly; this caps long chains of processes
+	private static final int MAX_PASSES = 50;
+
+	private static boolean enabled = false;
+
+	private final Settlement settlement;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param settlement the settlement being solved
+	 */
+	public ResourceFlowSolver(Settlement settlement) {
+		this.settlement = settlement;
+	}
+
+	/**
+	 * Enables the settlement wide flow solver in place of each process moving its own resources.
+	 *
+	 * @param enable
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Is the settlement wide flow solver used ?
+	 *
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Moves the resources of every process with a pending check.
+	 */
+	public void solve() {
+		List<ResourceProcess> pending = new ArrayList<>();
+		var manager = settlement.getBuildingManager();
+		addPending(manager.getBuildingSet(FunctionType.RESOURCE_PROCESSING), FunctionType.RESOURCE_PROCESSING, pending);
+		addPending(manager.getBuildingSet(FunctionType.WASTE_PROCESSING), FunctionType.WASTE_PROCESSING, pending);
+		if (pending.isEmpty())
+			return;
+
+		// Give each resource involved a column
+		Map<Integer, Integer> columns = new HashMap<>();
+		List<Integer> resources = new ArrayList<>();
+		for (ResourceProcess p : pending) {
+			for (Integer r : p.getInputResources()) {
+				if (!p.isAmbientInputResource(r) && !columns.containsKey(r)) {
+					columns.put(r, resources.size());
+					resources.add(r);
+				}
+			}
+			for (Integer r : p.getOutputResources()) {
+				if (!p.isWasteOutputResource(r) && !columns.containsKey(r)) {
+					columns.put(r, resources.size());
+					resources.add(r);
+				}
+			}
+		}
+
+		int n = pending.size();
+		int m = resources.size();
+		double[][] consume = new double[n][m];
+		double[][] produce = new double[n][m];
+		for (int i = 0; i < n; i++) {
+			ResourceProcess p = pending.get(i);
+			double duration = p.getFlowDuration();
+			for (Integer r : p.getInputResources()) {
+				if (!p.isAmbientInputResource(r)) {
+					consume[i][columns.get(r)] = p.getBaseFullInputRate(r) * duration;
+				}
+			}
+			for (Integer r : p.getOutputResources()) {
+				if (!p.isWasteOutputResource(r)) {
+					produce[i][columns.get(r)] = p.getBaseFullOutputRate(r) * duration;
+				}
+			}
+		}
+
+		// One inventory lookup per resource
+		EquipmentInventory host = settlement.getEquipmentInventory();
+		double[] stored = new double[m];
+		double[] capacity = new double[m];
+		for (int j = 0; j < m; j++) {
+			int r = resources.get(j);
+			stored[j] = host.getSpecificAmountResourceStored(r);
+			capacity[j] = host.getRemainingCombinedCapacity(r);
+		}
+
+		double[] share = allocate(consume, produce, stored, capacity);
+
+		// Commit the net change of each resource
+		for (int j = 0; j < m; j++) {
+			double net = 0D;
+			for (int i = 0; i < n; i++) {
+				net += share[i] * (produce[i][j] - consume[i][j]);
+			}
+			int r = resources.get(j);
+			if (net < -SMALL_AMOUNT) {
+				host.retrieveAmountResource(r, Math.min(-net, stored[j]));
+			}
+			else if (net > SMALL_AMOUNT) {
+				host.storeAmountResource(r, net);
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			pending.get(i).completeFlow(share[i] < 1D - SMALL_AMOUNT);
+		}
+	}
+
+	private static void addPending(Iterable<Building> buildings, FunctionType type, List<ResourceProcess> pending) {
+		for (Building b : buildings) {
+			ResourceProcessor processor = b.getFunction(type);
+			for (ResourceProcess p : processor.getProcesses()) {
+				if (p.isFlowPending()) {
+					pending.add(p);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the share of its demand that each process can run at. An input that is short is
+	 * split across its consumers in proportion to their share. An output is limited to the
+	 * room left plus what the processes take out of it in the same check. Cutting a consumer
+	 * also cuts the room it makes so the limits are applied again until every resource fits.
+	 *
+	 * @param consume Amount of each resource each process takes at full share
+	 * @param produce Amount of each resource each process makes at full share
+	 * @param stored Amount of each resource held
+	 * @param capacity Room left for each resource
+	 * @return Share of each process between 0 and 1
+	 */
+	static double[] allocate(double[][] consume, double[][] produce, double[] stored, double[] capacity) {
+		int n = consume.length;
+		int m = stored.length;
+		double[] share = new double[n];
+		Arrays.fill(share, 1D);
+
+		double[] made = new double[m];
+		double[] used = new double[m];
+		double[] limit = new double[n];
+		boolean limited = true;
+		for (int pass = 0; limited && (pass < MAX_PASSES); pass++) {
+			Arrays.fill(made, 0D);
+			Arrays.fill(used, 0D);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < m; j++) {
+					made[j] += share[i] * produce[i][j];
+					used[j] += share[i] * consume[i][j];
+				}
+			}
+
+			// Inputs come from the stock held at the start; outputs must fit in the room left
+			Arrays.fill(limit, 1D);
+			for (int j = 0; j < m; j++) {
+				double room = Math.max(0D, capacity[j]) + used[j];
+				double inputLimit = (used[j] > stored[j] ? Math.max(0D, stored[j]) / used[j] : 1D);
+				double outputLimit = (made[j] > room ? room / made[j] : 1D);
+				if ((inputLimit < 1D) || (outputLimit < 1D)) {
+					for (int i = 0; i < n; i++) {
+						if (consume[i][j] > 0D) {
+							limit[i] = Math.min(limit[i], inputLimit);
+						}
+						if (produce[i][j] > 0D) {
+							limit[i] = Math.min(limit[i], outputLimit);
+						}
+					}
+				}
+			}
+
+			limited = false;
+			for (int i = 0; i < n; i++) {
+				if (limit[i] < 1D - SMALL_AMOUNT) {
+					share[i] *= limit[i];
+					limited = true;
+				}
+			}
+		}
+		return share;
+	}
+}
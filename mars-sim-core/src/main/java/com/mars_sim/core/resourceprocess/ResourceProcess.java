@@ -41,6 +41,7 @@ public class ResourceProcess implements ScheduledEventHandler {
 	private boolean canToggle = false;
 	private boolean workerAssigned = false;
 	private boolean isRunning;
+	private boolean flowPending = false;
 	
 	private int levelOfEffort = 3;
 	
@@ -97,8 +98,6 @@ public class ResourceProcess implements ScheduledEventHandler {
 
 		if (isRunning) {
 			
-			var host = building.getAssociatedSettlement().getEquipmentInventory();
-			
 			double newProdLevel = productionLevel;
 			// Set the current production level.
 			currentProductionLevel = newProdLevel * levelOfEffort / 5;
@@ -113,13 +112,53 @@ public class ResourceProcess implements ScheduledEventHandler {
 				// Increment the duty time here
 				dutyTime += time;
 
-				processInputResources(host);
-
-				processOutputResources(host);
+				if (ResourceFlowSolver.isEnabled()) {
+					// The settlement moves the resources of all its processes together
+					flowPending = true;
+				}
+				else {
+					var host = building.getAssociatedSettlement().getEquipmentInventory();
+	
+					processInputResources(host);
+	
+					processOutputResources(host);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Is a check of this process waiting for the settlement to move its resources ?
+	 * 
+	 * @return
+	 */
+	boolean isFlowPending() {
+		return flowPending;
+	}
+
+	/**
+	 * Gets the time of the pending check scaled by the production level. Multiplying a full
+	 * rate by this gives the amount of the resource moved.
+	 * 
+	 * @return
+	 */
+	double getFlowDuration() {
+		return accumulatedTime * currentProductionLevel;
+	}
+
+	/**
+	 * Completes the pending check once the settlement has moved the resources.
+	 * 
+	 * @param limited Could the process only run for part of the check ?
+	 */
+	void completeFlow(boolean limited) {
+		flowPending = false;
+		if (limited) {
+			// Halt the process now
+			setProcessRunning(false);
+		}
+	}
+
 	/**
 	 * Processes the input resources.
 	 * 
@@ -0,0 +1,73 @@
+/*
+ * Mars Simulation Project
+ * ShardedSave.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.save;
+
+import java.io.Serializable;
+
+/**
+ * The shared definitions of the sharded save format.
+ * A sharded save is an index followed by independently compressed sections. Each Settlement
+ * has a section holding its Units, the Units without a Settlement have one of their own and
+ * the simulation managers are in the global section. A section is written by a standard
+ * ObjectOutputStream so its Units are created by standard deserialisation. A reference to a
+ * Unit of another section is written as a {@link UnitRef} and a reference to any other object
+ * held by another section as a {@link SharedRef}; the index lists the sections each one
+ * depends on so they are loaded first. Sections that depend on each other are written as one.
+ */
+final class ShardedSave {
+
+	/** Marks the start of a sharded save file. */
+	static final long MAGIC = 0x4D53534841524431L; // MSSHARD1
+
+	static final int VERSION = 2;
+
+	/** The section holding the managers. */
+	static final int GLOBAL = 0;
+
+	/** The section holding the Units without a Settlement. */
+	static final int UNASSIGNED = 1;
+
+	static final String GLOBAL_NAME = "Global";
+
+	static final String UNASSIGNED_NAME = "Unassigned";
+
+	/**
+	 * A reference to a Unit of another section that is resolved by identifier when loaded.
+	 */
+	record UnitRef(int id) implements Serializable {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * A reference to an object exported by another section.
+	 *
+	 * @param section Section holding the object
+	 * @param index Position in the exports of the section
+	 */
+	record SharedRef(int section, int index) implements Serializable {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private ShardedSave() {
+		// Static helper class
+	}
+
+	/**
+	 * Is the object an immutable value that can be copied into more than one section
+	 * without changing the meaning of the save.
+	 *
+	 * @param obj
+	 * @return
+	 */
+	static boolean isValue(Object obj) {
+		return (obj instanceof String) || (obj instanceof Enum<?>) || (obj instanceof Boolean)
+				|| (obj instanceof Character)
+				// Only the boxed primitives since the atomic numbers are mutable
+				|| ((obj instanceof Number) && (obj.getClass().getPackageName().equals("java.lang")))
+				|| (obj instanceof UnitRef) || (obj instanceof SharedRef);
+	}
+}
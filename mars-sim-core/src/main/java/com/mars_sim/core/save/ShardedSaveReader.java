@@ -0,0 +1,289 @@
+/*
+ * Mars Simulation Project
+ * ShardedSaveReader.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.save;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+
+import com.mars_sim.core.Unit;
+import com.mars_sim.core.data.UnitSet;
+import com.mars_sim.core.save.ShardedSave.SharedRef;
+import com.mars_sim.core.save.ShardedSave.UnitRef;
+import com.mars_sim.core.structure.Settlement;
+
+/**
+ * Reads a sharded save. Each section is read by a standard ObjectInputStream once the
+ * sections it depends on have been read, so sections that do not depend on each other are
+ * inflated and deserialised in parallel.
+ * A single Settlement can also be inspected without reading the sections it does not need.
+ */
+public final class ShardedSaveReader implements AutoCloseable {
+
+	/**
+	 * An entry in the index of the save.
+	 *
+	 * @param name Name of the section
+	 * @param settlementIds Identifiers of the Settlements held
+	 * @param units Number of Units held
+	 * @param dependencies Earlier sections that must be loaded first
+	 * @param rawLength Uncompressed size
+	 * @param offset Start of the compressed data after the index
+	 * @param length Compressed size
+	 */
+	public record SectionInfo(String name, int[] settlementIds, int units, int[] dependencies,
+						long rawLength, long offset, long length) {}
+
+	private final FileChannel channel;
+	private final List<SectionInfo> sections = new ArrayList<>();
+	private final long dataStart;
+
+	private final Map<Integer, Unit> units = new ConcurrentHashMap<>();
+	private final Object[][] exports;
+	private Object[] managers;
+
+	/**
+	 * Opens a save and reads the index.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public ShardedSaveReader(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			var in = new DataInputStream(Channels.newInputStream(channel));
+			if (in.readLong() != ShardedSave.MAGIC) {
+				throw new StreamCorruptedException("Not a sharded save " + file);
+			}
+			int version = in.readInt();
+			if (version != ShardedSave.VERSION) {
+				throw new StreamCorruptedException("Unsupported sharded save version " + version);
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				var info = new SectionInfo(in.readUTF(), readInts(in), in.readInt(), readInts(in),
+											in.readLong(), in.readLong(), in.readLong());
+				for (int d : info.dependencies()) {
+					if ((d < 0) || (d >= i)) {
+						throw new StreamCorruptedException("Section " + info.name() + " depends on a later section");
+					}
+				}
+				sections.add(info);
+			}
+			dataStart = channel.position();
+			exports = new Object[count][];
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	/**
+	 * Checks if a file is a sharded save.
+	 *
+	 * @param file
+	 * @return
+	 */
+	public static boolean isSharded(File file) {
+		try (var in = new DataInputStream(new FileInputStream(file))) {
+			return in.readLong() == ShardedSave.MAGIC;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the index of the save.
+	 */
+	public List<SectionInfo> getSections() {
+		return sections;
+	}
+
+	/**
+	 * Resolves the references to the Units and objects of the sections already read.
+	 */
+	private final class SectionStream extends ObjectInputStream {
+
+		SectionStream(InputStream in) throws IOException {
+			super(in);
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof UnitRef r) {
+				Unit u = units.get(r.id());
+				if (u == null) {
+					throw new InvalidObjectException("Unit " + r.id() + " is not loaded");
+				}
+				return u;
+			}
+			if (obj instanceof SharedRef s) {
+				Object[] held = exports[s.section()];
+				if ((held == null) || (s.index() >= held.length)) {
+					throw new InvalidObjectException("Shared object " + s.index() + " of section "
+									+ s.section() + " is not loaded");
+				}
+				return held[s.index()];
+			}
+			return obj;
+		}
+	}
+
+	private InputStream open(SectionInfo info) throws IOException {
+		ByteBuffer data = ByteBuffer.allocate(Math.toIntExact(info.length()));
+		long position = dataStart + info.offset();
+		while (data.hasRemaining()) {
+			if (channel.read(data, position + data.position()) < 0) {
+				throw new StreamCorruptedException("Section " + info.name() + " is truncated");
+			}
+		}
+		return new GZIPInputStream(new ByteArrayInputStream(data.array()), 64 * 1024);
+	}
+
+	/**
+	 * Reads a section and registers the Units and objects it holds for the later sections.
+	 *
+	 * @param section Index of the section
+	 */
+	private void readSection(int section) throws IOException, ClassNotFoundException {
+		try (var in = new SectionStream(open(sections.get(section)))) {
+			var held = (Unit[]) in.readObject();
+			var saved = (Object[]) in.readObject();
+			var exported = (Object[]) in.readObject();
+
+			for (Unit u : held) {
+				units.put(u.getIdentifier(), u);
+			}
+			if (saved != null) {
+				managers = saved;
+			}
+			exports[section] = exported;
+		}
+	}
+
+	private void readUnchecked(int section) {
+		try {
+			readSection(section);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		catch (ClassNotFoundException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	/**
+	 * Loads the whole save.
+	 *
+	 * @param executor Reads the independent sections concurrently
+	 * @return The managers in the order they were saved
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public Object[] load(Executor executor) throws IOException, ClassNotFoundException {
+		List<CompletableFuture<Void>> pending = new ArrayList<>();
+		for (int i = 0; i < sections.size(); i++) {
+			final int section = i;
+			var before = Arrays.stream(sections.get(i).dependencies())
+								.mapToObj(pending::get)
+								.toArray(CompletableFuture<?>[]::new);
+			pending.add(CompletableFuture.allOf(before).thenRunAsync(() -> readUnchecked(section), executor));
+		}
+
+		try {
+			pending.forEach(CompletableFuture::join);
+		}
+		catch (CompletionException e) {
+			switch (e.getCause()) {
+				case UncheckedIOException u -> throw u.getCause();
+				case ClassNotFoundException c -> throw c;
+				default -> throw new IOException("Problem loading section", e.getCause());
+			}
+		}
+
+		if (managers == null) {
+			throw new StreamCorruptedException("Sharded save has no global section");
+		}
+		return managers;
+	}
+
+	/**
+	 * Finds the sections needed to read a section.
+	 */
+	private void addNeeded(int section, BitSet needed) {
+		if (!needed.get(section)) {
+			needed.set(section);
+			for (int d : sections.get(section).dependencies()) {
+				addNeeded(d, needed);
+			}
+		}
+	}
+
+	/**
+	 * Loads a single Settlement with only the sections it depends on. Members of a
+	 * UnitSet that are in a section not loaded are left out.
+	 *
+	 * @param settlementId Identifier of the Settlement
+	 * @return The Settlement or null if it is not in the save
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public Settlement inspect(int settlementId) throws IOException, ClassNotFoundException {
+		for (int i = 0; i < sections.size(); i++) {
+			if (Arrays.stream(sections.get(i).settlementIds()).anyMatch(id -> id == settlementId)) {
+				var needed = new BitSet();
+				addNeeded(i, needed);
+
+				// Dependencies are always earlier sections
+				for (int s = needed.nextSetBit(0); s >= 0; s = needed.nextSetBit(s + 1)) {
+					readSection(s);
+				}
+				UnitSet.reinit(units::get, false);
+				return (Settlement) units.get(settlementId);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,469 @@
+/*
+ * Mars Simulation Project
+ * ShardedSaveWriter.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.save;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.mars_sim.core.Unit;
+import com.mars_sim.core.save.ShardedSave.SharedRef;
+import com.mars_sim.core.save.ShardedSave.UnitRef;
+import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.tool.ParallelGzipBuffer;
+import com.mars_sim.core.unit.AbstractMobileUnit;
+import com.mars_sim.core.unit.FixedUnit;
+
+/**
+ * Captures a simulation as a sharded save. A Unit belongs to the section of its associated
+ * Settlement; Units without one belong to the unassigned section.
+ * The capture makes two passes. The first writes every section to nowhere to find which
+ * Units each section holds, which section each other object is written by and which
+ * sections depend on each other. Sections that depend on each other are then merged and
+ * ordered so a section comes after those it depends on. The second pass writes the
+ * sections in parallel into memory. Both passes must be made with the clock stopped.
+ */
+public final class ShardedSaveWriter {
+
+	/**
+	 * A section captured in memory.
+	 *
+	 * @param name Name of the section
+	 * @param settlementIds Identifiers of the Settlements held
+	 * @param units Number of Units held
+	 * @param dependencies Earlier sections that must be loaded first
+	 * @param nanos Time taken to capture
+	 * @param content Uncompressed content
+	 */
+	public record Section(String name, int[] settlementIds, int units, int[] dependencies,
+						long nanos, ParallelGzipBuffer content) {}
+
+	private final Object[] managers;
+	private final List<Settlement> settlements;
+	private final Map<Settlement, Integer> settlementSections = new IdentityHashMap<>();
+	private final List<List<Unit>> roots = new ArrayList<>();
+	private final Set<Unit> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Map<Object, Integer> homes = new IdentityHashMap<>();
+	private final Map<Object, BitSet> referencedFrom = new IdentityHashMap<>();
+	private final List<BitSet> dependencies = new ArrayList<>();
+
+	// Sections once the dependent ones have been merged
+	private int[] groupOf;
+	private final List<int[]> groups = new ArrayList<>();
+	private final List<Map<Object, Integer>> exports = new ArrayList<>();
+
+	/**
+	 * Creates a writer.
+	 *
+	 * @param managers The simulation managers in load order; these go in the global section
+	 * @param settlements Settlements that have their own section
+	 */
+	public ShardedSaveWriter(Object[] managers, Collection<Settlement> settlements) {
+		this.managers = managers;
+		this.settlements = new ArrayList<>(settlements);
+
+		// Global and unassigned sections
+		roots.add(new ArrayList<>());
+		roots.add(new ArrayList<>());
+		for (Settlement s : this.settlements) {
+			settlementSections.put(s, roots.size());
+			roots.add(new ArrayList<>());
+		}
+		for (int i = 0; i < roots.size(); i++) {
+			dependencies.add(new BitSet());
+		}
+	}
+
+	/**
+	 * Finds the section a Unit belongs to.
+	 */
+	private int sectionOf(Unit u) {
+		Settlement home = switch (u) {
+			case Settlement s -> s;
+			case AbstractMobileUnit m -> m.getAssociatedSettlement();
+			case FixedUnit f -> f.getAssociatedSettlement();
+			default -> null;
+		};
+		Integer section = (home == null ? null : settlementSections.get(home));
+		return (section == null ? ShardedSave.UNASSIGNED : section);
+	}
+
+	/**
+	 * Records a Unit is referenced so it will be written in its section.
+	 */
+	private void claim(Unit u) {
+		if (claimed.add(u)) {
+			roots.get(sectionOf(u)).add(u);
+		}
+	}
+
+	private String getName(int section) {
+		return switch (section) {
+			case ShardedSave.GLOBAL -> ShardedSave.GLOBAL_NAME;
+			case ShardedSave.UNASSIGNED -> ShardedSave.UNASSIGNED_NAME;
+			default -> settlements.get(section - 2).getName();
+		};
+	}
+
+	/**
+	 * Writes the managers to nowhere to claim the Units they reference.
+	 */
+	private final class ClaimStream extends ObjectOutputStream {
+
+		ClaimStream() throws IOException {
+			super(OutputStream.nullOutputStream());
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) {
+			if (obj instanceof Unit u) {
+				claim(u);
+				return new UnitRef(u.getIdentifier());
+			}
+			return obj;
+		}
+	}
+
+	/**
+	 * Writes a section to nowhere. An object is held by the first section to write it;
+	 * any other section that references it records a dependency on that section.
+	 */
+	private final class DiscoveryStream extends ObjectOutputStream {
+
+		private final int section;
+
+		DiscoveryStream(int section) throws IOException {
+			super(OutputStream.nullOutputStream());
+			this.section = section;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) {
+			if (obj instanceof Unit u) {
+				claim(u);
+				int home = sectionOf(u);
+				if (home == section) {
+					return u;
+				}
+				dependencies.get(section).set(home);
+				return new UnitRef(u.getIdentifier());
+			}
+			if (ShardedSave.isValue(obj)) {
+				return obj;
+			}
+
+			Integer home = homes.putIfAbsent(obj, section);
+			if ((home == null) || (home == section)) {
+				return obj;
+			}
+			dependencies.get(section).set(home);
+			referencedFrom.computeIfAbsent(obj, k -> new BitSet()).set(section);
+			return new SharedRef(home, -1);
+		}
+	}
+
+	/**
+	 * Writes a section replacing the Units and objects held by other sections with references.
+	 */
+	private final class SectionStream extends ObjectOutputStream {
+
+		private final int group;
+
+		SectionStream(OutputStream out, int group) throws IOException {
+			super(out);
+			this.group = group;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof Unit u) {
+				return (groupOf[sectionOf(u)] == group ? u : new UnitRef(u.getIdentifier()));
+			}
+
+			Integer home = homes.get(obj);
+			if ((home == null) || (groupOf[home] == group)) {
+				return obj;
+			}
+			Integer index = exports.get(groupOf[home]).get(obj);
+			if (index == null) {
+				throw new IOException("Section " + group + " references an unexported "
+								+ obj.getClass().getName());
+			}
+			return new SharedRef(groupOf[home], index);
+		}
+	}
+
+	/**
+	 * Writes the claimed Units that have not been written yet.
+	 */
+	private void writeClaimed(DiscoveryStream[] streams, int[] written) throws IOException {
+		// A Unit of one section can reference Units of any other so loop until all are written
+		boolean more = true;
+		while (more) {
+			more = false;
+			for (int i = 0; i < written.length; i++) {
+				var list = roots.get(i);
+				while (written[i] < list.size()) {
+					streams[i].writeObject(list.get(written[i]++));
+					more = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * First pass that finds the Units of each section and the dependencies between sections.
+	 */
+	private void discover() throws IOException {
+		try (var claims = new ClaimStream()) {
+			claims.writeObject(managers);
+		}
+		settlements.forEach(this::claim);
+
+		var streams = new DiscoveryStream[roots.size()];
+		for (int i = 0; i < streams.length; i++) {
+			streams[i] = new DiscoveryStream(i);
+		}
+		int[] written = new int[roots.size()];
+		writeClaimed(streams, written);
+
+		// Managers go last so the objects they share with a Unit are held by its section
+		streams[ShardedSave.GLOBAL].writeObject(managers);
+		writeClaimed(streams, written);
+
+		for (var s : streams) {
+			s.close();
+		}
+	}
+
+	/**
+	 * Merges the sections that depend on each other and orders the result so every
+	 * section comes after those it depends on.
+	 */
+	private void group() {
+		int count = roots.size();
+
+		// Sections that reach each other are merged
+		BitSet[] reach = new BitSet[count];
+		for (int i = 0; i < count; i++) {
+			reach[i] = new BitSet();
+			var pending = (BitSet) dependencies.get(i).clone();
+			while (!pending.isEmpty()) {
+				int next = pending.nextSetBit(0);
+				pending.clear(next);
+				if (!reach[i].get(next)) {
+					reach[i].set(next);
+					pending.or(dependencies.get(next));
+				}
+			}
+		}
+		int[] mergedOf = new int[count];
+		List<BitSet> merged = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			mergedOf[i] = -1;
+		}
+		for (int i = 0; i < count; i++) {
+			if (mergedOf[i] < 0) {
+				var members = new BitSet();
+				for (int j = i; j < count; j++) {
+					if ((j == i) || (reach[i].get(j) && reach[j].get(i))) {
+						members.set(j);
+						mergedOf[j] = merged.size();
+					}
+				}
+				merged.add(members);
+			}
+		}
+
+		// Order so the dependencies come first, taking the lowest section when there is a choice
+		groupOf = new int[count];
+		boolean[] done = new boolean[merged.size()];
+		while (groups.size() < merged.size()) {
+			for (int m = 0; m < merged.size(); m++) {
+				if (!done[m] && isReady(merged.get(m), mergedOf, done)) {
+					done[m] = true;
+					var members = merged.get(m);
+					members.stream().forEach(s -> groupOf[s] = groups.size());
+					groups.add(members.stream().toArray());
+					break;
+				}
+			}
+		}
+
+		// Objects referenced from another group are exported by the group that holds them
+		for (int i = 0; i < groups.size(); i++) {
+			exports.add(new IdentityHashMap<>());
+		}
+		referencedFrom.forEach((obj, from) -> {
+			int home = groupOf[homes.get(obj)];
+			if (from.stream().anyMatch(s -> groupOf[s] != home)) {
+				var exported = exports.get(home);
+				exported.put(obj, exported.size());
+			}
+		});
+	}
+
+	private boolean isReady(BitSet members, int[] mergedOf, boolean[] done) {
+		return members.stream().allMatch(s -> dependencies.get(s).stream()
+							.allMatch(d -> (mergedOf[d] == mergedOf[s]) || done[mergedOf[d]]));
+	}
+
+	/**
+	 * Second pass that writes a group of sections into memory.
+	 */
+	private Section writeGroup(int group) throws IOException {
+		long start = System.nanoTime();
+		int[] members = groups.get(group);
+
+		List<Unit> units = new ArrayList<>();
+		var name = new StringJoiner(" + ");
+		List<Integer> settlementIds = new ArrayList<>();
+		var depends = new BitSet();
+		boolean global = false;
+		for (int s : members) {
+			units.addAll(roots.get(s));
+			name.add(getName(s));
+			if (s == ShardedSave.GLOBAL) {
+				global = true;
+			}
+			else if (s != ShardedSave.UNASSIGNED) {
+				settlementIds.add(settlements.get(s - 2).getIdentifier());
+			}
+			dependencies.get(s).stream().forEach(d -> depends.set(groupOf[d]));
+		}
+		depends.clear(group);
+
+		var exported = new Object[exports.get(group).size()];
+		exports.get(group).forEach((obj, idx) -> exported[idx] = obj);
+
+		var buffer = new ParallelGzipBuffer();
+		try (var oos = new SectionStream(buffer, group)) {
+			oos.writeObject(units.toArray(new Unit[0]));
+			oos.writeObject(global ? managers : null);
+			oos.writeObject(exported);
+		}
+
+		return new Section(name.toString(), settlementIds.stream().mapToInt(Integer::intValue).toArray(),
+					units.size(), depends.stream().toArray(), System.nanoTime() - start, buffer);
+	}
+
+	/**
+	 * Captures the sections into memory.
+	 *
+	 * @param executor Writes the sections concurrently
+	 * @return Sections in load order
+	 * @throws IOException
+	 */
+	public List<Section> capture(Executor executor) throws IOException {
+		discover();
+		group();
+
+		List<CompletableFuture<Section>> pending = new ArrayList<>();
+		for (int i = 0; i < groups.size(); i++) {
+			final int group = i;
+			pending.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return writeGroup(group);
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, executor));
+		}
+
+		List<Section> result = new ArrayList<>();
+		try {
+			for (var p : pending) {
+				result.add(p.join());
+			}
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException u) {
+				throw u.getCause();
+			}
+			throw new IOException("Problem capturing section", e.getCause());
+		}
+		finally {
+			homes.clear();
+			referencedFrom.clear();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of objects a section holds for other sections.
+	 */
+	public int getSharedCount() {
+		return exports.stream().mapToInt(Map::size).sum();
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int v : values) {
+			out.writeInt(v);
+		}
+	}
+
+	/**
+	 * Compresses the sections and writes them with the index.
+	 *
+	 * @param sections Captured sections
+	 * @param out Destination; this is not closed
+	 * @param executor Runs the compression
+	 * @return Bytes written
+	 * @throws IOException
+	 */
+	public static long write(List<Section> sections, OutputStream out, Executor executor) throws IOException {
+		List<byte[]> compressed = new ArrayList<>();
+		for (Section s : sections) {
+			var bos = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, s.content().size() / 4 + 64));
+			s.content().writeGzip(bos, executor);
+			compressed.add(bos.toByteArray());
+		}
+
+		var index = new DataOutputStream(out);
+		index.writeLong(ShardedSave.MAGIC);
+		index.writeInt(ShardedSave.VERSION);
+		index.writeInt(sections.size());
+		long offset = 0;
+		for (int i = 0; i < sections.size(); i++) {
+			Section s = sections.get(i);
+			index.writeUTF(s.name());
+			writeInts(index, s.settlementIds());
+			index.writeInt(s.units());
+			writeInts(index, s.dependencies());
+			index.writeLong(s.content().size());
+			index.writeLong(offset);
+			index.writeLong(compressed.get(i).length);
+			offset += compressed.get(i).length;
+		}
+		long written = index.size() + offset;
+		for (byte[] data : compressed) {
+			out.write(data);
+		}
+		out.flush();
+		return written;
+	}
+}
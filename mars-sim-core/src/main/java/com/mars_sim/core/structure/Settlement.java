@@ -946,12 +946,29 @@ public class Settlement extends Unit implements Temporal,
 	}
 
 	/**
-	 * Perform time-related processes
+	 * Perform time-related processes. Random draws made during the pulse come from
+	 * this settlement's own stream when the simulation is seeded.
 	 *
 	 * @throws Exception error during time passing.
 	 */
 	@Override
 	public boolean timePassing(ClockPulse pulse) {
+		var previousStream = RandomUtil.enterStream(getIdentifier());
+		try {
+			return applyPulse(pulse);
+		}
+		finally {
+			RandomUtil.exitStream(previousStream);
+		}
+	}
+
+	/**
+	 * Applies the pulse to the settlement and everything it owns.
+	 * 
+	 * @param pulse
+	 * @return
+	 */
+	private boolean applyPulse(ClockPulse pulse) {
 		if (!isValid(pulse)) {
 			return false;
 		}
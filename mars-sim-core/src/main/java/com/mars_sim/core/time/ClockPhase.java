@@ -0,0 +1,20 @@
+/*
+ * Mars Simulation Project
+ * ClockPhase.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.core.time;
+
+/**
+ * The phases of a clock pulse. The listeners of a phase all complete before any listener
+ * of the next phase is called; listeners in the same phase may run at the same time.
+ */
+public enum ClockPhase {
+	/** Work that must be done before the simulation entities act. */
+	ENVIRONMENT,
+	/** The simulation entities. */
+	SIMULATION,
+	/** Observers of the completed pulse such as the user interface. */
+	DISPLAY;
+}
@@ -17,4 +17,13 @@ public interface ClockPulseListener {
 	 * @param currentPulse the current pulse
 	 */
 	void clockPulse(ClockPulse currentPulse);
+
+	/**
+	 * Gets the phase of the pulse when this listener is called.
+	 * 
+	 * @return phase
+	 */
+	default ClockPhase getClockPhase() {
+		return ClockPhase.SIMULATION;
+	}
 }
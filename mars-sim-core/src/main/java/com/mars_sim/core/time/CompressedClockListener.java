@@ -56,4 +56,16 @@ public class CompressedClockListener implements ClockPulseListener {
 		// Call handler
 		listener.clockPulse(consolidated);
     }
+
+    @Override
+    public ClockPhase getClockPhase() {
+        return listener.getClockPhase();
+    }
+
+    /**
+     * Gets the root listener receiving the compressed pulses.
+     */
+    public ClockPulseListener getListener() {
+        return listener;
+    }
 }
@@ -11,9 +11,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -23,6 +25,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mars_sim.core.EntityListenerManager;
 import com.mars_sim.core.Simulation;
 import com.mars_sim.core.SimulationConfig;
 import com.mars_sim.core.SimulationRuntime;
@@ -93,9 +96,48 @@ public class MasterClock implements Serializable {
 	/** The initial ratio between the minMilliSolPerPulse and the ref pulse width. */
 	public static final float INITIAL_REF_PULSE_RATIO = .5f;
 	
+	/** The most threads used to call the clock listeners of a phase. */
+	private static final int MAX_LISTENER_THREADS = 4;
+
 	/** The number of milliseconds for each millisol.  */
 	private static final float MILLISECONDS_PER_MILLISOL = (float) (MarsTime.SECONDS_PER_MILLISOL * 1000f);
 
+	/**
+	 * The time spent by a clock listener.
+	 *
+	 * @param listener Name of the listener
+	 * @param phase Phase the listener is called in
+	 * @param pulses Number of pulses received
+	 * @param lastMillisec Time taken by the last pulse
+	 * @param averageMillisec Average time taken by a pulse
+	 */
+	public record ListenerTiming(String listener, ClockPhase phase, long pulses,
+								double lastMillisec, double averageMillisec) {}
+
+	/**
+	 * The outcome of a batch run.
+	 *
+	 * @param pulses Number of pulses fired
+	 * @param millisols Simulated time covered
+	 * @param elapsedMillisec Real time taken
+	 */
+	public record BatchStats(long pulses, double millisols, long elapsedMillisec) {
+
+		/**
+		 * Gets the sustained number of pulses per real second.
+		 */
+		public double getPulsesPerSecond() {
+			return pulses * 1000D / Math.max(1, elapsedMillisec);
+		}
+
+		/**
+		 * Gets the number of simulated sols per real minute.
+		 */
+		public double getSolsPerMinute() {
+			return millisols / 1000D * 60_000D / Math.max(1, elapsedMillisec);
+		}
+	}
+
 	
 	// Transient members
 	/** Pausing clock. */
@@ -107,12 +149,14 @@ public class MasterClock implements Serializable {
 	private transient ExecutorService listenerExecutor;
 	/** Thread for main clock */
 	private transient ExecutorService clockExecutor;
-	/** A list of clock listener tasks. */
-	private transient Collection<ClockListenerTask> clockListenerTasks;
+	/** The clock listener tasks of each phase. Replaced as a whole when a listener is added or removed. */
+	private transient volatile ClockListenerTask[][] phaseTasks;
 	/** A set of clock listeners. */
 	private transient Set<ClockListener> controlListeners;
 	/** The clock pulse. */
 	private transient ClockPulse currentPulse;
+	/** Is the clock driven by {@link #runBatch} instead of the clock thread ? */
+	private transient boolean batchMode = false;
 	
 	// Data members
 	/** The user's preferred simulation time ratio. */
@@ -506,14 +550,18 @@ public class MasterClock implements Serializable {
 	 *
 	 * @param newListener the listener to add.
 	 */
-	public void addClockPulseListener(ClockPulseListener newListener) {
-		// Check if clockListenerTaskList already contain the newListener's task,
-		// if it doesn't, create one
-		if (clockListenerTasks == null)
-			clockListenerTasks = Collections.synchronizedSet(new HashSet<>());
-		if (!clockListenerTasks.stream().anyMatch(task -> task.getClockListener().equals(newListener))) {
-			clockListenerTasks.add(new ClockListenerTask(newListener));
+	public synchronized void addClockPulseListener(ClockPulseListener newListener) {
+		var current = getPhaseTasks();
+		int phase = newListener.getClockPhase().ordinal();
+		if (Arrays.stream(current[phase]).anyMatch(task -> task.getClockListener().equals(newListener))) {
+			return;
 		}
+
+		// Copy so a pulse in progress keeps the listeners it started with
+		var updated = current.clone();
+		updated[phase] = Arrays.copyOf(current[phase], current[phase].length + 1);
+		updated[phase][current[phase].length] = new ClockListenerTask(newListener);
+		phaseTasks = updated;
 	}
 
 	/**
@@ -521,14 +569,46 @@ public class MasterClock implements Serializable {
 	 *
 	 * @param oldListener the listener to remove.
 	 */
-	public void removeClockPulseListener(ClockPulseListener oldListener) {
-		var found = clockListenerTasks.stream()
-				.filter(task -> task.getClockListener().equals(oldListener))
-				.findAny().orElse(null);
+	public synchronized void removeClockPulseListener(ClockPulseListener oldListener) {
+		var current = getPhaseTasks();
+		var updated = new ClockListenerTask[current.length][];
+		for (int i = 0; i < current.length; i++) {
+			updated[i] = Arrays.stream(current[i])
+							.filter(task -> !task.getClockListener().equals(oldListener))
+							.toArray(ClockListenerTask[]::new);
+		}
+		phaseTasks = updated;
+	}
 
-		if (found != null) {
-			clockListenerTasks.remove(found);
+	/**
+	 * Gets the clock listener tasks of each phase creating them if needed.
+	 */
+	private ClockListenerTask[][] getPhaseTasks() {
+		var current = phaseTasks;
+		if (current == null) {
+			current = new ClockListenerTask[ClockPhase.values().length][0];
+			phaseTasks = current;
 		}
+		return current;
+	}
+
+	/**
+	 * Gets the time spent by each clock listener.
+	 *
+	 * @return timings in phase order
+	 */
+	public List<ListenerTiming> getListenerTimings() {
+		var current = phaseTasks;
+		if (current == null) {
+			return Collections.emptyList();
+		}
+		List<ListenerTiming> result = new ArrayList<>();
+		for (var tasks : current) {
+			for (var task : tasks) {
+				result.add(task.getTiming());
+			}
+		}
+		return result;
 	}
 
 	/*
@@ -704,33 +784,35 @@ public class MasterClock implements Serializable {
 		currentPulse = new ClockPulse(newPulseId, time, marsTime, this, 
 				isNewSol, isNewHalfSol, isNewIntMillisol, isNewHalfMillisol);
 		
-		// Note: for-loop may handle checked exceptions better than forEach()
-		// See https://stackoverflow.com/questions/16635398/java-8-iterable-foreach-vs-foreach-loop?rq=1
-
-		// May do it using for loop
-
-		// Note: Using .parallelStream().forEach() in a quad cpu machine would reduce TPS and unable to increase it beyond 512x
-		// Not using clockListenerTasks.forEach(s -> { }) for now
-
-		// Execute all listener concurrently and wait for all to complete before advancing
-		// Ensure that Settlements stay synch'ed and some don't get ahead of others as tasks queue
-		// May use parallelStream() after it's proven to be safe
-		if (clockListenerTasks != null) {
-			Collections.synchronizedSet(new HashSet<>(clockListenerTasks)).stream().forEach(this::executeClockListenerTask);
+		// Execute the listeners of each phase concurrently and wait for all of them to complete
+		// before the next phase. This ensures that Settlements stay synch'ed and some don't get
+		// ahead of others as tasks queue
+		var phases = phaseTasks;
+		if (phases != null) {
+			for (var tasks : phases) {
+				executePhase(tasks);
+			}
 		}
+
+		// All listeners have finished with this pulse
+		EntityListenerManager.pulseCompleted();
 	}
 
 	/**
-	 * Executes the clock listener task.
+	 * Executes the clock listener tasks of one phase.
 	 *
-	 * @param task
+	 * @param tasks
 	 */
-	private void executeClockListenerTask(ClockListenerTask task) {
-		Future<String> result = listenerExecutor.submit(task);
+	private void executePhase(ClockListenerTask[] tasks) {
+		if (tasks.length == 0) {
+			return;
+		}
 
 		try {
-			// Wait for it to complete so the listeners doesn't get queued up if the MasterClock races ahead
-			result.get();
+			// Wait for them to complete so the listeners don't get queued up if the MasterClock races ahead
+			for (Future<String> result : listenerExecutor.invokeAll(Arrays.asList(tasks))) {
+				result.get();
+			}
 		} catch (ExecutionException ee) {
 			logger.severe( "ExecutionException. Problem with clock listener tasks: ", ee);
 		} catch (InterruptedException | RejectedExecutionException ie) {
@@ -759,7 +841,10 @@ public class MasterClock implements Serializable {
 
 		startListenerExecutor();
 
-		startClockExecutor();
+		// A batch run fires the pulses itself
+		if (!batchMode) {
+			startClockExecutor();
+		}
 
 		timestampPulseStart();
 		
@@ -785,11 +870,23 @@ public class MasterClock implements Serializable {
 				|| listenerExecutor.isTerminated()) {
 			
 			logger.config(0, "Setting up thread(s) for clock listener.");
-			listenerExecutor = Executors.newFixedThreadPool(1,
+			// At least two so the listeners of a phase are never queued behind each other
+			int threads = Math.clamp(SimulationRuntime.NUM_CORES, 2, MAX_LISTENER_THREADS);
+			listenerExecutor = Executors.newFixedThreadPool(threads,
 					new ThreadFactoryBuilder().setNameFormat("clockListener-%d").build());
 		}
 	}
 	
+	/**
+	 * Has the paced clock thread ever been started ? A clock driven by {@link #runBatch} never
+	 * starts it.
+	 *
+	 * @return
+	 */
+	boolean isClockThreadStarted() {
+		return clockExecutor != null;
+	}
+
 	/**
 	 * Starts the clock thread pool executor.
 	 */
@@ -1100,6 +1197,70 @@ public class MasterClock implements Serializable {
 		return (leadPulse - refPulse) / refPulse;
 	}
 	
+	/**
+	 * Runs the clock as fast as possible for a number of sols. The pulses are fired back-to-back
+	 * on the calling thread with a fixed width; there is no sleeping, no adapting of the pulse
+	 * width and no rejecting of pulses. The clock thread is not used again after a batch run.
+	 *
+	 * @param pulseWidth Millisols covered by each pulse
+	 * @param sols Number of sols to run
+	 * @return the statistics of the run
+	 */
+	public BatchStats runBatch(double pulseWidth, int sols) {
+		if (sols <= 0) {
+			throw new IllegalArgumentException("Number of sols must be positive : " + sols);
+		}
+		double width = Math.clamp(pulseWidth, minMilliSolPerPulse, maxMilliSolPerPulse);
+		if (width != pulseWidth) {
+			logger.warning("Batch pulse width " + pulseWidth + " changed to " + width + " millisols.");
+		}
+
+		batchMode = true;
+		clockThreadTask.stopRunning();
+		startListenerExecutor();
+
+		int endSol = marsTime.getMissionSol() + sols;
+		logger.config("Running a batch of " + sols + " sols until sol " + endSol
+					+ " with " + width + " millisols per pulse.");
+
+		long earthMicrosec = (long) (width * MILLISECONDS_PER_MILLISOL * 1000);
+		long firstPulse = nextPulseId;
+		long start = System.currentTimeMillis();
+		long solPulse = firstPulse;
+		long solStart = start;
+		int sol = marsTime.getMissionSol();
+		tLast = start;
+
+		while (!shuttingDown && (sol < endSol)) {
+			long now = System.currentTimeMillis();
+			realElapsedMillisec = now - tLast;
+			tLast = now;
+			uptimer.updateTime(realElapsedMillisec);
+
+			earthTime = earthTime.plus(earthMicrosec, ChronoField.MICRO_OF_SECOND.getBaseUnit());
+			marsTime = marsTime.addTime(width);
+			fireClockPulse(width);
+
+			int newSol = marsTime.getMissionSol();
+			if (newSol != sol) {
+				// Report the rate sustained over the last sol
+				var solStats = new BatchStats(nextPulseId - solPulse, 1000D, tLast - solStart);
+				actualTR = (float) (1000D * MILLISECONDS_PER_MILLISOL / Math.max(1, solStats.elapsedMillisec()));
+				logger.config(String.format("Batch sol %d: %.0f pulses/s, %.2f sols/min.",
+							sol, solStats.getPulsesPerSecond(), solStats.getSolsPerMinute()));
+				sol = newSol;
+				solPulse = nextPulseId;
+				solStart = tLast;
+			}
+		}
+
+		long pulses = nextPulseId - firstPulse;
+		var stats = new BatchStats(pulses, pulses * width, System.currentTimeMillis() - start);
+		logger.config(String.format("Batch complete: %d pulses in %.1f s, %.0f pulses/s, %.2f sols/min.",
+					pulses, stats.elapsedMillisec() / 1000D, stats.getPulsesPerSecond(), stats.getSolsPerMinute()));
+		return stats;
+	}
+
 	/**
 	 * Prepares object for garbage collection.
 	 */
@@ -1121,6 +1282,11 @@ public class MasterClock implements Serializable {
 
 		private ClockPulseListener listener;
 
+		// Only written by the thread calling the listener
+		private volatile long pulses;
+		private volatile long lastNanos;
+		private volatile long totalNanos;
+
 		public ClockPulseListener getClockListener() {
 			return listener;
 		}
@@ -1131,6 +1297,7 @@ public class MasterClock implements Serializable {
 
 		@Override
 		public String call() throws Exception {
+			long start = System.nanoTime();
 							
 			try {		
 				// Call handler
@@ -1139,9 +1306,26 @@ public class MasterClock implements Serializable {
 			catch (Exception e) {
 				logger.severe( "Can't send out clock pulse: ", e);
 			}
+
+			lastNanos = System.nanoTime() - start;
+			totalNanos += lastNanos;
+			pulses++;
 			
 			return DONE;
 		}
+
+		/**
+		 * Gets the time spent by the listener.
+		 */
+		private ListenerTiming getTiming() {
+			var target = listener;
+			if (target instanceof CompressedClockListener c) {
+				target = c.getListener();
+			}
+			long count = pulses;
+			return new ListenerTiming(target.getClass().getSimpleName(), listener.getClockPhase(), count,
+						lastNanos / 1_000_000D, (count > 0 ? totalNanos / 1_000_000D / count : 0D));
+		}
 	}
 	
 	/**
@@ -0,0 +1,151 @@
+/*
+ * Mars Simulation Project
+ * ParallelGzipBuffer.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.core.tool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An in-memory output stream held as a list of fixed size blocks. Once filled, the content
+ * can be written as a gzip stream where every block is compressed in parallel as an
+ * independent gzip member. A series of gzip members is a valid gzip stream so it can be
+ * read back with a plain {@link java.util.zip.GZIPInputStream}.
+ * The blocks are never copied or resized so filling the buffer costs a single pass.
+ */
+public final class ParallelGzipBuffer extends OutputStream {
+
+	/** Default size of a block. */
+	public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+	private final int blockSize;
+	private final List<byte[]> blocks = new ArrayList<>();
+	private byte[] current;
+	private int position;
+	private long size;
+
+	public ParallelGzipBuffer() {
+		this(DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a buffer.
+	 *
+	 * @param blockSize Size of each compressed block
+	 */
+	public ParallelGzipBuffer(int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+		}
+		this.blockSize = blockSize;
+	}
+
+	private void nextBlock() {
+		current = new byte[blockSize];
+		blocks.add(current);
+		position = 0;
+	}
+
+	@Override
+	public void write(int b) {
+		if ((current == null) || (position == blockSize)) {
+			nextBlock();
+		}
+		current[position++] = (byte) b;
+		size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		while (len > 0) {
+			if ((current == null) || (position == blockSize)) {
+				nextBlock();
+			}
+			int n = Math.min(len, blockSize - position);
+			System.arraycopy(b, off, current, position, n);
+			position += n;
+			off += n;
+			len -= n;
+			size += n;
+		}
+	}
+
+	/**
+	 * Gets the number of uncompressed bytes held.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of blocks held.
+	 */
+	public int getBlockCount() {
+		return blocks.size();
+	}
+
+	private int blockLength(int idx) {
+		return (idx == blocks.size() - 1 ? position : blockSize);
+	}
+
+	/**
+	 * Compresses one block as a complete gzip member.
+	 */
+	private byte[] compress(int idx) {
+		byte[] block = blocks.get(idx);
+		int len = blockLength(idx);
+		var result = new ByteArrayOutputStream(Math.max(64, len / 4));
+		try (var gz = new GZIPOutputStream(result, 64 * 1024)) {
+			gz.write(block, 0, len);
+		}
+		catch (IOException e) {
+			// A memory stream does not throw
+			throw new UncheckedIOException(e);
+		}
+		return result.toByteArray();
+	}
+
+	/**
+	 * Writes the content as a gzip stream. The blocks are compressed concurrently on the
+	 * executor and written to the destination in order as each one completes.
+	 * The destination is not closed.
+	 *
+	 * @param out Destination of the gzip stream
+	 * @param executor Runs the compression of each block
+	 * @return Number of compressed bytes written
+	 * @throws IOException
+	 */
+	public long writeGzip(OutputStream out, Executor executor) throws IOException {
+		List<CompletableFuture<byte[]>> members = new ArrayList<>(blocks.size());
+		for (int i = 0; i < blocks.size(); i++) {
+			final int idx = i;
+			members.add(CompletableFuture.supplyAsync(() -> compress(idx), executor));
+		}
+
+		long written = 0;
+		try {
+			for (var m : members) {
+				byte[] data = m.join();
+				out.write(data);
+				written += data.length;
+			}
+		}
+		catch (CompletionException e) {
+			members.forEach(m -> m.cancel(false));
+			throw new IOException("Problem compressing block", e.getCause());
+		}
+		out.flush();
+		return written;
+	}
+}
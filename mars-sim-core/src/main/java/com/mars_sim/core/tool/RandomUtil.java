@@ -10,6 +10,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
@@ -43,8 +44,21 @@ public final class RandomUtil {
 	// Initiaise the Ramdom with a seed based on current time
 //	private static ThreadLocal<Random> random = ThreadLocal.withInitial(() -> new Random(System.currentTimeMillis()));
 
+	/** Stream used by the clock, environment and anything outside a settlement pulse. */
+	public static final int GLOBAL_STREAM = -1;
+
 	// Create a uniform random number generator
-	private static UniformRandomProvider rng = ThreadLocalRandomSource.current(RandomSource.SPLIT_MIX_64);; //RandomSource.WELL_19937_A.create();
+	private static final UniformRandomProvider UNSEEDED = ThreadLocalRandomSource.current(RandomSource.SPLIT_MIX_64); //RandomSource.WELL_19937_A.create();
+
+	// Multiplier used to spread the stream keys across the seed space
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static volatile UniformRandomProvider rng = UNSEEDED;
+
+	// Zero means unseeded
+	private static volatile long masterSeed = 0L;
+	private static final Map<Integer, UniformRandomProvider> streams = new ConcurrentHashMap<>();
+	private static final ThreadLocal<UniformRandomProvider> activeStream = new ThreadLocal<>();
 
 	// Create the Ziggurat normalized Gaussian sampler
 //	private static ZigguratNormalizedGaussianSampler sampler = ZigguratNormalizedGaussianSampler.of(rng);
@@ -52,6 +66,87 @@ public final class RandomUtil {
 	private RandomUtil() {}
 
 	public static UniformRandomProvider getRNG() {
+		return current();
+	}
+
+	/**
+	 * Switches to deterministic mode where every random draw comes from a stream derived from
+	 * the master seed. Each settlement has its own stream so the sequence it sees does not
+	 * depend on which executor thread runs it. A seed of zero returns to the unseeded mode.
+	 * Note: the streams restart from the seed, they are not part of a saved simulation.
+	 * Only the draws made in a settlement pulse are repeatable. The global stream is shared
+	 * by the clock, environment and any other thread such as the user interface, so the
+	 * order of those draws depends on the thread timing.
+	 * 
+	 * @param seed Master seed
+	 */
+	public static synchronized void setSeed(long seed) {
+		masterSeed = seed;
+		streams.clear();
+		rng = (seed == 0L ? UNSEEDED : getStream(GLOBAL_STREAM));
+	}
+
+	/**
+	 * Is the deterministic seeded mode active?
+	 * 
+	 * @return
+	 */
+	public static boolean isSeeded() {
+		return masterSeed != 0L;
+	}
+
+	/**
+	 * Gets the seeded stream with a key, creating it on first use. The stream seed is
+	 * derived only from the master seed and the key so it does not depend on creation order.
+	 * 
+	 * @param key Stream key, normally a Settlement identifier
+	 * @return
+	 */
+	public static UniformRandomProvider getStream(int key) {
+		if (!isSeeded()) {
+			throw new IllegalStateException("Random streams need a seed.");
+		}
+		return streams.computeIfAbsent(key, k ->
+					RandomSource.XO_SHI_RO_256_PP.create(masterSeed + (k + 1L) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Makes a stream the source of random draws for the calling thread. In the unseeded mode
+	 * this does nothing.
+	 * 
+	 * @param key Stream key
+	 * @return The previous active stream to pass to {@link #exitStream(UniformRandomProvider)}
+	 */
+	public static UniformRandomProvider enterStream(int key) {
+		if (!isSeeded()) {
+			return null;
+		}
+		var previous = activeStream.get();
+		activeStream.set(getStream(key));
+		return previous;
+	}
+
+	/**
+	 * Restores the stream that was active before {@link #enterStream(int)}.
+	 * 
+	 * @param previous The value returned by the matching enter
+	 */
+	public static void exitStream(UniformRandomProvider previous) {
+		if (isSeeded() || (previous != null)) {
+			activeStream.set(previous);
+		}
+	}
+
+	/**
+	 * Gets the generator for the calling context.
+	 */
+	private static UniformRandomProvider current() {
+		if (masterSeed != 0L) {
+			var active = activeStream.get();
+			if (active != null) {
+				return active;
+			}
+		}
 		return rng;
 	}
 	
@@ -62,7 +157,7 @@ public final class RandomUtil {
 	 * @return
 	 */
 	private static int getInt(int n) {
-		return rng.nextInt(n);
+		return current().nextInt(n);
 	}
 	
 	/**
@@ -71,7 +166,7 @@ public final class RandomUtil {
 	 * @return
 	 */
 	private static double getDouble() {
-		return rng.nextDouble();	
+		return current().nextDouble();	
 	}
 	
 	/**
@@ -196,7 +291,7 @@ public final class RandomUtil {
 	 * @return a positive-only random double number.
 	 */
 	public static double getGaussianPositive(double center, double stdDev) {
-		Sampler sampler = NormalDistribution.of(center, stdDev).createSampler(rng);
+		Sampler sampler = NormalDistribution.of(center, stdDev).createSampler(current());
 		
 		double value = 0;
 		
@@ -215,7 +310,7 @@ public final class RandomUtil {
 	 * @return a positive-only random double number.
 	 */
 	public static double getGaussian(double center, double stdDev) {
-		return NormalDistribution.of(center, stdDev).createSampler(rng).sample();
+		return NormalDistribution.of(center, stdDev).createSampler(current()).sample();
 	}
 	
 	
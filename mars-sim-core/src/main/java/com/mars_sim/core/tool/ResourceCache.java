@@ -15,6 +15,7 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,7 +40,8 @@ public class ResourceCache {
 
     private File location;
     private boolean doChecksum;
-    private Set<String> alreadyChecked = new HashSet<>();
+    // Content may be extracted from several threads
+    private Set<String> alreadyChecked = ConcurrentHashMap.newKeySet();
     private Set<String> excludedFiles = new HashSet<>();
 
     /**
@@ -0,0 +1,118 @@
+package com.mars_sim.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EntityListenerManagerTest {
+
+    private static class DeferredListener implements DeferredEntityListener {
+        private final List<EntityEvent> events = new ArrayList<>();
+        private final CountDownLatch done;
+
+        DeferredListener(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void entityUpdate(EntityEvent event) {
+            synchronized(events) {
+                events.add(event);
+            }
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return done.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @AfterEach
+    void disableDeferred() {
+        EntityListenerManager.setDeferredDispatch(false);
+    }
+
+    @Test
+    void testSynchronousByDefault() {
+        var source = new MockEntity("Sync");
+        var mgr = new EntityListenerManager();
+        var direct = new TestEntityListener();
+        var deferred = new DeferredListener(1);
+        mgr.addEntityListener(direct);
+        mgr.addEntityListener(deferred);
+        assertEquals(2, mgr.getEntityListeners().size(), "Listeners registered");
+
+        mgr.fireEvent(source, "Changed", null);
+        assertEquals(1, direct.getEventsReceived(), "Direct listener called");
+        assertEquals(1, deferred.events.size(), "Deferred listener called at once");
+    }
+
+    @Test
+    void testDeferredDispatch() throws InterruptedException {
+        EntityListenerManager.setDeferredDispatch(true);
+
+        var source = new MockEntity("Deferred");
+        var mgr = new EntityListenerManager();
+        var direct = new TestEntityListener();
+        var deferred = new DeferredListener(3);
+        mgr.addEntityListener(direct);
+        mgr.addEntityListener(deferred);
+
+        // Repeats of the same event within a pulse are merged
+        for(int i = 0; i < 10; i++) {
+            mgr.fireEvent(source, "Changed", null);
+        }
+        mgr.fireEvent(source, "Added", "A");
+        mgr.fireEvent(source, "Added", "B");
+        mgr.fireEvent(source, "Added", "A");
+
+        assertEquals(13, direct.getEventsReceived(), "Direct listener called for every event");
+        assertTrue(deferred.events.isEmpty(), "Deferred listener waits for the pulse");
+
+        EntityListenerManager.pulseCompleted();
+        assertTrue(deferred.await(), "Deferred events delivered");
+
+        synchronized(deferred.events) {
+            assertEquals(3, deferred.events.size(), "Merged events");
+            assertEquals("Changed", deferred.events.get(0).getType(), "First event");
+            assertEquals("A", deferred.events.get(1).getTarget(), "Second target");
+            assertEquals("B", deferred.events.get(2).getTarget(), "Third target");
+            assertEquals(source, deferred.events.get(0).getSource(), "Event source");
+        }
+    }
+
+    @Test
+    void testDeliveredWithoutPulse() throws InterruptedException {
+        EntityListenerManager.setDeferredDispatch(true);
+
+        var source = new MockEntity("Paused");
+        var mgr = new EntityListenerManager();
+        var deferred = new DeferredListener(1);
+        mgr.addEntityListener(deferred);
+
+        // No pulse completes as when the clock is paused
+        mgr.fireEvent(source, "Changed", null);
+        assertTrue(deferred.await(), "Deferred event delivered without a pulse");
+    }
+
+    @Test
+    void testEventCounts() {
+        var source = new MockEntity("Counted");
+        var mgr = new EntityListenerManager();
+        mgr.addEntityListener(new TestEntityListener());
+
+        String key = MockEntity.class.getSimpleName() + ":Counted";
+        long before = EntityListenerManager.getEventCounts().getOrDefault(key, 0L);
+        mgr.fireEvent(source, "Counted", null);
+        mgr.fireEvent(new EntityEvent(source, "Counted"));
+
+        assertEquals(before + 2, EntityListenerManager.getEventCounts().get(key), "Events counted");
+    }
+}
@@ -14,6 +14,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 
 
 import com.mars_sim.core.equipment.MicroInventory;
+import com.mars_sim.core.resource.ItemResourceUtil;
 import com.mars_sim.core.resource.ResourceUtil;
 import com.mars_sim.core.structure.MockSettlement;
 import com.mars_sim.core.structure.Settlement;
@@ -158,4 +159,43 @@ class MicroInventoryTest {
 		assertEquals((CAPACITY_AMOUNT/2 + 100D), inv.getStoredMass(), "Total mass after combined load");
 
 	}
-}
\ No newline at end of file
+
+	/*
+	 * Test the item mass is maintained on store and retrieve
+	 */
+	@Test
+	void testItemMass()  {
+		MicroInventory inv = new MicroInventory(settlement, 1000D);
+		int item = ItemResourceUtil.FIRE_EXTINGUISHER_ID;
+		double massPerItem = ItemResourceUtil.findItemResource(item).getMassPerItem();
+
+		assertEquals(0, inv.storeItemResource(item, 2), "No excess on 1st item load");
+		assertEquals(0, inv.storeItemResource(item, 3), "No excess on 2nd item load");
+		assertEquals(5, inv.getItemResourceStored(item), "Items stored");
+		assertEquals(Math.round(5 * massPerItem * 100.0)/100.0, inv.getStoredMass(), "Total mass after item loads");
+
+		assertEquals(0, inv.retrieveItemResource(item, 4), "No shortfall on item retrieve");
+		assertEquals(Math.round(massPerItem * 100.0)/100.0, inv.getStoredMass(), "Total mass after item retrieve");
+		assertTrue(inv.getItemStoredIDs().contains(item), "Item still stored");
+	}
+
+	/*
+	 * Test cleaning removes specific amounts and items
+	 */
+	@Test
+	void testClean()  {
+		MicroInventory inv = new MicroInventory(settlement, 1000D);
+		int resource = ResourceUtil.CO2_ID;
+		int item = ItemResourceUtil.FIRE_EXTINGUISHER_ID;
+		inv.setSpecificCapacity(resource, CAPACITY_AMOUNT);
+		inv.storeAmountResource(resource, CAPACITY_AMOUNT/2);
+		inv.storeItemResource(item, 1);
+
+		inv.clean();
+		assertEquals(0D, inv.getStoredMass(), "Total mass after clean");
+		assertFalse(inv.isResourceSupported(resource), "Resource not supported after clean");
+		assertTrue(inv.isEmpty(resource), "Resource empty after clean");
+		assertEquals(0, inv.getItemResourceStored(item), "No items after clean");
+		assertTrue(inv.getAllSpecificResourceStoredIDs().isEmpty(), "No resources after clean");
+	}
+}
@@ -5,10 +5,13 @@ import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.mars_sim.core.configuration.Scenario;
 import com.mars_sim.core.configuration.ScenarioConfig;
@@ -18,6 +21,7 @@ import com.mars_sim.core.person.Person;
 import com.mars_sim.core.person.health.Complaint;
 import com.mars_sim.core.person.health.ComplaintType;
 import com.mars_sim.core.person.health.MedicalManager;
+import com.mars_sim.core.save.ShardedSaveReader;
 import com.mars_sim.core.structure.Settlement;
 import com.mars_sim.core.structure.SettlementBuilder;
 
@@ -38,13 +42,13 @@ class TestSaving implements SimulationListener {
         simConfig = SimulationConfig.loadConfig();
     }
 
-    @Test
-    void testSaving() throws IOException {
+    /**
+     * Build a realistic simulation with entities to save.
+     */
+    private Simulation buildSimulation() {
         Simulation sim = Simulation.instance();
         sim.createNewSimulation(64, null); 
 
-
-        // Build a realistic simulation with entities to save
         SettlementBuilder builder = new SettlementBuilder(sim, simConfig, null);
         ScenarioConfig config = new ScenarioConfig(simConfig);
         Scenario bootstrap = config.getItem("Single Settlement");
@@ -53,6 +57,12 @@ class TestSaving implements SimulationListener {
         // Add Equipment
         Settlement s = (new ArrayList<>(sim.getUnitManager().getSettlements())).get(0);
         EquipmentFactory.createEquipment(EquipmentType.BAG, s);
+        return sim;
+    }
+
+    @Test
+    void testSaving() throws IOException {
+        Simulation sim = buildSimulation();
 
         // Find a person and add a medical complaint
         Complaint complaint = sim.getMedicalManager().getComplaintByName(ComplaintType.APPENDICITIS);
@@ -60,7 +70,7 @@ class TestSaving implements SimulationListener {
         p.getPhysicalCondition().addMedicalComplaint(complaint);
 
         saveFile = File.createTempFile("save-test", ".sim");
-        sim.saveSimulation(Simulation.SaveType.SAVE_AS, saveFile, this);
+        sim.saveSimulation(Simulation.SaveType.SAVE_AS, saveFile, this).join();
 
 
         // Check simulations saved and it contains data
@@ -78,6 +88,46 @@ class TestSaving implements SimulationListener {
         assertEquals(complaint, laterP.getPhysicalCondition().getMostSerious().getComplaint(), "Has complaint");
     }
 
+    @Test
+    void testShardedSaving() throws IOException, ClassNotFoundException {
+        Simulation sim = buildSimulation();
+        Settlement s = (new ArrayList<>(sim.getUnitManager().getSettlements())).get(0);
+        Person p = s.getAllAssociatedPeople().iterator().next();
+
+        saveFile = File.createTempFile("save-test", ".sim");
+        sim.setShardedSave(true);
+        try {
+            sim.saveSimulation(Simulation.SaveType.SAVE_AS, saveFile, this).join();
+        }
+        finally {
+            sim.setShardedSave(false);
+        }
+        assertEquals(SimulationListener.SAVE_COMPLETED, saveFeedback, "Simulation save status");
+        assertTrue(ShardedSaveReader.isSharded(saveFile), "Sharded format");
+
+        // Inspect the settlement on its own
+        try (var reader = new ShardedSaveReader(saveFile)) {
+            var section = reader.getSections().stream()
+                    .filter(i -> Arrays.stream(i.settlementIds()).anyMatch(id -> id == s.getIdentifier()))
+                    .findFirst();
+            assertTrue(section.isPresent(), "Settlement section");
+            assertTrue(section.get().units() > 0, "Settlement units");
+            Settlement inspected = reader.inspect(s.getIdentifier());
+            assertNotSame(s, inspected, "Inspected copy");
+            assertEquals(s.getIdentifier(), inspected.getIdentifier(), "Inspected settlement");
+            assertEquals(s.getAllAssociatedPeople().size(), inspected.getAllAssociatedPeople().size(), "Inspected people");
+        }
+
+        // Reload it
+        sim.loadSimulation(saveFile);
+        Person laterP = sim.getUnitManager().getPersonByID(p.getIdentifier());
+        assertNotSame(p, laterP, "Reloaded person");
+        assertEquals(p.getName(), laterP.getName(), "Person name");
+        Settlement laterS = sim.getUnitManager().getSettlementByID(s.getIdentifier());
+        assertSame(laterS, laterP.getAssociatedSettlement(), "Linked to the reloaded settlement");
+        assertTrue(laterS.getAllAssociatedPeople().contains(laterP), "Settlement holds the person");
+    }
+
     @AfterEach
     void tearDown() {
         // Delete the saved file
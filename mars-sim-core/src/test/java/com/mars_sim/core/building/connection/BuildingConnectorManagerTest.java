@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -382,6 +383,57 @@ class BuildingConnectorManagerTest {
 
     }
 
+    @Test
+    void testRouteTableTopologyChange() {
+        Settlement settlement = new MockSettlement();
+
+        BuildingTemplate buildingTemplate0 = new BuildingTemplate("0", 0, "building 0", "building 0", new BoundedObject(0D, 0D, 9D, 9D, 0D));
+        buildingTemplate0.addBuildingConnection("2", new LocalPosition(-4.5D, 0D));
+
+        BuildingTemplate buildingTemplate1 = new BuildingTemplate("1", 0, "building 1", "building 1", new BoundedObject(-12D, 0D, 6D, 9D, 270D));
+        buildingTemplate1.addBuildingConnection("2", new LocalPosition(0D, 4.5D));
+
+        BuildingTemplate buildingTemplate2 = new BuildingTemplate("2", 0, "building 2", "building 2", new BoundedObject(-6D, 0D, 6D, 9D, 270D));
+        buildingTemplate2.addBuildingConnection("0", new LocalPosition(0D, 1.5D));
+        buildingTemplate2.addBuildingConnection("1", new LocalPosition(0D, -1.5D));
+
+        List<BuildingTemplate> buildingTemplates = List.of(buildingTemplate0, buildingTemplate1, buildingTemplate2);
+        List<Building> buildings = new ArrayList<>();
+        for(var bt : buildingTemplates) {
+            buildings.add(addBuildingFromTemplate(settlement, bt));
+        }
+        BuildingConnectorManager manager = new BuildingConnectorManager(settlement, buildingTemplates);
+
+        var b0 = buildings.get(0);
+        var b1 = buildings.get(1);
+        var b2 = buildings.get(2);
+        assertTrue(manager.hasValidPath(b0, b1), "Route through middle building");
+        assertTrue(manager.hasValidPath(b1, b0), "Reverse route through middle building");
+        assertTrue(manager.getRouteTableStatus().contains("rebuilds=1"), "Table built once");
+
+        // Repeat queries use the same table
+        manager.determineShortestPath(b0, b0.getPosition(), b1, b1.getPosition());
+        assertTrue(manager.getRouteTableStatus().contains("rebuilds=1"), "Table not rebuilt");
+
+        // Remove the link to the far building
+        var link = manager.getBuildingConnections(b1, b2).iterator().next();
+        manager.removeBuildingConnection(link);
+        assertFalse(manager.hasValidPath(b0, b1), "No route after removal");
+        assertNull(manager.determineShortestPath(b0, b0.getPosition(), b1, b1.getPosition()), "No path after removal");
+        assertTrue(manager.hasValidPath(b0, b2), "Route to middle building remains");
+        assertTrue(manager.hasValidPath(b1, b1), "Same building always valid");
+
+        // Restore it
+        manager.addBuildingConnection(link);
+        var path = manager.determineShortestPath(b0, b0.getPosition(), b1, b1.getPosition());
+        assertNotNull(path, "Path restored");
+        assertPathValidity(path, b0, b0.getPosition(), b1, b1.getPosition());
+        assertTrue(manager.getRouteTableStatus().contains("rebuilds=3"), "Table rebuilt on each change");
+
+        manager.removeAllConnectionsToBuilding(b2);
+        assertFalse(manager.hasValidPath(b0, b2), "Middle building isolated");
+    }
+
     /**
      * Assert the path is valid.
      * 1. Path only changes Building at a Connector
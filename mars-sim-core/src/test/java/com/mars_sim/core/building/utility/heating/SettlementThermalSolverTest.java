@@ -0,0 +1,187 @@
+package com.mars_sim.core.building.utility.heating;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.building.Building;
+import com.mars_sim.core.building.BuildingCategory;
+import com.mars_sim.core.building.connection.BuildingConnector;
+import com.mars_sim.core.building.function.FunctionType;
+import com.mars_sim.core.map.location.LocalPosition;
+import com.mars_sim.core.person.ai.task.util.Task;
+import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.test.MarsSimUnitTest;
+import com.mars_sim.core.time.MasterClock;
+
+class SettlementThermalSolverTest extends MarsSimUnitTest {
+
+    private static final double DELTA = 1E-9;
+    private static final int PULSES = 20;
+
+    @AfterEach
+    void disableSolver() {
+        SettlementThermalSolver.setEnabled(false);
+        Task.setStandardPulseTime(MasterClock.INITIAL_PULSE_WIDTH);
+    }
+
+    /**
+     * Builds a hab and a greenhouse that are heated but not connected.
+     */
+    private List<Building> buildHeated(Settlement s) {
+        var manager = s.getBuildingManager();
+        return List.of(
+                buildFunction(manager, "Lander Hab", BuildingCategory.LIVING,
+                        FunctionType.THERMAL_GENERATION, new LocalPosition(0, 0), 0D, true),
+                buildFunction(manager, "Inflatable Greenhouse", BuildingCategory.FARMING,
+                        FunctionType.THERMAL_GENERATION, new LocalPosition(20, 0), 0D, true));
+    }
+
+    /**
+     * Creates a solver for a row of heated buildings each linked to the next one.
+     */
+    private static SettlementThermalSolver createRow(int heated) {
+        var solver = new SettlementThermalSolver(null, null);
+        int links = (heated - 1) * 2;
+        solver.allocate(heated, heated, links);
+
+        int k = 0;
+        for (int i = 0; i < heated; i++) {
+            solver.adjStart[i] = k;
+            if (i > 0) {
+                solver.adjIndex[k++] = i - 1;
+            }
+            if (i < heated - 1) {
+                solver.adjIndex[k++] = i + 1;
+            }
+            solver.preset[i] = 22.5;
+            solver.temperature[i] = 22.5;
+            solver.areaFactor[i] = 3;
+            solver.floorArea[i] = 50;
+            solver.radiationCoeff[i] = 0.1;
+            solver.structure[i] = 10;
+            solver.structureAirlock[i] = 12;
+        }
+        solver.adjStart[heated] = k;
+        return solver;
+    }
+
+    @Test
+    void testHeatBalance() {
+        var solver = createRow(1);
+        solver.solarCoeff[0] = 2;
+        solver.equipmentGain[0] = 0.5;
+        solver.heatPumpedIn[0] = 1;
+        solver.passiveVent[0] = -0.25;
+
+        double outT = -60;
+        solver.solveHeatBalance(outT, 0.5, 0);
+
+        // Daytime so no canopy or general lighting
+        assertEquals(1 + 0.5 * 2 + 0.5, solver.gain[0], DELTA, "Gain");
+
+        double inK = 22.5 + Heating.C_TO_K;
+        double outK = outT + Heating.C_TO_K;
+        double emissivity = Math.max(.15, Heating.EMISSIVITY_DAY * 0.5 * .1
+                    + Heating.EMISSIVITY_NIGHT * (0.718 - 0.5) * .35);
+        double expected = -Heating.CLF * (22.5 - outT) * 10 / 1000 / 1.1
+                    - emissivity * Heating.STEFAN_BOLTZMANN_CONSTANT * (Math.pow(inK, 4) - Math.pow(outK, 4)) * 0.1 / 2
+                    - 0.25;
+        assertEquals(expected, solver.loss[0], DELTA, "Loss");
+    }
+
+    @Test
+    void testVentilationConservesHeat() {
+        var solver = createRow(3);
+        solver.temperature[0] = 30;
+        solver.temperature[1] = 16;
+        solver.temperature[2] = 22;
+        for (int i = 0; i < 3; i++) {
+            solver.gain[i] = 2;
+            solver.loss[i] = -5;
+        }
+
+        solver.solveVentilation(0.5);
+
+        assertTrue(solver.activeVent[0] < 0, "Hot building pushes heat out");
+        assertTrue(solver.activeVent[1] > 0, "Cold building pulls heat in");
+        assertTrue(solver.ventIn[2] < 0, "Neighbour gives heat to the cold building");
+
+        double total = 0;
+        for (int i = 0; i < 3; i++) {
+            total += solver.activeVent[i] + solver.ventIn[i];
+        }
+        assertEquals(0, total, DELTA, "Heat moved between buildings is conserved");
+    }
+
+    @Test
+    void testMatchesHeatingPath() {
+        // One step per pulse so the heat sources see the same temperatures on both paths
+        Task.setStandardPulseTime(1D);
+
+        var serial = buildHeated(buildSettlement("Serial"));
+        var solved = buildSettlement("Solved");
+        var solvedBuildings = buildHeated(solved);
+        var solver = new SettlementThermalSolver(solved);
+
+        // First pulse starts the heating of every building on the per-building path
+        var pulse = createPulse(1, 1, false, false);
+        for (var b : serial) {
+            b.getThermalGeneration().timePassing(pulse);
+        }
+        for (var b : solvedBuildings) {
+            b.getThermalGeneration().timePassing(pulse);
+        }
+
+        for (int m = 2; m <= PULSES; m++) {
+            pulse = createPulse(1, m * 10, false, false);
+
+            SettlementThermalSolver.setEnabled(false);
+            for (var b : serial) {
+                b.getThermalGeneration().timePassing(pulse);
+            }
+
+            SettlementThermalSolver.setEnabled(true);
+            solver.timePassing(pulse);
+            for (var b : solvedBuildings) {
+                b.getThermalGeneration().timePassing(pulse);
+            }
+
+            for (int i = 0; i < serial.size(); i++) {
+                assertEquals(serial.get(i).getCurrentTemperature(), solvedBuildings.get(i).getCurrentTemperature(),
+                            DELTA, "Temperature of " + serial.get(i).getBuildingType() + " at pulse " + m);
+            }
+        }
+    }
+
+    @Test
+    void testConnectionsRebuildLayout() {
+        var s = buildSettlement("Connected");
+        var manager = s.getBuildingManager();
+        var heated = buildFunction(manager, "Lander Hab", BuildingCategory.LIVING,
+                        FunctionType.THERMAL_GENERATION, new LocalPosition(0, 0), 0D, true);
+        var unheated = buildBuilding(manager, new LocalPosition(0, 12), 0D);
+        var solver = new SettlementThermalSolver(s);
+
+        solver.timePassing(createPulse(1, 10, false, false));
+        assertEquals(1, solver.size, "Heated buildings");
+        assertEquals(0, solver.adjStart[1], "No neighbours");
+
+        var hatch = new LocalPosition(0, 6);
+        var connector = new BuildingConnector(heated, hatch, 0D, unheated, hatch, 180D);
+        s.getBuildingConnectorManager().addBuildingConnection(connector);
+
+        solver.timePassing(createPulse(1, 20, false, false));
+        assertEquals(1, solver.adjStart[1], "Connected neighbour");
+        assertEquals(unheated.getCurrentTemperature(), solver.temperature[1], DELTA, "Neighbour temperature");
+
+        s.getBuildingConnectorManager().removeBuildingConnection(connector);
+
+        solver.timePassing(createPulse(1, 30, false, false));
+        assertEquals(0, solver.adjStart[1], "Neighbour disconnected");
+    }
+}
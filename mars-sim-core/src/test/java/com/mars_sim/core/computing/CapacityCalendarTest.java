@@ -0,0 +1,70 @@
+package com.mars_sim.core.computing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class CapacityCalendarTest {
+
+    private static final int SLOTS = 1000;
+    private static final double DELTA = 1E-9;
+
+    @Test
+    void testMatchesSlotBySlot() {
+        var calendar = new CapacityCalendar(SLOTS);
+        double[] expected = new double[SLOTS];
+        var rnd = new SplittableRandom(42);
+
+        for (int n = 0; n < 500; n++) {
+            int start = rnd.nextInt(SLOTS);
+            int length = rnd.nextInt(1, 300);
+            double amount = rnd.nextDouble(0, 2);
+            calendar.add(start, length, amount);
+            for (int i = 0; i < length; i++) {
+                expected[(start + i) % SLOTS] += amount;
+            }
+
+            int qStart = rnd.nextInt(SLOTS);
+            int qLength = rnd.nextInt(1, 300);
+            double max = 0;
+            double total = 0;
+            for (int i = 0; i < qLength; i++) {
+                double v = expected[(qStart + i) % SLOTS];
+                max = Math.max(max, v);
+                total += v;
+            }
+            assertEquals(max, calendar.getMax(qStart, qLength), DELTA, "Max #" + n);
+            assertEquals(total, calendar.getTotal(qStart, qLength), 1E-6, "Total #" + n);
+        }
+    }
+
+    @Test
+    void testWrapsAroundPeriod() {
+        var calendar = new CapacityCalendar(SLOTS);
+        calendar.add(990, 20, 3D);
+
+        assertEquals(3D, calendar.get(995), DELTA, "End of period");
+        assertEquals(3D, calendar.get(5), DELTA, "Start of next period");
+        assertEquals(3D, calendar.get(1005), DELTA, "Slot beyond the period wraps");
+        assertEquals(0D, calendar.get(10), DELTA, "After the range");
+        assertEquals(60D, calendar.getTotal(980, 50), DELTA, "Total across the wrap");
+        assertEquals(0D, calendar.getMax(100, 50), DELTA, "Empty range");
+    }
+
+    @Test
+    void testClear() {
+        var calendar = new CapacityCalendar(SLOTS);
+        calendar.add(0, 100, 2D);
+        calendar.add(50, 100, 1D);
+
+        calendar.clear(0, 60);
+
+        assertEquals(0D, calendar.get(30), DELTA, "Cleared");
+        assertEquals(0D, calendar.get(55), DELTA, "Cleared overlap");
+        assertEquals(3D, calendar.get(60), DELTA, "Still booked");
+        assertEquals(3D, calendar.getMax(0, 100), DELTA, "Max of what is left");
+        assertEquals(40 * 3D + 50 * 1D, calendar.getTotal(0, SLOTS), DELTA, "Total left");
+    }
+}
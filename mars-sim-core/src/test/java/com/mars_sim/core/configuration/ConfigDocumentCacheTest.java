@@ -0,0 +1,60 @@
+package com.mars_sim.core.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigDocumentCacheTest {
+
+    @TempDir
+    File tempDir;
+
+    private int parsed = 0;
+
+    private Document parse(File source) throws JDOMException, IOException {
+        parsed++;
+        return new SAXBuilder().build(source);
+    }
+
+    @Test
+    void testCachedDocument() throws JDOMException, IOException {
+        File source = new File(tempDir, "test.xml");
+        Files.writeString(source.toPath(), "<root><item name=\"a\"/></root>");
+
+        var cache = new ConfigDocumentCache(new File(tempDir, "cache"));
+        var doc = cache.getDocument(source, this::parse);
+        assertEquals("a", doc.getRootElement().getChild("item").getAttributeValue("name"));
+        assertEquals(1, parsed, "First load parsed");
+        assertEquals(1, cache.getMisses(), "First load missed");
+
+        // New cache instance simulates the next start
+        cache = new ConfigDocumentCache(new File(tempDir, "cache"));
+        doc = cache.getDocument(source, this::parse);
+        assertEquals("a", doc.getRootElement().getChild("item").getAttributeValue("name"));
+        assertEquals(1, parsed, "Second load from cache");
+        assertEquals(1, cache.getHits(), "Second load hit");
+    }
+
+    @Test
+    void testChangedSource() throws JDOMException, IOException {
+        File source = new File(tempDir, "test.xml");
+        Files.writeString(source.toPath(), "<root><item name=\"a\"/></root>");
+
+        var cache = new ConfigDocumentCache(new File(tempDir, "cache"));
+        cache.getDocument(source, this::parse);
+
+        Files.writeString(source.toPath(), "<root><item name=\"b\"/></root>");
+        var doc = cache.getDocument(source, this::parse);
+        assertEquals("b", doc.getRootElement().getChild("item").getAttributeValue("name"), "Changed content");
+        assertEquals(2, parsed, "Changed file parsed");
+        assertEquals(0, cache.getHits(), "No hits");
+    }
+}
@@ -0,0 +1,45 @@
+package com.mars_sim.core.environment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.environment.EnvironmentCache.Sample;
+import com.mars_sim.core.map.location.Coordinates;
+
+class EnvironmentCacheTest {
+
+    private int computed = 0;
+
+    private double increment(Coordinates location, double previous) {
+        computed++;
+        return (Double.isNaN(previous) ? 1D : previous + 1D);
+    }
+
+    @Test
+    void testComputeOncePerEpoch() {
+        var cache = new EnvironmentCache(Sample.TEMPERATURE);
+        var locn = new Coordinates("10.0 N", "20.0 E");
+
+        assertEquals(1D, cache.get(Sample.TEMPERATURE, locn, 0, this::increment), "First value");
+        assertEquals(1D, cache.get(Sample.TEMPERATURE, locn, 0, this::increment), "Same epoch");
+        assertEquals(1, computed, "Computed once in the epoch");
+
+        assertEquals(2D, cache.get(Sample.TEMPERATURE, locn, 1, this::increment), "Next epoch uses previous");
+        assertEquals(2, computed, "Computed again in the new epoch");
+        assertEquals(2D, cache.peek(Sample.TEMPERATURE, locn), "Peek latest");
+    }
+
+    @Test
+    void testManyLocations() {
+        var cache = new EnvironmentCache(Sample.PRESSURE);
+        for (int i = 0; i < 2000; i++) {
+            var locn = new Coordinates(Math.PI * i / 2000D, 1D);
+            assertEquals(1D, cache.get(Sample.PRESSURE, locn, 0, this::increment), "Value at " + i);
+        }
+
+        cache.clear();
+        assertTrue(Double.isNaN(cache.peek(Sample.PRESSURE, new Coordinates(0D, 1D))), "Cleared");
+    }
+}
@@ -0,0 +1,198 @@
+package com.mars_sim.core.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.test.MarsSimUnitTest;
+import com.mars_sim.core.time.MarsTime;
+
+class EventJournalTest extends MarsSimUnitTest {
+
+    @TempDir
+    Path dir;
+
+    private static HistoricalEvent event(HistoricalEventType type, Settlement s, String cause, double millisols) {
+        var e = new HistoricalEvent(type, s, s, cause, "Testing");
+        e.setTimestamp(new MarsTime(millisols));
+        return e;
+    }
+
+    /**
+     * Adds 10 events per sol for 20 sols, alternating between two Settlements and types.
+     */
+    private static void fill(EventJournal journal, Settlement a, Settlement b) throws IOException {
+        for(int sol = 0; sol < 20; sol++) {
+            for(int i = 0; i < 10; i++) {
+                boolean even = (i % 2) == 0;
+                journal.append(event(even ? HistoricalEventType.MEDICAL_CURED : HistoricalEventType.MISSION_PHASE,
+                                    even ? a : b, "Cause " + sol + "-" + i, (sol * 1000D) + (i * 10D)));
+            }
+        }
+    }
+
+    @Test
+    void testQuery() throws IOException {
+        var a = buildSettlement("Alpha");
+        var b = buildSettlement("Beta");
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            fill(journal, a, b);
+            assertEquals(200, journal.size(), "Events held");
+
+            // Newest first
+            var page = journal.query(JournalFilter.ALL, 0, 3);
+            assertEquals(3, page.size(), "Page size");
+            assertEquals("Cause 19-9", page.get(0).whatCause(), "Newest event");
+            assertEquals("Cause 19-7", page.get(2).whatCause(), "Third event");
+
+            // Following page
+            page = journal.query(JournalFilter.ALL, 3, 3);
+            assertEquals("Cause 19-6", page.get(0).whatCause(), "Second page");
+
+            assertEquals(100, journal.count(JournalFilter.byType(HistoricalEventType.MEDICAL_CURED)), "By type");
+            assertEquals(100, journal.count(JournalFilter.byCategory(HistoricalEventCategory.MISSION)), "By category");
+            assertEquals(100, journal.count(JournalFilter.bySource(b.getEntityIdentifier())), "By source");
+            assertEquals(0, journal.count(JournalFilter.bySource(a.getEntityIdentifier())
+                                .withSols(30, 40)), "Sols not present");
+
+            // Sol 1 is the first 1000 millisols
+            var filter = JournalFilter.bySource(a.getEntityIdentifier()).withSols(3, 4);
+            assertEquals(10, journal.count(filter), "By source and sol");
+            page = journal.query(filter, 0, 20);
+            assertEquals("Cause 3-8", page.get(0).whatCause(), "Latest of the sols");
+            assertEquals("Cause 2-0", page.get(page.size() - 1).whatCause(), "Earliest of the sols");
+            assertEquals(a.getName(), page.get(0).source(), "Source name");
+            assertEquals(a.getName(), page.get(0).settlement(), "Settlement name");
+        }
+    }
+
+    @Test
+    void testReopen() throws IOException {
+        var a = buildSettlement("Alpha");
+        var b = buildSettlement("Beta");
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            fill(journal, a, b);
+        }
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            assertEquals(200, journal.size(), "Events after reopen");
+            assertEquals(100, journal.count(JournalFilter.bySource(a.getEntityIdentifier())), "Source index rebuilt");
+
+            var oldest = journal.get(0);
+            assertEquals("Cause 0-0", oldest.whatCause(), "Oldest event");
+            assertEquals(HistoricalEventType.MEDICAL_CURED, oldest.type(), "Oldest type");
+            assertNotNull(oldest.timestamp(), "Oldest time");
+
+            // New events carry on from the end
+            journal.append(event(HistoricalEventType.MEDICAL_DEATH, a, "Later", 25_000D));
+            assertEquals("Later", journal.query(JournalFilter.ALL, 0, 1).get(0).whatCause(), "Appended event");
+        }
+    }
+
+    @Test
+    void testTruncate() throws IOException {
+        var a = buildSettlement("Alpha");
+        var b = buildSettlement("Beta");
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            fill(journal, a, b);
+
+            // Back to the middle of sol 8
+            journal.truncateAfter(new MarsTime(7045D));
+            assertEquals(75, journal.size(), "Events after truncate");
+            assertEquals("Cause 7-4", journal.query(JournalFilter.ALL, 0, 1).get(0).whatCause(), "Newest after truncate");
+            assertEquals(0, journal.count(JournalFilter.ALL.withSols(9, 20)), "Later sols removed");
+
+            journal.append(event(HistoricalEventType.MEDICAL_DEATH, a, "Replayed", 7050D));
+            assertEquals(76, journal.size(), "Events after append");
+        }
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            assertEquals(76, journal.size(), "Events after reopen");
+            assertEquals(1, journal.count(JournalFilter.byType(HistoricalEventType.MEDICAL_DEATH)), "Replayed event");
+        }
+    }
+
+    @Test
+    void testFork() throws IOException {
+        var a = buildSettlement("Alpha");
+        var b = buildSettlement("Beta");
+        var forkDir = dir.resolve("fork");
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            fill(journal, a, b);
+
+            // Back to the middle of sol 8
+            var when = new MarsTime(7045D);
+            assertTrue(journal.hasEventsAfter(when), "Later events held");
+            try (var fork = journal.forkTo(forkDir, when)) {
+                assertEquals(75, fork.size(), "Events in the fork");
+                assertEquals("Cause 7-4", fork.query(JournalFilter.ALL, 0, 1).get(0).whatCause(), "Newest in the fork");
+                assertFalse(fork.hasEventsAfter(when), "No later events in the fork");
+
+                fork.append(event(HistoricalEventType.MEDICAL_DEATH, a, "Replayed", 7050D));
+                assertEquals(76, fork.size(), "Events after append");
+            }
+            assertEquals(200, journal.size(), "Original journal kept");
+        }
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            assertEquals(200, journal.size(), "Original after reopen");
+            assertEquals(0, journal.count(JournalFilter.byType(HistoricalEventType.MEDICAL_DEATH)), "Fork event not in the original");
+        }
+        try (var fork = EventJournal.open(forkDir, 5, 32)) {
+            assertEquals(76, fork.size(), "Fork after reopen");
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void testTruncateDeletesSegments() throws IOException {
+        var a = buildSettlement("Alpha");
+        var b = buildSettlement("Beta");
+
+        try (var journal = EventJournal.open(dir, 5, 32)) {
+            fill(journal, a, b);
+            journal.flush();
+            long before = countSegments();
+
+            // Back to sol 3 drops the later segments whilst they are open
+            journal.truncateAfter(new MarsTime(3000D));
+            assertEquals(31, journal.size(), "Events after truncate");
+            assertEquals(1, countSegments(), "Segments left");
+            assertNotEquals(before, countSegments(), "Segment files deleted");
+        }
+    }
+
+    @Test
+    void testJournalPerSimulation() {
+        var clock = getSim().getMasterClock();
+        var first = new HistoricalEventManager(clock);
+        var second = new HistoricalEventManager(clock);
+
+        assertNotNull(first.getJournalName(), "Journal named");
+        assertEquals(first.getJournalName(), first.getJournalName(), "Same journal for a simulation");
+        assertNotEquals(first.getJournalName(), second.getJournalName(), "Separate journal for each simulation");
+
+        String before = first.getJournalName();
+        assertEquals(first.forkJournal(), first.getJournalName(), "Forked name used");
+        assertNotEquals(before, first.getJournalName(), "Forked journal");
+    }
+}
@@ -1,8 +1,16 @@
 package com.mars_sim.core.events;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -151,5 +159,109 @@ public class TestScheduledEventManager extends MarsSimUnitTest  {
 			assertEquals(count, handler.counter, "Handler executuon count");
 		}
     }
+
+	@Test
+	public void testCancelEvent() {
+		TestHandler kept = new TestHandler("Kept", 0);
+		TestHandler cancelled = new TestHandler("Cancelled", 0);
+		mgr.addEvent(100, kept);
+		ScheduledEvent handle = mgr.addEvent(100, cancelled);
+		assertEquals(2, mgr.getEvents().size(), "All events queued");
+
+		assertTrue(mgr.removeEvent(handle), "Event cancelled");
+		assertFalse(handle.isScheduled(), "Handle not scheduled");
+		assertFalse(mgr.removeEvent(handle), "Event cancelled twice");
+		assertEquals(1, mgr.getEvents().size(), "Events after cancel");
+
+		mgr.timePassing(createPulse(clock.getMarsTime().addTime(200), false, false));
+		assertEquals(1, kept.counter, "Kept handler executed");
+		assertEquals(0, cancelled.counter, "Cancelled handler executed");
+	}
+
+	@Test
+	public void testRemoveFiredEventAfterLoad() throws IOException, ClassNotFoundException {
+		ScheduledEvent fired = mgr.addEvent(10, new TestHandler("Fired", 0));
+		mgr.addEvent(100, new TestHandler("Waiting", 0));
+		mgr.timePassing(createPulse(clock.getMarsTime().addTime(50), false, false));
+		assertFalse(fired.isScheduled(), "Fired handle");
+
+		// Write the handle before the manager as when it is held by a Transportable
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new Object[] {fired, mgr});
+		}
+		Object[] loaded;
+		try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			loaded = (Object[]) in.readObject();
+		}
+		var loadedFired = (ScheduledEvent) loaded[0];
+		var loadedMgr = (ScheduledEventManager) loaded[1];
+
+		assertFalse(loadedFired.isScheduled(), "Loaded fired handle");
+		assertFalse(loadedMgr.removeEvent(loadedFired), "Fired handle removed");
+		assertEquals(1, loadedMgr.getEvents().size(), "Events after remove");
+
+		var waiting = (TestHandler) loadedMgr.getEvents().get(0).getHandler();
+		loadedMgr.timePassing(createPulse(clock.getMarsTime().addTime(200), false, false));
+		assertEquals(1, waiting.counter, "Waiting handler executed");
+		assertTrue(loadedMgr.getEvents().isEmpty(), "All events executed");
+	}
+
+	@Test
+	public void testLongDelayEvents() {
+		// Durations that land in each level of the wheel and the overflow
+		int [] durations = {70_000_000, 2_000_000, 20_000, 300, 10};
+		List<TestHandler> handlers = new ArrayList<>();
+		for(int d : durations) {
+			TestHandler h = new TestHandler("Handler " + d, 0);
+			handlers.add(h);
+			mgr.addEvent(d, h);
+		}
+
+		// Check the view is in time order
+		List<ScheduledEvent> events = mgr.getEvents();
+		assertEquals(durations.length, events.size(), "All events queued");
+		for(int i = 1; i < events.size(); i++) {
+			assertTrue(events.get(i-1).compareTo(events.get(i)) <= 0, "Order of event #" + i);
+		}
+
+		MarsTime now = clock.getMarsTime();
+		for(int i = durations.length - 1; i >= 0; i--) {
+			// Just before the event
+			MarsTime before = now.addTime(durations[i] - 1D);
+			mgr.timePassing(createPulse(before, false, false));
+			assertEquals(0, handlers.get(i).counter, "Event " + durations[i] + " before due");
+			assertEquals(i + 1, events.size(), "Events before " + durations[i]);
+
+			mgr.timePassing(createPulse(now.addTime(durations[i]), false, false));
+			assertEquals(1, handlers.get(i).counter, "Event " + durations[i] + " when due");
+			assertEquals(i, events.size(), "Events after " + durations[i]);
+		}
+	}
+
+	@Test
+	public void testEventsInOrderWithinPulse() {
+		List<String> executed = new ArrayList<>();
+		mgr.addEvent(300, new TestHandler("Late", 0) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public int execute(MarsTime now) {
+				executed.add("Late");
+				return 0;
+			}
+		});
+		mgr.addEvent(5, new TestHandler("Early", 0) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public int execute(MarsTime now) {
+				executed.add("Early");
+				return 0;
+			}
+		});
+
+		// One pulse covering both events
+		mgr.timePassing(createPulse(clock.getMarsTime().addTime(400), false, false));
+		assertEquals(List.of("Early", "Late"), executed, "Order of execution");
+	}
 }
    
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import com.mars_sim.core.goods.GoodsManager.CommerceType;
 import com.mars_sim.core.resource.ItemResourceUtil;
 import com.mars_sim.core.resource.Part;
+import com.mars_sim.core.resource.ResourceUtil;
 import com.mars_sim.core.structure.Settlement;
 import com.mars_sim.core.test.MarsSimUnitTest;
 
@@ -91,4 +92,16 @@ class GoodsManagerTest extends MarsSimUnitTest {
         	assertNotEquals(initialDemand, newDemand, "Demand has changed after budget review");
         
     }
+
+    @Test
+    void testSnapshot() {
+        Good water = GoodsUtil.getGood(ResourceUtil.WATER_ID);
+        gm.setDemandScore(water, 10D);
+        var before = gm.getSnapshot();
+        assertEquals(10D, before.getDemandScore(water), "Snapshot demand");
+
+        gm.setDemandScore(water, 20D);
+        assertEquals(20D, gm.getDemandScore(water), "Live demand changed");
+        assertEquals(10D, before.getDemandScore(water), "Snapshot is unchanged");
+    }
 }
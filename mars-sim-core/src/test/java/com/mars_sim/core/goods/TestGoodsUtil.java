@@ -1,5 +1,6 @@
 package com.mars_sim.core.goods;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -69,4 +70,16 @@ class TestGoodsUtil {
 		Good falseRoverGood = GoodsUtil.getVehicleGood("False Rover");
 		assertNull(falseRoverGood, "Non-Existent Vehicle Good not found");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testGoodIndex() {
+		List<Good> goodsList = GoodsUtil.getGoodsList();
+		for (int i = 0; i < goodsList.size(); i++) {
+			Good g = goodsList.get(i);
+			assertEquals(i, GoodsUtil.getGoodIndex(g.getID()), "Index of " + g.getName());
+			assertEquals(g, GoodsUtil.getGoodAt(i), "Good at " + i);
+		}
+		assertEquals(-1, GoodsUtil.getGoodIndex(0), "Zero is not a good");
+		assertEquals(-1, GoodsUtil.getGoodIndex(Integer.MAX_VALUE), "Out of range id");
+	}
+}
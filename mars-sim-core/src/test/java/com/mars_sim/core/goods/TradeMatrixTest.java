@@ -0,0 +1,67 @@
+package com.mars_sim.core.goods;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.SimulationConfig;
+import com.mars_sim.core.resource.ResourceUtil;
+
+class TradeMatrixTest {
+
+    private Good oxygen;
+    private Good water;
+    private Good food;
+
+    @BeforeEach
+    void setUp() {
+        SimulationConfig config = SimulationConfig.loadConfig();
+
+        // Don't need a full GoodsManager initialisation
+        GoodsManager.initializeInstances(null, config, null, null);
+
+        oxygen = GoodsUtil.getGood(ResourceUtil.OXYGEN_ID);
+        water = GoodsUtil.getGood(ResourceUtil.WATER_ID);
+        food = GoodsUtil.getGood(ResourceUtil.FOOD_ID);
+    }
+
+    @Test
+    void testProfitableMatches() {
+        var matrix = new TradeMatrix();
+        Map<Good, ShoppingItem> buyList = Map.of(oxygen, new ShoppingItem(10, 5D),
+                                                water, new ShoppingItem(20, 1D),
+                                                food, new ShoppingItem(5, 3D));
+        Map<Good, ShoppingItem> sellList = Map.of(oxygen, new ShoppingItem(4, 2D),
+                                                water, new ShoppingItem(8, 2D));
+
+        var matches = matrix.getMatches(1, buyList, 2, sellList);
+
+        // Water costs more than the buyer pays and food is not sold
+        assertEquals(1, matches.size(), "Matches");
+        var match = matches.get(0);
+        assertEquals(oxygen, match.good(), "Matched good");
+        assertEquals(10, match.buy().quantity(), "Buy quantity");
+        assertEquals(4, match.sell().quantity(), "Sell quantity");
+    }
+
+    @Test
+    void testRebuiltWhenListsChange() {
+        var matrix = new TradeMatrix();
+        Map<Good, ShoppingItem> buyList = Map.of(oxygen, new ShoppingItem(10, 5D));
+        Map<Good, ShoppingItem> sellList = Map.of(oxygen, new ShoppingItem(4, 2D));
+
+        var first = matrix.getMatches(1, buyList, 2, sellList);
+        assertSame(first, matrix.getMatches(1, buyList, 2, sellList), "Reused while lists unchanged");
+        assertEquals(0, matrix.getMatches(2, sellList, 1, buyList).size(), "Reverse direction is separate");
+
+        Map<Good, ShoppingItem> newSellList = Map.of(oxygen, new ShoppingItem(4, 6D));
+        var second = matrix.getMatches(1, buyList, 2, newSellList);
+        assertNotSame(first, second, "Rebuilt after the seller changed");
+        assertEquals(0, second.size(), "Oxygen now too expensive");
+    }
+}
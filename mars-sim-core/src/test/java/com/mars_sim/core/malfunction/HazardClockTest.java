@@ -0,0 +1,58 @@
+package com.mars_sim.core.malfunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HazardClockTest {
+
+    private static final double RATE = 0.01;
+    private static final double DURATION = 200_000;
+
+    private static int countEvents(double pulseWidth) {
+        var clock = new HazardClock();
+        int events = 0;
+        for (double t = 0; t < DURATION; t += pulseWidth) {
+            if (clock.advance(RATE, pulseWidth)) {
+                events++;
+            }
+        }
+        return events;
+    }
+
+    @Test
+    void testIndependentOfPulseWidth() {
+        double expected = RATE * DURATION;
+
+        // About 4.5 standard deviations
+        assertEquals(expected, countEvents(0.1), expected * 0.1, "Small pulses");
+        assertEquals(expected, countEvents(5), expected * 0.1, "Large pulses");
+    }
+
+    @Test
+    void testNoHazard() {
+        var clock = new HazardClock();
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(clock.advance(0D, 10D), "No event without hazard");
+        }
+        assertEquals(Double.POSITIVE_INFINITY, clock.getTimeToEvent(0D), "Never happens");
+    }
+
+    @Test
+    void testTimeToEvent() {
+        var clock = new HazardClock();
+        double remaining = clock.getTimeToEvent(RATE);
+        assertTrue(remaining > 0, "Event in the future");
+
+        // Halfway there
+        assertFalse(clock.advance(RATE, remaining / 2), "Not yet");
+        assertEquals(remaining / 2, clock.getTimeToEvent(RATE), 1E-6, "Half remains");
+
+        // Doubling the rate halves the time
+        assertEquals(remaining / 4, clock.getTimeToEvent(RATE * 2), 1E-6, "Faster");
+
+        assertTrue(clock.advance(RATE, remaining), "Event occurs");
+    }
+}
@@ -0,0 +1,78 @@
+package com.mars_sim.core.malfunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.map.location.LocalPosition;
+import com.mars_sim.core.test.MarsSimUnitTest;
+import com.mars_sim.core.time.ClockPulse;
+import com.mars_sim.core.tool.RandomUtil;
+
+class MalfunctionManagerTest extends MarsSimUnitTest {
+
+    // A short wear life leaves the entity worn out so the malfunction chance is at its limit
+    private static final double WEAR_LIFE = 1000D;
+    private static final double DURATION = 200_000D;
+    private static final long SEED = 42L;
+
+    @AfterEach
+    void tearDown() {
+        MalfunctionManager.setEventSampling(false);
+        RandomUtil.setSeed(0L);
+    }
+
+    private MalfunctionManager buildManager(String name) {
+        var s = buildSettlement(name);
+        var b = buildBuilding(s.getBuildingManager(), new LocalPosition(0, 0), 0D);
+        var manager = new MalfunctionManager(b, WEAR_LIFE, 100D);
+        manager.addScopeString(Set.of("life support", "power generation"));
+        manager.initScopes();
+        return manager;
+    }
+
+    /**
+     * Runs a manager in active use for the whole duration in pulses of one width.
+     */
+    private int countMalfunctions(double pulseWidth) {
+        var manager = buildManager("Width " + pulseWidth);
+        var start = getSim().getMasterClock().getMarsTime();
+        int lastMSol = start.getMillisolInt();
+        int pulses = (int) (DURATION / pulseWidth);
+        for (int i = 1; i <= pulses; i++) {
+            var now = start.addTime(i * pulseWidth);
+            boolean newMSol = (now.getMillisolInt() != lastMSol);
+            lastMSol = now.getMillisolInt();
+            manager.activeTimePassing(new ClockPulse(i, pulseWidth, now, null, false, false, newMSol, false));
+        }
+        return manager.getMalfunctions().size();
+    }
+
+    @Test
+    void testSamplingMatchesPerPulse() {
+        RandomUtil.setSeed(SEED);
+        int perPulse = countMalfunctions(1D);
+        assertTrue(perPulse > 0, "Per pulse malfunctions");
+
+        MalfunctionManager.setEventSampling(true);
+        int sampled = countMalfunctions(1D);
+
+        // About 3 standard deviations of the difference
+        assertEquals(perPulse, sampled, perPulse * 0.2, "Sampled malfunctions");
+    }
+
+    @Test
+    void testSamplingIndependentOfPulseWidth() {
+        RandomUtil.setSeed(SEED);
+        MalfunctionManager.setEventSampling(true);
+
+        int small = countMalfunctions(0.5D);
+        int large = countMalfunctions(10D);
+        assertTrue(small > 0, "Sampled malfunctions");
+        assertEquals(small, large, small * 0.2, "Large pulses");
+    }
+}
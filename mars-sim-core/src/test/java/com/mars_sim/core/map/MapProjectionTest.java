@@ -0,0 +1,97 @@
+package com.mars_sim.core.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MapProjectionTest {
+
+    private static final int SOURCE_WIDTH = 720;
+    private static final int SOURCE_HEIGHT = 360;
+    private static final int SIZE = 200;
+
+    /**
+     * Source where every pixel has a unique value.
+     */
+    private static int[] createSource() {
+        int[] source = new int[SOURCE_WIDTH * SOURCE_HEIGHT];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = i + 1;
+        }
+        return source;
+    }
+
+    /**
+     * Renders a pixel the original way via the spherical conversion.
+     */
+    private static int legacyPixel(int[] source, int x, int y, double phi, double theta, double rho) {
+        var loc = IntegerMapData.convertRectIntToSpherical(x - SIZE/2, y - SIZE/2, phi, theta, rho);
+        double p = loc.phi();
+        double t = loc.theta();
+        if (Double.isNaN(p) || Double.isNaN(t)) {
+            return 0;
+        }
+        while (t > Math.PI * 2) {
+            t -= Math.PI * 2;
+        }
+        int row = Math.min((int) Math.round(p * (SOURCE_HEIGHT / Math.PI)), SOURCE_HEIGHT - 1);
+        int column = Math.clamp((int) Math.round(t * (SOURCE_WIDTH / (Math.PI * 2))), 1, SOURCE_WIDTH - 1);
+        return source[(row * SOURCE_WIDTH) + column];
+    }
+
+    private static int countMatches(int[] source, int[] image, double phi, double theta, double rho) {
+        int matches = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if (image[(y * SIZE) + x] == legacyPixel(source, x, y, phi, theta, rho)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Test
+    void testMatchesSphericalConversion() {
+        int[] source = createSource();
+        double rho = 80;
+        double phi = 1.2;
+        double theta = 0.7;
+
+        var projection = MapProjection.create(phi, rho, SIZE, SIZE, SOURCE_WIDTH, SOURCE_HEIGHT);
+        int[] image = new int[SIZE * SIZE];
+        projection.render(source, theta, image);
+
+        // Allow for rounding on the edge of a source pixel
+        int matches = countMatches(source, image, phi, theta, rho);
+        assertTrue(matches > (SIZE * SIZE * 0.999), "Pixels match the spherical conversion " + matches);
+        assertEquals(0, image[0], "Corner is off the globe");
+    }
+
+    @Test
+    void testLongitudeReuse() {
+        int[] source = createSource();
+        double rho = 150;
+        double phi = 0.4;
+
+        var projection = MapProjection.create(phi, rho, SIZE, SIZE, SOURCE_WIDTH, SOURCE_HEIGHT);
+        assertTrue(projection.matches(phi, rho, SIZE, SIZE), "Same view");
+        assertTrue(!projection.matches(phi + 0.1, rho, SIZE, SIZE), "Different latitude");
+
+        // Rendering another longitude is the same as a fresh projection
+        for (double theta : new double[] {0D, 2.5, 6.1}) {
+            int[] reused = new int[SIZE * SIZE];
+            projection.render(source, theta, reused);
+
+            int[] fresh = new int[SIZE * SIZE];
+            MapProjection.create(phi, rho, SIZE, SIZE, SOURCE_WIDTH, SOURCE_HEIGHT)
+                        .render(source, theta, fresh);
+            assertArrayEquals(fresh, reused, "Longitude " + theta);
+
+            int matches = countMatches(source, reused, phi, theta, rho);
+            assertTrue(matches > (SIZE * SIZE * 0.999), "Longitude " + theta + " matches " + matches);
+        }
+    }
+}
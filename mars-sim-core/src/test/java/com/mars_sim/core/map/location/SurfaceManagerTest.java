@@ -1,6 +1,18 @@
 package com.mars_sim.core.map.location;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -117,4 +129,95 @@ class SurfaceManagerTest {
             assertEquals(i+1, found.size(), "Slice #" + i);
         }
     }
+
+    @Test
+    void testGetFeatureExact() {
+        var mgr = new SurfaceManager<TestFeature>();
+        var first = new TestFeature(new Coordinates(1D, 2D));
+        mgr.addFeature(first);
+        mgr.addFeature(new TestFeature(new Coordinates(1D, 2D)));
+
+        assertSame(first, mgr.getFeature(new Coordinates(1D, 2D)), "First added is found");
+        assertNull(mgr.getFeature(new Coordinates(1D, 2.0001D)), "Nearby location is not exact");
+        assertEquals(2, mgr.size());
+    }
+
+    @Test
+    void testGetFeaturesAcrossDateLine() {
+        var mgr = new SurfaceManager<TestFeature>();
+        var center = new Coordinates(Math.PI/2, 0.001D);
+        mgr.addFeature(new TestFeature(new Coordinates(Math.PI/2, 2 * Math.PI - 0.01D)));
+        mgr.addFeature(new TestFeature(new Coordinates(Math.PI/2, 0.01D)));
+        mgr.addFeature(new TestFeature(new Coordinates(Math.PI/2, Math.PI)));
+
+        assertEquals(2, mgr.getFeatures(center, 0.05D).size(), "Features either side of the date line");
+    }
+
+    @Test
+    void testGetFeaturesMatchesScan() {
+        var mgr = new SurfaceManager<TestFeature>(16);
+        List<TestFeature> all = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            var f = new TestFeature(new Coordinates(RandomUtil.getRandomDouble(Math.PI),
+                                                    RandomUtil.getRandomDouble(2 * Math.PI)));
+            all.add(f);
+            mgr.addFeature(f);
+        }
+
+        for(int i = 0; i < 50; i++) {
+            var center = new Coordinates(RandomUtil.getRandomDouble(Math.PI),
+                                         RandomUtil.getRandomDouble(2 * Math.PI));
+            double angle = RandomUtil.getRandomDouble(0.5D);
+
+            long expected = all.stream().filter(f -> center.getAngle(f.getCoordinates()) <= angle).count();
+            assertEquals(expected, mgr.getFeatures(center, angle).size(), "Query #" + i);
+        }
+    }
+
+    @Test
+    void testGetNearest() {
+        var mgr = new SurfaceManager<TestFeature>();
+        List<TestFeature> all = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            var f = new TestFeature(new Coordinates(RandomUtil.getRandomDouble(Math.PI),
+                                                    RandomUtil.getRandomDouble(2 * Math.PI)));
+            all.add(f);
+            mgr.addFeature(f);
+        }
+
+        var center = new Coordinates(Math.PI/3, 1D);
+        var expected = all.stream()
+                        .sorted(Comparator.comparingDouble(f -> center.getAngle(f.getCoordinates())))
+                        .limit(5)
+                        .toList();
+        assertEquals(expected, mgr.getNearest(center, 5));
+        assertEquals(all.size(), mgr.getNearest(center, 1000).size(), "Limited to all features");
+    }
+
+    private record SavedFeature(Coordinates getCoordinates, String getName)
+                implements SurfacePOI, Serializable {}
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSerialisation() throws IOException, ClassNotFoundException {
+        var mgr = new SurfaceManager<SavedFeature>(8);
+        for(int i = 0; i < 50; i++) {
+            mgr.addFeature(new SavedFeature(new Coordinates(RandomUtil.getRandomDouble(Math.PI),
+                                                    RandomUtil.getRandomDouble(2 * Math.PI)), "F" + i));
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(mgr);
+        }
+        SurfaceManager<SavedFeature> loaded;
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (SurfaceManager<SavedFeature>) in.readObject();
+        }
+
+        assertEquals(mgr.size(), loaded.size(), "Loaded features");
+        assertEquals(8, loaded.getStats().length, "Rows kept");
+        var center = new Coordinates(Math.PI/3, 1D);
+        assertEquals(mgr.getNearest(center, 5), loaded.getNearest(center, 5), "Index rebuilt");
+    }
 }
@@ -363,4 +363,13 @@ class TestCoordinates {
         assertTrue(phiError8 < ERROR_MARGIN_RAD);
         assertTrue(thetaError8 < ERROR_MARGIN_RAD);
     }
+
+    @Test
+    void testNegativeZeroHash() {
+        var positive = new Coordinates(0D, 0D);
+        var negative = new Coordinates(-0D, -0D);
+
+        assertEquals(positive, negative, "Equal locations");
+        assertEquals(positive.hashCode(), negative.hashCode(), "Same hash");
+    }
 }
\ No newline at end of file
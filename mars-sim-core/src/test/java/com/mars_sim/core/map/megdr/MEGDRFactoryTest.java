@@ -1,6 +1,7 @@
 package com.mars_sim.core.map.megdr;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -16,6 +17,8 @@ class MEGDRFactoryTest {
                                     + MEGDRFactory.SEPARATOR + " " + MEGDRMapReader.DEFAULT_MEGDR_FILE);
         MEGDRMapReader arrayReader = MEGDRFactory.createReader(MEGDRFactory.ARRAY_READER
         						+ " " + MEGDRFactory.SEPARATOR  + MEGDRMapReader.DEFAULT_MEGDR_FILE + " ");
+        MEGDRMapReader mappedReader = MEGDRFactory.createReader(MEGDRFactory.MAPPED_READER
+                                    + MEGDRFactory.SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
         
         for (int i = 0; i < 1000; i++) {
             double phi = RandomUtil.getRandomDouble(Math.PI);
@@ -23,9 +26,75 @@ class MEGDRFactoryTest {
             short memoryElevation = memoryReader.getElevation(phi, theta);
             short directElevation = directReader.getElevation(phi, theta);
             short arrayElevation = arrayReader.getElevation(phi, theta);
+            short mappedElevation = mappedReader.getElevation(phi, theta);
 
             assertEquals(arrayElevation, directElevation, "Array & Direct elevation");
             assertEquals(arrayElevation, memoryElevation, "Array & Memory elevation");
+            assertEquals(arrayElevation, mappedElevation, "Array & Mapped elevation");
+        }
+    }
+
+    @Test
+    void testBatchElevation() {
+        MEGDRMapReader reader = MEGDRFactory.createReader(MEGDRFactory.MAPPED_READER
+                                    + MEGDRFactory.SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
+
+        int size = 100;
+        double[] phi = new double[size];
+        double[] theta = new double[size];
+        for (int i = 0; i < size; i++) {
+            phi[i] = RandomUtil.getRandomDouble(Math.PI);
+            theta[i] = RandomUtil.getRandomDouble(Math.PI * 2);
+        }
+        short[] result = new short[size];
+        reader.getElevations(phi, theta, result);
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(reader.getElevation(phi[i], theta[i]), result[i], "Batch elevation #" + i);
         }
     }
+
+    @Test
+    void testInterpolatedElevation() {
+        MEGDRMapReader reader = MEGDRFactory.createReader(MEGDRFactory.MAPPED_READER
+                                    + MEGDRFactory.SEPARATOR + MEGDRMapReader.DEFAULT_MEGDR_FILE);
+
+        int width = reader.getMapWidth();
+        int height = reader.getMapHeight();
+
+        // Find a cell where the corners differ so the midpoint is a real blend
+        int row = height / 3;
+        int col = width / 5;
+        while (reader.getElevation(row * width + col) == reader.getElevation((row + 1) * width + col + 1)) {
+            col++;
+        }
+
+        // On a grid point there is no interpolation
+        double[] corners = new double[4];
+        int i = 0;
+        for (int r = row; r <= row + 1; r++) {
+            for (int c = col; c <= col + 1; c++) {
+                corners[i] = reader.getElevation(r * width + c);
+                assertEquals(corners[i], reader.getInterpolatedElevation(rowToPhi(r, height), colToTheta(c, width)),
+                                0.001D, "Corner " + r + "," + c);
+                i++;
+            }
+        }
+
+        // The middle of the cell is the mean of the four corners
+        double mid = reader.getInterpolatedElevation(rowToPhi(row + 0.5D, height), colToTheta(col + 0.5D, width));
+        double mean = (corners[0] + corners[1] + corners[2] + corners[3]) / 4D;
+        assertEquals(mean, mid, 0.001D, "Cell midpoint");
+        double low = Math.min(Math.min(corners[0], corners[1]), Math.min(corners[2], corners[3]));
+        double high = Math.max(Math.max(corners[0], corners[1]), Math.max(corners[2], corners[3]));
+        assertTrue(low < mid && mid < high, "Midpoint between the samples");
+    }
+
+    private static double rowToPhi(double row, int height) {
+        return row * Math.PI / height;
+    }
+
+    private static double colToTheta(double col, int width) {
+        return col * Math.PI * 2 / width;
+    }
 }
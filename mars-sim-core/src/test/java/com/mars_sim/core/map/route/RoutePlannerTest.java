@@ -0,0 +1,104 @@
+package com.mars_sim.core.map.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.person.ai.mission.MissionUtil;
+
+class RoutePlannerTest {
+
+    private static final double RIDGE_WEST = Math.toRadians(10);
+    private static final double RIDGE_EAST = Math.toRadians(11);
+    private static final double PASS_NORTH = Math.toRadians(76);
+    private static final double PASS_SOUTH = Math.toRadians(77);
+
+    /**
+     * Flat plain with a high ridge running north to south that has a single pass.
+     */
+    private static void ridge(double[] phi, double[] theta, short[] result) {
+        for (int i = 0; i < phi.length; i++) {
+            boolean onRidge = (theta[i] > RIDGE_WEST) && (theta[i] < RIDGE_EAST);
+            boolean inPass = (phi[i] > PASS_NORTH) && (phi[i] < PASS_SOUTH);
+            result[i] = (short) (onRidge && !inPass ? 8000 : 0);
+        }
+    }
+
+    private static void flat(double[] phi, double[] theta, short[] result) {
+        // Elevation stays at zero
+    }
+
+    @Test
+    void testFlatRoute() {
+        var planner = new RoutePlanner(new SlopeCostGrid(RoutePlannerTest::flat));
+        var start = new Coordinates(Math.toRadians(80), Math.toRadians(5));
+        var end = new Coordinates(Math.toRadians(95), Math.toRadians(18));
+
+        var route = planner.plan(start, end);
+        assertFalse(route.direct(), "Route found");
+        assertEquals(start, route.waypoints().get(0), "Starts at start");
+        assertEquals(end, route.waypoints().get(route.waypoints().size() - 1), "Ends at end");
+        double straight = start.getDistance(end);
+        assertTrue(route.distance() >= straight * 0.99, "Not shorter than straight line");
+        assertTrue(route.distance() < straight * 1.1, "Close to straight line " + route.distance());
+        assertEquals(0D, route.ascent(), 0.001, "No climb");
+    }
+
+    @Test
+    void testAroundRidge() {
+        var planner = new RoutePlanner(new SlopeCostGrid(RoutePlannerTest::ridge));
+        var start = new Coordinates(Math.toRadians(80), Math.toRadians(5));
+        var end = new Coordinates(Math.toRadians(80), Math.toRadians(16));
+
+        var route = planner.plan(start, end);
+        assertFalse(route.direct(), "Route found");
+        assertEquals(0D, route.ascent(), 0.001, "Ridge is not climbed");
+        assertTrue(route.distance() > start.getDistance(end) * 1.1, "Detour through the pass");
+        assertTrue(route.waypoints().size() > 2, "Turns at the pass");
+
+        boolean throughPass = route.waypoints().stream()
+                    .anyMatch(c -> (c.getPhi() > PASS_NORTH) && (c.getPhi() < PASS_SOUTH));
+        assertTrue(throughPass, "Waypoint in the pass");
+    }
+
+    @Test
+    void testCorridorReused() {
+        var grid = new SlopeCostGrid(RoutePlannerTest::ridge);
+        var planner = new RoutePlanner(grid);
+        var start = new Coordinates(Math.toRadians(80), Math.toRadians(5));
+        var end = new Coordinates(Math.toRadians(80), Math.toRadians(16));
+
+        var first = planner.plan(start, end);
+        int tiles = grid.getLoadedTiles();
+        var second = planner.plan(start, end);
+
+        assertEquals(1, planner.getCorridors(), "One corridor");
+        assertEquals(tiles, grid.getLoadedTiles(), "No more tiles loaded");
+        assertEquals(first.waypoints(), second.waypoints(), "Same route");
+        assertSame(first.waypoints().get(1), second.waypoints().get(1), "Corridor waypoints shared");
+    }
+
+    @Test
+    void testNavPoints() {
+        var planner = new RoutePlanner(new SlopeCostGrid(RoutePlannerTest::ridge));
+        var start = new Coordinates(Math.toRadians(80), Math.toRadians(5));
+        var end = new Coordinates(Math.toRadians(80), Math.toRadians(16));
+
+        var route = planner.plan(start, end);
+        var navPoints = MissionUtil.createNavPoints(route);
+        assertEquals(route.waypoints().size() - 2, navPoints.size(), "Only the turns");
+
+        double distance = 0;
+        for (var p : navPoints) {
+            assertTrue(p.isWaypoint(), "Waypoint " + p);
+            distance += p.getPointToPointDistance();
+        }
+        var last = navPoints.get(navPoints.size() - 1).getLocation();
+        distance += last.getDistance(end);
+        assertEquals(route.distance(), distance, 1E-6, "Distance along the waypoints");
+    }
+}
@@ -0,0 +1,127 @@
+package com.mars_sim.core.metrics.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.metrics.MetricCategory;
+import com.mars_sim.core.metrics.MetricManager;
+import com.mars_sim.core.metrics.MetricManagerTest;
+
+@DisplayName("DatabaseMetricManager write-behind Tests")
+class DatabaseMetricManagerTest extends MetricManagerTest {
+    private static final MetricCategory LEVEL_CAT = new MetricCategory("Level", true);
+    private static final double DELTA = 1E-9;
+
+    @Override
+    protected MetricManager createMetricManager() {
+        return new DatabaseMetricManager(null, true);
+    }
+
+    @AfterEach
+    void closeManager() {
+        getManager().close();
+    }
+
+    private int countRows() {
+        var manager = (DatabaseMetricManager) getManager();
+        return manager.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM DATA_POINT", Integer.class);
+    }
+
+    private void advanceTime(double millisols) {
+        var clock = getSim().getMasterClock();
+        clock.setMarsTime(clock.getMarsTime().addTime(millisols));
+    }
+
+    @Test
+    @DisplayName("Points are held back until flushed")
+    void testPointsPending() {
+        var manager = (DatabaseMetricManager) getManager();
+        var writer = manager.getWriter();
+        assertNotNull(writer, "Write-behind writer");
+
+        var s = buildSettlement("Test");
+        manager.addValue(s, TEMP_CAT, "Average", 1D);
+        advanceTime(1D);
+        manager.addValue(s, TEMP_CAT, "Average", 2D);
+
+        assertEquals(2, writer.getPending(), "Points pending");
+
+        manager.flush();
+        assertEquals(0, writer.getPending(), "Nothing pending after flush");
+        assertEquals(2, countRows(), "Rows written");
+    }
+
+    @Test
+    @DisplayName("Points at the same time are coalesced before writing")
+    void testCoalesce() {
+        var manager = (DatabaseMetricManager) getManager();
+        var writer = manager.getWriter();
+        var s = buildSettlement("Test");
+
+        // Summed category adds the values at the same time
+        manager.addValue(s, TEMP_CAT, "Total", 1D);
+        manager.addValue(s, TEMP_CAT, "Total", 2D);
+        manager.addValue(s, TEMP_CAT, "Total", 3D);
+
+        // Absolute category keeps the last value at the same time
+        manager.addValue(s, LEVEL_CAT, "Current", 1D);
+        manager.addValue(s, LEVEL_CAT, "Current", 5D);
+
+        assertEquals(5, writer.getPending(), "Every recorded value is pending");
+        manager.flush();
+        assertEquals(0, writer.getPending(), "Nothing pending after flush");
+        assertEquals(2, countRows(), "One row per metric and time");
+
+        var total = manager.getMetric(s, TEMP_CAT, "Total");
+        assertEquals(1, total.getSize(), "Total points");
+        assertEquals(6D, total.getDataPoint(0).getValue(), DELTA, "Total value");
+
+        var current = manager.getMetric(s, LEVEL_CAT, "Current");
+        assertEquals(1, current.getSize(), "Current points");
+        assertEquals(5D, current.getDataPoint(0).getValue(), DELTA, "Current value");
+    }
+
+    @Test
+    @DisplayName("Points recorded after a flush are merged with the written ones")
+    void testMergeAfterFlush() {
+        var manager = getManager();
+        var s = buildSettlement("Test");
+
+        manager.addValue(s, TEMP_CAT, "Total", 4D);
+        manager.addValue(s, LEVEL_CAT, "Current", 4D);
+        manager.flush();
+
+        manager.addValue(s, TEMP_CAT, "Total", 3D);
+        manager.addValue(s, LEVEL_CAT, "Current", 3D);
+        advanceTime(1D);
+        manager.addValue(s, TEMP_CAT, "Total", 2D);
+
+        // Queries see the pending points
+        var total = manager.getMetric(s, TEMP_CAT, "Total");
+        assertEquals(2, total.getSize(), "Total points");
+        assertEquals(7D, total.getDataPoint(0).getValue(), DELTA, "Total accumulated");
+        assertEquals(2D, total.getDataPoint(1).getValue(), DELTA, "Total later");
+
+        var current = manager.getMetric(s, LEVEL_CAT, "Current");
+        assertEquals(1, current.getSize(), "Current points");
+        assertEquals(3D, current.getDataPoint(0).getValue(), DELTA, "Current replaced");
+    }
+
+    @Test
+    @DisplayName("Close writes the pending points and stops the writer")
+    void testClose() {
+        var manager = (DatabaseMetricManager) getManager();
+        var s = buildSettlement("Test");
+        manager.addValue(s, TEMP_CAT, "Average", 1D);
+
+        manager.close();
+
+        assertNull(manager.getWriter(), "Writer stopped");
+        assertEquals(1, countRows(), "Pending point written");
+    }
+}
@@ -0,0 +1,169 @@
+package com.mars_sim.core.resourceprocess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.mars_sim.core.building.BuildingCategory;
+import com.mars_sim.core.building.function.FunctionType;
+import com.mars_sim.core.map.location.LocalPosition;
+import com.mars_sim.core.structure.Settlement;
+import com.mars_sim.core.test.MarsSimUnitTest;
+
+class ResourceFlowSolverTest extends MarsSimUnitTest {
+
+    private static final double DELTA = 1E-9;
+    private static final double STOCK = 1000D;
+    // Pulse widths that reach a check with time left over to move resources
+    private static final double[] PULSES = {2D, 2D, 2D, 2D, 1D};
+
+    @AfterEach
+    void disableSolver() {
+        ResourceFlowSolver.setEnabled(false);
+    }
+
+    @Test
+    void testEnoughForAll() {
+        double[][] consume = {{2, 0}, {3, 0}};
+        double[][] produce = {{0, 1}, {0, 1}};
+
+        var share = ResourceFlowSolver.allocate(consume, produce, new double[] {10, 0}, new double[] {0, 10});
+        assertEquals(1D, share[0], DELTA, "First runs fully");
+        assertEquals(1D, share[1], DELTA, "Second runs fully");
+    }
+
+    @Test
+    void testSharedShortage() {
+        double[][] consume = {{10}, {30}};
+        double[][] produce = {{0}, {0}};
+        double[] stored = {20};
+
+        var share = ResourceFlowSolver.allocate(consume, produce, stored, new double[] {0});
+        assertEquals(0.5D, share[0], DELTA, "First gets half");
+        assertEquals(0.5D, share[1], DELTA, "Second gets half");
+
+        // Order of the processes makes no difference
+        double[][] reversed = {{30}, {10}};
+        var other = ResourceFlowSolver.allocate(reversed, produce, stored, new double[] {0});
+        assertEquals(share[0], other[1], DELTA, "Same share for first");
+        assertEquals(share[1], other[0], DELTA, "Same share for second");
+    }
+
+    @Test
+    void testOutputCapacity() {
+        double[][] consume = {{0}};
+        double[][] produce = {{10}};
+
+        var share = ResourceFlowSolver.allocate(consume, produce, new double[] {0}, new double[] {4});
+        assertEquals(0.4D, share[0], DELTA, "Limited by room left");
+    }
+
+    @Test
+    void testOutputConsumedInSameCheck() {
+        // First makes water that the second uses
+        double[][] consume = {{0}, {6}};
+        double[][] produce = {{10}, {0}};
+
+        var share = ResourceFlowSolver.allocate(consume, produce, new double[] {6}, new double[] {4});
+        assertEquals(1D, share[0], DELTA, "Room made by the consumer");
+        assertEquals(1D, share[1], DELTA, "Consumer runs fully");
+    }
+
+    @Test
+    void testCutConsumerReducesRoom() {
+        // First makes water that the second uses but the second has no room for its own output
+        double[][] consume = {{0, 0}, {6, 0}};
+        double[][] produce = {{10, 0}, {0, 1}};
+
+        var share = ResourceFlowSolver.allocate(consume, produce, new double[] {6, 0}, new double[] {4, 0});
+        assertEquals(0D, share[1], DELTA, "Consumer has no room");
+        assertEquals(0.4D, share[0], DELTA, "Producer limited to the room left");
+    }
+
+    private ResourceProcess buildProcess(Settlement s, boolean stocked) {
+        var b = buildFunction(s.getBuildingManager(), "ERV-I", BuildingCategory.PROCESSING,
+                            FunctionType.RESOURCE_PROCESSING, LocalPosition.DEFAULT_POSITION, 0D, true);
+        var p = b.getResourceProcessing().getProcesses().get(0);
+        p.setProcessRunning(true);
+
+        var inv = s.getEquipmentInventory();
+        inv.setCargoCapacity(STOCK * 10);
+        if (stocked) {
+            for (int r : p.getInputResources()) {
+                if (!p.isAmbientInputResource(r)) {
+                    inv.storeAmountResource(r, STOCK);
+                }
+            }
+        }
+        return p;
+    }
+
+    private void runToCheck(ResourceProcess p) {
+        for (double width : PULSES) {
+            p.processResources(createPulse(width), 1D, 0D);
+        }
+    }
+
+    @Test
+    void testMatchesProcessPath() {
+        var serialHome = buildSettlement("Serial", true);
+        var serial = buildProcess(serialHome, true);
+        runToCheck(serial);
+
+        ResourceFlowSolver.setEnabled(true);
+        var solvedHome = buildSettlement("Solved", true);
+        var solved = buildProcess(solvedHome, true);
+        runToCheck(solved);
+
+        assertTrue(solved.isFlowPending(), "Check waiting for the solver");
+        assertTrue(solved.getFlowDuration() > 0D, "Time to move resources");
+        var solvedInv = solvedHome.getEquipmentInventory();
+        for (int r : solved.getInputResources()) {
+            if (!solved.isAmbientInputResource(r)) {
+                assertEquals(STOCK, solvedInv.getSpecificAmountResourceStored(r), DELTA, "Nothing moved yet");
+            }
+        }
+
+        new ResourceFlowSolver(solvedHome).solve();
+
+        assertFalse(solved.isFlowPending(), "Check completed");
+        assertTrue(solved.isProcessRunning(), "Still running");
+        var serialInv = serialHome.getEquipmentInventory();
+        boolean moved = false;
+        for (int r : solved.getInputResources()) {
+            if (!solved.isAmbientInputResource(r)) {
+                double left = solvedInv.getSpecificAmountResourceStored(r);
+                assertEquals(serialInv.getSpecificAmountResourceStored(r), left, DELTA, "Input " + r);
+                moved |= (left < STOCK);
+            }
+        }
+        for (int r : solved.getOutputResources()) {
+            if (!solved.isWasteOutputResource(r)) {
+                assertEquals(serialInv.getSpecificAmountResourceStored(r),
+                            solvedInv.getSpecificAmountResourceStored(r), DELTA, "Output " + r);
+            }
+        }
+        assertTrue(moved, "Inputs consumed");
+    }
+
+    @Test
+    void testMissingInputStopsProcess() {
+        ResourceFlowSolver.setEnabled(true);
+        var home = buildSettlement("Empty", true);
+        var p = buildProcess(home, false);
+        runToCheck(p);
+        assertTrue(p.isFlowPending(), "Check waiting for the solver");
+
+        new ResourceFlowSolver(home).solve();
+
+        assertFalse(p.isFlowPending(), "Check completed");
+        assertFalse(p.isProcessRunning(), "Stopped without inputs");
+        var inv = home.getEquipmentInventory();
+        for (int r : p.getOutputResources()) {
+            assertEquals(0D, inv.getSpecificAmountResourceStored(r), DELTA, "Nothing made");
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.mars_sim.core.time;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -114,6 +121,164 @@ public class MasterClockTest {
         clock.stop();
     }
 
+    @Test
+    void testRunBatch() {
+        var clock = new MasterClock(config, 1, null);
+
+        var baseline = new TestClockPulseListener();
+        clock.addClockPulseListener(baseline);
+        double[] widths = {Double.MAX_VALUE, 0};
+        clock.addClockPulseListener(p -> {
+            widths[0] = Math.min(widths[0], p.getElapsed());
+            widths[1] = Math.max(widths[1], p.getElapsed());
+        });
+
+        int startSol = clock.getMarsTime().getMissionSol();
+        var stats = clock.runBatch(5D, 1);
+
+        assertEquals(startSol + 1, clock.getMarsTime().getMissionSol(), "Sol completed");
+        assertEquals(stats.pulses(), baseline.lastPulse, "All pulses delivered");
+        assertFalse(baseline.doublePulse, "Double pulse detected");
+        assertFalse(baseline.missedPulse, "Missed pulse detected");
+        assertEquals(5D, widths[0], 0.0001, "Minimum pulse width");
+        assertEquals(5D, widths[1], 0.0001, "Maximum pulse width");
+        assertTrue(stats.getPulsesPerSecond() > 0, "Pulse rate");
+
+        // Pausing and resuming must not restart the paced clock
+        long lastPulse = clock.getNextPulse();
+        clock.setPaused(true);
+        clock.setPaused(false);
+        assertFalse(clock.isClockThreadStarted(), "Paced clock not started");
+        assertEquals(lastPulse, clock.getNextPulse(), "No pulses after the batch");
+        clock.shutdown();
+    }
+
+    private static class PhaseListener implements ClockPulseListener {
+        private final ClockPhase phase;
+        private final long[] lastPhasePulse;
+        boolean outOfOrder = false;
+
+        PhaseListener(ClockPhase phase, long[] lastPhasePulse) {
+            this.phase = phase;
+            this.lastPhasePulse = lastPhasePulse;
+        }
+
+        @Override
+        public void clockPulse(ClockPulse currentPulse) {
+            // Every earlier phase must have seen this pulse
+            for (int i = 0; i < phase.ordinal(); i++) {
+                if (lastPhasePulse[i] != currentPulse.getId()) {
+                    outOfOrder = true;
+                }
+            }
+            lastPhasePulse[phase.ordinal()] = currentPulse.getId();
+        }
+
+        @Override
+        public ClockPhase getClockPhase() {
+            return phase;
+        }
+    }
+
+    @Test
+    void testListenerPhases() {
+        var clock = new MasterClock(config, 1, null);
+
+        long[] lastPhasePulse = new long[ClockPhase.values().length];
+        var display = new PhaseListener(ClockPhase.DISPLAY, lastPhasePulse);
+        var simulation = new PhaseListener(ClockPhase.SIMULATION, lastPhasePulse);
+        var environment = new PhaseListener(ClockPhase.ENVIRONMENT, lastPhasePulse);
+        var other = new TestClockPulseListener();
+
+        // Add out of order
+        clock.addClockPulseListener(display);
+        clock.addClockPulseListener(simulation);
+        clock.addClockPulseListener(other);
+        clock.addClockPulseListener(environment);
+
+        var stats = clock.runBatch(5D, 1);
+
+        assertFalse(display.outOfOrder, "Display after earlier phases");
+        assertFalse(simulation.outOfOrder, "Simulation after environment");
+        assertEquals(stats.pulses(), lastPhasePulse[ClockPhase.DISPLAY.ordinal()], "Display saw every pulse");
+
+        var timings = clock.getListenerTimings();
+        assertEquals(4, timings.size(), "Timings for each listener");
+        assertEquals(ClockPhase.ENVIRONMENT, timings.get(0).phase(), "First phase");
+        assertEquals(ClockPhase.DISPLAY, timings.get(3).phase(), "Last phase");
+        assertEquals(stats.pulses(), timings.get(0).pulses(), "Pulses timed");
+
+        clock.removeClockPulseListener(other);
+        assertEquals(3, clock.getListenerTimings().size(), "Listener removed");
+        clock.shutdown();
+    }
+
+    /**
+     * Waits for the other listener of the phase at every pulse so it only finishes if
+     * both are called at the same time.
+     */
+    private static class OverlapListener implements ClockPulseListener {
+        private final CyclicBarrier together;
+        private final AtomicInteger finished;
+        boolean overlapped = true;
+
+        OverlapListener(CyclicBarrier together, AtomicInteger finished) {
+            this.together = together;
+            this.finished = finished;
+        }
+
+        @Override
+        public void clockPulse(ClockPulse currentPulse) {
+            try {
+                together.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                overlapped = false;
+            } catch (BrokenBarrierException | TimeoutException e) {
+                overlapped = false;
+            }
+            finished.incrementAndGet();
+        }
+    }
+
+    @Test
+    void testPhaseListenersOverlap() {
+        var clock = new MasterClock(config, 1, null);
+
+        var together = new CyclicBarrier(2);
+        var finished = new AtomicInteger();
+        var first = new OverlapListener(together, finished);
+        var second = new OverlapListener(together, finished);
+        int[] displayed = {0};
+        boolean[] early = {false};
+
+        clock.addClockPulseListener(first);
+        clock.addClockPulseListener(second);
+        clock.addClockPulseListener(new ClockPulseListener() {
+            @Override
+            public void clockPulse(ClockPulse currentPulse) {
+                // Both simulation listeners have finished this pulse
+                displayed[0]++;
+                if (finished.get() != 2 * displayed[0]) {
+                    early[0] = true;
+                }
+            }
+
+            @Override
+            public ClockPhase getClockPhase() {
+                return ClockPhase.DISPLAY;
+            }
+        });
+
+        var stats = clock.runBatch(5D, 1);
+
+        assertTrue(first.overlapped, "First listener ran with the second");
+        assertTrue(second.overlapped, "Second listener ran with the first");
+        assertFalse(early[0], "Display waited for the simulation phase");
+        assertEquals(stats.pulses(), displayed[0], "Display saw every pulse");
+        clock.shutdown();
+    }
+
     private static void waitForPulses(MasterClock clock) {
         long startPulse = clock.getNextPulse();
         int attempts = 5;
@@ -0,0 +1,69 @@
+package com.mars_sim.core.tool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelGzipBufferTest {
+
+    private static byte[] unzip(byte[] data) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testBlocksReadAsOneStream() throws IOException {
+        byte[] source = new byte[10_000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) (i % 251);
+        }
+
+        var buffer = new ParallelGzipBuffer(1000);
+        buffer.write(source, 0, 2500);
+        buffer.write(source[2500]);
+        buffer.write(source, 2501, source.length - 2501);
+        assertEquals(source.length, buffer.size(), "Size");
+        assertEquals(10, buffer.getBlockCount(), "Blocks");
+
+        var out = new ByteArrayOutputStream();
+        long written = buffer.writeGzip(out, ForkJoinPool.commonPool());
+        assertEquals(out.size(), written, "Compressed size");
+        assertArrayEquals(source, unzip(out.toByteArray()), "Content");
+    }
+
+    @Test
+    void testObjectStream() throws IOException, ClassNotFoundException {
+        List<String> shared = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            shared.add("Value " + i);
+        }
+
+        var buffer = new ParallelGzipBuffer(4096);
+        try (var oos = new ObjectOutputStream(buffer)) {
+            oos.writeObject(shared);
+            oos.writeObject(shared);
+        }
+        var out = new ByteArrayOutputStream();
+        buffer.writeGzip(out, Runnable::run);
+
+        try (var ois = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+            Object first = ois.readObject();
+            Object second = ois.readObject();
+            assertEquals(shared, first, "Read back");
+            assertSame(first, second, "Shared reference");
+        }
+    }
+}
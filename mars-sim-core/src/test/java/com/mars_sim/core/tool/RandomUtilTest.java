@@ -1,7 +1,12 @@
 package com.mars_sim.core.tool;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 class RandomUtilTest {
@@ -29,4 +34,57 @@ class RandomUtilTest {
             assertTrue(rand >= 2 && rand <= 10, "Within range");
     	}
     }
+
+    @AfterEach
+    void tearDown() {
+        RandomUtil.setSeed(0L);
+    }
+
+    private static int[] drawInStream(int key) {
+        var previous = RandomUtil.enterStream(key);
+        try {
+            int[] result = new int[20];
+            Arrays.setAll(result, i -> RandomUtil.getRandomInt(1000));
+            return result;
+        }
+        finally {
+            RandomUtil.exitStream(previous);
+        }
+    }
+
+    @Test
+    void testSeededStreams() {
+        RandomUtil.setSeed(42L);
+        assertTrue(RandomUtil.isSeeded(), "Seeded");
+        var first = drawInStream(1);
+        var second = drawInStream(2);
+        assertFalse(Arrays.equals(first, second), "Streams are independent");
+
+        // Same seed replays the same sequence regardless of the order streams are used
+        RandomUtil.setSeed(42L);
+        assertArrayEquals(second, drawInStream(2), "Stream 2 replayed");
+        assertArrayEquals(first, drawInStream(1), "Stream 1 replayed");
+    }
+
+    @Test
+    void testSeededThreads() throws InterruptedException {
+        RandomUtil.setSeed(7L);
+        var expected = drawInStream(3);
+
+        RandomUtil.setSeed(7L);
+        int[][] actual = new int[1][];
+        var t = new Thread(() -> actual[0] = drawInStream(3));
+        t.start();
+        t.join();
+        assertArrayEquals(expected, actual[0], "Stream is independent of thread");
+    }
+
+    @Test
+    void testUnseeded() {
+        assertFalse(RandomUtil.isSeeded(), "Not seeded");
+        var previous = RandomUtil.enterStream(1);
+        RandomUtil.exitStream(previous);
+        int rand = RandomUtil.getRandomInt(5);
+        assertTrue(rand >= 0 && rand <= 5, "Within range");
+    }
 }
@@ -39,6 +39,11 @@ public class MarsProjectHeadless {
     private static final String DISPLAYHELP = "help";
     private static final String RESETADMIN = "resetadmin";
     private static final String LOAD_ARG = "load";
+    private static final String BATCH_ARG = "batch";
+    private static final String PULSE_ARG = "pulse";
+
+    /** Default millisols covered by each pulse of a batch run. */
+    private static final double DEFAULT_BATCH_PULSE = 1D;
 
     /** initialized logger for this class. */
     private static final Logger logger = Logger.getLogger(MarsProjectHeadless.class.getName());
@@ -71,6 +76,8 @@ public class MarsProjectHeadless {
 
         boolean startServer = true;
         int serverPort = 18080;
+        int batchSols = 0;
+        double batchPulse = DEFAULT_BATCH_PULSE;
 
         SimulationBuilder builder = new SimulationBuilder();
 
@@ -92,6 +99,10 @@ public class MarsProjectHeadless {
         options.addOptionGroup(remoteGrp);
         options.addOption(Option.builder(RESETADMIN)
                 .desc("Reset the internal admin password").get());
+        options.addOption(Option.builder(BATCH_ARG).argName("sols").hasArg()
+                .desc("Run the number of sols as fast as possible, save and exit").get());
+        options.addOption(Option.builder(PULSE_ARG).argName("millisols").hasArg()
+                .desc("Millisols covered by each pulse of a batch run [default " + DEFAULT_BATCH_PULSE + "]").get());
 
         CommandLineParser commandline = new DefaultParser();
         boolean resetAdmin = false;
@@ -123,6 +134,13 @@ public class MarsProjectHeadless {
                 }
                 builder.setSimFile(simFile);
             }
+            if (line.hasOption(BATCH_ARG)) {
+                batchSols = Integer.parseInt(line.getOptionValue(BATCH_ARG));
+                startServer = false;
+            }
+            if (line.hasOption(PULSE_ARG)) {
+                batchPulse = Double.parseDouble(line.getOptionValue(PULSE_ARG));
+            }
         }
         catch (Exception e1) {
             usage("Problem with arguments: " + e1.getMessage(), options);
@@ -133,6 +151,10 @@ public class MarsProjectHeadless {
             // Build and run the simulator
             var sim = builder.start(null);
 
+            if (batchSols > 0) {
+                runBatch(sim, batchPulse, batchSols);
+            }
+
 			logger.config("Starting the Master Clock...");		
 			sim.startClock(false);
 
@@ -148,6 +170,23 @@ public class MarsProjectHeadless {
         return true;
     }
 
+    /**
+     * Runs the simulation unpaced for a number of sols, saves it and exits.
+     *
+     * @param sim
+     * @param pulseWidth Millisols in each pulse
+     * @param sols
+     */
+    private void runBatch(Simulation sim, double pulseWidth, int sols) {
+        var stats = sim.runBatch(pulseWidth, sols);
+        logger.info(String.format("Batch of %d sols ran %d pulses in %.1f s: %.0f pulses/s, %.2f sols/min",
+                sols, stats.pulses(), stats.elapsedMillisec() / 1000D,
+                stats.getPulsesPerSecond(), stats.getSolsPerMinute()));
+
+        sim.endSimulation();
+        System.exit(0);
+    }
+
     private void usage(String message, Options options) {
         // New non-deprecated HelpFormatter (Commons CLI 1.10+)
         final HelpFormatter fmt = HelpFormatter.builder().get();
@@ -0,0 +1,149 @@
+/*
+ * Mars Simulation Project
+ * MapProjectionBenchmark.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.tools.perf;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import com.mars_sim.core.map.IntegerMapData;
+import com.mars_sim.core.map.MapPoint;
+import com.mars_sim.core.map.MapProjection;
+
+/**
+ * Command line utility that compares the CPU map rendering of {@link MapProjection} against
+ * the original per pixel spherical conversion for a range of zoom levels.
+ * Each zoom level reports the original renderer, a new projection and a reused projection
+ * after panning east-west.
+ * Usage: MapProjectionBenchmark [image size] [source width]
+ */
+public final class MapProjectionBenchmark {
+
+	private static final int DEFAULT_SIZE = 1024;
+	private static final int DEFAULT_SOURCE_WIDTH = 2880;
+	/** Globe radius as a fraction of the image size. */
+	private static final double[] ZOOMS = {0.25, 0.5, 1D, 2D, 4D};
+	private static final int REPEATS = 5;
+	private static final double TWO_PI = Math.PI * 2D;
+
+	/**
+	 * The original CPU renderer of IntegerMapData using a 2D source array.
+	 */
+	private static final class LegacyRenderer {
+		private final int[][] colorPixels;
+
+		LegacyRenderer(int[][] colorPixels) {
+			this.colorPixels = colorPixels;
+		}
+
+		void cpu0(double centerPhi, double centerTheta, int mapBoxWidth, int mapBoxHeight, double rho, int[] mapArray) {
+			int halfWidth = mapBoxWidth / 2;
+			int halfHeight = mapBoxHeight / 2;
+
+			for(int y = 0; y < mapBoxHeight; y++) {
+				for(int x = 0; x < mapBoxWidth; x++) {
+					int index = x + (y * mapBoxWidth);
+					MapPoint loc = IntegerMapData.convertRectIntToSpherical(x - halfWidth, y - halfHeight, centerPhi, centerTheta, rho);
+					mapArray[index] = getRGBColorInt(loc.phi(), loc.theta());
+				}
+			}
+		}
+
+		int getRGBColorInt(double phi, double theta) {
+			if (Double.isNaN(phi) || Double.isInfinite(phi) || Double.isNaN(theta) || Double.isInfinite(theta)) {
+				return 0;
+			}
+			while (phi > Math.PI)
+				phi -= Math.PI;
+			while (phi < 0)
+				phi += Math.PI;
+			while (theta > TWO_PI)
+				theta -= TWO_PI;
+			while (theta < 0)
+				theta += TWO_PI;
+
+			int row = (int) Math.round(phi * (colorPixels.length / Math.PI));
+			if (row >= colorPixels.length) {
+				row = colorPixels.length - 1;
+			}
+			int column = (int) Math.round(theta * (colorPixels[0].length / TWO_PI));
+			if (column <= 0) {
+				column = 1;
+			}
+			else if (column >= colorPixels[0].length) {
+				column = colorPixels[0].length - 1;
+			}
+			return colorPixels[row][column];
+		}
+	}
+
+	private MapProjectionBenchmark() {
+		// Utility class.
+	}
+
+	public static void main(String[] args) {
+		int size = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE);
+		int sourceWidth = (args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SOURCE_WIDTH);
+		run(size, sourceWidth, System.out);
+	}
+
+	/**
+	 * Runs the benchmark for each zoom level.
+	 *
+	 * @param size Width and height of the rendered image
+	 * @param sourceWidth Width of the cylindrical source map
+	 * @param out Destination of the report
+	 */
+	static void run(int size, int sourceWidth, PrintStream out) {
+		int sourceHeight = sourceWidth / 2;
+		var rnd = new SplittableRandom(sourceWidth);
+		int[] flat = new int[sourceWidth * sourceHeight];
+		Arrays.setAll(flat, i -> rnd.nextInt());
+		int[][] rows = new int[sourceHeight][];
+		for (int r = 0; r < sourceHeight; r++) {
+			rows[r] = Arrays.copyOfRange(flat, r * sourceWidth, (r + 1) * sourceWidth);
+		}
+		var legacy = new LegacyRenderer(rows);
+		int[] image = new int[size * size];
+		double phi = 1.1;
+
+		out.println(String.format(Locale.ENGLISH, "Image %dx%d, source %dx%d, %d processors",
+						size, size, sourceWidth, sourceHeight, Runtime.getRuntime().availableProcessors()));
+		out.println("    Rho | cpu0 ms | New ms | Pan ms | Speedup");
+		for (double zoom : ZOOMS) {
+			double rho = zoom * size;
+
+			double original = time(t -> legacy.cpu0(phi, t, size, size, rho, image));
+			double created = time(t -> MapProjection.create(phi, rho, size, size, sourceWidth, sourceHeight)
+												.render(flat, t, image));
+			var projection = MapProjection.create(phi, rho, size, size, sourceWidth, sourceHeight);
+			double panned = time(t -> projection.render(flat, t, image));
+
+			out.println(String.format(Locale.ENGLISH, "%7.0f | %7.2f | %6.2f | %6.2f | %7.1f",
+							rho, original, created, panned, original / created));
+		}
+	}
+
+	@FunctionalInterface
+	private interface Render {
+		void render(double theta);
+	}
+
+	/**
+	 * Times a render at different longitudes and returns the average milliseconds.
+	 */
+	private static double time(Render op) {
+		// Warm up
+		op.render(0D);
+		long start = System.nanoTime();
+		for (int i = 0; i < REPEATS; i++) {
+			op.render(i * 0.3);
+		}
+		return (System.nanoTime() - start) / 1_000_000D / REPEATS;
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Mars Simulation Project
+ * MicroInventoryFootprint.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.tools.perf;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import com.mars_sim.core.equipment.ResourceTable;
+
+/**
+ * Command line utility that compares the heap used by the resource storage of
+ * {@link com.mars_sim.core.equipment.MicroInventory} against the original layout of three
+ * HashMaps with a boxed key and a holder object per resource.
+ * The population follows the shape of a large simulation: mostly suits and containers
+ * holding a few resources plus some vehicles and robots holding many amounts and parts.
+ * Usage: MicroInventoryFootprint [inventory count]
+ */
+public final class MicroInventoryFootprint {
+
+	private static final int DEFAULT_INVENTORIES = 50_000;
+	private static final int FIRST_ITEM_ID = 2048;
+	private static final int AMOUNT_TYPES = 300;
+	private static final int ITEM_TYPES = 600;
+
+	/**
+	 * One inventory in the population.
+	 */
+	private record Profile(int amounts, int stock, int items) {}
+
+	/**
+	 * The original storage layout of MicroInventory.
+	 */
+	private static final class MapLayout {
+
+		static final class AmountStored {
+			double capacity;
+			double storedAmount;
+		}
+
+		static final class ItemStored {
+			int quantity;
+			double massPerItem;
+			double totalMass;
+		}
+
+		final Map<Integer, Double> stockAmountStorage = new HashMap<>();
+		final Map<Integer, AmountStored> specificAmountStorage = new HashMap<>();
+		final Map<Integer, ItemStored> itemStorage = new HashMap<>();
+	}
+
+	private MicroInventoryFootprint() {
+		// Utility class.
+	}
+
+	public static void main(String[] args) {
+		int count = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_INVENTORIES);
+		run(count, System.out);
+	}
+
+	/**
+	 * Builds the same population with both layouts and reports the retained heap.
+	 *
+	 * @param count Number of inventories
+	 * @param out Destination of the report
+	 */
+	static void run(int count, PrintStream out) {
+		var rnd = new SplittableRandom(count);
+		var profiles = new ArrayList<Profile>(count);
+		long resources = 0;
+		for (int i = 0; i < count; i++) {
+			var p = nextProfile(rnd);
+			profiles.add(p);
+			resources += p.amounts() + p.stock() + p.items();
+		}
+
+		long maps = measure(() -> buildMaps(profiles, new SplittableRandom(count)));
+		long tables = measure(() -> buildTables(profiles, new SplittableRandom(count)));
+		long estimate = buildTables(profiles, new SplittableRandom(count)).stream()
+							.mapToLong(ResourceTable::getFootprint).sum();
+
+		out.println(String.format(Locale.ENGLISH, "Inventories %d, resources %d", count, resources));
+		out.println("Layout    |  Heap (MB) | Bytes/inventory");
+		report(out, "Maps", maps, count);
+		report(out, "Table", tables, count);
+		report(out, "Estimate", estimate, count);
+		out.println(String.format(Locale.ENGLISH, "Table uses %.1f%% of the map heap",
+						(100D * tables) / maps));
+	}
+
+	private static Profile nextProfile(SplittableRandom rnd) {
+		int kind = rnd.nextInt(100);
+		if (kind < 60) {
+			// EVA suits and gas canisters
+			return new Profile(1 + rnd.nextInt(3), 0, 0);
+		}
+		if (kind < 90) {
+			// Bags, barrels and specimen boxes
+			return new Profile(0, 1 + rnd.nextInt(2), 0);
+		}
+		// Vehicles and robots
+		return new Profile(4 + rnd.nextInt(8), 10 + rnd.nextInt(30), 10 + rnd.nextInt(60));
+	}
+
+	private static List<MapLayout> buildMaps(List<Profile> profiles, SplittableRandom rnd) {
+		var result = new ArrayList<MapLayout>(profiles.size());
+		for (var p : profiles) {
+			var m = new MapLayout();
+			for (int i = 0; i < p.amounts(); i++) {
+				var s = new MapLayout.AmountStored();
+				s.capacity = 100;
+				s.storedAmount = rnd.nextDouble(100);
+				m.specificAmountStorage.put(amountId(rnd), s);
+			}
+			for (int i = 0; i < p.stock(); i++) {
+				m.stockAmountStorage.put(amountId(rnd), rnd.nextDouble(100));
+			}
+			for (int i = 0; i < p.items(); i++) {
+				var s = new MapLayout.ItemStored();
+				s.quantity = 1 + rnd.nextInt(20);
+				s.massPerItem = 1;
+				s.totalMass = s.quantity;
+				m.itemStorage.put(itemId(rnd), s);
+			}
+			result.add(m);
+		}
+		return result;
+	}
+
+	private static List<ResourceTable> buildTables(List<Profile> profiles, SplittableRandom rnd) {
+		var result = new ArrayList<ResourceTable>(profiles.size());
+		for (var p : profiles) {
+			var t = new ResourceTable();
+			for (int i = 0; i < p.amounts(); i++) {
+				int slot = t.add(amountId(rnd));
+				t.mark(slot, ResourceTable.SPECIFIC);
+				t.setCapacity(slot, 100);
+				t.setSpecific(slot, rnd.nextDouble(100));
+			}
+			for (int i = 0; i < p.stock(); i++) {
+				int slot = t.add(amountId(rnd));
+				t.mark(slot, ResourceTable.STOCK);
+				t.setStock(slot, rnd.nextDouble(100));
+			}
+			for (int i = 0; i < p.items(); i++) {
+				int slot = t.add(itemId(rnd));
+				t.mark(slot, ResourceTable.ITEM);
+				t.setQuantity(slot, 1 + rnd.nextInt(20));
+				t.setMassPerItem(slot, 1);
+			}
+			result.add(t);
+		}
+		return result;
+	}
+
+	private static int amountId(SplittableRandom rnd) {
+		return 1 + rnd.nextInt(AMOUNT_TYPES);
+	}
+
+	private static int itemId(SplittableRandom rnd) {
+		return FIRST_ITEM_ID + rnd.nextInt(ITEM_TYPES);
+	}
+
+	/**
+	 * Measures the heap retained by the result of a builder.
+	 */
+	private static long measure(Supplier<List<?>> builder) {
+		long before = usedHeap();
+		var retained = builder.get();
+		long after = usedHeap();
+		if (retained.isEmpty()) {
+			return 0;
+		}
+		return after - before;
+	}
+
+	private static long usedHeap() {
+		var rt = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	private static void report(PrintStream out, String name, long bytes, int count) {
+		out.println(String.format(Locale.ENGLISH, "%-9s | %10.2f | %15.1f",
+						name, bytes / (1024D * 1024D), (double) bytes / count));
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Mars Simulation Project
+ * RoutePlannerBenchmark.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.tools.perf;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.map.route.RoutePlanner;
+import com.mars_sim.core.map.route.SlopeCostGrid;
+
+/**
+ * Command line utility that times the {@link RoutePlanner} over synthetic ridged terrain.
+ * Random pairs of locations a set distance apart are planned once with an empty grid and
+ * then again to show the cost of a route that is already known.
+ * Usage: RoutePlannerBenchmark [routes] [distance km]
+ */
+public final class RoutePlannerBenchmark {
+
+	private static final int DEFAULT_ROUTES = 200;
+	private static final double DEFAULT_DISTANCE = 1000D;
+
+	private RoutePlannerBenchmark() {
+		// Utility class.
+	}
+
+	public static void main(String[] args) {
+		int routes = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUTES);
+		double distance = (args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_DISTANCE);
+		run(routes, distance, System.out);
+	}
+
+	/**
+	 * Terrain of rolling hills with steep ridges where the waves meet.
+	 */
+	private static void terrain(double[] phi, double[] theta, short[] result) {
+		for (int i = 0; i < phi.length; i++) {
+			double h = (Math.sin(phi[i] * 37) * Math.cos(theta[i] * 23)) + (0.5 * Math.sin(theta[i] * 91));
+			result[i] = (short) (h > 1.1 ? 6000 : h * 1500);
+		}
+	}
+
+	/**
+	 * Plans the routes and reports the timings.
+	 *
+	 * @param routes Number of routes
+	 * @param distance Straight line distance of each route in km
+	 * @param out Destination of the report
+	 */
+	static void run(int routes, double distance, PrintStream out) {
+		var rnd = new SplittableRandom(routes);
+		Coordinates[] starts = new Coordinates[routes];
+		Coordinates[] ends = new Coordinates[routes];
+		double angle = distance / Coordinates.MARS_RADIUS_KM;
+		for (int i = 0; i < routes; i++) {
+			double phi = rnd.nextDouble(0.5, Math.PI - 0.5);
+			double theta = rnd.nextDouble(0, Math.PI * 2);
+			double bearing = rnd.nextDouble(0, Math.PI * 2);
+			starts[i] = new Coordinates(phi, theta);
+			ends[i] = new Coordinates(Math.clamp(phi + (angle * Math.cos(bearing)), 0.1, Math.PI - 0.1),
+							theta + (angle * Math.sin(bearing) / Math.sin(phi)));
+		}
+
+		var grid = new SlopeCostGrid(RoutePlannerBenchmark::terrain);
+		var planner = new RoutePlanner(grid);
+
+		long start = System.nanoTime();
+		int blocked = 0;
+		double extra = 0;
+		double climb = 0;
+		for (int i = 0; i < routes; i++) {
+			var route = planner.plan(starts[i], ends[i]);
+			if (route.direct()) {
+				blocked++;
+			}
+			else {
+				extra += route.distance() / starts[i].getDistance(ends[i]);
+				climb += route.ascent();
+			}
+		}
+		double cold = (System.nanoTime() - start) / 1_000_000D / routes;
+
+		start = System.nanoTime();
+		for (int i = 0; i < routes; i++) {
+			planner.plan(starts[i], ends[i]);
+		}
+		double warm = (System.nanoTime() - start) / 1_000_000D / routes;
+
+		int found = Math.max(1, routes - blocked);
+		out.println(String.format(Locale.ENGLISH, "%d routes of %.0f km, %d tiles loaded, %d blocked",
+						routes, distance, grid.getLoadedTiles(), blocked));
+		out.println(String.format(Locale.ENGLISH, "Search %.2f ms, known %.4f ms, detour %.1f%%, climb %.2f km",
+						cold, warm, ((extra / found) - 1) * 100, climb / found));
+	}
+}
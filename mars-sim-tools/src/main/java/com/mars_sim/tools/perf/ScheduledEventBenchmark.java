@@ -0,0 +1,219 @@
+/*
+ * Mars Simulation Project
+ * ScheduledEventBenchmark.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.tools.perf;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import com.mars_sim.core.SimulationConfig;
+import com.mars_sim.core.events.ScheduledEventHandler;
+import com.mars_sim.core.events.ScheduledEventManager;
+import com.mars_sim.core.events.ScheduledEventManager.ScheduledEvent;
+import com.mars_sim.core.time.ClockPulse;
+import com.mars_sim.core.time.MarsTime;
+import com.mars_sim.core.time.MasterClock;
+
+/**
+ * Command line utility that compares the timing wheel of {@link ScheduledEventManager}
+ * against the original sorted list. Each run schedules events over a few sols, cancels
+ * and reschedules a tenth of them and then advances the clock in small pulses until all
+ * the one off events have run.
+ * Usage: ScheduledEventBenchmark [event counts...]
+ */
+public final class ScheduledEventBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {1_000, 10_000, 100_000};
+	/** The sorted list is quadratic to fill so is not run on the large sets. */
+	private static final int LEGACY_LIMIT = 20_000;
+	private static final int HORIZON = 5_000;
+	private static final double PULSE = 0.5D;
+	private static final int REPEAT = 250;
+
+	private static final class Handler implements ScheduledEventHandler {
+		private static final long serialVersionUID = 1L;
+
+		private final int repeat;
+		private int counter;
+
+		Handler(int repeat) {
+			this.repeat = repeat;
+		}
+
+		@Override
+		public String getEventDescription() {
+			return "Benchmark";
+		}
+
+		@Override
+		public int execute(MarsTime now) {
+			counter++;
+			return repeat;
+		}
+	}
+
+	/**
+	 * The original structure of ScheduledEventManager; a list sorted on every add.
+	 */
+	private static final class SortedList {
+		private record Event(MarsTime when, ScheduledEventHandler handler) implements Comparable<Event> {
+			@Override
+			public int compareTo(Event o) {
+				return Double.compare(when.getTotalMillisols(), o.when.getTotalMillisols());
+			}
+		}
+
+		private final List<Event> eventQueue = new ArrayList<>();
+
+		void addEvent(MarsTime when, ScheduledEventHandler handler) {
+			eventQueue.add(new Event(when, handler));
+			Collections.sort(eventQueue);
+		}
+
+		void removeEvent(ScheduledEventHandler handler) {
+			for (Event event : eventQueue) {
+				if (event.handler.equals(handler)) {
+					eventQueue.remove(event);
+					return;
+				}
+			}
+		}
+
+		void timePassing(MarsTime currentTime) {
+			while (!eventQueue.isEmpty()
+					&& eventQueue.get(0).when.getTotalMillisols() <= currentTime.getTotalMillisols()) {
+				Event next = eventQueue.remove(0);
+				int repeatInterval = next.handler.execute(currentTime);
+				if (repeatInterval > 0) {
+					addEvent(next.when.addTime(repeatInterval), next.handler);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A common view of the two structures.
+	 */
+	private interface Queue {
+		void add(int idx, MarsTime when, Handler h);
+		void cancel(int idx, Handler h);
+		void pulse(ClockPulse pulse);
+	}
+
+	private ScheduledEventBenchmark() {
+		// Utility class.
+	}
+
+	public static void main(String[] args) {
+		int[] sizes = (args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+										: DEFAULT_SIZES);
+		var clock = new MasterClock(SimulationConfig.loadConfig(), 0, null);
+		run(sizes, clock, System.out);
+	}
+
+	/**
+	 * Runs the benchmark for each event count.
+	 *
+	 * @param sizes Number of events to schedule
+	 * @param clock Clock that is not running
+	 * @param out Destination of the report
+	 */
+	static void run(int[] sizes, MasterClock clock, PrintStream out) {
+		out.println("  Events | Queue  | Add us/op | Cancel us/op | Pulse us/op | Executed");
+		for (int size : sizes) {
+			if (size <= LEGACY_LIMIT) {
+				var list = new SortedList();
+				report(out, size, "Sorted", measure(size, clock, new Queue() {
+					@Override
+					public void add(int idx, MarsTime when, Handler h) {
+						list.addEvent(when, h);
+					}
+
+					@Override
+					public void cancel(int idx, Handler h) {
+						list.removeEvent(h);
+					}
+
+					@Override
+					public void pulse(ClockPulse pulse) {
+						list.timePassing(pulse.getMarsTime());
+					}
+				}));
+			}
+
+			var wheel = new ScheduledEventManager(clock);
+			var handles = new ScheduledEvent[size];
+			report(out, size, "Wheel", measure(size, clock, new Queue() {
+				@Override
+				public void add(int idx, MarsTime when, Handler h) {
+					handles[idx] = wheel.addEvent(when, h);
+				}
+
+				@Override
+				public void cancel(int idx, Handler h) {
+					wheel.removeEvent(handles[idx]);
+				}
+
+				@Override
+				public void pulse(ClockPulse pulse) {
+					wheel.timePassing(pulse);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Runs the scenario and returns [add us/op, cancel us/op, pulse us/op, executions].
+	 */
+	private static double[] measure(int size, MasterClock clock, Queue queue) {
+		var rnd = new SplittableRandom(size);
+		MarsTime start = clock.getMarsTime();
+		var handlers = new Handler[size];
+		var times = new MarsTime[size];
+		for (int i = 0; i < size; i++) {
+			handlers[i] = new Handler(i % 10 == 0 ? REPEAT : 0);
+			times[i] = start.addTime(1D + rnd.nextDouble(HORIZON));
+		}
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < size; i++) {
+			queue.add(i, times[i], handlers[i]);
+		}
+		double add = (System.nanoTime() - begin) / 1000D / size;
+
+		int cancels = size / 10;
+		int[] picks = rnd.ints(cancels, 0, size).distinct().toArray();
+		begin = System.nanoTime();
+		for (int i : picks) {
+			queue.cancel(i, handlers[i]);
+			queue.add(i, start.addTime(1D + rnd.nextDouble(HORIZON)), handlers[i]);
+		}
+		double cancel = (System.nanoTime() - begin) / 1000D / Math.max(1, picks.length);
+
+		int pulses = (int) (HORIZON / PULSE) + 2;
+		begin = System.nanoTime();
+		for (int p = 1; p <= pulses; p++) {
+			queue.pulse(new ClockPulse(p, PULSE, start.addTime(p * PULSE), clock, false, false, false, false));
+		}
+		double pulse = (System.nanoTime() - begin) / 1000D / pulses;
+
+		long executed = 0;
+		for (Handler h : handlers) {
+			executed += h.counter;
+		}
+		return new double[] {add, cancel, pulse, executed};
+	}
+
+	private static void report(PrintStream out, int size, String name, double[] result) {
+		out.println(String.format(Locale.ENGLISH, "%8d | %-6s | %9.3f | %12.3f | %11.3f | %8d",
+						size, name, result[0], result[1], result[2], (long) result[3]));
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Mars Simulation Project
+ * SurfaceManagerBenchmark.java
+ * @date 2026-10-16
+ * @author Barry Evans
+ */
+package com.mars_sim.tools.perf;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+import com.mars_sim.core.map.location.Coordinates;
+import com.mars_sim.core.map.location.SurfaceManager;
+import com.mars_sim.core.map.location.SurfacePOI;
+
+/**
+ * Command line utility that compares the spatial index of {@link SurfaceManager} against
+ * the original 6 latitude slice structure for exact point and radius lookups.
+ * Usage: SurfaceManagerBenchmark [feature counts...]
+ */
+public final class SurfaceManagerBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {10_000, 100_000, 1_000_000};
+	private static final int LOOKUPS = 20_000;
+	private static final int RADIUS_QUERIES = 2_000;
+	/** Query radius of roughly 100 km. */
+	private static final double RADIUS = 100D / Coordinates.MARS_RADIUS_KM;
+
+	private record Feature(Coordinates location) implements SurfacePOI {
+		@Override
+		public Coordinates getCoordinates() {
+			return location;
+		}
+
+		@Override
+		public String getName() {
+			return null;
+		}
+	}
+
+	/**
+	 * The original structure of SurfaceManager with features in 6 latitude slices.
+	 */
+	private static final class LatitudeSlices {
+		private static final int LATITUDE_SLICES = 6;
+		private static final double LATITUDE_RANGE = Math.PI/LATITUDE_SLICES;
+
+		private final List<List<Feature>> slices = new ArrayList<>();
+
+		LatitudeSlices() {
+			for (int i = 0; i < LATITUDE_SLICES; i++) {
+				slices.add(new ArrayList<>());
+			}
+		}
+
+		void addFeature(Feature f) {
+			slices.get(getSlice(f.getCoordinates().getPhi())).add(f);
+		}
+
+		private int getSlice(double phi) {
+			return Math.clamp((int)(phi/LATITUDE_RANGE), 0, LATITUDE_SLICES - 1);
+		}
+
+		Feature getFeature(Coordinates locn) {
+			return slices.get(getSlice(locn.getPhi())).stream()
+					.filter(c -> c.getCoordinates().equals(locn))
+					.findFirst().orElse(null);
+		}
+
+		List<Feature> getFeatures(Coordinates center, double arcAngle) {
+			var top = getSlice(center.getPhi() + arcAngle);
+			var bottom = getSlice(center.getPhi() - arcAngle);
+			List<Feature> result = new ArrayList<>();
+			for(int i = bottom; i <= top; i++) {
+				result.addAll(slices.get(i).stream()
+						.filter(c -> center.getAngle(c.getCoordinates()) <= arcAngle)
+						.toList());
+			}
+			return result;
+		}
+	}
+
+	private SurfaceManagerBenchmark() {
+		// Utility class.
+	}
+
+	public static void main(String[] args) {
+		int[] sizes = (args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+										: DEFAULT_SIZES);
+		run(sizes, System.out);
+	}
+
+	/**
+	 * Runs the benchmark for each feature count.
+	 *
+	 * @param sizes Number of features to load
+	 * @param out Destination of the report
+	 */
+	static void run(int[] sizes, PrintStream out) {
+		out.println("Features | Index  | Lookup us/op | Radius us/op | Avg found");
+		for (int size : sizes) {
+			var rnd = new SplittableRandom(size);
+			var features = new ArrayList<Feature>(size);
+			for (int i = 0; i < size; i++) {
+				features.add(new Feature(randomLocation(rnd)));
+			}
+			var centers = new Coordinates[RADIUS_QUERIES];
+			Arrays.setAll(centers, i -> randomLocation(rnd));
+
+			var slices = new LatitudeSlices();
+			var grid = new SurfaceManager<Feature>();
+			features.forEach(slices::addFeature);
+			features.forEach(grid::addFeature);
+
+			// Lookup existing features in a random order
+			var lookups = new Coordinates[LOOKUPS];
+			Arrays.setAll(lookups, i -> features.get(rnd.nextInt(size)).location());
+
+			// Exact lookups on the slices are linear so limit them on the large sets
+			int sliceLookups = Math.min(LOOKUPS, 20_000_000 / size);
+			report(out, size, "Slices",
+					time(sliceLookups, i -> slices.getFeature(lookups[i]) != null ? 1 : 0),
+					time(RADIUS_QUERIES, i -> slices.getFeatures(centers[i], RADIUS).size()));
+			report(out, size, "Grid",
+					time(LOOKUPS, i -> grid.getFeature(lookups[i]) != null ? 1 : 0),
+					time(RADIUS_QUERIES, i -> grid.getFeatures(centers[i], RADIUS).size()));
+		}
+	}
+
+	/**
+	 * Uniform random location on the sphere.
+	 */
+	private static Coordinates randomLocation(SplittableRandom rnd) {
+		return new Coordinates(Math.acos(1D - 2D * rnd.nextDouble()), rnd.nextDouble(2D * Math.PI));
+	}
+
+	/**
+	 * Times an operation and returns [microseconds per op, average result].
+	 */
+	private static double[] time(int count, IntUnaryOperator op) {
+		// Warm up
+		for (int i = 0; i < Math.min(count, 200); i++) {
+			op.applyAsInt(i);
+		}
+		long total = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			total += op.applyAsInt(i);
+		}
+		long elapsed = System.nanoTime() - start;
+		return new double[] {(elapsed / 1000D) / count, (double) total / count};
+	}
+
+	private static void report(PrintStream out, int size, String name, double[] lookup, double[] radius) {
+		out.println(String.format(Locale.ENGLISH, "%8d | %-6s | %12.3f | %12.3f | %9.1f",
+						size, name, lookup[0], radius[0], radius[1]));
+	}
+}
@@ -28,6 +28,7 @@ import javax.swing.SwingConstants;
 import com.mars_sim.core.GameManager;
 import com.mars_sim.core.Simulation;
 import com.mars_sim.core.time.ClockListener;
+import com.mars_sim.core.time.ClockPhase;
 import com.mars_sim.core.time.ClockPulse;
 import com.mars_sim.core.time.ClockPulseListener;
 import com.mars_sim.core.time.CompressedClockListener;
@@ -394,6 +395,12 @@ public class MainWindow extends ContentManager implements ClockListener, ClockPu
 		}
 	}
 
+	@Override
+	public ClockPhase getClockPhase() {
+		// Show the pulse once the simulation has finished with it
+		return ClockPhase.DISPLAY;
+	}
+
 	/**
 	 * Changes the pause status.
 	 *
@@ -23,6 +23,7 @@ import javax.swing.SwingConstants;
 import com.mars_sim.core.Entity;
 import com.mars_sim.core.Simulation;
 import com.mars_sim.core.logging.SimLogger;
+import com.mars_sim.core.time.ClockPhase;
 import com.mars_sim.core.time.ClockPulse;
 import com.mars_sim.core.time.ClockPulseListener;
 import com.mars_sim.core.time.CompressedClockListener;
@@ -324,6 +325,12 @@ public class DockingWindow extends ContentManager
         toolToolBar.incrementClocks(pulse.getMasterClock());
 	}
 
+	@Override
+	public ClockPhase getClockPhase() {
+		// Show the pulse once the simulation has finished with it
+		return ClockPhase.DISPLAY;
+	}
+
     /**
      * Factory method to create and show a DockingWindow for the given simulation.
      * @param sim Simulation running.
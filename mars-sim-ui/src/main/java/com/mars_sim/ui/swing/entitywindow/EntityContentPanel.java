@@ -19,6 +19,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
 
+import com.mars_sim.core.DeferredEntityListener;
 import com.mars_sim.core.Entity;
 import com.mars_sim.core.EntityEvent;
 import com.mars_sim.core.EntityListener;
@@ -42,7 +43,7 @@ import com.mars_sim.ui.swing.utils.SwingHelper;
  */
 @SuppressWarnings("serial")
 public class EntityContentPanel<T extends Entity> extends ContentPanel
-    implements ConfigurableWindow, EntityListener {
+    implements ConfigurableWindow, DeferredEntityListener {
 
     static final String ENTITY_ID = "entity";
 	private static final String SELECTED_TAB = "selected_tab";
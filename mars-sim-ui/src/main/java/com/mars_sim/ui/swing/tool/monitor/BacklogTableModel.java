@@ -11,9 +11,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import com.mars_sim.core.DeferredEntityListener;
 import com.mars_sim.core.Entity;
 import com.mars_sim.core.EntityEvent;
-import com.mars_sim.core.EntityListener;
 import com.mars_sim.core.person.ai.task.util.SettlementTask;
 import com.mars_sim.core.person.ai.task.util.SettlementTaskManager;
 import com.mars_sim.core.structure.Settlement;
@@ -30,7 +30,7 @@ import com.mars_sim.ui.swing.utils.SwingHelper;
  */
 @SuppressWarnings("serial")
 public class BacklogTableModel extends AbstractMonitorModel
-					implements EntityListener, EntityModel {
+					implements DeferredEntityListener, EntityModel {
 	
 	private static final ColumnSpec[] COLUMNS;
 
@@ -7,29 +7,49 @@
 package com.mars_sim.ui.swing.tool.monitor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.SwingUtilities;
 
 import com.mars_sim.ui.swing.components.ColumnSpec;
+import com.mars_sim.ui.swing.utils.model.CellUpdateBatcher;
 
 /**
  * This class provides a table model implementation that caches values for specific columns to
  * reduce the computational effort to calculate the value from the source item.
  * The source value of item properties are calculated in the getEntityValue method that
  * is implemented by subclasses.
+ * Value changes are batched and fired to the table at most once per frame; cached values
+ * of rows that are not visible are marked stale and recalculated in the background when
+ * the row is next displayed.
  */
 @SuppressWarnings("serial")
 public abstract class CachingTableModel<T> extends AbstractMonitorModel {
 
 
+    // Recalculates the stale values of rows that come into view
+    private static final ExecutorService REFRESHER = Executors.newSingleThreadExecutor(r -> {
+        var t = new Thread(r, "Table-Refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
     private List<T> items;
+    private Map<T, Integer> rowIndexes = new ConcurrentHashMap<>();
+    private CellUpdateBatcher updates;
+    // The caches are used by the Swing thread and the entity threads so guarded by cacheLock
+    private final Object cacheLock = new Object();
     private Map<T ,Map<Integer, Object>> rowCache;
+    private Map<T, BitSet> staleCells = new HashMap<>();
     private Set<Integer> cachedColumns;
     private boolean fireEnabled;
 
@@ -44,6 +64,7 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
 
         this.items = new ArrayList<>();
         this.cachedColumns = new HashSet<>();
+        this.updates = new CellUpdateBatcher(this);
     }
  
     /**
@@ -64,7 +85,10 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
     }
 
     protected void resetCache() {
-        rowCache = new HashMap<>();   
+        synchronized (cacheLock) {
+            rowCache = new HashMap<>();
+            staleCells.clear();
+        }
     }
 
     /**
@@ -84,6 +108,7 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
 		}
 
         resetCache();
+        updates.clear();
 		for(T newUnit : newItems) {
 			addItem(newUnit);
 		}
@@ -103,7 +128,7 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
      * @return 
      */
     protected boolean addItem(T newItem) {
-        boolean add = !items.contains(newItem);
+        boolean add = !rowIndexes.containsKey(newItem);
         if (add) {
             if (fireEnabled) {
                 // Do async
@@ -123,14 +148,17 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
      */
     private void addRow(T newItem) {
         items.add(newItem);
+        int idx = items.size() - 1;
+        rowIndexes.put(newItem, idx);
 
-        if (rowCache != null) {
-            // Add the data row now
-            rowCache.put(newItem, new HashMap<>());
+        synchronized (cacheLock) {
+            if (rowCache != null) {
+                // Add the data row now
+                rowCache.put(newItem, new HashMap<>());
+            }
         }
 
         if (fireEnabled) {
-            int idx = items.indexOf(newItem);
             fireTableRowsInserted(idx, idx);
         }
     }
@@ -139,8 +167,8 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
      * Removes a previously added item from the model.
      */
     protected void removeItem(T oldItem) {
-        int idx = items.indexOf(oldItem);
-        if (idx < 0) {
+        Integer idx = rowIndexes.get(oldItem);
+        if (idx == null) {
             return;
         }
 
@@ -160,8 +188,17 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
      */
     private void removeRow(T oldItem, int idx) {
         items.remove(oldItem);
-        if (rowCache != null) {
-            rowCache.remove(oldItem);
+        rowIndexes.remove(oldItem);
+
+        // Later rows have moved up
+        for(int i = idx; i < items.size(); i++) {
+            rowIndexes.put(items.get(i), i);
+        }
+        synchronized (cacheLock) {
+            if (rowCache != null) {
+                rowCache.remove(oldItem);
+            }
+            staleCells.remove(oldItem);
         }
 
         if (fireEnabled) {
@@ -241,15 +278,75 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
     }
 
     private Object getCacheValue(T entity, int columnIndex) {
-        Map<Integer, Object> rowValues = rowCache.get(entity);
-        if (rowValues != null) {
-            return rowValues.get(columnIndex);
+        synchronized (cacheLock) {
+            Map<Integer, Object> rowValues = rowCache.get(entity);
+            if (rowValues != null) {
+                return rowValues.get(columnIndex);
+            }
+            return null;
         }
-        return null;
     }
 
     private void setCacheValue(T entity, int columnIndex, Object value) {
-        rowCache.computeIfAbsent(entity, k -> new HashMap<Integer, Object>()).put(columnIndex, value);
+        synchronized (cacheLock) {
+            rowCache.computeIfAbsent(entity, k -> new HashMap<Integer, Object>()).put(columnIndex, value);
+            var stale = staleCells.get(entity);
+            if (stale != null) {
+                stale.clear(columnIndex);
+                if (stale.isEmpty()) {
+                    staleCells.remove(entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a cached value as out of date. It is kept for display until it is recalculated.
+     */
+    private void markStale(T entity, int columnIndex) {
+        synchronized (cacheLock) {
+            staleCells.computeIfAbsent(entity, k -> new BitSet()).set(columnIndex);
+        }
+    }
+
+    /**
+     * Sets the model rows that are visible in the table. Any stale values of these rows
+     * are recalculated in the background.
+     * 
+     * @param rows Visible model rows; null means all rows.
+     */
+    @Override
+    public void setVisibleRows(BitSet rows) {
+        updates.setVisibleRows(rows);
+
+        Map<T, BitSet> due = new HashMap<>();
+        synchronized (cacheLock) {
+            var it = staleCells.entrySet().iterator();
+            while (it.hasNext()) {
+                var e = it.next();
+                Integer row = rowIndexes.get(e.getKey());
+                if ((row != null) && updates.isVisible(row)) {
+                    due.put(e.getKey(), e.getValue());
+                    it.remove();
+                }
+            }
+        }
+        if (!due.isEmpty()) {
+            REFRESHER.execute(() -> due.forEach(this::refreshCells));
+        }
+    }
+
+    /**
+     * Recalculates the cached values of some columns of a row and fires the change.
+     */
+    private void refreshCells(T entity, BitSet columns) {
+        for (int col = columns.nextSetBit(0); col >= 0; col = columns.nextSetBit(col + 1)) {
+            setCacheValue(entity, col, getItemValue(entity, col));
+        }
+        Integer rowIndex = rowIndexes.get(entity);
+        if (rowIndex != null) {
+            updates.cellsChanged(rowIndex, columns.nextSetBit(0), columns.length() - 1);
+        }
     }
 
     /**
@@ -266,33 +363,38 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
 	
     /**
      * Updates a range of column values that have been changed. 
-     * This will recalculate any cached columns if needed
-     * and always fire a model change event asynchronously.
+     * This will recalculate any cached columns of visible rows; hidden rows
+     * mark the cached value as stale. The change is fired with the next frame.
      * 
      * @param entity
      * @param firstCol
      * @param lastCol
      */
 	protected void entityValueUpdated(T entity, int firstCol, int lastCol) {
-        int rowIndex = items.indexOf(entity);
-        if (rowIndex < 0) {
+        Integer rowIndex = rowIndexes.get(entity);
+        if (rowIndex == null) {
             return;
         }
 
+        boolean visible = updates.isVisible(rowIndex);
         for(int i = firstCol; i<= lastCol; i++) {
             if (cachedColumns.contains(i)) {
-                // Recalculate cached value in this Thread to avoid problem
-                // with calculating derived values in the UI Thread
-                Object newValue = getItemValue(entity, i);
-                Object cachedValue = getCacheValue(entity, i);
-                if ((cachedValue == null) || !cachedValue.equals(newValue)) {
-                    setCacheValue(entity, i, getItemValue(entity, i));
+                if (visible) {
+                    // Recalculate cached value in this Thread to avoid problem
+                    // with calculating derived values in the UI Thread
+                    Object newValue = getItemValue(entity, i);
+                    Object cachedValue = getCacheValue(entity, i);
+                    if ((cachedValue == null) || !cachedValue.equals(newValue)) {
+                        setCacheValue(entity, i, newValue);
+                    }
+                }
+                else {
+                    markStale(entity, i);
                 }
             }
-
-            // Fire the cell update in the background thread
-            SwingUtilities.invokeLater(new TableCellUpdater(rowIndex, i));
         }
+
+        updates.cellsChanged(rowIndex, firstCol, lastCol);
     }
 
     /**
@@ -300,22 +402,4 @@ public abstract class CachingTableModel<T> extends AbstractMonitorModel {
      * may involve expensive calculations.
      */
     protected abstract Object getItemValue(T entity, int column);
-
-    private class TableCellUpdater implements Runnable {
-
-        private int colIndex;
-        private int rowIndex;
-
-        public TableCellUpdater(int rowIndex, int colIndex) {
-            this.rowIndex = rowIndex;
-            this.colIndex = colIndex;
-        }
-
-        @Override
-        public void run() {
-        	if (rowIndex >= 0 && rowIndex < getRowCount()) {
-                fireTableCellUpdated(rowIndex, colIndex);
-            }
-        }
-    }
 }
@@ -12,7 +12,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
-import com.mars_sim.core.EntityListener;
+import com.mars_sim.core.DeferredEntityListener;
 import com.mars_sim.core.structure.Settlement;
 import com.mars_sim.ui.swing.components.ColumnSpec;
 
@@ -23,7 +23,7 @@ import com.mars_sim.ui.swing.components.ColumnSpec;
  */
 @SuppressWarnings("serial")
 abstract class CategoryTableModel<T> extends CachingTableModel<CategoryKey<T>>
-            implements EntityListener {
+            implements DeferredEntityListener {
 
 	private boolean monitorSettlement = false;
     private List<T> categories;
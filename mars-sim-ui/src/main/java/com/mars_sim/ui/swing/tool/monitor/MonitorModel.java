@@ -6,6 +6,7 @@
  */
 package com.mars_sim.ui.swing.tool.monitor;
 
+import java.util.BitSet;
 import java.util.Set;
 
 import com.mars_sim.core.structure.Settlement;
@@ -51,6 +52,15 @@ interface MonitorModel extends EnhancedTableModel, StatefulComponent {
 	 */
     public void enableListeners(boolean activate);
 
+	/**
+	 * Sets the model rows that are visible in the table. Models can use this to avoid
+	 * recalculating values for hidden rows. Default implementation ignores it.
+	 * 
+	 * @param rows Visible model rows; null means all rows.
+	 */
+	public default void setVisibleRows(BitSet rows) {
+	}
+
 	/**
 	 * Gets the index of the Settlement column if defined. This is a special column that can be visible/hidden according
 	 * to the selection.
@@ -7,9 +7,11 @@
 package com.mars_sim.ui.swing.tool.monitor;
 
 import java.awt.BorderLayout;
+import java.awt.Point;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -96,6 +98,10 @@ public class TableTab extends MonitorTab {
 
 		add(scroller, BorderLayout.CENTER);
 
+		// Tell the model which rows are on screen
+		scroller.getViewport().addChangeListener(e -> updateVisibleRows());
+		sorter.addRowSorterListener(e -> updateVisibleRows());
+
 		setName(model.getName());
 		// Use column resizer
 		SwingHelper.resizeTableColumns(table);
@@ -105,6 +111,31 @@ public class TableTab extends MonitorTab {
 		return table;
 	}
 
+	/**
+	 * Passes the model rows currently visible in the viewport to the model.
+	 */
+	private void updateVisibleRows() {
+		var view = table.getVisibleRect();
+		var rows = new BitSet();
+		try {
+			int first = table.rowAtPoint(view.getLocation());
+			if (first >= 0) {
+				int last = table.rowAtPoint(new Point(view.x, view.y + view.height - 1));
+				if (last < 0) {
+					last = table.getRowCount() - 1;
+				}
+				for (int r = first; r <= last; r++) {
+					rows.set(table.convertRowIndexToModel(r));
+				}
+			}
+		}
+		catch (IndexOutOfBoundsException e) {
+			// Rows are changing so treat them all as visible
+			rows = null;
+		}
+		getModel().setVisibleRows(rows);
+	}
+
 	/**
 	 * Display property window anchored to a main desktop.
 	 *
@@ -7,17 +7,20 @@
 package com.mars_sim.ui.swing.utils.model;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import javax.swing.table.AbstractTableModel;
 
+import com.mars_sim.core.DeferredEntityListener;
 import com.mars_sim.core.Entity;
 import com.mars_sim.core.EntityEvent;
 import com.mars_sim.core.EntityListener;
@@ -31,11 +34,12 @@ import com.mars_sim.ui.swing.utils.SwingHelper;
 /**
  * A generic table model showing entities. It provides a number of predefined available columns.
  * The subclass defines which columns are to be rendered.
- * The model automatically monitors the entities for changes and updates the table as needed.
+ * The model automatically monitors the entities for changes and updates the table as needed;
+ * changed cells are batched and fired once per frame.
  */
 @SuppressWarnings("serial")
 public abstract class AbstractEntityModel<T extends MonitorableEntity> extends AbstractTableModel
-    implements EnhancedTableModel, EntityListener, EntityModel, StatefulComponent {
+    implements EnhancedTableModel, DeferredEntityListener, EntityModel, StatefulComponent {
 
 	// Used to associate column index with column spec and event types to listen for
     public record EntityColumnSpec(ColumnSpec column, Set<String> eventTypes) {}
@@ -43,6 +47,8 @@ public abstract class AbstractEntityModel<T extends MonitorableEntity> extends A
     private static Logger logger = Logger.getLogger(AbstractEntityModel.class.getName());
 
 	private List<T> entities = new ArrayList<>();
+    private Map<T, Integer> rowIndexes = new ConcurrentHashMap<>();
+    private CellUpdateBatcher updates = new CellUpdateBatcher(this);
     private List<ColumnSpec> columns = new ArrayList<>();
     private Map<String, List<Integer>> monitoredEvents = new HashMap<>();
 
@@ -95,6 +101,9 @@ public abstract class AbstractEntityModel<T extends MonitorableEntity> extends A
         if (newEntities.size() != entities.size() || !entities.containsAll(newEntities)) {
             release();
             entities = new ArrayList<>(newEntities);
+            rowIndexes.clear();
+            reindex(0);
+            updates.clear();
             
             // If there are no monitored events, then no need to register as listener
             if (!monitoredEvents.isEmpty()) {
@@ -119,6 +128,7 @@ public abstract class AbstractEntityModel<T extends MonitorableEntity> extends A
             SwingHelper.runInEDT(() -> {
                 entities.add(entity);
                 int index = entities.size() - 1;
+                rowIndexes.put(entity, index);
                 if (!monitoredEvents.isEmpty()) {
                     enableListener(entity, true);
                 }
@@ -141,12 +151,34 @@ public abstract class AbstractEntityModel<T extends MonitorableEntity> extends A
                     return;
                 }
                 entities.remove(index);
+                rowIndexes.remove(entity);
+                reindex(index);
                 enableListener(entity, false);
                 fireTableRowsDeleted(index, index);
             });
         }
     }
 
+    /**
+     * Refreshes the row index of the entities from a starting row onwards.
+     * 
+     * @param from First row that has moved.
+     */
+    private void reindex(int from) {
+        for(int i = from; i < entities.size(); i++) {
+            rowIndexes.put(entities.get(i), i);
+        }
+    }
+
+    /**
+     * Sets the model rows that are visible in the table.
+     * 
+     * @param rows Visible model rows; null means all rows.
+     */
+    public void setVisibleRows(BitSet rows) {
+        updates.setVisibleRows(rows);
+    }
+
     /**
      * When releasing the model, the listeners for each entity are deactivated via #enableListeners(false).
      * Subclasses may override to release any additional resources listerners but should call super.release() to ensure the entity listeners are removed.
@@ -285,19 +317,12 @@ public abstract class AbstractEntityModel<T extends MonitorableEntity> extends A
      */
     @Override
     public void entityUpdate(EntityEvent event) {
-        var source = event.getSource();
-        if (entities.contains(source)) {
-            // Need to check index when update is fired as rows may change
-            var impactedCols = monitoredEvents.get(event.getType());
-            if (impactedCols != null) {
-                // Fire event for each individual column column
-                SwingHelper.runInEDT(() -> {
-                    // Check row is still valid
-                    var row = entities.indexOf(source);
-                    if (row >= 0) {
-                        impactedCols.forEach(col -> fireTableCellUpdated(row, col));
-                    }
-                });
+        var impactedCols = monitoredEvents.get(event.getType());
+        if (impactedCols != null) {
+            // Row is resolved now; the batcher ignores rows that have since gone
+            Integer row = rowIndexes.get(event.getSource());
+            if (row != null) {
+                impactedCols.forEach(col -> updates.cellChanged(row, col));
             }
         }
     }
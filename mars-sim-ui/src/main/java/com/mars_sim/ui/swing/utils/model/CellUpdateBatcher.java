@@ -0,0 +1,160 @@
+/*
+ * Mars Simulation Project
+ * CellUpdateBatcher.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.ui.swing.utils.model;
+
+import java.util.BitSet;
+
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Collects the cells of a table model that have changed and notifies the table at most once
+ * per frame. Cells can be marked from any thread; the pending changes are fired in the
+ * Swing thread as one rows-updated event for each contiguous block of changed rows.
+ * It also holds the model rows that are currently visible so a model can avoid
+ * expensive calculations for rows nobody is looking at.
+ */
+public final class CellUpdateBatcher {
+
+	/** Minimum time between notifications, roughly 25 frames per second. */
+	public static final int FRAME_MILLIS = 40;
+
+	private final AbstractTableModel model;
+	private final Timer timer;
+
+	// Dirty cells are held as row * stride + column
+	private BitSet dirtyCells = new BitSet();
+	private BitSet dirtyRows = new BitSet();
+	private int stride;
+
+	// Null means all rows are visible
+	private volatile BitSet visibleRows;
+
+	/**
+	 * Creates a batcher for a table model.
+	 *
+	 * @param model Model that will fire the table events.
+	 */
+	public CellUpdateBatcher(AbstractTableModel model) {
+		this.model = model;
+		this.timer = new Timer(FRAME_MILLIS, e -> flush());
+		this.timer.setRepeats(false);
+	}
+
+	/**
+	 * Marks a single cell as changed.
+	 *
+	 * @param row Model row index.
+	 * @param col Model column index.
+	 */
+	public void cellChanged(int row, int col) {
+		cellsChanged(row, col, col);
+	}
+
+	/**
+	 * Marks a range of cells in a row as changed.
+	 *
+	 * @param row Model row index.
+	 * @param firstCol First changed column.
+	 * @param lastCol Last changed column (inclusive).
+	 */
+	public void cellsChanged(int row, int firstCol, int lastCol) {
+		if (row < 0) {
+			return;
+		}
+
+		boolean start;
+		synchronized (this) {
+			start = dirtyRows.isEmpty();
+			if (start) {
+				stride = model.getColumnCount();
+			}
+			int base = row * stride;
+			dirtyCells.set(base + firstCol, base + Math.min(lastCol, stride - 1) + 1);
+			dirtyRows.set(row);
+		}
+
+		if (start) {
+			timer.restart();
+		}
+	}
+
+	/**
+	 * Are there any changes waiting to be fired ?
+	 */
+	public synchronized boolean isPending() {
+		return !dirtyRows.isEmpty();
+	}
+
+	/**
+	 * Sets the model rows that are visible in the table.
+	 *
+	 * @param rows Visible model rows; null means every row is visible.
+	 */
+	public void setVisibleRows(BitSet rows) {
+		visibleRows = rows;
+	}
+
+	/**
+	 * Is a model row visible in the table ?
+	 *
+	 * @param row Model row index.
+	 */
+	public boolean isVisible(int row) {
+		var rows = visibleRows;
+		return (rows == null) || rows.get(row);
+	}
+
+	/**
+	 * Fires the pending changes. This must be called in the Swing thread which is
+	 * where the frame timer runs.
+	 */
+	void flush() {
+		BitSet cells;
+		BitSet rows;
+		int cols;
+		synchronized (this) {
+			cells = dirtyCells;
+			rows = dirtyRows;
+			cols = stride;
+			dirtyCells = new BitSet();
+			dirtyRows = new BitSet();
+		}
+
+		// Rows may have been removed since they were marked
+		int rowCount = model.getRowCount();
+		int first = rows.nextSetBit(0);
+		while ((first >= 0) && (first < rowCount)) {
+			int last = Math.min(rows.nextClearBit(first), rowCount) - 1;
+			if (first == last) {
+				int base = first * cols;
+				int col = cells.nextSetBit(base);
+				int next = cells.nextSetBit(col + 1);
+				if ((next < 0) || (next >= base + cols)) {
+					// Only one cell in the block
+					model.fireTableCellUpdated(first, col - base);
+				}
+				else {
+					model.fireTableRowsUpdated(first, last);
+				}
+			}
+			else {
+				model.fireTableRowsUpdated(first, last);
+			}
+			first = rows.nextSetBit(last + 1);
+		}
+	}
+
+	/**
+	 * Stops any pending notification and discards the changes.
+	 */
+	public synchronized void clear() {
+		timer.stop();
+		dirtyCells.clear();
+		dirtyRows.clear();
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Mars Simulation Project
+ * CellUpdateBatcherTest.java
+ * @date 2026-10-17
+ * @author Barry Evans
+ */
+package com.mars_sim.ui.swing.utils.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CellUpdateBatcher class.
+ */
+class CellUpdateBatcherTest {
+
+    @SuppressWarnings("serial")
+    private static class RecordingModel extends AbstractTableModel {
+        private final List<TableModelEvent> events = new ArrayList<>();
+
+        RecordingModel() {
+            addTableModelListener(events::add);
+        }
+
+        @Override
+        public int getRowCount() {
+            return 20;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 5;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return null;
+        }
+    }
+
+    @Test
+    void testContiguousRowsMerged() {
+        var model = new RecordingModel();
+        var batcher = new CellUpdateBatcher(model);
+
+        // Repeated changes to rows 2-4, plus a separate row 8
+        for (int i = 0; i < 10; i++) {
+            batcher.cellChanged(2, 1);
+            batcher.cellChanged(3, 1);
+            batcher.cellsChanged(4, 0, 4);
+        }
+        batcher.cellChanged(8, 3);
+        assertTrue(batcher.isPending(), "Changes pending");
+        assertTrue(model.events.isEmpty(), "Nothing fired before the frame");
+
+        batcher.flush();
+        assertFalse(batcher.isPending(), "Nothing pending after flush");
+        assertEquals(2, model.events.size(), "One event per block");
+
+        var block = model.events.get(0);
+        assertEquals(2, block.getFirstRow(), "Block first row");
+        assertEquals(4, block.getLastRow(), "Block last row");
+        assertEquals(TableModelEvent.ALL_COLUMNS, block.getColumn(), "Block covers the row");
+
+        var cell = model.events.get(1);
+        assertEquals(8, cell.getFirstRow(), "Single cell row");
+        assertEquals(3, cell.getColumn(), "Single cell column");
+    }
+
+    @Test
+    void testRemovedRowsIgnored() {
+        var model = new RecordingModel();
+        var batcher = new CellUpdateBatcher(model);
+
+        batcher.cellChanged(19, 0);
+        batcher.cellChanged(25, 0);
+        batcher.flush();
+
+        assertEquals(1, model.events.size(), "Only rows still present");
+        assertEquals(19, model.events.get(0).getLastRow(), "Last valid row");
+    }
+
+    @Test
+    void testVisibleRows() {
+        var batcher = new CellUpdateBatcher(new RecordingModel());
+        assertTrue(batcher.isVisible(10), "All visible by default");
+
+        var rows = new BitSet();
+        rows.set(3, 6);
+        batcher.setVisibleRows(rows);
+        assertTrue(batcher.isVisible(4), "Row on screen");
+        assertFalse(batcher.isVisible(10), "Row off screen");
+    }
+}